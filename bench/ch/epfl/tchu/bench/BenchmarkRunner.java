@@ -0,0 +1,189 @@
+package ch.epfl.tchu.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * A minimal benchmark harness measuring the average time and the allocated bytes per operation
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ */
+public final class BenchmarkRunner {
+    private static final String CSV_HEADER = "benchmark,ns_per_op,ns_error,bytes_per_op";
+
+    private final Map<String, Supplier<Object>> benchmarks = new LinkedHashMap<>();
+    private int warmupIterations = 3;
+    private int measurementIterations = 5;
+    private long iterationMillis = 500;
+    private Pattern filter = Pattern.compile(".*");
+    private Path csvOutput;
+    private Path baseline;
+
+    // Receives the results of the operations of every iteration, so that the JIT cannot discard them
+    private volatile int sink;
+
+    /**
+     * A benchmark runner configured from the given command-line arguments:
+     * {@code [-wi n] [-i n] [-t millis] [-csv file] [-compare file] [regex]}
+     *
+     * @param args The command-line arguments
+     */
+    public BenchmarkRunner(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi":
+                    warmupIterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-i":
+                    measurementIterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-t":
+                    iterationMillis = Long.parseLong(args[++i]);
+                    break;
+                case "-csv":
+                    csvOutput = Path.of(args[++i]);
+                    break;
+                case "-compare":
+                    baseline = Path.of(args[++i]);
+                    break;
+                default:
+                    filter = Pattern.compile(args[i]);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Registers a benchmark, whose operation returns a value that must not be optimized away
+     *
+     * @param name      The name of the benchmark
+     * @param operation The operation to measure
+     * @return The runner ({@code this})
+     */
+    public BenchmarkRunner add(String name, Supplier<Object> operation) {
+        benchmarks.put(name, operation);
+        return this;
+    }
+
+    /**
+     * Runs every registered benchmark whose name matches the filter, prints the results
+     * and writes them to the CSV output if any
+     */
+    public void run() {
+        Map<String, double[]> baselineResults = baseline == null ? Map.of() : readCsv(baseline);
+        List<String> csvLines = new ArrayList<>(List.of(CSV_HEADER));
+
+        System.out.printf("%-52s %12s %10s %12s%s%n", "Benchmark", "ns/op", "+/- error", "B/op",
+                baseline == null ? "" : String.format("%10s", "vs base"));
+        benchmarks.forEach((name, operation) -> {
+            if (!filter.matcher(name).find())
+                return;
+
+            for (int i = 0; i < warmupIterations; i++)
+                iterate(operation);
+
+            double[] nanosPerOp = new double[measurementIterations];
+            double bytesPerOp = 0;
+            for (int i = 0; i < measurementIterations; i++) {
+                double[] iteration = iterate(operation);
+                nanosPerOp[i] = iteration[0];
+                bytesPerOp += iteration[1] / measurementIterations;
+            }
+
+            double mean = mean(nanosPerOp);
+            double error = standardDeviation(nanosPerOp, mean);
+            String comparison = "";
+            if (baselineResults.containsKey(name))
+                comparison = String.format(Locale.ROOT, "%9.2fx", baselineResults.get(name)[0] / mean);
+
+            System.out.printf(Locale.ROOT, "%-52s %12.1f %10.1f %12.1f%s%n", name, mean, error, bytesPerOp, comparison);
+            csvLines.add(String.format(Locale.ROOT, "%s,%.3f,%.3f,%.3f", name, mean, error, bytesPerOp));
+        });
+
+        if (csvOutput != null) {
+            try {
+                Files.write(csvOutput, csvLines);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    /**
+     * Repeats the operation during one iteration
+     *
+     * @param operation The operation to measure
+     * @return The average nanoseconds and allocated bytes per operation during the iteration
+     */
+    private double[] iterate(Supplier<Object> operation) {
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000;
+        long operations = 0;
+        long startBytes = allocatedBytes();
+        long start = System.nanoTime();
+        long now;
+        // Accumulated locally, a volatile write per operation costing more than some of the operations measured
+        int results = 0;
+        do {
+            for (int i = 0; i < 16; i++)
+                results += System.identityHashCode(operation.get());
+            operations += 16;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long bytes = allocatedBytes() - startBytes;
+        sink = results;
+
+        return new double[]{(double) (now - start) / operations, (double) bytes / operations};
+    }
+
+    private static long allocatedBytes() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static Map<String, double[]> readCsv(Path file) {
+        Map<String, double[]> results = new HashMap<>();
+        try {
+            for (String line : Files.readAllLines(file)) {
+                String[] columns = line.split(",");
+                if (line.equals(CSV_HEADER) || columns.length < 4)
+                    continue;
+                results.put(columns[0], new double[]{Double.parseDouble(columns[1]), Double.parseDouble(columns[3])});
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        return results;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values)
+            sum += value;
+
+        return sum / values.length;
+    }
+
+    private static double standardDeviation(double[] values, double mean) {
+        if (values.length < 2)
+            return 0;
+
+        double sum = 0;
+        for (double value : values)
+            sum += (value - mean) * (value - mean);
+
+        return Math.sqrt(sum / (values.length - 1));
+    }
+}
@@ -0,0 +1,130 @@
+package ch.epfl.tchu.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * Realistic game states of the Swiss map, played deterministically up to a given phase of the game
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ */
+public final class Fixtures {
+    private static final long SEED = 2021;
+    private static final int MAX_TURNS = 1_000;
+    private static final int CLAIM_HAND_SIZE = 6;
+
+    /**
+     * A phase of the game, given by the number of routes claimed by both players
+     */
+    public enum Phase {
+        EARLY(4),
+        MID(18),
+        LATE(34);
+
+        private final int claimedRouteCount;
+
+        Phase(int claimedRouteCount) {
+            this.claimedRouteCount = claimedRouteCount;
+        }
+    }
+
+    private Fixtures() {
+    }
+
+    /**
+     * @return The initial {@link GameState} of the Swiss map, before the players chose their initial tickets
+     */
+    public static GameState initial() {
+        return GameState.initial(SortedBag.of(ChMap.tickets()), new Random(SEED));
+    }
+
+    /**
+     * The game state reached by playing deterministically until the given phase: each player claims the first
+     * unclaimed route they can once they hold enough cards, and draws two cards from the deck otherwise
+     *
+     * @param phase The {@link Phase} of the game
+     * @return The {@link GameState} at the beginning of the current player's turn in the given phase
+     */
+    public static GameState gameState(Phase phase) {
+        Random rng = new Random(SEED);
+        GameState state = GameState.initial(SortedBag.of(ChMap.tickets()), rng);
+        for (PlayerId playerId : PlayerId.ALL) {
+            SortedBag<Ticket> drawn = state.topTickets(Constants.INITIAL_TICKETS_COUNT);
+            state = state.withoutTopTickets(Constants.INITIAL_TICKETS_COUNT)
+                    .withInitiallyChosenTickets(playerId, SortedBag.of(drawn.toList().subList(0, 3)));
+        }
+
+        for (int turn = 0; turn < MAX_TURNS && state.claimedRoutes().size() < phase.claimedRouteCount; turn++) {
+            Route route = state.currentPlayerState().cards().size() >= CLAIM_HAND_SIZE ? claimableRoute(state) : null;
+            if (route != null) {
+                state = state.withClaimedRoute(route, state.currentPlayerState().possibleClaimCards(route).get(0));
+            } else {
+                for (int i = 0; i < 2 && state.canDrawCards(); i++)
+                    state = state.withCardsDeckRecreatedIfNeeded(rng).withBlindlyDrawnCard();
+            }
+            state = state.forNextTurn();
+        }
+
+        return state;
+    }
+
+    /**
+     * The same game state except that the deck was emptied into the discards
+     *
+     * @param state The {@link GameState}
+     * @return The same {@link GameState} with an empty deck and a non-empty discard pile
+     */
+    public static GameState withEmptyDeck(GameState state) {
+        List<Card> drawn = new ArrayList<>();
+        while (!state.cardState().isDeckEmpty()) {
+            drawn.add(state.topCard());
+            state = state.withoutTopCard();
+        }
+
+        return state.withMoreDiscardedCards(SortedBag.of(drawn));
+    }
+
+    /**
+     * The first route the current player can claim with their cards
+     *
+     * @param state The {@link GameState}
+     * @return The first unclaimed {@link Route} the current player can claim, {@code null} if there is none
+     */
+    public static Route claimableRoute(GameState state) {
+        PlayerState player = state.currentPlayerState();
+        List<Route> claimed = state.claimedRoutes();
+        for (Route route : ChMap.routes())
+            if (!claimed.contains(route) && player.canClaimRoute(route))
+                return route;
+
+        return null;
+    }
+
+    /**
+     * The first tunnel the current player could attempt to claim with their cards
+     *
+     * @param state The {@link GameState}
+     * @return The first unclaimed tunnel the current player can claim, {@code null} if there is none
+     */
+    public static Route claimableTunnel(GameState state) {
+        PlayerState player = state.currentPlayerState();
+        List<Route> claimed = state.claimedRoutes();
+        for (Route route : ChMap.routes())
+            if (route.level() == Route.Level.UNDERGROUND && !claimed.contains(route) && player.canClaimRoute(route))
+                return route;
+
+        return null;
+    }
+}
@@ -0,0 +1,141 @@
+package ch.epfl.tchu.bench;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.CardState;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.Deck;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.StationPartition;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.game.Trail;
+import ch.epfl.tchu.net.Serdes;
+
+/**
+ * The benchmarks of the hot paths of the game model, run on early, mid and late game states of the Swiss map
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see BenchmarkRunner
+ */
+public final class GameBenchmarks {
+    private GameBenchmarks() {
+    }
+
+    /**
+     * Runs the benchmarks matching the given arguments
+     *
+     * @param args The arguments of the {@link BenchmarkRunner}
+     */
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner(args);
+
+        GameState initial = Fixtures.initial();
+        SortedBag<Ticket> initialTickets = initial.topTickets(Constants.INITIAL_TICKETS_COUNT);
+        runner.add("GameState.withInitiallyChosenTickets", ()
+                -> initial.withInitiallyChosenTickets(PlayerId.PLAYER_1, initialTickets));
+
+        addDrawing(runner);
+        for (Fixtures.Phase phase : Fixtures.Phase.values())
+            addPhase(runner, phase, Fixtures.gameState(phase));
+
+        runner.run();
+    }
+
+    // The B/op of the draws give the allocations per drawn card
+    private static void addDrawing(BenchmarkRunner runner) {
+        Random rng = new Random(2021);
+        Deck<Card> deck = Deck.of(Constants.ALL_CARDS, rng);
+        CardState cardState = CardState.of(deck);
+        CardState emptyDeck = cardState;
+        while (!emptyDeck.isDeckEmpty())
+            emptyDeck = emptyDeck.withoutTopDeckCard();
+        CardState discarded = emptyDeck.withMoreDiscardedCards(Constants.ALL_CARDS);
+
+        runner.add("Deck.of", () -> Deck.of(Constants.ALL_CARDS, rng));
+        runner.add("Deck.withoutTopCard", deck::withoutTopCard);
+        runner.add("Deck.topCards", () -> deck.topCards(Constants.IN_GAME_TICKETS_COUNT));
+        runner.add("CardState.of", () -> CardState.of(deck));
+        runner.add("CardState.withoutTopDeckCard", cardState::withoutTopDeckCard);
+        runner.add("CardState.withDrawnFaceUpCard", () -> cardState.withDrawnFaceUpCard(0));
+        runner.add("CardState.withDeckRecreatedFromDiscards", () -> discarded.withDeckRecreatedFromDiscards(rng));
+    }
+
+    private static void addPhase(BenchmarkRunner runner, Fixtures.Phase phase, GameState state) {
+        String suffix = "[" + phase.name().toLowerCase(Locale.ROOT) + "]";
+        PlayerState player = state.currentPlayerState();
+        List<Route> routes = player.routes();
+        SortedBag<Card> hand = player.cards();
+        SortedBag<Card> halfHand = SortedBag.of(hand.toList().subList(0, hand.size() / 2));
+
+        runner.add("Trail.longest" + suffix, () -> Trail.longest(routes));
+        runner.add("StationPartition.Builder" + suffix, () -> {
+            StationPartition.Builder builder = new StationPartition.Builder(ChMap.stations().size());
+            for (Route route : routes)
+                builder.connect(route.station1(), route.station2());
+            return builder.build();
+        });
+
+        runner.add("SortedBag.union" + suffix, () -> hand.union(halfHand));
+        runner.add("SortedBag.difference" + suffix, () -> hand.difference(halfHand));
+        runner.add("SortedBag.subsetsOfSize" + suffix, () -> hand.subsetsOfSize(Math.min(3, hand.size())));
+
+        runner.add("PlayerState.possibleClaimCards" + suffix, () -> {
+            int count = 0;
+            for (Route route : ChMap.routes())
+                if (player.carCount() >= route.length())
+                    count += player.possibleClaimCards(route).size();
+            return count;
+        });
+        runner.add("PlayerState.possibleClaimCards.newHand" + suffix, () -> {
+            PlayerState newHand = player.withAddedCard(Card.LOCOMOTIVE);
+            int count = 0;
+            for (Route route : ChMap.routes())
+                if (newHand.canClaimRoute(route))
+                    count += newHand.possibleClaimCards(route).size();
+            return count;
+        });
+        Route tunnel = Fixtures.claimableTunnel(state);
+        if (tunnel != null) {
+            SortedBag<Card> initialCards = player.possibleClaimCards(tunnel).get(0);
+            runner.add("PlayerState.possibleAdditionalCards" + suffix, ()
+                    -> player.possibleAdditionalCards(Constants.ADDITIONAL_TUNNEL_CARDS, initialCards));
+        }
+
+        SortedBag<Ticket> drawnTickets = state.topTickets(Constants.IN_GAME_TICKETS_COUNT);
+        SortedBag<Ticket> chosenTickets = SortedBag.of(drawnTickets.get(0));
+        SortedBag<Card> discards = SortedBag.of(2, Card.BLUE, 1, Card.LOCOMOTIVE);
+        GameState emptyDeck = Fixtures.withEmptyDeck(state);
+        Random rng = new Random(2021);
+        runner.add("GameState.withoutTopTickets" + suffix, () -> state.withoutTopTickets(Constants.IN_GAME_TICKETS_COUNT));
+        runner.add("GameState.withoutTopCard" + suffix, state::withoutTopCard);
+        runner.add("GameState.withMoreDiscardedCards" + suffix, () -> state.withMoreDiscardedCards(discards));
+        runner.add("GameState.withCardsDeckRecreatedIfNeeded" + suffix, () -> emptyDeck.withCardsDeckRecreatedIfNeeded(rng));
+        runner.add("GameState.withChosenAdditionalTickets" + suffix, ()
+                -> state.withChosenAdditionalTickets(drawnTickets, chosenTickets));
+        runner.add("GameState.withDrawnFaceUpCard" + suffix, () -> state.withDrawnFaceUpCard(0));
+        runner.add("GameState.withBlindlyDrawnCard" + suffix, state::withBlindlyDrawnCard);
+        Route route = Fixtures.claimableRoute(state);
+        if (route != null) {
+            SortedBag<Card> claimCards = player.possibleClaimCards(route).get(0);
+            runner.add("GameState.withClaimedRoute" + suffix, () -> state.withClaimedRoute(route, claimCards));
+        }
+        runner.add("GameState.forNextTurn" + suffix, state::forNextTurn);
+        runner.add("GameState.gameHasEnded" + suffix, state::gameHasEnded);
+
+        String publicGameState = Serdes.PUBLIC_GAME_STATE.serialize(state);
+        String playerState = Serdes.PLAYER_STATE.serialize(player);
+        runner.add("Serdes.PUBLIC_GAME_STATE.serialize" + suffix, () -> Serdes.PUBLIC_GAME_STATE.serialize(state));
+        runner.add("Serdes.PUBLIC_GAME_STATE.deserialize" + suffix, () -> Serdes.PUBLIC_GAME_STATE.deserialize(publicGameState));
+        runner.add("Serdes.PLAYER_STATE.serialize" + suffix, () -> Serdes.PLAYER_STATE.serialize(player));
+        runner.add("Serdes.PLAYER_STATE.deserialize" + suffix, () -> Serdes.PLAYER_STATE.deserialize(playerState));
+    }
+}
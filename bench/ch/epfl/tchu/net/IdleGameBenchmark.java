@@ -0,0 +1,104 @@
+package ch.epfl.tchu.net;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A benchmark of the capacity of the {@link GameServer} in each of its thread modes: the time taken to start many
+ * games whose clients never answer, then the threads and memory each of these idle games holds
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see GameServer.ThreadMode
+ */
+public final class IdleGameBenchmark {
+    private static final Path PROCESS_STATUS = Path.of("/proc/self/status");
+
+    private IdleGameBenchmark() {
+    }
+
+    /**
+     * Starts the idle games in every thread mode and prints what they cost
+     *
+     * @param args The arguments of the program, i.e. the number of idle games and the thread modes to measure
+     * @throws IOException          If a client could not connect
+     * @throws InterruptedException If interrupted while waiting for the games to start
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int gameCount = args.length >= 1 ? Integer.parseInt(args[0]) : 1_000;
+        List<GameServer.ThreadMode> threadModes = new ArrayList<>();
+        for (int i = 1; i < args.length; i++)
+            threadModes.add(GameServer.ThreadMode.valueOf(args[i]));
+        if (threadModes.isEmpty())
+            threadModes.addAll(List.of(GameServer.ThreadMode.values()));
+
+        if (!GameServer.virtualThreadsAvailable())
+            System.out.printf("virtual threads are not available on Java %s, VIRTUAL falls back to PLATFORM%n",
+                    Runtime.version());
+        for (GameServer.ThreadMode threadMode : threadModes)
+            measure(gameCount, threadMode);
+    }
+
+    private static void measure(int gameCount, GameServer.ThreadMode threadMode)
+            throws IOException, InterruptedException {
+        long heapBefore = usedHeap();
+        long residentBefore = residentMemory();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        try (GameServer server = new GameServer(0, Protocol.TEXT, threadMode, gameCount)) {
+            server.start();
+            // The text protocol needs no handshake, so that every game waits for the initial tickets of its players
+            List<Socket> sockets = new ArrayList<>();
+            try {
+                long start = System.nanoTime();
+                for (int i = 0; i < 2 * gameCount; i++)
+                    sockets.add(new Socket(InetAddress.getLoopbackAddress(), server.port()));
+                while (server.startedGameCount() < gameCount)
+                    Thread.sleep(1);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                long heap = usedHeap() - heapBefore;
+                long resident = residentMemory() - residentBefore;
+                int threads = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore;
+                System.out.printf(Locale.ROOT, "%s (running on %s threads): %d idle games started in %.2f s%n",
+                        threadMode, server.threadMode(), gameCount, seconds);
+                System.out.printf(Locale.ROOT, "  platform threads: +%d, heap: %.1f KiB/game, resident: %.1f KiB/game%n",
+                        threads, heap / 1024.0 / gameCount, resident / 1024.0 / gameCount);
+            } finally {
+                for (Socket socket : sockets)
+                    socket.close();
+            }
+            while (server.activeGameCount() > 0)
+                Thread.sleep(1);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // The resident set size of the process, which unlike the heap includes the stacks of the threads, 0 outside Linux
+    private static long residentMemory() {
+        if (!Files.isReadable(PROCESS_STATUS))
+            return 0;
+        try {
+            for (String line : Files.readAllLines(PROCESS_STATUS))
+                if (line.startsWith("VmRSS:"))
+                    return 1024 * Long.parseLong(line.replaceAll("[^0-9]", ""));
+            return 0;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
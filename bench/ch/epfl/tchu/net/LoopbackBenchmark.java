@@ -0,0 +1,104 @@
+package ch.epfl.tchu.net;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.sim.RandomPlayer;
+
+/**
+ * A benchmark of the batching of the one-way messages: the writes to the sockets per turn the server makes during
+ * games between random players connected through loopback, with and without batching
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see Connection#setBatching
+ */
+public final class LoopbackBenchmark {
+    private static final Map<PlayerId, String> NAMES = Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles");
+
+    private LoopbackBenchmark() {
+    }
+
+    /**
+     * Plays the games without then with batching and prints the writes and the time they took
+     *
+     * @param args The arguments of the program, i.e. the number of games and the protocol
+     */
+    public static void main(String[] args) {
+        int gameCount = args.length >= 1 ? Integer.parseInt(args[0]) : 50;
+        Protocol protocol = args.length >= 2 ? Protocol.valueOf(args[1]) : Protocol.EVENTS;
+
+        // The first games warm the JIT up
+        for (long seed = 0; seed < gameCount; seed++)
+            play(seed, protocol, true, new MessageStats());
+
+        for (boolean batching : new boolean[]{false, true}) {
+            MessageStats stats = new MessageStats();
+            long writes = 0;
+            long messages = 0;
+            long start = System.nanoTime();
+            for (long seed = 0; seed < gameCount; seed++) {
+                for (Connection connection : play(seed, protocol, batching, stats)) {
+                    writes += connection.flushCount();
+                    messages += connection.writeCount();
+                }
+            }
+            double elapsedMillis = (System.nanoTime() - start) / 1e6;
+
+            long turns = stats.sentMessages(MessageId.NEXT_TURN);
+            System.out.printf(Locale.ROOT, "%s, batching %-5s: %.2f messages and %.2f writes per turn, "
+                            + "%.2f ms per game%n", protocol, batching, (double) messages / turns,
+                    (double) writes / turns, elapsedMillis / gameCount);
+        }
+    }
+
+    // The server side connections of a game between two random players, closed once the game ended
+    private static List<Connection> play(long seed, Protocol protocol, boolean batching, MessageStats stats) {
+        Map<PlayerId, Player> proxies = new EnumMap<>(PlayerId.class);
+        List<Connection> connections = new ArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+
+        try (ServerSocket serverSocket = new ServerSocket(0, PlayerId.COUNT, InetAddress.getLoopbackAddress())) {
+            try {
+                for (PlayerId playerId : PlayerId.ALL) {
+                    Player player = new RandomPlayer(new Random(seed * PlayerId.COUNT + playerId.ordinal()));
+                    RemotePlayerClient client = new RemotePlayerClient(player,
+                            serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort(), protocol);
+                    Thread thread = new Thread(client::run);
+                    thread.start();
+                    clients.add(thread);
+
+                    Connection connection = new Connection(serverSocket.accept());
+                    connection.recordStats(stats);
+                    connection.setBatching(batching);
+                    connections.add(connection);
+                    proxies.put(playerId, new RemotePlayerProxy(connection, protocol));
+                }
+                Game.play(proxies, NAMES, SortedBag.of(ChMap.tickets()), new Random(seed));
+            } finally {
+                for (Connection connection : connections)
+                    connection.close();
+                for (Thread thread : clients)
+                    thread.join();
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } catch (InterruptedException exception) {
+            throw new IllegalStateException(exception);
+        }
+        return connections;
+    }
+}
@@ -0,0 +1,75 @@
+package ch.epfl.tchu.net;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ch.epfl.tchu.sim.RandomPlayer;
+
+/**
+ * A load test of the {@link GameServer}, playing many games at the same time between local random bots
+ * connected through loopback
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see GameServer
+ */
+public final class ServerLoadTest {
+    private ServerLoadTest() {
+    }
+
+    /**
+     * Plays the games and prints their throughput
+     *
+     * @param args The arguments of the program, i.e. the number of games, the number of games played at the same
+     *             time, the newest protocol offered by the server and the kind of threads its games run on
+     * @throws InterruptedException If interrupted while waiting for the bots
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int gameCount = args.length >= 1 ? Integer.parseInt(args[0]) : 1_000;
+        int concurrentGames = args.length >= 2 ? Integer.parseInt(args[1]) : 100;
+        Protocol protocol = args.length >= 3 ? Protocol.valueOf(args[2]) : Protocol.SESSIONS;
+        GameServer.ThreadMode threadMode = args.length >= 4
+                ? GameServer.ThreadMode.valueOf(args[3])
+                : GameServer.ThreadMode.PLATFORM;
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        AtomicInteger botFailures = new AtomicInteger();
+        Random rng = new Random(2021);
+
+        try (GameServer server = new GameServer(0, protocol, threadMode, concurrentGames)) {
+            server.start();
+            String host = InetAddress.getLoopbackAddress().getHostAddress();
+            ExecutorService bots = Executors.newFixedThreadPool(2 * concurrentGames);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 2 * gameCount; i++) {
+                RemotePlayerClient client = new RemotePlayerClient(new RandomPlayer(new Random(rng.nextLong())),
+                        host, server.port(), protocol);
+                bots.execute(() -> {
+                    try {
+                        client.run();
+                    } catch (RuntimeException exception) {
+                        botFailures.incrementAndGet();
+                    }
+                });
+            }
+            bots.shutdown();
+            bots.awaitTermination(1, TimeUnit.DAYS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf(Locale.ROOT, "games: %d completed, %d failed, %d bot errors%n",
+                    server.completedGameCount(), server.failedGameCount(), botFailures.get());
+            System.out.printf(Locale.ROOT, "throughput: %.1f games/s, %.0f games/min, %d games at a time%n",
+                    server.completedGameCount() / seconds, 60 * server.completedGameCount() / seconds, concurrentGames);
+            System.out.printf("games played on %s threads%n", server.threadMode());
+            System.out.printf(Locale.ROOT, "peak threads: %d (bots included)%n", threads.getPeakThreadCount());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ch.epfl.tchu.net;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.bench.BenchmarkRunner;
+import ch.epfl.tchu.bench.Fixtures;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.sim.RandomPlayer;
+
+/**
+ * The benchmarks of the protocols: the bytes exchanged per game between random players over loopback in each of them,
+ * then the size and the encoding and decoding time of an {@link MessageId#UPDATE_STATE} message
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see BenchmarkRunner
+ */
+public final class WireBenchmarks {
+    private static final int GAME_COUNT = 20;
+    private static final Map<PlayerId, String> NAMES = Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles");
+
+    private WireBenchmarks() {
+    }
+
+    /**
+     * Prints the bytes per game in every protocol, then runs the benchmarks matching the given arguments
+     *
+     * @param args The arguments of the {@link BenchmarkRunner}
+     */
+    public static void main(String[] args) {
+        long textBytes = 0;
+        long binaryBytes = 0;
+        long deltaBytes = 0;
+        long eventsBytes = 0;
+        for (long seed = 0; seed < GAME_COUNT; seed++) {
+            textBytes += bytesPerGame(seed, Protocol.TEXT);
+            binaryBytes += bytesPerGame(seed, Protocol.BINARY);
+            deltaBytes += bytesPerGame(seed, Protocol.DELTA);
+            eventsBytes += bytesPerGame(seed, Protocol.EVENTS);
+        }
+        System.out.printf(Locale.ROOT, "bytes/game over %d games: text %d, binary %d (%.2fx smaller), "
+                        + "delta %d (%.2fx smaller), events %d (%.2fx smaller)%n%n", GAME_COUNT, textBytes / GAME_COUNT,
+                binaryBytes / GAME_COUNT, (double) textBytes / binaryBytes, deltaBytes / GAME_COUNT,
+                (double) textBytes / deltaBytes, eventsBytes / GAME_COUNT, (double) textBytes / eventsBytes);
+
+        BenchmarkRunner runner = new BenchmarkRunner(args);
+        for (Fixtures.Phase phase : Fixtures.Phase.values())
+            addPhase(runner, phase, Fixtures.gameState(phase));
+        runner.run();
+    }
+
+    private static void addPhase(BenchmarkRunner runner, Fixtures.Phase phase, GameState state) {
+        String suffix = "[" + phase.name().toLowerCase(Locale.ROOT) + "]";
+        PlayerState player = state.currentPlayerState();
+
+        String text = Serdes.PUBLIC_GAME_STATE.serialize(state) + " " + Serdes.PLAYER_STATE.serialize(player);
+        BinaryWriter writer = new BinaryWriter();
+        Serdes.PUBLIC_GAME_STATE.write(state, writer);
+        Serdes.PLAYER_STATE.write(player, writer);
+        byte[] binary = writer.toByteArray();
+        System.out.printf(Locale.ROOT, "UPDATE_STATE%s: text %d B, binary %d B%n", suffix, text.length(), binary.length);
+
+        runner.add("UPDATE_STATE.text.encode" + suffix, ()
+                -> Serdes.PUBLIC_GAME_STATE.serialize(state) + " " + Serdes.PLAYER_STATE.serialize(player));
+        runner.add("UPDATE_STATE.text.decode" + suffix, () -> {
+            String[] arguments = text.split(" ", -1);
+            PublicGameState gameState = Serdes.PUBLIC_GAME_STATE.deserialize(arguments[0]);
+            return Serdes.PLAYER_STATE.deserialize(arguments[1]) == null ? null : gameState;
+        });
+        runner.add("UPDATE_STATE.binary.encode" + suffix, () -> {
+            writer.reset();
+            Serdes.PUBLIC_GAME_STATE.write(state, writer);
+            Serdes.PLAYER_STATE.write(player, writer);
+            return writer;
+        });
+        runner.add("UPDATE_STATE.binary.decode" + suffix, () -> {
+            BinaryReader reader = new BinaryReader(binary);
+            PublicGameState gameState = Serdes.PUBLIC_GAME_STATE.read(reader);
+            return Serdes.PLAYER_STATE.read(reader) == null ? null : gameState;
+        });
+    }
+
+    // The bytes sent and received by the server during a game between two random players connected through loopback
+    private static long bytesPerGame(long seed, Protocol protocol) {
+        Map<PlayerId, RemotePlayerProxy> proxies = new EnumMap<>(PlayerId.class);
+        List<Socket> sockets = new ArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+
+        try (ServerSocket serverSocket = new ServerSocket(0, PlayerId.COUNT, InetAddress.getLoopbackAddress())) {
+            try {
+                for (PlayerId playerId : PlayerId.ALL) {
+                    Player player = new RandomPlayer(new Random(seed * PlayerId.COUNT + playerId.ordinal()));
+                    RemotePlayerClient client = new RemotePlayerClient(player,
+                            serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort(), protocol);
+                    Thread thread = new Thread(client::run);
+                    thread.start();
+                    clients.add(thread);
+
+                    Socket socket = serverSocket.accept();
+                    sockets.add(socket);
+                    proxies.put(playerId, new RemotePlayerProxy(socket, protocol));
+                }
+                Game.play(new EnumMap<>(proxies), NAMES, SortedBag.of(ChMap.tickets()), new Random(seed));
+            } finally {
+                for (Socket socket : sockets)
+                    socket.close();
+                for (Thread thread : clients)
+                    thread.join();
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } catch (InterruptedException exception) {
+            throw new IllegalStateException(exception);
+        }
+
+        long bytes = 0;
+        for (RemotePlayerProxy proxy : proxies.values())
+            bytes += proxy.connection().bytesWritten() + proxy.connection().bytesRead();
+        return bytes;
+    }
+}
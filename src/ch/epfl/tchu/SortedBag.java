@@ -196,14 +196,46 @@ public final class SortedBag<E extends Comparable<E>> implements Iterable<E> {
         if (size == 0)
             return Set.of(SortedBag.of());
 
-        var result = new HashSet<SortedBag<E>>();
-        for (var e1 : elements.keySet()) {
-            var s1 = SortedBag.of(e1);
-            this.difference(s1)
-                    .subsetsOfSize(size - 1)
-                    .forEach(e -> result.add(s1.union(e)));
+        // Les sous-ensembles sont énumérés sous la forme de vecteurs de multiplicités,
+        // bornés par celles de this et dont la somme vaut size, par ordre lexicographique décroissant.
+        var keys = new ArrayList<>(elements.keySet());
+        var k = keys.size();
+        var max = new int[k];
+        var capacity = new int[k + 1]; // capacity[i] : somme des multiplicités des éléments d'index >= i
+        for (var i = k - 1; i >= 0; i--) {
+            max[i] = elements.get(keys.get(i));
+            capacity[i] = capacity[i + 1] + max[i];
+        }
+
+        var result = new LinkedHashSet<SortedBag<E>>();
+        var counts = new int[k];
+        fillGreedily(counts, max, 0, size);
+        while (true) {
+            var subset = new TreeMap<E, Integer>();
+            for (var i = 0; i < k; i++)
+                if (counts[i] > 0) subset.put(keys.get(i), counts[i]);
+            result.add(new SortedBag<>(subset));
+
+            // Cherche la dernière multiplicité pouvant être décrémentée, la suite absorbant l'élément retiré
+            var tail = 0;
+            var i = k - 2;
+            for (; i >= 0; i--) {
+                tail += counts[i + 1];
+                if (counts[i] > 0 && capacity[i + 1] > tail) break;
+            }
+            if (i < 0) return result;
+
+            counts[i] -= 1;
+            fillGreedily(counts, max, i + 1, tail + 1);
+        }
+    }
+
+    // Répartit count éléments à partir de l'index from, en remplissant au maximum les premiers.
+    private static void fillGreedily(int[] counts, int[] max, int from, int count) {
+        for (var i = from; i < counts.length; i++) {
+            counts[i] = Math.min(max[i], count);
+            count -= counts[i];
         }
-        return result;
     }
 
     /**
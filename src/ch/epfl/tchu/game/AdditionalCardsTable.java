@@ -0,0 +1,73 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * The precomputed sets of additional cards a player can use to claim a tunnel
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see PlayerState#possibleAdditionalCards(int, SortedBag)
+ */
+final class AdditionalCardsTable {
+    // Counts above the number of additional cards do not change the options
+    private static final int COUNTS = Constants.ADDITIONAL_TUNNEL_CARDS + 1;
+
+    // Indexed by the initial card, the number of cards of its type left, the number of locomotives left
+    // and the number of additional cards
+    private static final List<List<SortedBag<Card>>> TABLE = computeTable();
+
+    private AdditionalCardsTable() {
+    }
+
+    /**
+     * The sets of additional cards, in increasing number of locomotives
+     *
+     * @param initialCard          The type of {@link Card} used to attempt claiming the tunnel
+     * @param cardCount            The number of cards of type {@code initialCard} the player has left
+     * @param locomotiveCount      The number of {@link Card#LOCOMOTIVE} the player has left
+     * @param additionalCardsCount The number of additional cards, between {@code 1} and {@link Constants#ADDITIONAL_TUNNEL_CARDS}
+     * @return The immutable {@link List} of the possible {@link SortedBag} of additional {@link Card}
+     */
+    static List<SortedBag<Card>> options(Card initialCard, int cardCount, int locomotiveCount, int additionalCardsCount) {
+        return TABLE.get(index(initialCard, Math.min(cardCount, COUNTS - 1), Math.min(locomotiveCount, COUNTS - 1),
+                additionalCardsCount));
+    }
+
+    private static int index(Card initialCard, int cardCount, int locomotiveCount, int additionalCardsCount) {
+        return ((initialCard.ordinal() * COUNTS + cardCount) * COUNTS + locomotiveCount) * COUNTS + additionalCardsCount;
+    }
+
+    private static List<List<SortedBag<Card>>> computeTable() {
+        List<List<SortedBag<Card>>> table = new ArrayList<>();
+        for (Card initialCard : Card.ALL) {
+            for (int cardCount = 0; cardCount < COUNTS; cardCount++) {
+                for (int locomotiveCount = 0; locomotiveCount < COUNTS; locomotiveCount++) {
+                    for (int additionalCardsCount = 0; additionalCardsCount < COUNTS; additionalCardsCount++) {
+                        table.add(computeOptions(initialCard, cardCount, locomotiveCount, additionalCardsCount));
+                    }
+                }
+            }
+        }
+
+        return List.copyOf(table);
+    }
+
+    private static List<SortedBag<Card>> computeOptions(Card initialCard, int cardCount, int locomotiveCount,
+                                                        int additionalCardsCount) {
+        if (initialCard == Card.LOCOMOTIVE)
+            return locomotiveCount >= additionalCardsCount
+                    ? List.of(SortedBag.of(additionalCardsCount, Card.LOCOMOTIVE)) : List.of();
+
+        List<SortedBag<Card>> options = new ArrayList<>();
+        for (int locomotives = Math.max(0, additionalCardsCount - cardCount);
+             locomotives <= Math.min(additionalCardsCount, locomotiveCount); locomotives++) {
+            options.add(SortedBag.of(additionalCardsCount - locomotives, initialCard, locomotives, Card.LOCOMOTIVE));
+        }
+
+        return List.copyOf(options);
+    }
+}
@@ -0,0 +1,251 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * An immutable multiset of cards, whose counts are packed into a single {@code long}
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see Card
+ */
+public final class CardBag {
+    /**
+     * The largest count of a single type of card in a bag
+     */
+    public static final int MAX_COUNT = (1 << 7) - 1;
+
+    /**
+     * The empty bag of cards
+     */
+    public static final CardBag EMPTY = new CardBag(0, 0);
+
+    // Each card owns a 7-bit count field, at the position given by its ordinal
+    private static final int FIELD_BITS = 7;
+    private static final long ONES = onesOfFields();
+    private static final long HIGH_BITS = ONES << (FIELD_BITS - 1);
+    private static final long LOW_BITS = ONES * (MAX_COUNT >> 1);
+
+    private final long counts;
+    private final int size;
+
+    private CardBag(long counts, int size) {
+        this.counts = counts;
+        this.size = size;
+    }
+
+    /**
+     * A bag containing the given number of cards of a single type
+     *
+     * @param n    The number of cards
+     * @param card The {@link Card}
+     * @return The {@link CardBag} containing {@code n} times {@code card}
+     * @throws IllegalArgumentException If {@code n} is negative or greater than {@link CardBag#MAX_COUNT}
+     */
+    public static CardBag of(int n, Card card) {
+        Preconditions.checkArgument(0 <= n && n <= MAX_COUNT);
+
+        return new CardBag((long) n << shift(card), n);
+    }
+
+    /**
+     * A bag containing the given numbers of cards of two types
+     *
+     * @param n1    The number of cards of the first type
+     * @param card1 The first {@link Card}
+     * @param n2    The number of cards of the second type
+     * @param card2 The second {@link Card}
+     * @return The {@link CardBag} containing {@code n1} times {@code card1} and {@code n2} times {@code card2}
+     * @throws IllegalArgumentException If a count is negative or too large
+     */
+    public static CardBag of(int n1, Card card1, int n2, Card card2) {
+        return of(n1, card1).union(of(n2, card2));
+    }
+
+    /**
+     * The bag containing the same cards as the given sorted bag
+     *
+     * @param cards The {@link SortedBag} of {@link Card}
+     * @return The {@link CardBag} of {@code cards}
+     * @throws IllegalArgumentException If {@code cards} contains more than {@link CardBag#MAX_COUNT} cards of a type
+     */
+    public static CardBag of(SortedBag<Card> cards) {
+        long counts = 0;
+        for (Card card : cards.toSet()) {
+            int count = cards.countOf(card);
+            Preconditions.checkArgument(count <= MAX_COUNT);
+            counts |= (long) count << shift(card);
+        }
+
+        return new CardBag(counts, cards.size());
+    }
+
+    /**
+     * The number of cards in the bag
+     *
+     * @return The number of cards in the bag
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether the bag is empty
+     *
+     * @return True iff. the bag contains no card
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * The number of cards of the given type in the bag
+     *
+     * @param card The {@link Card}
+     * @return The number of {@code card} in the bag
+     */
+    public int countOf(Card card) {
+        return (int) (counts >>> shift(card)) & MAX_COUNT;
+    }
+
+    /**
+     * The number of distinct types of cards in the bag
+     *
+     * @return The number of types of cards whose count is not zero
+     */
+    public int distinctCount() {
+        return Long.bitCount((((counts & LOW_BITS) + LOW_BITS) | counts) & HIGH_BITS);
+    }
+
+    /**
+     * Whether the given bag is included in this bag
+     *
+     * @param that The other {@link CardBag}
+     * @return True iff. this bag contains at least as many cards of every type as {@code that}
+     */
+    public boolean contains(CardBag that) {
+        return greaterOrEqualHighBits(counts, that.counts) == HIGH_BITS;
+    }
+
+    /**
+     * The union of this bag and the given one
+     *
+     * @param that The other {@link CardBag}
+     * @return The {@link CardBag} containing the cards of both bags
+     * @throws IllegalArgumentException If the union contains more than {@link CardBag#MAX_COUNT} cards of a type
+     */
+    public CardBag union(CardBag that) {
+        long a = counts, b = that.counts;
+        long sum = ((a & LOW_BITS) + (b & LOW_BITS)) ^ ((a ^ b) & HIGH_BITS);
+        long carries = ((a & b) | ((a | b) & ~sum)) & HIGH_BITS;
+        Preconditions.checkArgument(carries == 0);
+
+        return new CardBag(sum, size + that.size);
+    }
+
+    /**
+     * The difference of this bag and the given one, the count of a type never going below zero
+     *
+     * @param that The other {@link CardBag}
+     * @return The {@link CardBag} of the cards of this bag that are not in {@code that}
+     */
+    public CardBag difference(CardBag that) {
+        long greaterOrEqual = greaterOrEqualHighBits(counts, that.counts);
+        if (greaterOrEqual == HIGH_BITS)
+            return new CardBag(counts - that.counts, size - that.size);
+
+        // Saturates the fields of the types of which that bag contains more cards
+        long mask = (greaterOrEqual >>> (FIELD_BITS - 1)) * MAX_COUNT;
+        long difference = (counts & mask) - (that.counts & mask);
+
+        return new CardBag(difference, sizeOf(difference));
+    }
+
+    /**
+     * The same bag with one more card of the given type
+     *
+     * @param card The added {@link Card}
+     * @return The {@link CardBag} containing the cards of this bag and {@code card}
+     * @throws IllegalArgumentException If the bag already contains {@link CardBag#MAX_COUNT} cards of that type
+     */
+    public CardBag with(Card card) {
+        Preconditions.checkArgument(countOf(card) < MAX_COUNT);
+
+        return new CardBag(counts + (1L << shift(card)), size + 1);
+    }
+
+    /**
+     * The sorted bag containing the same cards as this bag
+     *
+     * @return The {@link SortedBag} of {@link Card} of this bag
+     */
+    public SortedBag<Card> toSortedBag() {
+        SortedBag.Builder<Card> builder = new SortedBag.Builder<>();
+        for (Card card : Card.ALL) {
+            int count = countOf(card);
+            if (count > 0)
+                builder.add(count, card);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Whether the bag contains the same cards as the given object
+     *
+     * @param that The other {@link Object}
+     * @return True iff. {@code that} is a {@link CardBag} with the same counts
+     */
+    @Override
+    public boolean equals(Object that) {
+        return that instanceof CardBag && counts == ((CardBag) that).counts;
+    }
+
+    /**
+     * The hash code of the bag
+     *
+     * @return The hash code of the packed counts
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(counts);
+    }
+
+    /**
+     * The textual representation of the bag, identical to the one of its {@link SortedBag}
+     *
+     * @return The textual representation of the bag
+     */
+    @Override
+    public String toString() {
+        return toSortedBag().toString();
+    }
+
+    private static int shift(Card card) {
+        return card.ordinal() * FIELD_BITS;
+    }
+
+    private static long onesOfFields() {
+        long ones = 0;
+        for (Card card : Card.ALL)
+            ones |= 1L << shift(card);
+
+        return ones;
+    }
+
+    // The high bit of every field of the result is set iff. the field of a is greater than or equal to the one of b
+    private static long greaterOrEqualHighBits(long a, long b) {
+        long lowDifference = (a | HIGH_BITS) - (b & LOW_BITS);
+
+        return ((a & ~b) | (~(a ^ b) & lowDifference)) & HIGH_BITS;
+    }
+
+    private static int sizeOf(long counts) {
+        int size = 0;
+        for (; counts != 0; counts >>>= FIELD_BITS)
+            size += (int) counts & MAX_COUNT;
+
+        return size;
+    }
+}
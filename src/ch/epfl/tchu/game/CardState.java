@@ -17,16 +17,16 @@ import ch.epfl.tchu.SortedBag;
  */
 public final class CardState extends PublicCardState {
     private final Deck<Card> deck;
-    private final SortedBag<Card> discardedCards;
+    private final CardBag discardedCards;
 
     /**
      * A card state from face-up cards, a deck and discards
      *
      * @param faceUpCards    The visible {@link List} of {@link Card} on the board
      * @param deck           A {@link Deck} of {@link Card} from which the player can draw
-     * @param discardedCards A discarded {@link SortedBag} of {@link Card}
+     * @param discardedCards A discarded {@link CardBag}
      */
-    private CardState(List<Card> faceUpCards, Deck<Card> deck, SortedBag<Card> discardedCards) {
+    private CardState(List<Card> faceUpCards, Deck<Card> deck, CardBag discardedCards) {
         super(faceUpCards, deck.size(), discardedCards.size());
 
         this.deck = deck;
@@ -45,11 +45,44 @@ public final class CardState extends PublicCardState {
 
         List<Card> faceUpCards = new ArrayList<>();
         for (int i = 0; i < Constants.FACE_UP_CARDS_COUNT; i++) {
-            faceUpCards.add(deck.withoutTopCards(i).topCard());
+            faceUpCards.add(deck.card(i));
         }
 
         return new CardState(faceUpCards,
-                deck.withoutTopCards(Constants.FACE_UP_CARDS_COUNT), new SortedBag.Builder<Card>().build());
+                deck.withoutTopCards(Constants.FACE_UP_CARDS_COUNT), CardBag.EMPTY);
+    }
+
+    /**
+     * A card state made of the given face-up cards, deck and discards
+     *
+     * @param faceUpCards    The visible {@link List} of {@link Card} on the board
+     * @param deck           The {@link Deck} of {@link Card}
+     * @param discardedCards The discarded {@link CardBag}
+     * @return The {@link CardState} made of the given parts
+     * @throws IllegalArgumentException If there are not {@link Constants#FACE_UP_CARDS_COUNT} face-up cards
+     */
+    static CardState of(List<Card> faceUpCards, Deck<Card> deck, CardBag discardedCards) {
+        Preconditions.checkArgument(faceUpCards.size() == Constants.FACE_UP_CARDS_COUNT);
+
+        return new CardState(List.copyOf(faceUpCards), deck, discardedCards);
+    }
+
+    /**
+     * The deck of cards, in the order they will be drawn
+     *
+     * @return The {@link Deck} of {@link Card}
+     */
+    Deck<Card> deck() {
+        return deck;
+    }
+
+    /**
+     * The discarded cards
+     *
+     * @return The discarded {@link CardBag}
+     */
+    CardBag discards() {
+        return discardedCards;
     }
 
     /**
@@ -98,7 +131,7 @@ public final class CardState extends PublicCardState {
     public CardState withDeckRecreatedFromDiscards(Random rng) {
         Preconditions.checkArgument(isDeckEmpty());
 
-        return new CardState(faceUpCards(), Deck.of(discardedCards, rng), new SortedBag.Builder<Card>().build());
+        return new CardState(faceUpCards(), Deck.of(discardedCards, rng), CardBag.EMPTY);
     }
 
     /**
@@ -108,7 +141,6 @@ public final class CardState extends PublicCardState {
      * @return The {@link CardState} for which {@code additionalDiscards} have been added to its {@link CardState#discardedCards}
      */
     public CardState withMoreDiscardedCards(SortedBag<Card> additionalDiscards) {
-        return new CardState(faceUpCards(), deck, new SortedBag.Builder<Card>()
-                .add(discardedCards).add(additionalDiscards).build());
+        return new CardState(faceUpCards(), deck, discardedCards.union(CardBag.of(additionalDiscards)));
     }
 }
@@ -0,0 +1,71 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * The sets of cards with which a hand can claim routes, computed once per group of routes of same length, level and color
+ * <p>
+ * The index may be shared between threads, each group being published once fully computed.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see PlayerState#possibleClaimCards(Route)
+ */
+final class ClaimIndex {
+    private static final int LEVEL_COUNT = Route.Level.values().length;
+    private static final int COLOR_COUNT = Color.COUNT + 1;
+    private static final int GROUP_COUNT = (Constants.MAX_ROUTE_LENGTH + 1) * LEVEL_COUNT * COLOR_COUNT;
+
+    private final CardBag hand;
+    // Routes of the same group have the same possible claim cards, so their options are shared
+    private final AtomicReferenceArray<List<SortedBag<Card>>> options = new AtomicReferenceArray<>(GROUP_COUNT);
+
+    /**
+     * The claim index of the given hand, whose groups are filled as they are queried
+     *
+     * @param hand The {@link CardBag} of the player
+     */
+    ClaimIndex(CardBag hand) {
+        this.hand = hand;
+    }
+
+    /**
+     * The sets of cards of the hand with which the given route can be claimed, regardless of the car count
+     *
+     * @param route The {@link Route}
+     * @return The immutable {@link List} of {@link SortedBag} of {@link Card}, in the order of {@link Route#possibleClaimCards()}
+     */
+    List<SortedBag<Card>> possibleClaimCards(Route route) {
+        int group = group(route);
+        List<SortedBag<Card>> groupOptions = options.get(group);
+        if (groupOptions == null) {
+            groupOptions = computeOptions(route);
+            options.set(group, groupOptions);
+        }
+
+        return groupOptions;
+    }
+
+    private List<SortedBag<Card>> computeOptions(Route route) {
+        List<SortedBag<Card>> possibleClaimCards = route.possibleClaimCards();
+        List<CardBag> possibleClaimCardBags = route.possibleClaimCardBags();
+        List<SortedBag<Card>> claimCards = new ArrayList<>();
+        for (int i = 0; i < possibleClaimCardBags.size(); i++) {
+            if (hand.contains(possibleClaimCardBags.get(i)))
+                claimCards.add(possibleClaimCards.get(i));
+        }
+
+        return List.copyOf(claimCards);
+    }
+
+    private static int group(Route route) {
+        int color = Objects.isNull(route.color()) ? Color.COUNT : route.color().ordinal();
+
+        return (route.length() * LEVEL_COUNT + route.level().ordinal()) * COLOR_COUNT + color;
+    }
+}
@@ -1,7 +1,6 @@
 package ch.epfl.tchu.game;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.Objects;
 import java.util.Random;
 
 import ch.epfl.tchu.Preconditions;
@@ -15,7 +14,9 @@ import ch.epfl.tchu.SortedBag;
  * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
  */
 public final class Deck<C extends Comparable<C>> {
-    private final List<C> cards;
+    // Shared by every deck derived from the same shuffle, never modified after it
+    private final Object[] cards;
+    private final int offset;
 
     /**
      * A deck composed of shuffled elements from cards
@@ -26,28 +27,60 @@ public final class Deck<C extends Comparable<C>> {
      * @return a {@link Deck} composed of shuffled elements from cards
      */
     public static <C extends Comparable<C>> Deck<C> of(SortedBag<C> cards, Random rng) {
-        List<C> shuffledCards = cards.toList();
-        Collections.shuffle(shuffledCards, rng);
+        return new Deck<>(shuffled(cards.toList().toArray(), rng), 0);
+    }
+
+    /**
+     * A deck composed of the shuffled cards of a card bag, identical to the one built from its {@link SortedBag}
+     *
+     * @param cards A {@link CardBag}
+     * @param rng   A {@link Random} number generator
+     * @return a {@link Deck} composed of the shuffled cards of {@code cards}
+     */
+    static Deck<Card> of(CardBag cards, Random rng) {
+        Object[] sortedCards = new Object[cards.size()];
+        int index = 0;
+        for (Card card : Card.ALL) {
+            for (int i = cards.countOf(card); i > 0; i--)
+                sortedCards[index++] = card;
+        }
+
+        return new Deck<>(shuffled(sortedCards, rng), 0);
+    }
+
+    /**
+     * A deck made of the cards of the given array from the given index, which must not be modified afterwards
+     *
+     * @param cards  The array of cards, the top one first
+     * @param offset The index of the top card in {@code cards}
+     * @param <C>    The type of the cards
+     * @return The {@link Deck} of the cards of {@code cards} from {@code offset}
+     * @throws IllegalArgumentException If {@code offset} is not between {@code 0} and the length of {@code cards}
+     */
+    static <C extends Comparable<C>> Deck<C> of(C[] cards, int offset) {
+        Preconditions.checkArgument(0 <= offset && offset <= cards.length);
 
-        return new Deck<>(shuffledCards);
+        return new Deck<>(cards, offset);
     }
 
     /**
-     * A {@link Deck} from a {@link List} of cards
+     * A {@link Deck} made of the cards of the given array from the given offset
      *
-     * @param cards A {@link List} of cards
+     * @param cards  The shared array of cards
+     * @param offset The index of the top card in {@code cards}
      */
-    private Deck(List<C> cards) {
+    private Deck(Object[] cards, int offset) {
         this.cards = cards;
+        this.offset = offset;
     }
 
     /**
      * The size of the deck
      *
-     * @return the {@link List#size()} of the {@link Deck}
+     * @return the number of cards of the {@link Deck}
      */
     public int size() {
-        return cards.size();
+        return cards.length - offset;
     }
 
     /**
@@ -62,19 +95,31 @@ public final class Deck<C extends Comparable<C>> {
     /**
      * The top element of the deck
      *
-     * @return the first element of {@link Deck}'s {@link Deck#cards}
+     * @return the first element of the {@link Deck}
      * @throws IllegalArgumentException If the {@link Deck} {@link Deck#isEmpty()}
      */
     public C topCard() {
         Preconditions.checkArgument(!isEmpty());
 
-        return cards.get(0);
+        return card(0);
+    }
+
+    /**
+     * The card at the given depth in the deck
+     *
+     * @param index The number of cards above the wanted one
+     * @return The card at {@code index} from the top of the {@link Deck}
+     * @throws IndexOutOfBoundsException If {@code index} is not between {@code 0} and {@link Deck#size()} (excluded)
+     */
+    @SuppressWarnings("unchecked")
+    C card(int index) {
+        return (C) cards[offset + Objects.checkIndex(index, size())];
     }
 
     /**
      * The same deck without the top card
      *
-     * @return The same {@link Deck} without the first element of {@link Deck#cards}
+     * @return The same {@link Deck} without its first element
      * @throws IllegalArgumentException If the {@link Deck} {@link Deck#isEmpty()}
      */
     public Deck<C> withoutTopCard() {
@@ -92,7 +137,8 @@ public final class Deck<C extends Comparable<C>> {
         Preconditions.checkArgument(0 <= count && count <= size());
 
         SortedBag.Builder<C> builder = new SortedBag.Builder<>();
-        cards.subList(0, count).forEach(builder::add);
+        for (int i = 0; i < count; i++)
+            builder.add(card(i));
 
         return builder.build();
     }
@@ -107,6 +153,25 @@ public final class Deck<C extends Comparable<C>> {
     public Deck<C> withoutTopCards(int count) {
         Preconditions.checkArgument(0 <= count && count <= size());
 
-        return new Deck<>(cards.subList(count, size()));
+        return count == 0 ? this : new Deck<>(cards, offset + count);
+    }
+
+    /**
+     * Shuffles the given array in place, with the same permutation as {@link java.util.Collections#shuffle} for the
+     * same generator
+     *
+     * @param cards The array of cards
+     * @param rng   The {@link Random} number generator
+     * @return The array {@code cards}, shuffled
+     */
+    static Object[] shuffled(Object[] cards, Random rng) {
+        for (int i = cards.length; i > 1; i--) {
+            int j = rng.nextInt(i);
+            Object card = cards[i - 1];
+            cards[i - 1] = cards[j];
+            cards[j] = card;
+        }
+
+        return cards;
     }
 }
@@ -4,9 +4,7 @@ import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Player.TurnKind;
 import ch.epfl.tchu.game.Route.Level;
-import ch.epfl.tchu.gui.Info;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -48,13 +46,8 @@ public final class Game {
         // Generating the initial game state
         GameState gameState = GameState.initial(tickets, rng);
 
-        // Declaring a map that links a player's identifier to their info class instance
-        Map<PlayerId, Info> playerInfos = PlayerId.ALL.stream()
-                .collect(Collectors.toMap(p -> p, p -> new Info(playerNames.get(p))));
-        Info currentInfo = playerInfos.get(gameState.currentPlayerId());
-
         // Informing the players which plays first
-        sendInfo(players, currentInfo.willPlayFirst());
+        sendEvent(players, playerNames, GameEvent.willPlayFirst(gameState.currentPlayerId()));
 
         // Drawing initial tickets and asking the player which they want to keep
         for (PlayerId player : PlayerId.ALL) {
@@ -66,7 +59,7 @@ public final class Game {
         }
         // Informing every player of the number of initially drawn tickets only once everyone has drawn
         for (PlayerId playerId : PlayerId.ALL)
-            sendInfo(players, playerInfos.get(playerId).keptTickets(gameState.playerState(playerId).ticketCount()));
+            sendEvent(players, playerNames, GameEvent.keptTickets(playerId, gameState.playerState(playerId).ticketCount()));
 
         /* * * * * * * * * *
          * The Middle Game *
@@ -74,12 +67,12 @@ public final class Game {
 
         // Keep playing until the last turn is played
         while(true) {
-            currentInfo = playerInfos.get(gameState.currentPlayerId());
+            PlayerId currentPlayerId = gameState.currentPlayerId();
 
             // Announcing which player plays this turn
-            Player currentPlayer = players.get(gameState.currentPlayerId());
+            Player currentPlayer = players.get(currentPlayerId);
             updatePlayerStates(players, gameState);
-            sendInfo(players, currentInfo.canPlay());
+            sendEvent(players, playerNames, GameEvent.canPlay(currentPlayerId));
 
             // Asks what the player's next move will be
             TurnKind playerMove = currentPlayer.nextTurn();
@@ -88,7 +81,7 @@ public final class Game {
             switch (playerMove) {
                 // The player decides to draw tickets
                 case DRAW_TICKETS:
-                    sendInfo(players, currentInfo.drewTickets(Constants.IN_GAME_TICKETS_COUNT));
+                    sendEvent(players, playerNames, GameEvent.drewTickets(currentPlayerId, Constants.IN_GAME_TICKETS_COUNT));
 
                     // Asking the current player which tickets they want to keep
                     SortedBag<Ticket> chosenTickets = currentPlayer.chooseTickets(gameState.topTickets(Constants.IN_GAME_TICKETS_COUNT));
@@ -97,7 +90,7 @@ public final class Game {
                     gameState = gameState.withChosenAdditionalTickets(gameState.topTickets(Constants.IN_GAME_TICKETS_COUNT), chosenTickets);
 
                     // Informing of the number of tickets drawn by the current player
-                    sendInfo(players, currentInfo.keptTickets(chosenTickets.size()));
+                    sendEvent(players, playerNames, GameEvent.keptTickets(currentPlayerId, chosenTickets.size()));
                     break;
 
                 // The player decides to draw cards
@@ -116,7 +109,7 @@ public final class Game {
                             gameState = gameState.withBlindlyDrawnCard();
 
                             // Informing that the current play drew a deck card
-                            sendInfo(players, currentInfo.drewBlindCard());
+                            sendEvent(players, playerNames, GameEvent.drewBlindCard(currentPlayerId));
                         }
                         // The player draws a face-up card
                         else {
@@ -127,7 +120,7 @@ public final class Game {
                             gameState = gameState.withDrawnFaceUpCard(drawSlot);
 
                             // Informing that the current player drew the given face-up card
-                            sendInfo(players, currentInfo.drewVisibleCard(drawnCard));
+                            sendEvent(players, playerNames, GameEvent.drewVisibleCard(currentPlayerId, drawnCard));
                         }
                     }
                     break;
@@ -140,7 +133,7 @@ public final class Game {
                     // The player attempts to claim a tunnel
                     if (claimedRoute.level().equals(Level.UNDERGROUND)) {
                         // Informs that the current player is trying to claim a Tunnel
-                        sendInfo(players, currentInfo.attemptsTunnelClaim(claimedRoute, initialClaimCards));
+                        sendEvent(players, playerNames, GameEvent.attemptsTunnelClaim(currentPlayerId, claimedRoute, initialClaimCards));
 
                         // Drawing the additional tunnel cards
                         SortedBag.Builder<Card> additionalCardsBuilder = new SortedBag.Builder<>();
@@ -158,7 +151,7 @@ public final class Game {
                         int additionalClaimCardsCount = claimedRoute.additionalClaimCardsCount(initialClaimCards, additionalCards);
 
                         // Informing that the current player drew additional cards to try and claim the tunnel
-                        sendInfo(players, currentInfo.drewAdditionalCards(additionalCards, additionalClaimCardsCount));
+                        sendEvent(players, playerNames, GameEvent.drewAdditionalCards(currentPlayerId, additionalCards, additionalClaimCardsCount));
 
                         // The player does not need to use any additional cards to claim the tunnel
                         if (additionalClaimCardsCount == 0) {
@@ -166,7 +159,7 @@ public final class Game {
                                     .withClaimedRoute(claimedRoute, initialClaimCards);
 
                             // Informing that the current player claimed the tunnel using only the initial claim cards
-                            sendInfo(players, currentInfo.claimedRoute(claimedRoute, initialClaimCards));
+                            sendEvent(players, playerNames, GameEvent.claimedRoute(currentPlayerId, claimedRoute, initialClaimCards));
                         }
                         else {
                             // Computing the list of possible additional claim cards the player can choose to try and claim the tunnel
@@ -181,7 +174,7 @@ public final class Game {
                                 // The player cannot or doesn't want to claim the tunnel
                                 if (chosenAdditionalClaimCards.isEmpty()) {
                                     // Informing that the current player did not claim the tunnel
-                                    sendInfo(players, currentInfo.didNotClaimRoute(claimedRoute));
+                                    sendEvent(players, playerNames, GameEvent.didNotClaimRoute(currentPlayerId, claimedRoute));
                                 }
                                 else {
                                     // Adding the additional claim cards to the initial cards
@@ -189,12 +182,12 @@ public final class Game {
                                     gameState = gameState
                                             .withClaimedRoute(claimedRoute, finalClaimCards);
                                     // Informing that the current player claimed the tunnel using additional cards
-                                    sendInfo(players, currentInfo.claimedRoute(claimedRoute, finalClaimCards));
+                                    sendEvent(players, playerNames, GameEvent.claimedRoute(currentPlayerId, claimedRoute, finalClaimCards));
                                 }
                             }
                             else {
                                 // Informing that the current player didn't claim the route
-                                sendInfo(players, currentInfo.didNotClaimRoute(claimedRoute));
+                                sendEvent(players, playerNames, GameEvent.didNotClaimRoute(currentPlayerId, claimedRoute));
                             }
                         }
                     }
@@ -202,13 +195,13 @@ public final class Game {
                     else if (claimedRoute.level().equals(Level.OVERGROUND)) {
                         gameState = gameState.withClaimedRoute(claimedRoute, initialClaimCards);
                         // Informing that the current player claimed the route
-                        sendInfo(players, currentInfo.claimedRoute(claimedRoute, initialClaimCards));
+                        sendEvent(players, playerNames, GameEvent.claimedRoute(currentPlayerId, claimedRoute, initialClaimCards));
                     }
                     break;
             }
             // Informing that the last turn begins if the conditions are met
             if (gameState.lastTurnBegins())
-                sendInfo(players, playerInfos.get(gameState.currentPlayerId()).lastTurnBegins(gameState.currentPlayerState().carCount()));
+                sendEvent(players, playerNames, GameEvent.lastTurnBegins(currentPlayerId, gameState.currentPlayerState().carCount()));
 
             if (gameState.currentPlayerId() == gameState.lastPlayer())
                 break;
@@ -246,7 +239,8 @@ public final class Game {
         bonusEarningPlayers
                 .forEach(p -> {
                     playersScores.replace(p, playersScores.get(p) + Constants.LONGEST_TRAIL_BONUS_POINTS);
-                    sendInfo(players, playerInfos.get(p).getsLongestTrailBonus(Trail.longest(gameStateFinal.playerState(p).routes())));
+                    Trail longestTrail = Trail.longest(gameStateFinal.playerState(p).routes());
+                    sendEvent(players, playerNames, GameEvent.getsLongestTrailBonus(p, longestTrail.station1(), longestTrail.station2()));
                 });
 
         // Getting the highest score from all players
@@ -262,13 +256,13 @@ public final class Game {
         // Breaking down the game, declaring either a win for a player or a draw
         // Note: This would be the only block to change if more players are added as it wouldn't make sense to declare a draw then
         if (winners.size() == 1)
-            sendInfo(players, playerInfos.get(winners.get(0)).won(playersScores.get(winners.get(0)), playersScores.get(winners.get(0).next())));
+            sendEvent(players, playerNames, GameEvent.won(winners.get(0), playersScores.get(winners.get(0)), playersScores.get(winners.get(0).next())));
         else
-            sendInfo(players, Info.draw(new ArrayList<>(playerNames.values()), highestScore));
+            sendEvent(players, playerNames, GameEvent.draw(playerNames.keySet().iterator().next(), highestScore));
     }
 
-    private static void sendInfo(Map<PlayerId, Player> players, String info) {
-        PlayerId.ALL.forEach((PlayerId playerId) -> players.get(playerId).receiveInfo(info));
+    private static void sendEvent(Map<PlayerId, Player> players, Map<PlayerId, String> playerNames, GameEvent event) {
+        PlayerId.ALL.forEach((PlayerId playerId) -> players.get(playerId).receiveEvent(event, playerNames));
     }
 
     private static void updatePlayerStates(Map<PlayerId, Player> players, GameState gameState) {
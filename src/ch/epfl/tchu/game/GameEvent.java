@@ -0,0 +1,386 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.gui.Info;
+
+/**
+ * An event of a game the players are informed of, made of its kind and of the values describing it, which is
+ * only rendered as the text of {@link Info} by the players that display it
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see Info
+ */
+public final class GameEvent {
+    /**
+     * The different kinds of events, each one rendered by the method of {@link Info} of the same name
+     */
+    public enum Kind {
+        WILL_PLAY_FIRST,
+        KEPT_TICKETS,
+        CAN_PLAY,
+        DREW_TICKETS,
+        DREW_BLIND_CARD,
+        DREW_VISIBLE_CARD,
+        CLAIMED_ROUTE,
+        ATTEMPTS_TUNNEL_CLAIM,
+        DREW_ADDITIONAL_CARDS,
+        DID_NOT_CLAIM_ROUTE,
+        LAST_TURN_BEGINS,
+        GETS_LONGEST_TRAIL_BONUS,
+        WON,
+        DRAW;
+
+        public static final List<Kind> ALL = Arrays.asList(Kind.values());
+    }
+
+    private final Kind kind;
+    private final PlayerId playerId;
+    private final Route route;
+    private final Card card;
+    private final SortedBag<Card> cards;
+    private final Station station1;
+    private final Station station2;
+    private final int count;
+    private final int otherCount;
+
+    private GameEvent(Kind kind, PlayerId playerId, Route route, Card card, SortedBag<Card> cards,
+                      Station station1, Station station2, int count, int otherCount) {
+        this.kind = Objects.requireNonNull(kind);
+        this.playerId = Objects.requireNonNull(playerId);
+        this.route = route;
+        this.card = card;
+        this.cards = cards;
+        this.station1 = station1;
+        this.station2 = station2;
+        this.count = count;
+        this.otherCount = otherCount;
+    }
+
+    private static GameEvent of(Kind kind, PlayerId playerId) {
+        return new GameEvent(kind, playerId, null, null, null, null, null, 0, 0);
+    }
+
+    private static GameEvent of(Kind kind, PlayerId playerId, int count) {
+        return new GameEvent(kind, playerId, null, null, null, null, null, count, 0);
+    }
+
+    private static GameEvent of(Kind kind, PlayerId playerId, Route route, SortedBag<Card> cards) {
+        return new GameEvent(kind, playerId, route, null, cards, null, null, 0, 0);
+    }
+
+    /**
+     * The event of the given player playing first
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @return The {@link Kind#WILL_PLAY_FIRST} event
+     */
+    public static GameEvent willPlayFirst(PlayerId playerId) {
+        return of(Kind.WILL_PLAY_FIRST, playerId);
+    }
+
+    /**
+     * The event of the given player keeping the given number of tickets
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @param count    The number of tickets kept
+     * @return The {@link Kind#KEPT_TICKETS} event
+     */
+    public static GameEvent keptTickets(PlayerId playerId, int count) {
+        return of(Kind.KEPT_TICKETS, playerId, count);
+    }
+
+    /**
+     * The event of the given player starting its turn
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @return The {@link Kind#CAN_PLAY} event
+     */
+    public static GameEvent canPlay(PlayerId playerId) {
+        return of(Kind.CAN_PLAY, playerId);
+    }
+
+    /**
+     * The event of the given player drawing the given number of tickets
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @param count    The number of tickets drawn
+     * @return The {@link Kind#DREW_TICKETS} event
+     */
+    public static GameEvent drewTickets(PlayerId playerId, int count) {
+        return of(Kind.DREW_TICKETS, playerId, count);
+    }
+
+    /**
+     * The event of the given player drawing the top card of the deck
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @return The {@link Kind#DREW_BLIND_CARD} event
+     */
+    public static GameEvent drewBlindCard(PlayerId playerId) {
+        return of(Kind.DREW_BLIND_CARD, playerId);
+    }
+
+    /**
+     * The event of the given player drawing the given face-up card
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @param card     The face-up {@link Card} drawn
+     * @return The {@link Kind#DREW_VISIBLE_CARD} event
+     */
+    public static GameEvent drewVisibleCard(PlayerId playerId, Card card) {
+        return new GameEvent(Kind.DREW_VISIBLE_CARD, playerId, null, Objects.requireNonNull(card), null,
+                null, null, 0, 0);
+    }
+
+    /**
+     * The event of the given player claiming the given route with the given cards
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @param route    The claimed {@link Route}
+     * @param cards    The {@link SortedBag} of {@link Card} the route was claimed with
+     * @return The {@link Kind#CLAIMED_ROUTE} event
+     */
+    public static GameEvent claimedRoute(PlayerId playerId, Route route, SortedBag<Card> cards) {
+        return of(Kind.CLAIMED_ROUTE, playerId, Objects.requireNonNull(route), Objects.requireNonNull(cards));
+    }
+
+    /**
+     * The event of the given player attempting to claim the given tunnel with the given cards
+     *
+     * @param playerId     The {@link PlayerId} of the player
+     * @param route        The tunnel {@link Route}
+     * @param initialCards The {@link SortedBag} of {@link Card} initially played
+     * @return The {@link Kind#ATTEMPTS_TUNNEL_CLAIM} event
+     */
+    public static GameEvent attemptsTunnelClaim(PlayerId playerId, Route route, SortedBag<Card> initialCards) {
+        return of(Kind.ATTEMPTS_TUNNEL_CLAIM, playerId, Objects.requireNonNull(route),
+                Objects.requireNonNull(initialCards));
+    }
+
+    /**
+     * The event of the given player drawing the additional cards of a tunnel
+     *
+     * @param playerId       The {@link PlayerId} of the player
+     * @param drawnCards     The additional {@link SortedBag} of {@link Card} drawn
+     * @param additionalCost The number of additional cards they imply
+     * @return The {@link Kind#DREW_ADDITIONAL_CARDS} event
+     */
+    public static GameEvent drewAdditionalCards(PlayerId playerId, SortedBag<Card> drawnCards, int additionalCost) {
+        return new GameEvent(Kind.DREW_ADDITIONAL_CARDS, playerId, null, null, Objects.requireNonNull(drawnCards),
+                null, null, additionalCost, 0);
+    }
+
+    /**
+     * The event of the given player not claiming the given route
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @param route    The {@link Route} not claimed
+     * @return The {@link Kind#DID_NOT_CLAIM_ROUTE} event
+     */
+    public static GameEvent didNotClaimRoute(PlayerId playerId, Route route) {
+        return of(Kind.DID_NOT_CLAIM_ROUTE, playerId, Objects.requireNonNull(route), null);
+    }
+
+    /**
+     * The event of the last turn beginning with the given player
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @param carCount The number of cars the player has left
+     * @return The {@link Kind#LAST_TURN_BEGINS} event
+     */
+    public static GameEvent lastTurnBegins(PlayerId playerId, int carCount) {
+        return of(Kind.LAST_TURN_BEGINS, playerId, carCount);
+    }
+
+    /**
+     * The event of the given player getting the bonus of the longest trail, which goes between the given stations
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @param station1 The first {@link Station} of the longest {@link Trail}
+     * @param station2 The last {@link Station} of the longest {@link Trail}
+     * @return The {@link Kind#GETS_LONGEST_TRAIL_BONUS} event
+     */
+    public static GameEvent getsLongestTrailBonus(PlayerId playerId, Station station1, Station station2) {
+        return new GameEvent(Kind.GETS_LONGEST_TRAIL_BONUS, playerId, null, null, null, station1, station2, 0, 0);
+    }
+
+    /**
+     * The event of the given player winning the game
+     *
+     * @param playerId    The {@link PlayerId} of the winner
+     * @param points      The points of the winner
+     * @param loserPoints The points of its opponent
+     * @return The {@link Kind#WON} event
+     */
+    public static GameEvent won(PlayerId playerId, int points, int loserPoints) {
+        return new GameEvent(Kind.WON, playerId, null, null, null, null, null, points, loserPoints);
+    }
+
+    /**
+     * The event of the game ending in a draw, the names of the players being listed from the given one
+     *
+     * @param firstPlayerId The {@link PlayerId} of the player listed first
+     * @param points        The points every player ended with
+     * @return The {@link Kind#DRAW} event
+     */
+    public static GameEvent draw(PlayerId firstPlayerId, int points) {
+        return of(Kind.DRAW, firstPlayerId, points);
+    }
+
+    /**
+     * The kind of the event
+     *
+     * @return The {@link Kind} of the event
+     */
+    public Kind kind() {
+        return kind;
+    }
+
+    /**
+     * The player the event is about, the first one listed for a {@link Kind#DRAW}
+     *
+     * @return The {@link PlayerId} of the player
+     */
+    public PlayerId playerId() {
+        return playerId;
+    }
+
+    /**
+     * The route the event is about
+     *
+     * @return The {@link Route}, {@code null} for the events not about a route
+     */
+    public Route route() {
+        return route;
+    }
+
+    /**
+     * The face-up card drawn
+     *
+     * @return The {@link Card}, {@code null} for the events other than {@link Kind#DREW_VISIBLE_CARD}
+     */
+    public Card card() {
+        return card;
+    }
+
+    /**
+     * The cards played or drawn
+     *
+     * @return The {@link SortedBag} of {@link Card}, {@code null} for the events not about cards played or drawn
+     */
+    public SortedBag<Card> cards() {
+        return cards;
+    }
+
+    /**
+     * The first station of the longest trail
+     *
+     * @return The {@link Station}, {@code null} for the events other than {@link Kind#GETS_LONGEST_TRAIL_BONUS}
+     */
+    public Station station1() {
+        return station1;
+    }
+
+    /**
+     * The last station of the longest trail
+     *
+     * @return The {@link Station}, {@code null} for the events other than {@link Kind#GETS_LONGEST_TRAIL_BONUS}
+     */
+    public Station station2() {
+        return station2;
+    }
+
+    /**
+     * The number of tickets, cars, additional cards or points the event is about
+     *
+     * @return The count of the event, {@code 0} for the events without a count
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * The points of the loser of the game
+     *
+     * @return The points of the loser, {@code 0} for the events other than {@link Kind#WON}
+     */
+    public int otherCount() {
+        return otherCount;
+    }
+
+    /**
+     * The text describing the event
+     *
+     * @param playerNames The names of the players
+     * @return The text of {@link Info} describing the event
+     */
+    public String text(Map<PlayerId, String> playerNames) {
+        Info info = new Info(playerNames.get(playerId));
+        switch (kind) {
+            case WILL_PLAY_FIRST:
+                return info.willPlayFirst();
+            case KEPT_TICKETS:
+                return info.keptTickets(count);
+            case CAN_PLAY:
+                return info.canPlay();
+            case DREW_TICKETS:
+                return info.drewTickets(count);
+            case DREW_BLIND_CARD:
+                return info.drewBlindCard();
+            case DREW_VISIBLE_CARD:
+                return info.drewVisibleCard(card);
+            case CLAIMED_ROUTE:
+                return info.claimedRoute(route, cards);
+            case ATTEMPTS_TUNNEL_CLAIM:
+                return info.attemptsTunnelClaim(route, cards);
+            case DREW_ADDITIONAL_CARDS:
+                return info.drewAdditionalCards(cards, count);
+            case DID_NOT_CLAIM_ROUTE:
+                return info.didNotClaimRoute(route);
+            case LAST_TURN_BEGINS:
+                return info.lastTurnBegins(count);
+            case GETS_LONGEST_TRAIL_BONUS:
+                return info.getsLongestTrailBonus(station1, station2);
+            case WON:
+                return info.won(count, otherCount);
+            case DRAW:
+                List<String> names = new ArrayList<>();
+                PlayerId listedPlayerId = playerId;
+                for (int i = 0; i < PlayerId.COUNT; i++) {
+                    names.add(playerNames.get(listedPlayerId));
+                    listedPlayerId = listedPlayerId.next();
+                }
+                return Info.draw(names, count);
+            default:
+                throw new Error();
+        }
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        if (!(that instanceof GameEvent))
+            return false;
+        GameEvent event = (GameEvent) that;
+        return kind == event.kind && playerId == event.playerId && Objects.equals(route, event.route)
+                && card == event.card && Objects.equals(cards, event.cards)
+                && Objects.equals(station1, event.station1) && Objects.equals(station2, event.station2)
+                && count == event.count && otherCount == event.otherCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, playerId, route, card, cards, station1, station2, count, otherCount);
+    }
+
+    @Override
+    public String toString() {
+        return kind + "(" + playerId + ")";
+    }
+}
@@ -20,15 +20,24 @@ public final class GameState extends PublicGameState {
     private final Deck<Ticket> tickets;
     private final Map<PlayerId, PlayerState> playerState;
     private final CardState cardState;
+    private final long zobristKey;
 
     private GameState(Deck<Ticket> tickets, CardState cardState, PlayerId currentPlayerId,
                       Map<PlayerId, PlayerState> playerState, PlayerId lastPlayer, boolean gameEnded) {
+        this(tickets, cardState, currentPlayerId, playerState, lastPlayer, gameEnded,
+                Zobrist.keyOf(cardState.faceUpCards(), currentPlayerId, playerState, lastPlayer, gameEnded));
+    }
+
+    private GameState(Deck<Ticket> tickets, CardState cardState, PlayerId currentPlayerId,
+                      Map<PlayerId, PlayerState> playerState, PlayerId lastPlayer, boolean gameEnded,
+                      long zobristKey) {
         super(tickets.size(), new PublicCardState(cardState.faceUpCards(), cardState.deckSize(),
                 cardState.discardsSize()), currentPlayerId, Map.copyOf(playerState), lastPlayer, gameEnded);
 
         this.tickets = tickets;
         this.playerState = playerState;
         this.cardState = cardState;
+        this.zobristKey = zobristKey;
     }
 
     /**
@@ -49,6 +58,53 @@ public final class GameState extends PublicGameState {
         return new GameState(Deck.of(tickets, rng), CardState.of(deck), firstPlayer, playerState, null, false);
     }
 
+    /**
+     * A game state made of the given parts
+     *
+     * @param tickets         The {@link Deck} of {@link Ticket}
+     * @param cardState       The {@link CardState}
+     * @param currentPlayerId The {@link PlayerId} of the current player
+     * @param playerState     The {@link PlayerState} of every player
+     * @param lastPlayer      The {@link PlayerId} of the last player, {@code null} if unknown yet
+     * @param gameEnded       Whether the game ended
+     * @return The {@link GameState} made of the given parts
+     */
+    static GameState of(Deck<Ticket> tickets, CardState cardState, PlayerId currentPlayerId,
+                        Map<PlayerId, PlayerState> playerState, PlayerId lastPlayer, boolean gameEnded) {
+        return new GameState(tickets, cardState, currentPlayerId, new EnumMap<>(playerState), lastPlayer, gameEnded);
+    }
+
+    /**
+     * The deck of tickets, in the order they will be drawn
+     *
+     * @return The {@link Deck} of {@link Ticket}
+     */
+    Deck<Ticket> ticketDeck() {
+        return tickets;
+    }
+
+    /**
+     * The private card state, including the order of the deck and the discards
+     *
+     * @return The {@link CardState} of the game
+     */
+    CardState privateCardState() {
+        return cardState;
+    }
+
+    /**
+     * The Zobrist key of the state, which covers the owners of the routes, the number of cards of every type of the
+     * players, the face-up cards, the current and last players and the end of the game, but neither the tickets nor
+     * the order of the deck and the discards
+     * <p>
+     * The key of the state returned by a transition is computed from this one in constant time.
+     *
+     * @return The Zobrist key of the state, equal for equal states
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
     @Override
     public PlayerState playerState(PlayerId playerId) {
         return playerState.get(playerId);
@@ -79,7 +135,7 @@ public final class GameState extends PublicGameState {
     public GameState withoutTopTickets(int count) {
         Preconditions.checkArgument(0 <= count && count <= tickets.size());
 
-        return new GameState(tickets.withoutTopCards(count), cardState, currentPlayerId(), playerState, lastPlayer(), gameEnded());
+        return new GameState(tickets.withoutTopCards(count), cardState, currentPlayerId(), playerState, lastPlayer(), gameEnded(), zobristKey);
     }
 
     /**
@@ -103,7 +159,7 @@ public final class GameState extends PublicGameState {
     public GameState withoutTopCard() {
         Preconditions.checkArgument(!cardState.isDeckEmpty());
 
-        return new GameState(tickets, cardState.withoutTopDeckCard(), currentPlayerId(), playerState, lastPlayer(), gameEnded());
+        return new GameState(tickets, cardState.withoutTopDeckCard(), currentPlayerId(), playerState, lastPlayer(), gameEnded(), zobristKey);
     }
 
     /**
@@ -113,7 +169,7 @@ public final class GameState extends PublicGameState {
      * @return the same {@link GameState} except that the given cards were added to the discards
      */
     public GameState withMoreDiscardedCards(SortedBag<Card> discardedCards) {
-        return new GameState(tickets, cardState.withMoreDiscardedCards(discardedCards), currentPlayerId(), playerState, lastPlayer(), gameEnded());
+        return new GameState(tickets, cardState.withMoreDiscardedCards(discardedCards), currentPlayerId(), playerState, lastPlayer(), gameEnded(), zobristKey);
     }
 
     /**
@@ -123,7 +179,7 @@ public final class GameState extends PublicGameState {
      * @return the same {@link GameState} except that the deck is empty, it's recreated from the discards
      */
     public GameState withCardsDeckRecreatedIfNeeded(Random rng) {
-        return cardState.isDeckEmpty() ? new GameState(tickets, cardState.withDeckRecreatedFromDiscards(rng), currentPlayerId(), playerState, lastPlayer(), gameEnded()) : this;
+        return cardState.isDeckEmpty() ? new GameState(tickets, cardState.withDeckRecreatedFromDiscards(rng), currentPlayerId(), playerState, lastPlayer(), gameEnded(), zobristKey) : this;
     }
 
     /**
@@ -140,7 +196,7 @@ public final class GameState extends PublicGameState {
         Map<PlayerId, PlayerState> updatedPlayerState = new EnumMap<>(playerState);
         updatedPlayerState.put(player, playerState(player).withAddedTickets(chosenTickets));
 
-        return new GameState(tickets, cardState, currentPlayerId(), updatedPlayerState, lastPlayer(), gameEnded());
+        return new GameState(tickets, cardState, currentPlayerId(), updatedPlayerState, lastPlayer(), gameEnded(), zobristKey);
     }
 
     /**
@@ -157,7 +213,7 @@ public final class GameState extends PublicGameState {
         Map<PlayerId, PlayerState> updatedPlayerState = new EnumMap<>(playerState);
         updatedPlayerState.put(currentPlayerId(), updatedPlayerState.get(currentPlayerId()).withAddedTickets(chosenTickets));
 
-        return new GameState(tickets.withoutTopCards(Constants.IN_GAME_TICKETS_COUNT), cardState, currentPlayerId(), updatedPlayerState, lastPlayer(), gameEnded());
+        return new GameState(tickets.withoutTopCards(Constants.IN_GAME_TICKETS_COUNT), cardState, currentPlayerId(), updatedPlayerState, lastPlayer(), gameEnded(), zobristKey);
     }
 
     /**
@@ -173,8 +229,10 @@ public final class GameState extends PublicGameState {
 
         Map<PlayerId, PlayerState> updatedPlayerState = new EnumMap<>(playerState);
         updatedPlayerState.put(currentPlayerId(), updatedPlayerState.get(currentPlayerId()).withAddedCard(drawnCard));
+        long updatedKey = zobristKey ^ drawnCardKeyChange(drawnCard)
+                ^ Zobrist.faceUp(slot, drawnCard.ordinal()) ^ Zobrist.faceUp(slot, updatedCardState.faceUpCard(slot).ordinal());
 
-        return new GameState(tickets, updatedCardState, currentPlayerId(), updatedPlayerState, lastPlayer(), gameEnded());
+        return new GameState(tickets, updatedCardState, currentPlayerId(), updatedPlayerState, lastPlayer(), gameEnded(), updatedKey);
     }
 
     /**
@@ -190,7 +248,8 @@ public final class GameState extends PublicGameState {
         Map<PlayerId, PlayerState> updatedPlayerState = new EnumMap<>(playerState);
         updatedPlayerState.put(currentPlayerId(), updatedPlayerState.get(currentPlayerId()).withAddedCard(drawnCard));
 
-        return new GameState(tickets, updatedCardState, currentPlayerId(), updatedPlayerState, lastPlayer(), gameEnded());
+        return new GameState(tickets, updatedCardState, currentPlayerId(), updatedPlayerState, lastPlayer(), gameEnded(),
+                zobristKey ^ drawnCardKeyChange(drawnCard));
     }
 
     /**
@@ -205,8 +264,14 @@ public final class GameState extends PublicGameState {
 
         Map<PlayerId, PlayerState> updatedPlayerState = new EnumMap<>(playerState);
         updatedPlayerState.put(currentPlayerId(), updatedPlayerState.get(currentPlayerId()).withClaimedRoute(route, cards));
+        int player = currentPlayerId().ordinal();
+        long updatedKey = zobristKey ^ Zobrist.route(currentPlayerId(), route);
+        for (Card card : cards.toSet()) {
+            int count = currentPlayerState().hand().countOf(card);
+            updatedKey ^= Zobrist.cardsChange(player, card.ordinal(), count, count - cards.countOf(card));
+        }
 
-        return new GameState(tickets, updatedCardState, currentPlayerId(), updatedPlayerState, lastPlayer(), gameEnded());
+        return new GameState(tickets, updatedCardState, currentPlayerId(), updatedPlayerState, lastPlayer(), gameEnded(), updatedKey);
     }
 
     /**
@@ -224,7 +289,12 @@ public final class GameState extends PublicGameState {
      * @return The same {@link GameState} except that the {@link GameState#currentPlayerId()} is now the next player
      */
     public GameState forNextTurn() {
-        return new GameState(tickets, cardState, currentPlayerId().next(), playerState, lastTurnBegins() ? currentPlayerId() : lastPlayer(), gameEnded());
+        long updatedKey = zobristKey ^ Zobrist.currentPlayer(currentPlayerId().ordinal())
+                ^ Zobrist.currentPlayer(currentPlayerId().next().ordinal());
+        if (lastTurnBegins())
+            updatedKey ^= Zobrist.lastPlayer(currentPlayerId().ordinal());
+
+        return new GameState(tickets, cardState, currentPlayerId().next(), playerState, lastTurnBegins() ? currentPlayerId() : lastPlayer(), gameEnded(), updatedKey);
     }
 
     /**
@@ -233,6 +303,14 @@ public final class GameState extends PublicGameState {
      * @return The same {@link GameState} except that the game ended
      */
     public GameState gameHasEnded() {
-        return new GameState(tickets, cardState, currentPlayerId(), playerState, lastPlayer(), true);
+        return new GameState(tickets, cardState, currentPlayerId(), playerState, lastPlayer(), true,
+                zobristKey ^ Zobrist.gameEnded(gameEnded()) ^ Zobrist.gameEnded(true));
+    }
+
+    // The change of the key of the current player drawing the given card
+    private long drawnCardKeyChange(Card drawnCard) {
+        int count = currentPlayerState().hand().countOf(drawnCard);
+
+        return Zobrist.cardsChange(currentPlayerId().ordinal(), drawnCard.ordinal(), count, count + 1);
     }
 }
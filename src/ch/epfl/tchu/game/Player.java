@@ -37,6 +37,16 @@ public interface Player {
      */
     void receiveInfo(String info);
 
+    /**
+     * Communicates an event of the game to the player, which receives the information describing it by default
+     *
+     * @param event       The {@link GameEvent}
+     * @param playerNames The names of the different players, as given to {@link #initPlayers}
+     */
+    default void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+        receiveInfo(event.text(playerNames));
+    }
+
     /**
      * Informs the player when the game state has changed
      *
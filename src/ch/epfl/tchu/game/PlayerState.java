@@ -1,9 +1,7 @@
 package ch.epfl.tchu.game;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
@@ -17,8 +15,13 @@ import ch.epfl.tchu.SortedBag;
  */
 public final class PlayerState extends PublicPlayerState {
     private final SortedBag<Ticket> tickets;
-    private final SortedBag<Card> cards;
-    private final int ticketPoints;
+    private final CardBag hand;
+    private final TicketPoints ticketPoints;
+
+    // The sorted bag and the claim index of the hand, only built when they are needed. The states being shared between
+    // threads, they are volatile so that they are only seen once fully built, a race building them twice at worst
+    private volatile SortedBag<Card> cards;
+    private volatile ClaimIndex claimIndex;
 
     /**
      * A player state with the given tickets, cards and routes
@@ -28,11 +31,29 @@ public final class PlayerState extends PublicPlayerState {
      * @param routes  The player's claimed {@link List} of {@link Route}
      */
     public PlayerState(SortedBag<Ticket> tickets, SortedBag<Card> cards, List<Route> routes) {
-        super(tickets.size(), cards.size(), routes);
+        this(tickets, CardBag.of(cards), cards, null, routes, StationPartition.of(routes), null);
+    }
+
+    /**
+     * A player state whose card bag and station partition have already been computed
+     *
+     * @param tickets    The player's {@link SortedBag} of {@link Ticket}
+     * @param hand       The player's {@link CardBag}
+     * @param cards      The {@link SortedBag} of {@link Card} equal to {@code hand}, {@code null} if it is not known yet
+     * @param claimIndex The {@link ClaimIndex} of {@code hand}, {@code null} if it is not known yet
+     * @param routes     The player's claimed {@link List} of {@link Route}
+     * @param partition  The {@link StationPartition} of the network composed of {@code routes}
+     * @param points     The {@link TicketPoints} of {@code tickets} in {@code partition}, {@code null} to score them all
+     */
+    private PlayerState(SortedBag<Ticket> tickets, CardBag hand, SortedBag<Card> cards, ClaimIndex claimIndex,
+                        List<Route> routes, StationPartition partition, TicketPoints points) {
+        super(tickets.size(), hand.size(), routes, partition);
 
         this.tickets = tickets;
+        this.hand = hand;
         this.cards = cards;
-        this.ticketPoints = tickets.stream().map(ticket -> ticket.points(connectivity())).reduce(0, Integer::sum);
+        this.claimIndex = claimIndex;
+        this.ticketPoints = points != null ? points : TicketPoints.EMPTY.withAddedTickets(tickets, partition);
     }
 
     /**
@@ -65,7 +86,8 @@ public final class PlayerState extends PublicPlayerState {
      */
     public PlayerState withAddedTickets(SortedBag<Ticket> newTickets) {
         return new PlayerState(new SortedBag.Builder<Ticket>().add(tickets())
-                .add(newTickets).build(), cards(), routes());
+                .add(newTickets).build(), hand, cards, claimIndex, routes(), partition(),
+                ticketPoints.withAddedTickets(newTickets, partition()));
     }
 
     /**
@@ -74,9 +96,24 @@ public final class PlayerState extends PublicPlayerState {
      * @return The car {@link SortedBag} of {@link Card} of the player
      */
     public SortedBag<Card> cards() {
+        SortedBag<Card> cards = this.cards;
+        if (cards == null) {
+            cards = hand.toSortedBag();
+            this.cards = cards;
+        }
+
         return cards;
     }
 
+    /**
+     * The car cards of the player, as a primitive bag
+     *
+     * @return The {@link CardBag} of the player
+     */
+    CardBag hand() {
+        return hand;
+    }
+
     /**
      * The same player state, except that the given card was added
      *
@@ -84,8 +121,7 @@ public final class PlayerState extends PublicPlayerState {
      * @return The same {@link PlayerState}, except that {@code card} was added
      */
     public PlayerState withAddedCard(Card card) {
-        return new PlayerState(tickets(), new SortedBag.Builder<Card>()
-                .add(cards()).add(card).build(), routes());
+        return new PlayerState(tickets(), hand.with(card), null, null, routes(), partition(), ticketPoints);
     }
 
     /**
@@ -108,8 +144,13 @@ public final class PlayerState extends PublicPlayerState {
     public List<SortedBag<Card>> possibleClaimCards(Route route) {
         Preconditions.checkArgument(carCount() >= route.length());
 
-        return route.possibleClaimCards().stream().filter((SortedBag<Card> cards)
-                -> this.cards().contains(cards)).collect(Collectors.toList());
+        ClaimIndex claimIndex = this.claimIndex;
+        if (claimIndex == null) {
+            claimIndex = new ClaimIndex(hand);
+            this.claimIndex = claimIndex;
+        }
+
+        return claimIndex.possibleClaimCards(route);
     }
 
     /**
@@ -122,18 +163,14 @@ public final class PlayerState extends PublicPlayerState {
      */
     public List<SortedBag<Card>> possibleAdditionalCards(int additionalCardsCount, SortedBag<Card> initialCards) {
         Preconditions.checkArgument(1 <= additionalCardsCount && additionalCardsCount <= Constants.ADDITIONAL_TUNNEL_CARDS);
-        Preconditions.checkArgument(!initialCards.isEmpty() && initialCards.toSet().size() <= 2);
-
-        SortedBag<Card> remainingCards = cards().difference(initialCards);
-        if (remainingCards.isEmpty()) return new ArrayList<>();
+        CardBag initialBag = CardBag.of(initialCards);
+        Preconditions.checkArgument(!initialBag.isEmpty() && initialBag.distinctCount() <= 2);
 
-        SortedBag<Card> filteredCards = SortedBag.of(remainingCards.stream()
-                .filter((Card card) -> card.equals(Card.LOCOMOTIVE) || card.equals(initialCards.get(0)))
-                .collect(Collectors.toList()));
-        if (filteredCards.size() < additionalCardsCount) return new ArrayList<>();
+        CardBag remainingCards = hand.difference(initialBag);
+        Card initialCard = initialCards.get(0);
 
-        return filteredCards.subsetsOfSize(additionalCardsCount).stream()
-                .sorted(Comparator.comparingInt(additionalCards -> additionalCards.countOf(Card.LOCOMOTIVE))).collect(Collectors.toList());
+        return AdditionalCardsTable.options(initialCard, remainingCards.countOf(initialCard),
+                remainingCards.countOf(Card.LOCOMOTIVE), additionalCardsCount);
     }
 
     /**
@@ -147,7 +184,10 @@ public final class PlayerState extends PublicPlayerState {
         List<Route> updatedRoutes = new ArrayList<>(routes());
         updatedRoutes.add(route);
 
-        return new PlayerState(tickets(), new SortedBag.Builder<Card>().add(cards().difference(claimCards)).build(), updatedRoutes);
+        StationPartition updatedPartition = partition().withConnected(route.station1(), route.station2());
+
+        return new PlayerState(tickets(), hand.difference(CardBag.of(claimCards)), null, null, updatedRoutes, updatedPartition,
+                ticketPoints.withConnected(partition(), updatedPartition, route.station1(), route.station2()));
     }
 
     /**
@@ -156,7 +196,7 @@ public final class PlayerState extends PublicPlayerState {
      * @return The number of points, eventually negative, earned by the player from their tickets
      */
     public int ticketPoints() {
-        return ticketPoints;
+        return ticketPoints.total();
     }
 
     /**
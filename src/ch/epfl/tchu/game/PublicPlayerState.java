@@ -1,7 +1,6 @@
 package ch.epfl.tchu.game;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import ch.epfl.tchu.Preconditions;
 
@@ -12,7 +11,7 @@ import ch.epfl.tchu.Preconditions;
  * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
  */
 public class PublicPlayerState {
-    private final StationConnectivity connectivity;
+    private final StationPartition connectivity;
     private final int ticketCount;
     private final int cardCount;
     private final List<Route> routes;
@@ -28,15 +27,22 @@ public class PublicPlayerState {
      * @throws IllegalArgumentException If {@code ticketCount} or {@code cardCount} are strictly negative
      */
     public PublicPlayerState(int ticketCount, int cardCount, List<Route> routes) {
-        Preconditions.checkArgument(ticketCount >= 0 && cardCount >= 0);
+        this(ticketCount, cardCount, routes, StationPartition.of(routes));
+    }
 
-        int highestId = routes.isEmpty() ? 0 : routes.stream().flatMap((Route route) -> (List.of(route.station1().id(), route.station2().id()).stream()))
-                .collect(Collectors.toSet()).stream().reduce(Integer.MIN_VALUE, Integer::max);
-        StationPartition.Builder connectivityBuilder = new StationPartition
-                .Builder(highestId + 1);
-        routes.forEach(route -> connectivityBuilder.connect(route.station1(), route.station2()));
+    /**
+     * A public player state whose connectivity has already been computed from its routes
+     *
+     * @param ticketCount  The number of {@link Ticket} the player has
+     * @param cardCount    The number of {@link Card} the player has
+     * @param routes       The {@link List} of {@link Route} the player claimed
+     * @param connectivity The {@link StationPartition} of the network composed of {@code routes}
+     * @throws IllegalArgumentException If {@code ticketCount} or {@code cardCount} are strictly negative
+     */
+    PublicPlayerState(int ticketCount, int cardCount, List<Route> routes, StationPartition connectivity) {
+        Preconditions.checkArgument(ticketCount >= 0 && cardCount >= 0);
 
-        this.connectivity = connectivityBuilder.build();
+        this.connectivity = connectivity;
         this.ticketCount = ticketCount;
         this.cardCount = cardCount;
         this.routes = List.copyOf(routes);
@@ -51,6 +57,13 @@ public class PublicPlayerState {
      */
     public StationConnectivity connectivity() { return connectivity; }
 
+    /**
+     * The station partition of the player, shared with the states derived from this one
+     *
+     * @return The {@link StationPartition} of the player
+     */
+    StationPartition partition() { return connectivity; }
+
     /**
      * The number of tickets the player has
      *
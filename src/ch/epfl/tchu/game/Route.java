@@ -1,6 +1,7 @@
 
 package ch.epfl.tchu.game;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
@@ -25,6 +26,7 @@ public final class Route {
     private final Level level;
     private final Color color;
     private final List<SortedBag<Card>> possibleClaimCards;
+    private final List<CardBag> possibleClaimCardBags;
 
     /**
      * The two levels a route can be on
@@ -54,6 +56,11 @@ public final class Route {
         this.level = Objects.requireNonNull(level);
         this.color = color;
         this.possibleClaimCards = computePossibleClaimCards();
+
+        List<CardBag> possibleClaimCardBags = new ArrayList<>(possibleClaimCards.size());
+        for (SortedBag<Card> claimCards : possibleClaimCards)
+            possibleClaimCardBags.add(CardBag.of(claimCards));
+        this.possibleClaimCardBags = List.copyOf(possibleClaimCardBags);
     }
 
     /**
@@ -141,6 +148,15 @@ public final class Route {
         return possibleClaimCards;
     }
 
+    /**
+     * The possible sets of cards a player can use to claim the route, in the order of {@link Route#possibleClaimCards()}
+     *
+     * @return The {@link List} of {@link CardBag} equal to {@link Route#possibleClaimCards()}
+     */
+    List<CardBag> possibleClaimCardBags() {
+        return possibleClaimCardBags;
+    }
+
     /**
      * The additional number of cards the player must have to claim the route
      *
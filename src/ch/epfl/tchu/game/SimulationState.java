@@ -0,0 +1,1044 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * A mutable game state on the map of {@link ChMap}, kept in primitive arrays and following the rules of
+ * {@link GameState}, for searches and rollouts that play many moves
+ * <p>
+ * Its moves taking primitive arguments change it in place without allocating, a state being saved before a move by
+ * copying it into another one with {@link #copyFrom(SimulationState)}, which does not allocate either.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see GameState
+ */
+public final class SimulationState {
+    private static final List<Route> ROUTES = ChMap.routes();
+    private static final int ROUTE_COUNT = ROUTES.size();
+    private static final Map<String, Integer> ROUTE_INDICES = computeRouteIndices();
+    // The index of the other route between the same stations, -1 if the route is single
+    private static final int[] NEIGHBORS = computeNeighbors();
+    private static final int STATION_COUNT = ChMap.stations().size();
+    // The indices of the routes of every station, by station identifier
+    private static final int[][] INCIDENCES = computeIncidences();
+
+    private static final int NO_PLAYER = -1;
+    private static final int LOCOMOTIVE = Card.LOCOMOTIVE.ordinal();
+
+    // The owner of every route, and the routes in the order they were claimed
+    private final int[] routeOwners = new int[ROUTE_COUNT];
+    private final int[] claimedRoutes = new int[ROUTE_COUNT];
+    private int claimedRouteCount;
+
+    // The cards of every player, indexed by player then card, and their number
+    private final int[] hands = new int[PlayerId.COUNT * Card.COUNT];
+    private final int[] cardCounts = new int[PlayerId.COUNT];
+    private final int[] carCounts = new int[PlayerId.COUNT];
+    private final int[] claimPoints = new int[PlayerId.COUNT];
+    private final int[] ticketCounts = new int[PlayerId.COUNT];
+    // The union-find forest of the network of every player, indexed by player then station
+    private final int[] links = new int[PlayerId.COUNT * STATION_COUNT];
+    private final int[] ranks = new int[PlayerId.COUNT * STATION_COUNT];
+
+    // The cards of the deck are the ones between deckTop and deckEnd, the top one first
+    private final int[] faceUpCards = new int[Constants.FACE_UP_CARDS_COUNT];
+    private final int[] deck = new int[Constants.TOTAL_CARDS_COUNT];
+    private int deckTop;
+    private int deckEnd;
+    private final int[] discards = new int[Card.COUNT];
+    private int discardCount;
+
+    // The tickets of the game, shared between copies and never modified, those from ticketTop on being the deck
+    private Ticket[] tickets;
+    private int[] ticketOwners;
+    private int ticketTop;
+
+    private int currentPlayer;
+    private int lastPlayer;
+    private boolean gameEnded;
+    // The Zobrist key of the state, updated by every move
+    private long zobristKey;
+
+    // Scratch space of the longest trail search, never copied
+    private final long[] usedRoutes = new long[(ROUTE_COUNT + Long.SIZE - 1) / Long.SIZE];
+    private final int[] additionalCards = new int[Constants.ADDITIONAL_TUNNEL_CARDS];
+
+    /**
+     * A state without any claimed route nor card, whose tickets are the given ones
+     *
+     * @param tickets The array of {@link Ticket} of the game
+     */
+    private SimulationState(Ticket[] tickets) {
+        this.tickets = tickets;
+        this.ticketOwners = new int[tickets.length];
+        Arrays.fill(ticketOwners, NO_PLAYER);
+        Arrays.fill(routeOwners, NO_PLAYER);
+        for (int i = 0; i < links.length; i++)
+            links[i] = i % STATION_COUNT;
+        Arrays.fill(carCounts, Constants.INITIAL_CAR_COUNT);
+        this.lastPlayer = NO_PLAYER;
+    }
+
+    /**
+     * The initial state of a game, identical to the one of {@link GameState#initial(SortedBag, Random)} for a random
+     * number generator in the same state
+     *
+     * @param tickets The {@link SortedBag} of {@link Ticket} of the game
+     * @param rng     The {@link Random} number generator
+     * @return The initial {@link SimulationState}
+     */
+    public static SimulationState initial(SortedBag<Ticket> tickets, Random rng) {
+        Ticket[] ticketDeck = tickets.toList().toArray(new Ticket[0]);
+        SimulationState state = new SimulationState(ticketDeck);
+
+        int[] allCards = new int[Card.COUNT];
+        for (Card card : Card.ALL)
+            allCards[card.ordinal()] = Constants.ALL_CARDS.countOf(card);
+        state.fillDeck(allCards, rng);
+        for (int p = 0; p < PlayerId.COUNT; p++) {
+            for (int i = 0; i < Constants.INITIAL_CARDS_COUNT; i++)
+                state.addCard(p, state.deck[state.deckTop++]);
+        }
+        state.currentPlayer = rng.nextInt(PlayerId.COUNT);
+        Deck.shuffled(ticketDeck, rng);
+        for (int slot = 0; slot < Constants.FACE_UP_CARDS_COUNT; slot++)
+            state.faceUpCards[slot] = state.deck[state.deckTop++];
+        state.zobristKey = state.computeZobristKey();
+
+        return state;
+    }
+
+    /**
+     * The state equal to the given game state, whose hidden cards and tickets are in the same order
+     *
+     * @param gameState The {@link GameState}
+     * @return The {@link SimulationState} equal to {@code gameState}
+     * @throws IllegalArgumentException If a route of {@code gameState} is not a route of {@link ChMap} or is claimed
+     *                                  twice, or if it has more cards than {@link Constants#TOTAL_CARDS_COUNT}
+     */
+    public static SimulationState of(GameState gameState) {
+        Deck<Ticket> ticketDeck = gameState.ticketDeck();
+        int keptTicketCount = 0;
+        for (PlayerId playerId : PlayerId.ALL)
+            keptTicketCount += gameState.playerState(playerId).ticketCount();
+
+        // The tickets kept by the players come first, so that they are not part of the deck
+        Ticket[] tickets = new Ticket[keptTicketCount + ticketDeck.size()];
+        SimulationState state = new SimulationState(tickets);
+        for (PlayerId playerId : PlayerId.ALL) {
+            for (Ticket ticket : gameState.playerState(playerId).tickets())
+                state.dealTicket(playerId.ordinal(), ticket);
+        }
+        for (int i = 0; i < ticketDeck.size(); i++)
+            tickets[keptTicketCount + i] = ticketDeck.card(i);
+
+        CardState cardState = gameState.privateCardState();
+        Preconditions.checkArgument(cardState.deckSize() <= state.deck.length);
+        for (int slot = 0; slot < Constants.FACE_UP_CARDS_COUNT; slot++)
+            state.faceUpCards[slot] = cardState.faceUpCard(slot).ordinal();
+        for (int i = 0; i < cardState.deckSize(); i++)
+            state.deck[i] = cardState.deck().card(i).ordinal();
+        state.deckEnd = cardState.deckSize();
+        for (Card card : Card.ALL)
+            state.discards[card.ordinal()] = cardState.discards().countOf(card);
+        state.discardCount = cardState.discardsSize();
+
+        for (PlayerId playerId : PlayerId.ALL) {
+            int p = playerId.ordinal();
+            PlayerState playerState = gameState.playerState(playerId);
+            for (Card card : Card.ALL) {
+                int count = playerState.hand().countOf(card);
+                state.hands[p * Card.COUNT + card.ordinal()] = count;
+                state.cardCounts[p] += count;
+            }
+            for (Route route : playerState.routes()) {
+                int r = routeIndex(route);
+                Preconditions.checkArgument(state.routeOwners[r] == NO_PLAYER);
+                state.addRoute(p, r);
+            }
+            state.carCounts[p] = playerState.carCount();
+        }
+
+        state.currentPlayer = gameState.currentPlayerId().ordinal();
+        state.lastPlayer = Objects.isNull(gameState.lastPlayer()) ? NO_PLAYER : gameState.lastPlayer().ordinal();
+        state.gameEnded = gameState.gameEnded();
+        state.zobristKey = state.computeZobristKey();
+
+        return state;
+    }
+
+    /**
+     * A state consistent with what the given player knows of the game, the cards and tickets they do not see being
+     * dealt at random to the other players, the deck and the discards
+     *
+     * @param gameState      The {@link PublicGameState} of the game
+     * @param ownId          The {@link PlayerId} of the player
+     * @param ownState       The {@link PlayerState} of the player
+     * @param tickets        The {@link SortedBag} of {@link Ticket} that are neither in the discards nor known to the
+     *                       player to be discarded, including theirs
+     * @param topTickets     The {@link SortedBag} of {@link Ticket} the player knows to be on top of the deck of
+     *                       tickets, in the order of {@link SortedBag#toList()}
+     * @param discardedCards The {@link SortedBag} of {@link Card} the player knows to be in the discards
+     * @param rng            The {@link Random} number generator dealing the hidden cards and tickets
+     * @return A random {@link SimulationState} consistent with the knowledge of the player
+     * @throws IllegalArgumentException If the cards or tickets are not consistent with {@code gameState}, or if a
+     *                                  route of {@code gameState} is not a route of {@link ChMap} or is claimed twice
+     */
+    public static SimulationState sampled(PublicGameState gameState, PlayerId ownId, PlayerState ownState,
+                                          SortedBag<Ticket> tickets, SortedBag<Ticket> topTickets,
+                                          SortedBag<Card> discardedCards, Random rng) {
+        int own = ownId.ordinal();
+        Preconditions.checkArgument(tickets.contains(ownState.tickets().union(topTickets))
+                && topTickets.size() <= gameState.ticketsCount());
+
+        // The tickets of the players come first, then the unseen tickets left out of the deck, then the deck
+        List<Ticket> unseenTickets = new ArrayList<>(tickets.difference(ownState.tickets()).difference(topTickets).toList());
+        Collections.shuffle(unseenTickets, rng);
+        int hiddenTicketCount = 0;
+        for (PlayerId playerId : PlayerId.ALL) {
+            if (playerId != ownId)
+                hiddenTicketCount += gameState.playerState(playerId).ticketCount();
+        }
+        int deckTicketCount = gameState.ticketsCount() - topTickets.size();
+        Preconditions.checkArgument(hiddenTicketCount + deckTicketCount <= unseenTickets.size());
+
+        Ticket[] ticketTable = new Ticket[tickets.size()];
+        SimulationState state = new SimulationState(ticketTable);
+        for (Ticket ticket : ownState.tickets())
+            state.dealTicket(own, ticket);
+        Iterator<Ticket> unseen = unseenTickets.iterator();
+        for (PlayerId playerId : PlayerId.ALL) {
+            for (int i = playerId == ownId ? 0 : gameState.playerState(playerId).ticketCount(); i > 0; i--)
+                state.dealTicket(playerId.ordinal(), unseen.next());
+        }
+        int ticketDeckStart = ticketTable.length - topTickets.size() - deckTicketCount;
+        while (state.ticketTop < ticketDeckStart)
+            state.dealTicket(NO_PLAYER, unseen.next());
+        for (Ticket ticket : topTickets)
+            ticketTable[state.ticketTop++] = ticket;
+        while (unseen.hasNext())
+            ticketTable[state.ticketTop++] = unseen.next();
+        state.ticketTop = ticketDeckStart;
+
+        // The cards the player does not see are shuffled into the deck, then dealt to the others and the discards
+        PublicCardState cardState = gameState.cardState();
+        int[] unseenCards = new int[Card.COUNT];
+        for (Card card : Card.ALL) {
+            int c = card.ordinal();
+            unseenCards[c] = Constants.ALL_CARDS.countOf(card) - ownState.cards().countOf(card)
+                    - discardedCards.countOf(card);
+            state.hands[own * Card.COUNT + c] = ownState.cards().countOf(card);
+            state.discards[c] = discardedCards.countOf(card);
+        }
+        for (int slot = 0; slot < Constants.FACE_UP_CARDS_COUNT; slot++) {
+            state.faceUpCards[slot] = cardState.faceUpCard(slot).ordinal();
+            unseenCards[state.faceUpCards[slot]]--;
+        }
+        int hiddenCardCount = cardState.deckSize() + cardState.discardsSize() - discardedCards.size();
+        for (PlayerId playerId : PlayerId.ALL) {
+            if (playerId != ownId)
+                hiddenCardCount += gameState.playerState(playerId).cardCount();
+        }
+        int unseenCardCount = 0;
+        for (int count : unseenCards) {
+            Preconditions.checkArgument(count >= 0);
+            unseenCardCount += count;
+        }
+        Preconditions.checkArgument(unseenCardCount == hiddenCardCount && discardedCards.size() <= cardState.discardsSize());
+
+        state.fillDeck(unseenCards, rng);
+        state.cardCounts[own] = ownState.cardCount();
+        for (PlayerId playerId : PlayerId.ALL) {
+            for (int i = playerId == ownId ? 0 : gameState.playerState(playerId).cardCount(); i > 0; i--)
+                state.addCard(playerId.ordinal(), state.deck[state.deckTop++]);
+        }
+        while (state.deckSize() > cardState.deckSize())
+            state.discard(state.deck[--state.deckEnd], 1);
+        state.discardCount = cardState.discardsSize();
+
+        for (PlayerId playerId : PlayerId.ALL) {
+            int p = playerId.ordinal();
+            PublicPlayerState playerState = gameState.playerState(playerId);
+            for (Route route : playerState.routes()) {
+                int r = routeIndex(route);
+                Preconditions.checkArgument(state.routeOwners[r] == NO_PLAYER);
+                state.addRoute(p, r);
+            }
+            state.carCounts[p] = playerState.carCount();
+        }
+
+        state.currentPlayer = gameState.currentPlayerId().ordinal();
+        state.lastPlayer = Objects.isNull(gameState.lastPlayer()) ? NO_PLAYER : gameState.lastPlayer().ordinal();
+        state.gameEnded = gameState.gameEnded();
+        state.zobristKey = state.computeZobristKey();
+
+        return state;
+    }
+
+    /**
+     * The index of the given route among the routes of {@link ChMap}
+     *
+     * @param route The {@link Route}
+     * @return The index of {@code route} in {@link ChMap#routes()}
+     * @throws IllegalArgumentException If {@code route} is not a route of {@link ChMap}
+     */
+    public static int routeIndex(Route route) {
+        Integer index = ROUTE_INDICES.get(route.id());
+        Preconditions.checkArgument(!Objects.isNull(index));
+
+        return index;
+    }
+
+    /**
+     * A new state equal to this one
+     *
+     * @return A copy of this {@link SimulationState}
+     */
+    public SimulationState copy() {
+        SimulationState copy = new SimulationState(tickets);
+        copy.copyFrom(this);
+
+        return copy;
+    }
+
+    /**
+     * Makes this state equal to the given one, without allocating unless their games have different numbers of tickets
+     *
+     * @param that The {@link SimulationState} to copy
+     */
+    public void copyFrom(SimulationState that) {
+        System.arraycopy(that.routeOwners, 0, routeOwners, 0, ROUTE_COUNT);
+        System.arraycopy(that.claimedRoutes, 0, claimedRoutes, 0, that.claimedRouteCount);
+        claimedRouteCount = that.claimedRouteCount;
+
+        System.arraycopy(that.hands, 0, hands, 0, hands.length);
+        System.arraycopy(that.cardCounts, 0, cardCounts, 0, PlayerId.COUNT);
+        System.arraycopy(that.carCounts, 0, carCounts, 0, PlayerId.COUNT);
+        System.arraycopy(that.claimPoints, 0, claimPoints, 0, PlayerId.COUNT);
+        System.arraycopy(that.ticketCounts, 0, ticketCounts, 0, PlayerId.COUNT);
+        System.arraycopy(that.links, 0, links, 0, links.length);
+        System.arraycopy(that.ranks, 0, ranks, 0, ranks.length);
+
+        System.arraycopy(that.faceUpCards, 0, faceUpCards, 0, Constants.FACE_UP_CARDS_COUNT);
+        System.arraycopy(that.deck, that.deckTop, deck, that.deckTop, that.deckEnd - that.deckTop);
+        deckTop = that.deckTop;
+        deckEnd = that.deckEnd;
+        System.arraycopy(that.discards, 0, discards, 0, Card.COUNT);
+        discardCount = that.discardCount;
+
+        tickets = that.tickets;
+        if (ticketOwners.length != that.ticketOwners.length)
+            ticketOwners = new int[that.ticketOwners.length];
+        System.arraycopy(that.ticketOwners, 0, ticketOwners, 0, ticketOwners.length);
+        ticketTop = that.ticketTop;
+
+        currentPlayer = that.currentPlayer;
+        lastPlayer = that.lastPlayer;
+        gameEnded = that.gameEnded;
+        zobristKey = that.zobristKey;
+    }
+
+    /**
+     * The game state equal to this state
+     *
+     * @return The {@link GameState} equal to this state, whose hidden cards and tickets are in the same order
+     */
+    public GameState toGameState() {
+        Card[] deckCards = new Card[deckEnd - deckTop];
+        for (int i = 0; i < deckCards.length; i++)
+            deckCards[i] = Card.ALL.get(deck[deckTop + i]);
+        List<Card> faceUp = new ArrayList<>();
+        for (int card : faceUpCards)
+            faceUp.add(Card.ALL.get(card));
+        CardBag discardBag = CardBag.EMPTY;
+        for (Card card : Card.ALL)
+            discardBag = discardBag.union(CardBag.of(discards[card.ordinal()], card));
+        CardState cardState = CardState.of(faceUp, Deck.of(deckCards, 0), discardBag);
+
+        Map<PlayerId, PlayerState> playerStates = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            int p = playerId.ordinal();
+            SortedBag.Builder<Ticket> playerTickets = new SortedBag.Builder<>();
+            for (int t = 0; t < ticketTop; t++) {
+                if (ticketOwners[t] == p)
+                    playerTickets.add(tickets[t]);
+            }
+            SortedBag.Builder<Card> playerCards = new SortedBag.Builder<>();
+            for (Card card : Card.ALL)
+                playerCards.add(cardCount(playerId, card), card);
+            List<Route> playerRoutes = new ArrayList<>();
+            for (int i = 0; i < claimedRouteCount; i++) {
+                if (routeOwners[claimedRoutes[i]] == p)
+                    playerRoutes.add(ROUTES.get(claimedRoutes[i]));
+            }
+            playerStates.put(playerId, new PlayerState(playerTickets.build(), playerCards.build(), playerRoutes));
+        }
+
+        return GameState.of(Deck.of(tickets, ticketTop), cardState, currentPlayerId(), playerStates, lastPlayer(),
+                gameEnded);
+    }
+
+    /**
+     * @return The {@link PlayerId} of the current player
+     */
+    public PlayerId currentPlayerId() {
+        return PlayerId.ALL.get(currentPlayer);
+    }
+
+    /**
+     * @return The {@link PlayerId} of the last player, {@code null} if the last turn has not begun yet
+     */
+    public PlayerId lastPlayer() {
+        return lastPlayer == NO_PLAYER ? null : PlayerId.ALL.get(lastPlayer);
+    }
+
+    /**
+     * @return True iff. the game ended
+     */
+    public boolean gameEnded() {
+        return gameEnded;
+    }
+
+    /**
+     * @return The Zobrist key of the state, equal to the one of {@link GameState#zobristKey()}
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return The number of tickets in the deck of tickets
+     */
+    public int ticketsCount() {
+        return tickets.length - ticketTop;
+    }
+
+    /**
+     * @return True iff. the deck of tickets is not empty
+     */
+    public boolean canDrawTickets() {
+        return ticketsCount() > 0;
+    }
+
+    /**
+     * @return True iff. the deck and the discards contain at least {@link Constants#FACE_UP_CARDS_COUNT} cards
+     */
+    public boolean canDrawCards() {
+        return deckSize() + discardCount >= Constants.FACE_UP_CARDS_COUNT;
+    }
+
+    /**
+     * @return The number of cards in the deck
+     */
+    public int deckSize() {
+        return deckEnd - deckTop;
+    }
+
+    /**
+     * @return The number of discarded cards
+     */
+    public int discardsSize() {
+        return discardCount;
+    }
+
+    /**
+     * The face-up card in the given slot
+     *
+     * @param slot The slot, between {@code 0} and {@link Constants#FACE_UP_CARDS_COUNT} (excluded)
+     * @return The face-up {@link Card} in {@code slot}
+     * @throws IndexOutOfBoundsException If {@code slot} is not a face-up card slot
+     */
+    public Card faceUpCard(int slot) {
+        return Card.ALL.get(faceUpCards[Objects.checkIndex(slot, Constants.FACE_UP_CARDS_COUNT)]);
+    }
+
+    /**
+     * The top card of the deck
+     *
+     * @return The top {@link Card} of the deck
+     * @throws IllegalArgumentException If the deck is empty
+     */
+    public Card topCard() {
+        Preconditions.checkArgument(deckSize() > 0);
+
+        return Card.ALL.get(deck[deckTop]);
+    }
+
+    /**
+     * The top tickets of the deck of tickets
+     *
+     * @param count The number of tickets
+     * @return The {@link SortedBag} of the {@code count} top {@link Ticket}
+     * @throws IllegalArgumentException If {@code count} is not between {@code 0} and {@link #ticketsCount()}
+     */
+    public SortedBag<Ticket> topTickets(int count) {
+        Preconditions.checkArgument(0 <= count && count <= ticketsCount());
+
+        return SortedBag.of(Arrays.asList(tickets).subList(ticketTop, ticketTop + count));
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The number of cards of the player
+     */
+    public int cardCount(PlayerId playerId) {
+        return cardCounts[playerId.ordinal()];
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @param card     The {@link Card}
+     * @return The number of cards of type {@code card} of the player
+     */
+    public int cardCount(PlayerId playerId, Card card) {
+        return hands[playerId.ordinal() * Card.COUNT + card.ordinal()];
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The number of tickets of the player
+     */
+    public int ticketCount(PlayerId playerId) {
+        return ticketCounts[playerId.ordinal()];
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The number of cars the player has left
+     */
+    public int carCount(PlayerId playerId) {
+        return carCounts[playerId.ordinal()];
+    }
+
+    /**
+     * The player who claimed the given route
+     *
+     * @param route The index of the {@link Route} in {@link ChMap#routes()}
+     * @return The {@link PlayerId} of the player who claimed the route, {@code null} if it is not claimed
+     * @throws IndexOutOfBoundsException If {@code route} is not the index of a route
+     */
+    public PlayerId routeOwner(int route) {
+        int owner = routeOwners[Objects.checkIndex(route, ROUTE_COUNT)];
+
+        return owner == NO_PLAYER ? null : PlayerId.ALL.get(owner);
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The number of points the player earned by claiming routes
+     */
+    public int claimPoints(PlayerId playerId) {
+        return claimPoints[playerId.ordinal()];
+    }
+
+    /**
+     * The number of points, possibly negative, the player earns from their tickets in their current network
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @return The number of points of the player's tickets
+     */
+    public int ticketPoints(PlayerId playerId) {
+        int p = playerId.ordinal();
+        int points = 0;
+        for (int t = 0; t < ticketTop; t++) {
+            if (ticketOwners[t] == p)
+                points += points(p, tickets[t]);
+        }
+
+        return points;
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The sum of {@link #claimPoints(PlayerId)} and {@link #ticketPoints(PlayerId)}
+     */
+    public int finalPoints(PlayerId playerId) {
+        return claimPoints(playerId) + ticketPoints(playerId);
+    }
+
+    /**
+     * The length of the longest trail of the player, equal to the one of {@link Trail#longest(List)}
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @return The length of the longest trail of the routes of the player
+     */
+    public int longestTrailLength(PlayerId playerId) {
+        int longest = 0;
+        for (int station = 0; station < STATION_COUNT; station++)
+            longest = Math.max(longest, longestTrailLength(playerId.ordinal(), station));
+
+        return longest;
+    }
+
+    /**
+     * Whether the current player can claim the given route, i.e. neither it nor its neighbor is claimed and the
+     * player has the cars and cards to claim it
+     *
+     * @param route The index of the {@link Route} in {@link ChMap#routes()}
+     * @return True iff. the current player can claim the route
+     * @throws IndexOutOfBoundsException If {@code route} is not the index of a route
+     * @see PlayerState#canClaimRoute(Route)
+     */
+    public boolean canClaimRoute(int route) {
+        Objects.checkIndex(route, ROUTE_COUNT);
+        if (routeOwners[route] != NO_PLAYER || (NEIGHBORS[route] != -1 && routeOwners[NEIGHBORS[route]] != NO_PLAYER))
+            return false;
+
+        Route claimed = ROUTES.get(route);
+        if (carCounts[currentPlayer] < claimed.length())
+            return false;
+
+        // Tunnels can be claimed with locomotives in place of any car card, overground routes only with car cards
+        int hand = currentPlayer * Card.COUNT;
+        int locomotives = claimed.level() == Route.Level.UNDERGROUND ? hands[hand + LOCOMOTIVE] : 0;
+        if (!Objects.isNull(claimed.color()))
+            return hands[hand + Card.of(claimed.color()).ordinal()] + locomotives >= claimed.length();
+        for (int car = 0; car < Card.COUNT; car++) {
+            if (car != LOCOMOTIVE && hands[hand + car] + locomotives >= claimed.length())
+                return true;
+        }
+
+        return locomotives >= claimed.length();
+    }
+
+    /**
+     * The sets of additional cards the current player can use to claim a tunnel, as given by
+     * {@link PlayerState#possibleAdditionalCards(int, SortedBag)}
+     *
+     * @param additionalCardsCount The number of additional cards
+     * @param initialCards         The {@link SortedBag} of {@link Card} the player attempted to claim the tunnel with
+     * @return The {@link List} of the possible {@link SortedBag} of additional {@link Card}
+     * @throws IllegalArgumentException If {@code additionalCardsCount} is not between {@code 1} and
+     *                                  {@link Constants#ADDITIONAL_TUNNEL_CARDS}, or if {@code initialCards} is empty
+     *                                  or contains more than two types of cards
+     */
+    public List<SortedBag<Card>> possibleAdditionalCards(int additionalCardsCount, SortedBag<Card> initialCards) {
+        Preconditions.checkArgument(1 <= additionalCardsCount && additionalCardsCount <= Constants.ADDITIONAL_TUNNEL_CARDS);
+        Preconditions.checkArgument(!initialCards.isEmpty() && initialCards.toSet().size() <= 2);
+
+        PlayerId playerId = currentPlayerId();
+        Card initialCard = initialCards.get(0);
+
+        return AdditionalCardsTable.options(initialCard,
+                Math.max(0, cardCount(playerId, initialCard) - initialCards.countOf(initialCard)),
+                Math.max(0, cardCount(playerId, Card.LOCOMOTIVE) - initialCards.countOf(Card.LOCOMOTIVE)),
+                additionalCardsCount);
+    }
+
+    /**
+     * @return True iff. the last turn has not begun yet and the current player has two or less cars
+     * @see GameState#lastTurnBegins()
+     */
+    public boolean lastTurnBegins() {
+        return lastPlayer == NO_PLAYER && carCounts[currentPlayer] <= 2;
+    }
+
+    /**
+     * Gives the given player the chosen initial tickets and removes the initial tickets from the deck of tickets, as
+     * {@link GameState#withInitiallyChosenTickets(PlayerId, SortedBag)} followed by
+     * {@link GameState#withoutTopTickets(int)}
+     *
+     * @param playerId      The {@link PlayerId} of the player
+     * @param chosenTickets The {@link SortedBag} of {@link Ticket} the player kept
+     * @throws IllegalArgumentException If the player already has tickets, or if {@code chosenTickets} are not among
+     *                                  the {@link Constants#INITIAL_TICKETS_COUNT} top tickets
+     */
+    public void keepInitialTickets(PlayerId playerId, SortedBag<Ticket> chosenTickets) {
+        Preconditions.checkArgument(ticketCounts[playerId.ordinal()] == 0);
+
+        keepTopTickets(playerId.ordinal(), maskOf(chosenTickets, Constants.INITIAL_TICKETS_COUNT),
+                Constants.INITIAL_TICKETS_COUNT);
+    }
+
+    /**
+     * Gives the current player the chosen tickets among the {@link Constants#IN_GAME_TICKETS_COUNT} top tickets,
+     * which are all removed from the deck, as {@link GameState#withChosenAdditionalTickets(SortedBag, SortedBag)}
+     *
+     * @param chosenTickets The {@link SortedBag} of {@link Ticket} the player kept
+     * @throws IllegalArgumentException If {@code chosenTickets} are not among the top tickets
+     */
+    public void keepAdditionalTickets(SortedBag<Ticket> chosenTickets) {
+        keepAdditionalTickets(maskOf(chosenTickets, Constants.IN_GAME_TICKETS_COUNT));
+    }
+
+    /**
+     * Gives the current player the chosen tickets among the {@link Constants#IN_GAME_TICKETS_COUNT} top tickets,
+     * which are all removed from the deck
+     *
+     * @param keptMask The tickets kept by the player, bit {@code i} being set iff. the player kept the ticket at
+     *                 depth {@code i} in the deck
+     * @throws IllegalArgumentException If the deck has less than {@link Constants#IN_GAME_TICKETS_COUNT} tickets, or
+     *                                  if {@code keptMask} has bits set beyond them
+     */
+    public void keepAdditionalTickets(int keptMask) {
+        Preconditions.checkArgument((keptMask >>> Constants.IN_GAME_TICKETS_COUNT) == 0);
+
+        keepTopTickets(currentPlayer, keptMask, Constants.IN_GAME_TICKETS_COUNT);
+    }
+
+    /**
+     * Makes the current player draw a card, the deck being recreated from the discards first if it is empty, as
+     * {@link GameState#withCardsDeckRecreatedIfNeeded(Random)} followed by {@link GameState#withBlindlyDrawnCard()}
+     * or {@link GameState#withDrawnFaceUpCard(int)}
+     *
+     * @param slot The slot of the face-up card, or {@link Constants#DECK_SLOT} to draw the top card of the deck
+     * @param rng  The {@link Random} number generator shuffling the discards
+     * @throws IllegalArgumentException If the deck and the discards are empty
+     */
+    public void drawCard(int slot, Random rng) {
+        recreateDeckIfNeeded(rng);
+        if (slot == Constants.DECK_SLOT)
+            drawBlindCard();
+        else
+            drawFaceUpCard(slot);
+    }
+
+    /**
+     * Makes the current player draw the top card of the deck, as {@link GameState#withBlindlyDrawnCard()}
+     *
+     * @throws IllegalArgumentException If the deck is empty
+     */
+    public void drawBlindCard() {
+        Preconditions.checkArgument(deckSize() > 0);
+
+        addCard(currentPlayer, deck[deckTop++]);
+    }
+
+    /**
+     * Makes the current player draw the given face-up card, replaced by the top card of the deck, as
+     * {@link GameState#withDrawnFaceUpCard(int)}
+     *
+     * @param slot The slot of the face-up card
+     * @throws IndexOutOfBoundsException If {@code slot} is not a face-up card slot
+     * @throws IllegalArgumentException  If the deck is empty
+     */
+    public void drawFaceUpCard(int slot) {
+        Objects.checkIndex(slot, Constants.FACE_UP_CARDS_COUNT);
+        Preconditions.checkArgument(deckSize() > 0);
+
+        addCard(currentPlayer, faceUpCards[slot]);
+        zobristKey ^= Zobrist.faceUp(slot, faceUpCards[slot]) ^ Zobrist.faceUp(slot, deck[deckTop]);
+        faceUpCards[slot] = deck[deckTop++];
+    }
+
+    /**
+     * Replaces the deck by the shuffled discards if it is empty, as {@link GameState#withCardsDeckRecreatedIfNeeded(Random)}
+     *
+     * @param rng The {@link Random} number generator
+     */
+    public void recreateDeckIfNeeded(Random rng) {
+        if (deckSize() > 0)
+            return;
+
+        fillDeck(discards, rng);
+        Arrays.fill(discards, 0);
+        discardCount = 0;
+    }
+
+    /**
+     * Draws the additional cards of a tunnel the current player attempts to claim with the given initial card, the
+     * deck being recreated before every card if needed, and discards them, as {@link Game#play} does
+     *
+     * @param initialCard The first {@link Card} of the initial claim cards
+     * @param rng         The {@link Random} number generator shuffling the discards
+     * @return The number of additional claim cards they imply, as given by
+     * {@link Route#additionalClaimCardsCount(SortedBag, SortedBag)}
+     * @throws IllegalArgumentException If the deck and the discards are empty
+     */
+    public int drawAdditionalCards(Card initialCard, Random rng) {
+        int additionalClaimCardsCount = 0;
+        for (int i = 0; i < Constants.ADDITIONAL_TUNNEL_CARDS; i++) {
+            recreateDeckIfNeeded(rng);
+            Preconditions.checkArgument(deckSize() > 0);
+            additionalCards[i] = deck[deckTop++];
+            if (additionalCards[i] == LOCOMOTIVE || additionalCards[i] == initialCard.ordinal())
+                additionalClaimCardsCount++;
+        }
+        // Discarded only once all of them are drawn, the deck never being recreated with them
+        for (int card : additionalCards)
+            discard(card, 1);
+
+        return additionalClaimCardsCount;
+    }
+
+    /**
+     * Makes the current player claim the given route with the given cards, as
+     * {@link GameState#withClaimedRoute(Route, SortedBag)}
+     *
+     * @param route The claimed {@link Route}
+     * @param cards The {@link SortedBag} of {@link Card} used to claim it, of at most one type of car card and
+     *              locomotives
+     * @throws IllegalArgumentException If {@code route} is not a route of {@link ChMap} or is already claimed, if
+     *                                  {@code cards} contains two types of car cards or if the player does not have them
+     */
+    public void claimRoute(Route route, SortedBag<Card> cards) {
+        Card card = cards.isEmpty() ? Card.LOCOMOTIVE : cards.get(0);
+        int cardCount = card == Card.LOCOMOTIVE ? 0 : cards.countOf(card);
+        int locomotiveCount = cards.countOf(Card.LOCOMOTIVE);
+        Preconditions.checkArgument(cardCount + locomotiveCount == cards.size());
+
+        claimRoute(routeIndex(route), card, cardCount, locomotiveCount);
+    }
+
+    /**
+     * Makes the current player claim the given route with the given cards, which are discarded
+     *
+     * @param route           The index of the claimed {@link Route} in {@link ChMap#routes()}
+     * @param card            The type of {@link Card} used to claim the route
+     * @param cardCount       The number of cards of type {@code card}
+     * @param locomotiveCount The number of {@link Card#LOCOMOTIVE} in addition to them
+     * @throws IndexOutOfBoundsException If {@code route} is not the index of a route
+     * @throws IllegalArgumentException  If the route is already claimed, if a count is negative or if the player
+     *                                   does not have the cards
+     */
+    public void claimRoute(int route, Card card, int cardCount, int locomotiveCount) {
+        Objects.checkIndex(route, ROUTE_COUNT);
+        Preconditions.checkArgument(routeOwners[route] == NO_PLAYER && cardCount >= 0 && locomotiveCount >= 0);
+        int hand = currentPlayer * Card.COUNT;
+        if (card == Card.LOCOMOTIVE)
+            Preconditions.checkArgument(hands[hand + LOCOMOTIVE] >= cardCount + locomotiveCount);
+        else
+            Preconditions.checkArgument(hands[hand + card.ordinal()] >= cardCount && hands[hand + LOCOMOTIVE] >= locomotiveCount);
+
+        removeCards(currentPlayer, card.ordinal(), cardCount);
+        removeCards(currentPlayer, LOCOMOTIVE, locomotiveCount);
+        addRoute(currentPlayer, route);
+        carCounts[currentPlayer] -= ROUTES.get(route).length();
+    }
+
+    /**
+     * Ends the turn of the current player, as {@link Game#play} does: the game ends if they were the last player,
+     * otherwise the next player becomes the current one as in {@link GameState#forNextTurn()}
+     *
+     * @return True iff. the game goes on
+     */
+    public boolean endTurn() {
+        if (currentPlayer == lastPlayer) {
+            zobristKey ^= Zobrist.gameEnded(gameEnded) ^ Zobrist.gameEnded(true);
+            gameEnded = true;
+            return false;
+        }
+
+        if (lastTurnBegins()) {
+            lastPlayer = currentPlayer;
+            zobristKey ^= Zobrist.lastPlayer(lastPlayer);
+        }
+        int nextPlayer = (currentPlayer + 1) % PlayerId.COUNT;
+        zobristKey ^= Zobrist.currentPlayer(currentPlayer) ^ Zobrist.currentPlayer(nextPlayer);
+        currentPlayer = nextPlayer;
+
+        return true;
+    }
+
+    private long computeZobristKey() {
+        long key = Zobrist.currentPlayer(currentPlayer)
+                ^ (lastPlayer == NO_PLAYER ? 0 : Zobrist.lastPlayer(lastPlayer))
+                ^ Zobrist.gameEnded(gameEnded);
+        for (int slot = 0; slot < Constants.FACE_UP_CARDS_COUNT; slot++)
+            key ^= Zobrist.faceUp(slot, faceUpCards[slot]);
+        for (int p = 0; p < PlayerId.COUNT; p++) {
+            for (int card = 0; card < Card.COUNT; card++)
+                key ^= Zobrist.cards(p, card, hands[p * Card.COUNT + card]);
+        }
+        for (int i = 0; i < claimedRouteCount; i++)
+            key ^= Zobrist.route(routeOwners[claimedRoutes[i]], claimedRoutes[i]);
+
+        return key;
+    }
+
+    private void addCard(int player, int card) {
+        int count = hands[player * Card.COUNT + card]++;
+        cardCounts[player]++;
+        zobristKey ^= Zobrist.cardsChange(player, card, count, count + 1);
+    }
+
+    private void removeCards(int player, int card, int count) {
+        int oldCount = hands[player * Card.COUNT + card];
+        zobristKey ^= Zobrist.cardsChange(player, card, oldCount, oldCount - count);
+        hands[player * Card.COUNT + card] -= count;
+        cardCounts[player] -= count;
+        discard(card, count);
+    }
+
+    private void discard(int card, int count) {
+        discards[card] += count;
+        discardCount += count;
+    }
+
+    private void addRoute(int player, int route) {
+        Route claimed = ROUTES.get(route);
+        routeOwners[route] = player;
+        claimedRoutes[claimedRouteCount++] = route;
+        zobristKey ^= Zobrist.route(player, route);
+        claimPoints[player] += claimed.claimPoints();
+        union(player, claimed.station1().id(), claimed.station2().id());
+    }
+
+    // The deck made of the given number of cards of every type, sorted and shuffled as Deck#of does
+    private void fillDeck(int[] counts, Random rng) {
+        int size = 0;
+        for (int card = 0; card < Card.COUNT; card++) {
+            for (int i = counts[card]; i > 0; i--)
+                deck[size++] = card;
+        }
+        for (int i = size; i > 1; i--) {
+            int j = rng.nextInt(i);
+            int card = deck[i - 1];
+            deck[i - 1] = deck[j];
+            deck[j] = card;
+        }
+        deckTop = 0;
+        deckEnd = size;
+    }
+
+    // Puts the given ticket below the tickets of the players, owned by the given player or by no one
+    private void dealTicket(int player, Ticket ticket) {
+        ticketOwners[ticketTop] = player;
+        tickets[ticketTop++] = ticket;
+        if (player != NO_PLAYER)
+            ticketCounts[player]++;
+    }
+
+    private void keepTopTickets(int player, int keptMask, int drawnCount) {
+        Preconditions.checkArgument(drawnCount <= ticketsCount());
+
+        for (int i = 0; i < drawnCount; i++) {
+            if ((keptMask & (1 << i)) != 0) {
+                ticketOwners[ticketTop + i] = player;
+                ticketCounts[player]++;
+            }
+        }
+        ticketTop += drawnCount;
+    }
+
+    // The tickets among the given number of top tickets that are equal to the chosen ones, one bit per depth
+    private int maskOf(SortedBag<Ticket> chosenTickets, int drawnCount) {
+        Preconditions.checkArgument(drawnCount <= ticketsCount());
+
+        int mask = 0;
+        for (Ticket ticket : chosenTickets) {
+            int depth = 0;
+            while (depth < drawnCount && ((mask & (1 << depth)) != 0 || tickets[ticketTop + depth].compareTo(ticket) != 0))
+                depth++;
+            Preconditions.checkArgument(depth < drawnCount);
+            mask |= 1 << depth;
+        }
+
+        return mask;
+    }
+
+    private int points(int player, Ticket ticket) {
+        int points = Integer.MIN_VALUE;
+        for (int trip = 0; trip < ticket.tripCount(); trip++) {
+            int tripPoints = ticket.tripPoints(trip);
+            points = Math.max(points, connected(player, ticket.tripFrom(trip), ticket.tripTo(trip)) ? tripPoints : -tripPoints);
+        }
+
+        return points;
+    }
+
+    private boolean connected(int player, int station1, int station2) {
+        if (station1 >= STATION_COUNT || station2 >= STATION_COUNT)
+            return station1 == station2;
+
+        return find(player, station1) == find(player, station2);
+    }
+
+    private int find(int player, int station) {
+        int offset = player * STATION_COUNT;
+        int representative = station;
+        while (representative != links[offset + representative])
+            representative = links[offset + representative];
+
+        return representative;
+    }
+
+    // Connects the two stations in the network of the player, by rank so that the trees stay shallow
+    private void union(int player, int station1, int station2) {
+        int offset = player * STATION_COUNT;
+        int representative1 = find(player, station1);
+        int representative2 = find(player, station2);
+        if (representative1 == representative2)
+            return;
+
+        if (ranks[offset + representative1] < ranks[offset + representative2]) {
+            links[offset + representative1] = representative2;
+        } else {
+            links[offset + representative2] = representative1;
+            if (ranks[offset + representative1] == ranks[offset + representative2])
+                ranks[offset + representative1]++;
+        }
+    }
+
+    // The length of the longest trail of the player starting from the given station, backtracking on the used routes
+    private int longestTrailLength(int player, int station) {
+        int longest = 0;
+        for (int route : INCIDENCES[station]) {
+            int word = route >>> 6;
+            long bit = 1L << route;
+            if (routeOwners[route] != player || (usedRoutes[word] & bit) != 0)
+                continue;
+
+            usedRoutes[word] |= bit;
+            Route claimed = ROUTES.get(route);
+            int next = claimed.station1().id() == station ? claimed.station2().id() : claimed.station1().id();
+            longest = Math.max(longest, claimed.length() + longestTrailLength(player, next));
+            usedRoutes[word] &= ~bit;
+        }
+
+        return longest;
+    }
+
+    private static Map<String, Integer> computeRouteIndices() {
+        Map<String, Integer> indices = new HashMap<>();
+        for (int r = 0; r < ROUTE_COUNT; r++)
+            indices.put(ROUTES.get(r).id(), r);
+
+        return Map.copyOf(indices);
+    }
+
+    private static int[] computeNeighbors() {
+        int[] neighbors = new int[ROUTE_COUNT];
+        Arrays.fill(neighbors, -1);
+        for (int r1 = 0; r1 < ROUTE_COUNT; r1++) {
+            for (int r2 = 0; r2 < ROUTE_COUNT; r2++) {
+                if (r1 != r2 && ROUTES.get(r1).stations().containsAll(ROUTES.get(r2).stations()))
+                    neighbors[r1] = r2;
+            }
+        }
+
+        return neighbors;
+    }
+
+    private static int[][] computeIncidences() {
+        int[] degrees = new int[STATION_COUNT];
+        for (Route route : ROUTES) {
+            degrees[route.station1().id()]++;
+            degrees[route.station2().id()]++;
+        }
+        int[][] incidences = new int[STATION_COUNT][];
+        for (int s = 0; s < STATION_COUNT; s++)
+            incidences[s] = new int[degrees[s]];
+        int[] filled = new int[STATION_COUNT];
+        for (int r = 0; r < ROUTE_COUNT; r++) {
+            Route route = ROUTES.get(r);
+            incidences[route.station1().id()][filled[route.station1().id()]++] = r;
+            incidences[route.station2().id()][filled[route.station2().id()]++] = r;
+        }
+
+        return incidences;
+    }
+}
@@ -0,0 +1,295 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The number of cars a player needs to connect every pair of stations of {@link ChMap}, given the routes they own and
+ * the ones they can no longer claim, with the first route of a shortest path between them
+ * <p>
+ * The routes between the same two stations count as one: it costs no car if the player owns one of them, cannot be
+ * used if another player claimed one of them, and costs the length of the shortest of them otherwise. The distances
+ * are refreshed when a route is owned or blocked, from the stations whose shortest paths change only, so that queries
+ * take constant time and paths the time of following them.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see StationPartition
+ */
+public final class StationDistances {
+    /**
+     * The distance between two stations that cannot be connected
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final List<Route> ROUTES = ChMap.routes();
+    private static final int STATION_COUNT = ChMap.stations().size();
+    // Small enough for the sum of three of them not to overflow
+    private static final int INFINITY = Integer.MAX_VALUE / 4;
+    private static final int NO_ROUTE = -1;
+    // The stations linked to every station by at least one route, by station identifier
+    private static final int[][] NEIGHBORS = computeNeighbors();
+    // The shortest route between every pair of stations, NO_ROUTE if there is none
+    private static final int[] SHORTEST_ROUTES = computeShortestRoutes();
+
+    // The number of cars between every pair of stations linked by routes, INFINITY if they are blocked
+    private final int[] weights;
+    // The route every pair of stations is linked by, the owned one if any
+    private final int[] pairRoutes;
+    private final boolean[] owned;
+    // The distances, and the next station and route of a shortest path, indexed by station then station
+    private final int[] distances;
+    private final int[] nextStations;
+    private final int[] nextRoutes;
+
+    // Scratch space of the shortest paths searches
+    private final boolean[] settled;
+
+    /**
+     * The distances of a player who neither owns nor is blocked from any route
+     */
+    public StationDistances() {
+        int pairCount = STATION_COUNT * STATION_COUNT;
+        this.weights = new int[pairCount];
+        this.pairRoutes = Arrays.copyOf(SHORTEST_ROUTES, pairCount);
+        this.owned = new boolean[pairCount];
+        this.distances = new int[pairCount];
+        this.nextStations = new int[pairCount];
+        this.nextRoutes = new int[pairCount];
+        this.settled = new boolean[STATION_COUNT];
+
+        for (int pair = 0; pair < pairCount; pair++)
+            weights[pair] = pairRoutes[pair] == NO_ROUTE ? INFINITY : ROUTES.get(pairRoutes[pair]).length();
+        for (int source = 0; source < STATION_COUNT; source++)
+            computeRow(source);
+    }
+
+    /**
+     * The distances of the given player in the given game, the routes claimed by the other players being blocked
+     *
+     * @param gameState The {@link PublicGameState} of the game
+     * @param playerId  The {@link PlayerId} of the player
+     * @return The {@link StationDistances} of the player
+     * @throws IllegalArgumentException If a route of {@code gameState} is not a route of {@link ChMap}
+     */
+    public static StationDistances of(PublicGameState gameState, PlayerId playerId) {
+        StationDistances distances = new StationDistances();
+        for (PlayerId owner : PlayerId.ALL) {
+            for (Route route : gameState.playerState(owner).routes()) {
+                if (owner == playerId)
+                    distances.own(route);
+                else
+                    distances.block(route);
+            }
+        }
+
+        return distances;
+    }
+
+    /**
+     * The number of cars the player needs to connect the given stations
+     *
+     * @param from The first {@link Station}
+     * @param to   The second {@link Station}
+     * @return The number of cars, {@link #UNREACHABLE} if the stations cannot be connected anymore
+     * @throws IndexOutOfBoundsException If a station is not a station of {@link ChMap}
+     */
+    public int distance(Station from, Station to) {
+        int distance = distances[pair(from.id(), to.id())];
+
+        return distance >= INFINITY ? UNREACHABLE : distance;
+    }
+
+    /**
+     * The number of cars the player needs to complete the given ticket, i.e. to connect the stations of the cheapest
+     * of its trips
+     *
+     * @param ticket The {@link Ticket}
+     * @return The number of cars, {@link #UNREACHABLE} if the ticket cannot be completed anymore
+     * @throws IndexOutOfBoundsException If a station of the ticket is not a station of {@link ChMap}
+     */
+    public int distance(Ticket ticket) {
+        int distance = INFINITY;
+        for (int trip = 0; trip < ticket.tripCount(); trip++)
+            distance = Math.min(distance, distances[pair(ticket.tripFrom(trip), ticket.tripTo(trip))]);
+
+        return distance >= INFINITY ? UNREACHABLE : distance;
+    }
+
+    /**
+     * The first route of a shortest path between the given stations
+     *
+     * @param from The first {@link Station}
+     * @param to   The second {@link Station}
+     * @return The first {@link Route} from {@code from}, {@code null} if the stations are equal or cannot be connected
+     * @throws IndexOutOfBoundsException If a station is not a station of {@link ChMap}
+     */
+    public Route nextRoute(Station from, Station to) {
+        int route = nextRoutes[pair(from.id(), to.id())];
+
+        return route == NO_ROUTE ? null : ROUTES.get(route);
+    }
+
+    /**
+     * A shortest path between the given stations
+     *
+     * @param from The first {@link Station}
+     * @param to   The second {@link Station}
+     * @return The {@link List} of {@link Route} from {@code from} to {@code to}, empty if the stations are equal or
+     * cannot be connected
+     * @throws IndexOutOfBoundsException If a station is not a station of {@link ChMap}
+     */
+    public List<Route> path(Station from, Station to) {
+        List<Route> path = new ArrayList<>();
+        int target = to.id();
+        if (distances[pair(from.id(), target)] >= INFINITY)
+            return path;
+
+        for (int station = from.id(); station != target; station = nextStations[pair(station, target)])
+            path.add(ROUTES.get(nextRoutes[pair(station, target)]));
+
+        return path;
+    }
+
+    /**
+     * Makes the player own the given route, connecting its stations without any car
+     *
+     * @param route The owned {@link Route}
+     * @throws IllegalArgumentException If {@code route} is not a route of {@link ChMap}
+     */
+    public void own(Route route) {
+        int r = SimulationState.routeIndex(route);
+        int station1 = route.station1().id();
+        int station2 = route.station2().id();
+        setPair(station1, station2, r, 0, true);
+        relax(station1, station2, r);
+    }
+
+    /**
+     * Blocks the given route and the other ones between its stations, which the player can no longer claim, unless
+     * the player owns one of them
+     *
+     * @param route The {@link Route} claimed by another player
+     * @throws IllegalArgumentException If {@code route} is not a route of {@link ChMap}
+     */
+    public void block(Route route) {
+        SimulationState.routeIndex(route);
+        int station1 = route.station1().id();
+        int station2 = route.station2().id();
+        int oldWeight = weights[pair(station1, station2)];
+        if (owned[pair(station1, station2)] || oldWeight >= INFINITY)
+            return;
+
+        setPair(station1, station2, pairRoutes[pair(station1, station2)], INFINITY, false);
+        // Only the stations whose shortest paths may use the blocked routes are searched again
+        for (int source = 0; source < STATION_COUNT; source++) {
+            int distance1 = distances[pair(source, station1)];
+            int distance2 = distances[pair(source, station2)];
+            if (distance1 + oldWeight == distance2 || distance2 + oldWeight == distance1)
+                computeRow(source);
+        }
+    }
+
+    private static int pair(int station1, int station2) {
+        return Objects.checkIndex(station1, STATION_COUNT) * STATION_COUNT + Objects.checkIndex(station2, STATION_COUNT);
+    }
+
+    private void setPair(int station1, int station2, int route, int weight, boolean isOwned) {
+        for (int pair : new int[]{pair(station1, station2), pair(station2, station1)}) {
+            pairRoutes[pair] = route;
+            weights[pair] = weight;
+            owned[pair] = isOwned;
+        }
+    }
+
+    // The shortest paths from the given station, searched with Dijkstra's algorithm on the dense graph of the stations
+    private void computeRow(int source) {
+        int row = source * STATION_COUNT;
+        Arrays.fill(distances, row, row + STATION_COUNT, INFINITY);
+        Arrays.fill(nextStations, row, row + STATION_COUNT, source);
+        Arrays.fill(nextRoutes, row, row + STATION_COUNT, NO_ROUTE);
+        Arrays.fill(settled, false);
+        distances[row + source] = 0;
+
+        for (int i = 0; i < STATION_COUNT; i++) {
+            int closest = -1;
+            for (int station = 0; station < STATION_COUNT; station++) {
+                if (!settled[station] && distances[row + station] < INFINITY
+                        && (closest == -1 || distances[row + station] < distances[row + closest]))
+                    closest = station;
+            }
+            if (closest == -1)
+                return;
+
+            settled[closest] = true;
+            for (int neighbor : NEIGHBORS[closest]) {
+                int distance = distances[row + closest] + weights[pair(closest, neighbor)];
+                if (distance < distances[row + neighbor]) {
+                    distances[row + neighbor] = distance;
+                    // The first step of the path to the neighbor is the one of the path to the closest station
+                    boolean first = closest == source;
+                    nextStations[row + neighbor] = first ? neighbor : nextStations[row + closest];
+                    nextRoutes[row + neighbor] = first ? pairRoutes[pair(closest, neighbor)] : nextRoutes[row + closest];
+                }
+            }
+        }
+    }
+
+    // Shortens the paths going through the given stations, whose route became cheaper, at most once
+    private void relax(int station1, int station2, int route) {
+        int weight = weights[pair(station1, station2)];
+        for (int from = 0; from < STATION_COUNT; from++) {
+            for (int to = 0; to < STATION_COUNT; to++) {
+                relax(from, to, station1, station2, route, weight);
+                relax(from, to, station2, station1, route, weight);
+            }
+        }
+    }
+
+    private void relax(int from, int to, int station1, int station2, int route, int weight) {
+        int distance = distances[pair(from, station1)] + weight + distances[pair(station2, to)];
+        if (distance >= distances[pair(from, to)])
+            return;
+
+        distances[pair(from, to)] = distance;
+        nextStations[pair(from, to)] = from == station1 ? station2 : nextStations[pair(from, station1)];
+        nextRoutes[pair(from, to)] = from == station1 ? route : nextRoutes[pair(from, station1)];
+    }
+
+    private static int[][] computeNeighbors() {
+        List<List<Integer>> neighbors = new ArrayList<>();
+        for (int station = 0; station < STATION_COUNT; station++)
+            neighbors.add(new ArrayList<>());
+        for (Route route : ROUTES) {
+            int station1 = route.station1().id();
+            int station2 = route.station2().id();
+            if (!neighbors.get(station1).contains(station2)) {
+                neighbors.get(station1).add(station2);
+                neighbors.get(station2).add(station1);
+            }
+        }
+
+        int[][] table = new int[STATION_COUNT][];
+        for (int station = 0; station < STATION_COUNT; station++)
+            table[station] = neighbors.get(station).stream().mapToInt(Integer::intValue).toArray();
+
+        return table;
+    }
+
+    private static int[] computeShortestRoutes() {
+        int[] routes = new int[STATION_COUNT * STATION_COUNT];
+        Arrays.fill(routes, NO_ROUTE);
+        for (int r = 0; r < ROUTES.size(); r++) {
+            Route route = ROUTES.get(r);
+            for (int pair : new int[]{pair(route.station1().id(), route.station2().id()),
+                    pair(route.station2().id(), route.station1().id())}) {
+                if (routes[pair] == NO_ROUTE || ROUTES.get(routes[pair]).length() > route.length())
+                    routes[pair] = r;
+            }
+        }
+
+        return routes;
+    }
+}
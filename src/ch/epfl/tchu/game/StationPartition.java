@@ -1,41 +1,142 @@
 package ch.epfl.tchu.game;
 
 import java.util.Arrays;
+import java.util.List;
 
 import ch.epfl.tchu.Preconditions;
 
 /**
- * The flat partition of stations
+ * The partition of stations, kept as a union-find forest
  *
  * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
  * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
  * @see ch.epfl.tchu.game.StationConnectivity
  */
 public final class StationPartition implements StationConnectivity {
-    private final int[] stationConnectivity;
+    private final int[] links;
+    private final int[] ranks;
 
     /**
-     * A station partition with its connectivity
+     * A station partition with its union-find forest
      *
-     * @param stationConnectivity The connectivity of the stations for the player's network
+     * @param links The parent of every station in the forest, a representative being its own parent
+     * @param ranks The upper bound of the height of the tree of every representative
      */
-    private StationPartition(int[] stationConnectivity) {
-        this.stationConnectivity = Arrays.copyOf(stationConnectivity, stationConnectivity.length);
+    private StationPartition(int[] links, int[] ranks) {
+        this.links = links;
+        this.ranks = ranks;
+    }
+
+    /**
+     * The station partition of the network composed of the given routes
+     *
+     * @param routes The {@link List} of {@link Route} composing the network
+     * @return The {@link StationPartition} in which the stations of every route are connected
+     */
+    static StationPartition of(List<Route> routes) {
+        int highestId = 0;
+        for (Route route : routes)
+            highestId = Math.max(highestId, Math.max(route.station1().id(), route.station2().id()));
+
+        Builder builder = new Builder(highestId + 1);
+        routes.forEach(route -> builder.connect(route.station1(), route.station2()));
+
+        return builder.build();
     }
 
     @Override
     public boolean connected(Station s1, Station s2) {
-        if (s1.id() >= stationConnectivity.length || s2.id() >= stationConnectivity.length)
+        if (s1.id() >= links.length || s2.id() >= links.length)
             return s1.id() == s2.id();
         else
-            return stationConnectivity[s1.id()] == stationConnectivity[s2.id()];
+            return representative(s1.id()) == representative(s2.id());
+    }
+
+    /**
+     * The same partition except that the two given stations are connected, the partition being
+     * copied only if they were not connected yet
+     *
+     * @param s1 The first {@link Station}
+     * @param s2 The second {@link Station}
+     * @return A {@link StationPartition} in which {@code s1} and {@code s2} are connected
+     */
+    StationPartition withConnected(Station s1, Station s2) {
+        if (connected(s1, s2))
+            return this;
+
+        int size = Math.max(links.length, Math.max(s1.id(), s2.id()) + 1);
+        int[] newLinks = Arrays.copyOf(links, size);
+        int[] newRanks = Arrays.copyOf(ranks, size);
+        for (int i = links.length; i < size; i++)
+            newLinks[i] = i;
+
+        union(newLinks, newRanks, s1.id(), s2.id());
+
+        return new StationPartition(newLinks, newRanks);
+    }
+
+    /**
+     * The representative of the given station
+     *
+     * @param stationId The identifier of the {@link Station}
+     * @return The representative of {@code stationId}, or {@code stationId} itself if it is not in the partition
+     */
+    int representative(int stationId) {
+        if (stationId >= links.length)
+            return stationId;
+
+        // The partition is shared between states, so it is never compressed when read
+        int representative = stationId;
+        while (representative != links[representative])
+            representative = links[representative];
+
+        return representative;
+    }
+
+    /**
+     * Connects the two given stations in a union-find forest, by rank and with path compression
+     *
+     * @param links      The parent of every station
+     * @param ranks      The rank of every station
+     * @param stationId1 The identifier of the first station
+     * @param stationId2 The identifier of the second station
+     */
+    private static void union(int[] links, int[] ranks, int stationId1, int stationId2) {
+        int representative1 = find(links, stationId1);
+        int representative2 = find(links, stationId2);
+        if (representative1 == representative2)
+            return;
+
+        if (ranks[representative1] < ranks[representative2]) {
+            links[representative1] = representative2;
+        } else {
+            links[representative2] = representative1;
+            if (ranks[representative1] == ranks[representative2])
+                ranks[representative1]++;
+        }
+    }
+
+    private static int find(int[] links, int stationId) {
+        int representative = stationId;
+        while (representative != links[representative])
+            representative = links[representative];
+
+        // Compressing the path so that every station on it points to the representative
+        while (stationId != representative) {
+            int next = links[stationId];
+            links[stationId] = representative;
+            stationId = next;
+        }
+
+        return representative;
     }
 
     /**
      * The builder of a station partition
      */
     public static final class Builder {
-        private final int[] stationConnectivity;
+        private final int[] links;
+        private final int[] ranks;
 
         /**
          * A station partition builder with a set of stations
@@ -46,9 +147,10 @@ public final class StationPartition implements StationConnectivity {
         public Builder(int stationCount) {
             Preconditions.checkArgument(stationCount >= 0);
 
-            this.stationConnectivity = new int[stationCount];
-            for (int i = 0; i < stationConnectivity.length; i++)
-                stationConnectivity[i] = i;
+            this.links = new int[stationCount];
+            this.ranks = new int[stationCount];
+            for (int i = 0; i < links.length; i++)
+                links[i] = i;
         }
 
         /**
@@ -59,35 +161,21 @@ public final class StationPartition implements StationConnectivity {
          * @return The same builder except that its two given stations are connected
          */
         public Builder connect(Station s1, Station s2) {
-            stationConnectivity[representative(s2.id())] = representative(s1.id());
+            union(links, ranks, s1.id(), s2.id());
 
             return this;
         }
 
         /**
-         * The flat partition of the stations corresponding to the builder's deep station partition
+         * The partition of the stations corresponding to the builder's deep station partition
          *
          * @return The {@link StationPartition} of the stations corresponding to the builder's deep station partition
          */
         public StationPartition build() {
-            for (int i = 0; i < stationConnectivity.length; i++)
-                stationConnectivity[i] = representative(i);
-
-            return new StationPartition(stationConnectivity);
-        }
-
-        /**
-         * The representative of the given station
-         *
-         * @param stationId The {@link Station}
-         * @return the representative of {@code stationId}
-         */
-        private int representative(int stationId) {
-            int currentRepresentative = stationConnectivity[stationId];
-            while (currentRepresentative != stationConnectivity[currentRepresentative])
-                currentRepresentative = stationConnectivity[currentRepresentative];
+            for (int i = 0; i < links.length; i++)
+                find(links, i);
 
-            return currentRepresentative;
+            return new StationPartition(Arrays.copyOf(links, links.length), Arrays.copyOf(ranks, ranks.length));
         }
     }
 }
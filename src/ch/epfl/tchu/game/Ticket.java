@@ -16,6 +16,10 @@ public final class Ticket implements Comparable<Ticket> {
     private final String text;
     private final String fromStation;
     private final List<String> toStations;
+    // The trips compiled into station identifiers and points, to score the ticket without streaming
+    private final int[] tripFroms;
+    private final int[] tripTos;
+    private final int[] tripPoints;
 
     /**
      * A ticket from a list of trips of the same departure station
@@ -38,6 +42,16 @@ public final class Ticket implements Comparable<Ticket> {
         this.toStations = List.copyOf(trips.stream()
                 .map(t -> t.to().name())
                 .collect(Collectors.toCollection(TreeSet::new)));
+
+        this.tripFroms = new int[this.trips.size()];
+        this.tripTos = new int[this.trips.size()];
+        this.tripPoints = new int[this.trips.size()];
+        for (int i = 0; i < this.trips.size(); i++) {
+            Trip trip = this.trips.get(i);
+            tripFroms[i] = trip.from().id();
+            tripTos[i] = trip.to().id();
+            tripPoints[i] = trip.points();
+        }
     }
 
     /**
@@ -82,6 +96,45 @@ public final class Ticket implements Comparable<Ticket> {
                 .reduce(Integer.MIN_VALUE, Integer::max);
     }
 
+    /**
+     * The number of trips of the ticket
+     *
+     * @return The number of {@link Trip} of the ticket
+     */
+    int tripCount() {
+        return tripPoints.length;
+    }
+
+    /**
+     * The departure station of the given trip
+     *
+     * @param trip The index of the {@link Trip}
+     * @return The identifier of the departure {@link Station} of the trip
+     */
+    int tripFrom(int trip) {
+        return tripFroms[trip];
+    }
+
+    /**
+     * The arrival station of the given trip
+     *
+     * @param trip The index of the {@link Trip}
+     * @return The identifier of the arrival {@link Station} of the trip
+     */
+    int tripTo(int trip) {
+        return tripTos[trip];
+    }
+
+    /**
+     * The points of the given trip
+     *
+     * @param trip The index of the {@link Trip}
+     * @return The points of the trip if connected
+     */
+    int tripPoints(int trip) {
+        return tripPoints[trip];
+    }
+
     /**
      * The comparison between the applied-to ticket and the argument ticket in alphabetical order of their textual representation
      *
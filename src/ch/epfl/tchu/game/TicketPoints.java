@@ -0,0 +1,125 @@
+package ch.epfl.tchu.game;
+
+import java.util.Arrays;
+
+import ch.epfl.tchu.SortedBag;
+
+/**
+ * The points of the tickets of a player, whose trips are compiled into primitive arrays and rescored incrementally
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see Ticket#points(StationConnectivity)
+ */
+final class TicketPoints {
+    /**
+     * The points of a player without tickets
+     */
+    static final TicketPoints EMPTY = new TicketPoints(new int[0], new int[0], new int[0], new int[0], new int[0], 0);
+
+    // The departure and arrival station identifiers, the points and the ticket index of every trip
+    private final int[] froms;
+    private final int[] tos;
+    private final int[] points;
+    private final int[] tickets;
+    // The current points of every ticket
+    private final int[] values;
+    private final int total;
+
+    private TicketPoints(int[] froms, int[] tos, int[] points, int[] tickets, int[] values, int total) {
+        this.froms = froms;
+        this.tos = tos;
+        this.points = points;
+        this.tickets = tickets;
+        this.values = values;
+        this.total = total;
+    }
+
+    /**
+     * The sum of the points of the tickets
+     *
+     * @return The sum of the points of every ticket, as {@link Ticket#points(StationConnectivity)} computes them
+     */
+    int total() {
+        return total;
+    }
+
+    /**
+     * The same points with the given tickets scored in the given partition
+     *
+     * @param newTickets The added {@link SortedBag} of {@link Ticket}
+     * @param partition  The {@link StationPartition} of the player
+     * @return The {@link TicketPoints} of the tickets of this and of {@code newTickets}
+     */
+    TicketPoints withAddedTickets(SortedBag<Ticket> newTickets, StationPartition partition) {
+        if (newTickets.isEmpty())
+            return this;
+
+        int tripCount = froms.length;
+        for (Ticket ticket : newTickets)
+            tripCount += ticket.tripCount();
+
+        int[] newFroms = Arrays.copyOf(froms, tripCount);
+        int[] newTos = Arrays.copyOf(tos, tripCount);
+        int[] newPoints = Arrays.copyOf(points, tripCount);
+        int[] newTripTickets = Arrays.copyOf(tickets, tripCount);
+        int[] newValues = Arrays.copyOf(values, values.length + newTickets.size());
+        int newTotal = total;
+
+        int trip = froms.length;
+        int ticketIndex = values.length;
+        for (Ticket ticket : newTickets) {
+            int value = Integer.MIN_VALUE;
+            for (int i = 0; i < ticket.tripCount(); i++, trip++) {
+                newFroms[trip] = ticket.tripFrom(i);
+                newTos[trip] = ticket.tripTo(i);
+                newPoints[trip] = ticket.tripPoints(i);
+                newTripTickets[trip] = ticketIndex;
+
+                boolean connected = partition.representative(newFroms[trip]) == partition.representative(newTos[trip]);
+                value = Math.max(value, connected ? newPoints[trip] : -newPoints[trip]);
+            }
+            newValues[ticketIndex++] = value;
+            newTotal += value;
+        }
+
+        return new TicketPoints(newFroms, newTos, newPoints, newTripTickets, newValues, newTotal);
+    }
+
+    /**
+     * The same points once the components of the two given stations were merged, only the trips between
+     * these two components being rescored
+     *
+     * @param partition    The {@link StationPartition} before the merge
+     * @param newPartition The {@link StationPartition} after the merge
+     * @param s1           The first {@link Station} of the claimed route
+     * @param s2           The second {@link Station} of the claimed route
+     * @return The {@link TicketPoints} in {@code newPartition}
+     */
+    TicketPoints withConnected(StationPartition partition, StationPartition newPartition, Station s1, Station s2) {
+        if (partition == newPartition || values.length == 0)
+            return this;
+
+        int representative1 = partition.representative(s1.id());
+        int representative2 = partition.representative(s2.id());
+        int[] newValues = null;
+        int newTotal = total;
+        for (int trip = 0; trip < froms.length; trip++) {
+            int ticket = tickets[trip];
+            // Connecting a trip cannot raise the value of its ticket above the points of that trip
+            if (points[trip] <= (newValues == null ? values[ticket] : newValues[ticket]))
+                continue;
+
+            int from = partition.representative(froms[trip]);
+            int to = partition.representative(tos[trip]);
+            if ((from == representative1 && to == representative2) || (from == representative2 && to == representative1)) {
+                if (newValues == null)
+                    newValues = values.clone();
+                newTotal += points[trip] - newValues[ticket];
+                newValues[ticket] = points[trip];
+            }
+        }
+
+        return newValues == null ? this : new TicketPoints(froms, tos, points, tickets, newValues, newTotal);
+    }
+}
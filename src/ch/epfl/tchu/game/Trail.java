@@ -1,10 +1,6 @@
 package ch.epfl.tchu.game;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * A trail between two stations in the network
@@ -27,61 +23,39 @@ public final class Trail {
 
     /**
      * The longest path in the network composed of the given routes
+     * <p>
+     * When several trails share the maximum length, the first one found is returned: the search starts from the
+     * stations in the order they first appear in {@code routes}, and follows the routes of each station in that
+     * same order. The returned trail may thus differ from the one the breadth-first search used to return, but
+     * always has the same length.
      *
      * @param routes The {@link List} of {@link Route} that the player controls
      * @return A trail with the maximum length from {@code routes}
      */
     public static Trail longest(List<Route> routes) {
-        // Filling the list with starting trails from routes
-        List<Trail> toExtendTrails = routes.stream()
-                .flatMap(r -> Stream.of(new Trail(r.station1(), r.station2(), List.of(r), r.length()), new Trail(r.station2(), r.station1(), List.of(r), r.length())))
-                .collect(Collectors.toList());
-
-        // A list that stores trails that cannot be extended further
-        List<Trail> deadEndTrails = new ArrayList<>();
-
-        // A list that stores trails that just got extended
-        List<Trail> updatedTrails = new ArrayList<>(toExtendTrails);
-
-        // While at least one trail has been extended, search for further extensions
-        while (!updatedTrails.isEmpty()) {
-            // The trails that last got updated now must be extended if possible
-            toExtendTrails = List.copyOf(updatedTrails);
-
-            // The list of updated trails is cleared
-            updatedTrails.clear();
-
-            // Iterating through the trails to be extended
-            toExtendTrails.forEach(t -> {
-                // Removing from the routes list already used routes as well as the ones that
-                // do not contain the current trail's second station
-                List<Route> eligibleRoutes = routes.stream()
-                        .filter(r -> !t.routes.contains(r) && r.stations().contains(t.station2()))
-                        .collect(Collectors.toList());
-
-                if (eligibleRoutes.isEmpty())
-                    // If no eligible route exist, the current trail is a dead end
-                    deadEndTrails.add(t);
-                else
-                    // For every eligible route, a new longer trail is added to the updates
-                    eligibleRoutes.forEach(r -> {
-                        List<Route> updatedRoutes = new ArrayList<>(t.routes);
-                        updatedRoutes.add(r);
-                        updatedTrails.add(new Trail(t.station1(), r.stationOpposite(t.station2()), updatedRoutes, computeTrailLength(updatedRoutes)));
-                    });
-            });
-        }
+        return routes.isEmpty() ? empty() : new TrailSearch(routes).longest();
+    }
 
-        // Figuring the longest trail among the found dead ends
-        return deadEndTrails.stream()
-                .max(Comparator.comparingInt(Trail::length))
-                .orElse(new Trail(null, null, List.of(), 0));
+    /**
+     * The empty trail, without stations
+     *
+     * @return A {@link Trail} of length zero with no stations
+     */
+    static Trail empty() {
+        return new Trail(null, null, List.of(), 0);
     }
 
-    private static int computeTrailLength(List<Route> routes) {
-        return routes.stream()
-                .map(Route::length)
-                .reduce(0, Integer::sum);
+    /**
+     * A trail going through the given routes from the first station to the second one
+     *
+     * @param station1 The first {@link Station}
+     * @param station2 The second {@link Station}
+     * @param routes   The {@link List} of {@link Route} in the order they are traveled
+     * @param length   The sum of the lengths of {@code routes}
+     * @return A {@link Trail} from {@code station1} to {@code station2} through {@code routes}
+     */
+    static Trail of(Station station1, Station station2, List<Route> routes, int length) {
+        return new Trail(station1, station2, List.copyOf(routes), length);
     }
 
     /**
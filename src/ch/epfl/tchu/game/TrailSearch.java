@@ -0,0 +1,137 @@
+package ch.epfl.tchu.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A depth-first search of the longest trail in a network of routes
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see Trail
+ */
+final class TrailSearch {
+    private final List<Route> routes;
+    private final int[] lengths;
+    private final int[] ends1;
+    private final int[] ends2;
+    private final Station[] stations;
+    private final int[][] incidences;
+
+    // The routes already used by the trail being explored, one bit per route index
+    private final long[] used;
+    // The route indices of the trail being explored, and of the longest trail found so far
+    private final int[] path;
+    private final int[] bestPath;
+    private int bestDepth;
+    private int bestLength;
+    private int bestStart;
+    private int bestEnd;
+
+    /**
+     * A search over the given routes, whose stations are mapped to dense indices
+     *
+     * @param routes The {@link List} of {@link Route} composing the network
+     */
+    TrailSearch(List<Route> routes) {
+        this.routes = List.copyOf(routes);
+
+        int routeCount = this.routes.size();
+        int highestId = 0;
+        for (Route route : this.routes)
+            highestId = Math.max(highestId, Math.max(route.station1().id(), route.station2().id()));
+
+        // Mapping every station identifier to a dense index
+        int[] indexOfId = new int[highestId + 1];
+        List<Station> denseStations = new ArrayList<>();
+        int[] degrees = new int[2 * routeCount];
+        this.lengths = new int[routeCount];
+        this.ends1 = new int[routeCount];
+        this.ends2 = new int[routeCount];
+        for (int r = 0; r < routeCount; r++) {
+            Route route = this.routes.get(r);
+            lengths[r] = route.length();
+            ends1[r] = denseIndex(route.station1(), indexOfId, denseStations);
+            ends2[r] = denseIndex(route.station2(), indexOfId, denseStations);
+            degrees[ends1[r]]++;
+            degrees[ends2[r]]++;
+        }
+        this.stations = denseStations.toArray(new Station[0]);
+
+        // Building the incidence lists of every station
+        this.incidences = new int[stations.length][];
+        for (int s = 0; s < stations.length; s++)
+            incidences[s] = new int[degrees[s]];
+        int[] filled = new int[stations.length];
+        for (int r = 0; r < routeCount; r++) {
+            incidences[ends1[r]][filled[ends1[r]]++] = r;
+            incidences[ends2[r]][filled[ends2[r]]++] = r;
+        }
+
+        this.used = new long[(routeCount + Long.SIZE - 1) / Long.SIZE];
+        this.path = new int[routeCount];
+        this.bestPath = new int[routeCount];
+    }
+
+    /**
+     * The longest trail of the network
+     *
+     * @return The longest {@link Trail}, or an empty trail if the network has no routes
+     */
+    Trail longest() {
+        bestDepth = 0;
+        bestLength = 0;
+        for (int s = 0; s < stations.length; s++)
+            explore(s, s, 0, 0);
+
+        if (bestDepth == 0)
+            return Trail.empty();
+
+        List<Route> trailRoutes = new ArrayList<>(bestDepth);
+        for (int i = 0; i < bestDepth; i++)
+            trailRoutes.add(routes.get(bestPath[i]));
+
+        return Trail.of(stations[bestStart], stations[bestEnd], trailRoutes, bestLength);
+    }
+
+    /**
+     * Extends the explored trail from the given station with every unused route, backtracking afterwards
+     *
+     * @param start   The dense index of the first station of the explored trail
+     * @param station The dense index of the last station of the explored trail
+     * @param depth   The number of routes of the explored trail
+     * @param length  The length of the explored trail
+     */
+    private void explore(int start, int station, int depth, int length) {
+        // Strictly longer only, so that the first trail found of the maximum length is kept
+        if (length > bestLength) {
+            System.arraycopy(path, 0, bestPath, 0, depth);
+            bestDepth = depth;
+            bestLength = length;
+            bestStart = start;
+            bestEnd = station;
+        }
+
+        for (int r : incidences[station]) {
+            int word = r >>> 6;
+            long bit = 1L << r;
+            if ((used[word] & bit) != 0)
+                continue;
+
+            used[word] |= bit;
+            path[depth] = r;
+            explore(start, ends1[r] == station ? ends2[r] : ends1[r], depth + 1, length + lengths[r]);
+            used[word] &= ~bit;
+        }
+    }
+
+    private static int denseIndex(Station station, int[] indexOfId, List<Station> denseStations) {
+        // Indices are shifted by one so that zero means the station was not seen yet
+        if (indexOfId[station.id()] == 0) {
+            denseStations.add(station);
+            indexOfId[station.id()] = denseStations.size();
+        }
+
+        return indexOfId[station.id()] - 1;
+    }
+}
@@ -0,0 +1,173 @@
+package ch.epfl.tchu.game;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * The random keys of the Zobrist hashing of game states, whose key is the exclusive or of the keys of the owner of
+ * every claimed route, of the number of cards of every type of every player, of the face-up cards, of the current and
+ * last players and of the end of the game
+ * <p>
+ * A move changing a few of these parts changes the key of a state by the exclusive or of their old and new keys, so
+ * that the key of the next state is computed in constant time.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see GameState#zobristKey()
+ * @see SimulationState#zobristKey()
+ */
+final class Zobrist {
+    private static final long SEED = 2021;
+    private static final List<Route> ROUTES = ChMap.routes();
+    private static final Map<String, Integer> ROUTE_INDICES = computeRouteIndices();
+    // Counts above the number of cards of the game share the key of that number
+    private static final int COUNTS = Constants.TOTAL_CARDS_COUNT + 1;
+
+    private static final SplittableRandom KEYS = new SplittableRandom(SEED);
+    // Indexed by player then route
+    private static final long[] ROUTE_KEYS = randomKeys(PlayerId.COUNT * ROUTES.size());
+    // Indexed by player, card and count
+    private static final long[] CARD_KEYS = randomKeys(PlayerId.COUNT * Card.COUNT * COUNTS);
+    // Indexed by slot then card
+    private static final long[] FACE_UP_KEYS = randomKeys(Constants.FACE_UP_CARDS_COUNT * Card.COUNT);
+    private static final long[] CURRENT_PLAYER_KEYS = randomKeys(PlayerId.COUNT);
+    private static final long[] LAST_PLAYER_KEYS = randomKeys(PlayerId.COUNT);
+    private static final long GAME_ENDED_KEY = KEYS.nextLong();
+
+    private Zobrist() {
+    }
+
+    /**
+     * The key of the given game, computed from all of its parts
+     *
+     * @param faceUpCards     The {@link List} of face-up {@link Card}
+     * @param currentPlayerId The {@link PlayerId} of the current player
+     * @param playerStates    The {@link PlayerState} of every player
+     * @param lastPlayer      The {@link PlayerId} of the last player, {@code null} if unknown yet
+     * @param gameEnded       Whether the game ended
+     * @return The key of the game
+     */
+    static long keyOf(List<Card> faceUpCards, PlayerId currentPlayerId, Map<PlayerId, PlayerState> playerStates,
+                      PlayerId lastPlayer, boolean gameEnded) {
+        long key = 0;
+        for (int slot = 0; slot < faceUpCards.size(); slot++)
+            key ^= faceUp(slot, faceUpCards.get(slot).ordinal());
+        for (PlayerId playerId : PlayerId.ALL) {
+            PlayerState playerState = playerStates.get(playerId);
+            for (Card card : Card.ALL)
+                key ^= cards(playerId.ordinal(), card.ordinal(), playerState.hand().countOf(card));
+            for (Route route : playerState.routes())
+                key ^= route(playerId, route);
+        }
+
+        return key ^ currentPlayer(currentPlayerId.ordinal())
+                ^ (Objects.isNull(lastPlayer) ? 0 : lastPlayer(lastPlayer.ordinal()))
+                ^ gameEnded(gameEnded);
+    }
+
+    /**
+     * @param player The index of the owner of the route
+     * @param route  The index of the {@link Route} in {@link ChMap#routes()}
+     * @return The key of the route being owned by the player
+     */
+    static long route(int player, int route) {
+        return ROUTE_KEYS[player * ROUTES.size() + route];
+    }
+
+    /**
+     * The key of the given route being owned by the given player, the routes that are not routes of {@link ChMap}
+     * having a key derived from their identifier
+     *
+     * @param playerId The {@link PlayerId} of the owner of the route
+     * @param route    The {@link Route}
+     * @return The key of the route being owned by the player
+     */
+    static long route(PlayerId playerId, Route route) {
+        Integer index = ROUTE_INDICES.get(route.id());
+        if (Objects.isNull(index))
+            return mix(route.id().hashCode() * 31L + playerId.ordinal());
+
+        return route(playerId.ordinal(), index);
+    }
+
+    /**
+     * @param player The index of the player
+     * @param card   The index of the {@link Card}
+     * @param count  The number of cards of that type the player has
+     * @return The key of the number of cards of the type the player has
+     */
+    static long cards(int player, int card, int count) {
+        return CARD_KEYS[(player * Card.COUNT + card) * COUNTS + Math.min(count, COUNTS - 1)];
+    }
+
+    /**
+     * @param player   The index of the player
+     * @param card     The index of the {@link Card}
+     * @param oldCount The number of cards of that type the player had
+     * @param newCount The number of cards of that type the player has
+     * @return The change of the key of the number of cards of the type the player has
+     */
+    static long cardsChange(int player, int card, int oldCount, int newCount) {
+        return cards(player, card, oldCount) ^ cards(player, card, newCount);
+    }
+
+    /**
+     * @param slot The slot of the face-up card
+     * @param card The index of the face-up {@link Card}
+     * @return The key of the card being face-up in the slot
+     */
+    static long faceUp(int slot, int card) {
+        return FACE_UP_KEYS[slot * Card.COUNT + card];
+    }
+
+    /**
+     * @param player The index of the current player
+     * @return The key of the player being the current one
+     */
+    static long currentPlayer(int player) {
+        return CURRENT_PLAYER_KEYS[player];
+    }
+
+    /**
+     * @param player The index of the last player
+     * @return The key of the player being the last one
+     */
+    static long lastPlayer(int player) {
+        return LAST_PLAYER_KEYS[player];
+    }
+
+    /**
+     * @param gameEnded Whether the game ended
+     * @return The key of the game having ended, {@code 0} if it did not
+     */
+    static long gameEnded(boolean gameEnded) {
+        return gameEnded ? GAME_ENDED_KEY : 0;
+    }
+
+    private static long[] randomKeys(int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++)
+            keys[i] = KEYS.nextLong();
+
+        return keys;
+    }
+
+    // The finalizer of SplitMix64, a bijection spreading close values apart
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+
+        return value ^ (value >>> 31);
+    }
+
+    private static Map<String, Integer> computeRouteIndices() {
+        Map<String, Integer> indices = new HashMap<>();
+        for (int r = 0; r < ROUTES.size(); r++)
+            indices.put(ROUTES.get(r).id(), r);
+
+        return Map.copyOf(indices);
+    }
+}
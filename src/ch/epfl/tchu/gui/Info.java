@@ -201,7 +201,18 @@ public final class Info {
      * @return A message announcing the bonus points won from the player's longest {@link Trail}
      */
     public String getsLongestTrailBonus(Trail longestTrail) {
-        return String.format(StringsFr.GETS_BONUS, playerName, routeText(longestTrail.station1(), longestTrail.station2()));
+        return getsLongestTrailBonus(longestTrail.station1(), longestTrail.station2());
+    }
+
+    /**
+     * A message announcing the bonus points won from the player's longest trail, going between the given stations
+     *
+     * @param station1 The first {@link Station} of the player's longest {@link Trail}
+     * @param station2 The last {@link Station} of the player's longest {@link Trail}
+     * @return A message announcing the bonus points won from the player's longest {@link Trail}
+     */
+    public String getsLongestTrailBonus(Station station1, Station station2) {
+        return String.format(StringsFr.GETS_BONUS, playerName, routeText(station1, station2));
     }
 
     /**
@@ -15,6 +15,7 @@ import ch.epfl.tchu.game.ChMap;
 import ch.epfl.tchu.game.Game;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.net.Protocol;
 import ch.epfl.tchu.net.RemotePlayerProxy;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -56,7 +57,7 @@ public class ServerMain extends Application {
             Socket s = s0.accept();
             Map<PlayerId, Player> players =
                     Map.of(PLAYER_1, new GraphicalPlayerAdapter(),
-                            PLAYER_2, new RemotePlayerProxy(s));
+                            PLAYER_2, new RemotePlayerProxy(s, Protocol.EVENTS));
             new Thread(() -> Game.play(players, names, SortedBag.of(ChMap.tickets()), new Random())).start();
 
         } catch (IOException exception) {
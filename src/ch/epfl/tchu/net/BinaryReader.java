@@ -0,0 +1,150 @@
+package ch.epfl.tchu.net;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import ch.epfl.tchu.Preconditions;
+
+/**
+ * A cursor reading the values of a buffer written in the binary protocol
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see BinaryWriter
+ */
+public final class BinaryReader {
+    private final byte[] bytes;
+    private final int limit;
+    private int position;
+
+    /**
+     * A reader of the given bytes, from the first one
+     *
+     * @param bytes The bytes to read, which are not copied
+     */
+    public BinaryReader(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    /**
+     * A reader of the given range of bytes
+     *
+     * @param bytes  The bytes to read, which are not copied
+     * @param offset The index of the first byte to read
+     * @param length The number of bytes to read
+     * @throws IndexOutOfBoundsException If the range is not within {@code bytes}
+     */
+    public BinaryReader(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.position = offset;
+        this.limit = offset + length;
+        if (offset < 0 || length < 0 || limit > bytes.length)
+            throw new IndexOutOfBoundsException();
+    }
+
+    /**
+     * Reads a single byte
+     *
+     * @return The byte read, between {@code 0} and {@code 255}
+     * @throws IllegalArgumentException If there is no byte left
+     */
+    public int readByte() {
+        Preconditions.checkArgument(position < limit);
+
+        return bytes[position++] & 0xFF;
+    }
+
+    /**
+     * Reads a boolean written as a single byte
+     *
+     * @return The boolean read
+     * @throws IllegalArgumentException If there is no byte left
+     */
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    /**
+     * Reads an integer written by {@link BinaryWriter#writeVarInt(int)}
+     *
+     * @return The integer read
+     * @throws IllegalArgumentException If the integer is truncated or longer than 5 bytes
+     */
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * Reads an integer written by {@link BinaryWriter#writeSignedVarInt(int)}
+     *
+     * @return The integer read
+     * @throws IllegalArgumentException If the integer is truncated or longer than 5 bytes
+     */
+    public int readSignedVarInt() {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a string written by {@link BinaryWriter#writeString(String)}
+     *
+     * @return The {@link String} read
+     * @throws IllegalArgumentException If the string is truncated
+     */
+    public String readString() {
+        int length = readVarInt();
+        Preconditions.checkArgument(0 <= length && length <= remaining());
+
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads an array of bytes written by {@link BinaryWriter#writeBytes(byte[])}
+     *
+     * @return The bytes read
+     * @throws IllegalArgumentException If the array is truncated
+     */
+    public byte[] readBytes() {
+        int length = readVarInt();
+        Preconditions.checkArgument(0 <= length && length <= remaining());
+
+        byte[] value = Arrays.copyOfRange(bytes, position, position + length);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads a set of bits written by {@link BinaryWriter#writeBitSet(BitSet, int)}
+     *
+     * @param length The number of bits that were written
+     * @return The {@link BitSet} read
+     * @throws IllegalArgumentException If the set is truncated
+     */
+    public BitSet readBitSet(int length) {
+        int byteCount = (length + 7) / 8;
+        Preconditions.checkArgument(byteCount <= remaining());
+
+        BitSet bits = BitSet.valueOf(Arrays.copyOfRange(bytes, position, position + byteCount));
+        position += byteCount;
+        return bits;
+    }
+
+    /**
+     * The number of bytes left to read
+     *
+     * @return The number of bytes left to read
+     */
+    public int remaining() {
+        return limit - position;
+    }
+}
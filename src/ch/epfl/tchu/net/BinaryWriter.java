@@ -0,0 +1,189 @@
+package ch.epfl.tchu.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A growable buffer into which values are written in the binary protocol
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see BinaryReader
+ */
+public final class BinaryWriter {
+    private byte[] bytes;
+    private int size;
+
+    /**
+     * An empty binary writer
+     */
+    public BinaryWriter() {
+        this.bytes = new byte[64];
+        this.size = 0;
+    }
+
+    /**
+     * Writes a single byte
+     *
+     * @param value The byte to write, only its 8 lowest bits being kept
+     * @return The writer ({@code this})
+     */
+    public BinaryWriter writeByte(int value) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Writes a boolean as a single byte
+     *
+     * @param value The boolean to write
+     * @return The writer ({@code this})
+     */
+    public BinaryWriter writeBoolean(boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Writes a positive integer on as few bytes as possible, 7 bits per byte
+     *
+     * @param value The integer to write, read as unsigned
+     * @return The writer ({@code this})
+     */
+    public BinaryWriter writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        return writeByte(value);
+    }
+
+    /**
+     * Writes an integer on as few bytes as possible, small negative integers being as short as small positive ones
+     *
+     * @param value The integer to write
+     * @return The writer ({@code this})
+     */
+    public BinaryWriter writeSignedVarInt(int value) {
+        return writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Writes a string as its length-prefixed UTF-8 encoding
+     *
+     * @param value The {@link String} to write
+     * @return The writer ({@code this})
+     */
+    public BinaryWriter writeString(String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(encoded.length);
+        ensureCapacity(encoded.length);
+        System.arraycopy(encoded, 0, bytes, size, encoded.length);
+        size += encoded.length;
+        return this;
+    }
+
+    /**
+     * Writes an array of bytes prefixed by its length
+     *
+     * @param value The bytes to write
+     * @return The writer ({@code this})
+     */
+    public BinaryWriter writeBytes(byte[] value) {
+        writeVarInt(value.length);
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, bytes, size, value.length);
+        size += value.length;
+        return this;
+    }
+
+    /**
+     * Writes a set of bits of the given length, one bit per possible index
+     *
+     * @param bits   The {@link BitSet} to write
+     * @param length The number of bits to write
+     * @return The writer ({@code this})
+     */
+    public BinaryWriter writeBitSet(BitSet bits, int length) {
+        byte[] encoded = Arrays.copyOf(bits.toByteArray(), (length + 7) / 8);
+        ensureCapacity(encoded.length);
+        System.arraycopy(encoded, 0, bytes, size, encoded.length);
+        size += encoded.length;
+        return this;
+    }
+
+    /**
+     * Writes the given range of bytes as they are, without any length
+     *
+     * @param value  The bytes to write
+     * @param offset The index of the first byte to write
+     * @param length The number of bytes to write
+     * @return The writer ({@code this})
+     * @throws IndexOutOfBoundsException If the range is not within {@code value}
+     */
+    public BinaryWriter writeRaw(byte[] value, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(value, offset, bytes, size, length);
+        size += length;
+        return this;
+    }
+
+    /**
+     * Writes the bytes written so far into another writer
+     *
+     * @param other The {@link BinaryWriter} whose bytes to write
+     * @return The writer ({@code this})
+     */
+    public BinaryWriter writeAll(BinaryWriter other) {
+        ensureCapacity(other.size);
+        System.arraycopy(other.bytes, 0, bytes, size, other.size);
+        size += other.size;
+        return this;
+    }
+
+    /**
+     * The number of bytes written so far
+     *
+     * @return The number of bytes in the buffer
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the buffer
+     *
+     * @return The writer ({@code this})
+     */
+    public BinaryWriter reset() {
+        size = 0;
+        return this;
+    }
+
+    /**
+     * The bytes written so far
+     *
+     * @return A copy of the bytes in the buffer
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    /**
+     * Writes the bytes of the buffer to the given stream
+     *
+     * @param output The {@link OutputStream}
+     * @throws IOException If the stream could not be written
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        output.write(bytes, 0, size);
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > bytes.length)
+            bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, size + additional));
+    }
+}
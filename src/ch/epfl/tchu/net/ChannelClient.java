@@ -0,0 +1,287 @@
+package ch.epfl.tchu.net;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A client connected to a {@link GameServer}, whose non-blocking channel is only read and written by the event loop
+ * of the server, while the thread of its game sees it as a pair of blocking streams
+ * <p>
+ * Both directions are bounded: the event loop stops reading the channel while the game has not read enough of the
+ * bytes already received, and the thread of the game waits for the event loop to write enough of the bytes already
+ * flushed before flushing more, failing if the client does not read them in time.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see GameServer
+ */
+final class ChannelClient {
+    private static final byte[] END_OF_STREAM = new byte[0];
+    // The bytes received but not read by the game beyond which the channel is not read anymore
+    static final int MAX_RECEIVED_BYTES = 1 << 18;
+    // The bytes flushed but not written to the channel beyond which the thread of the game waits
+    static final int MAX_PENDING_WRITE_BYTES = 1 << 18;
+    private static final long WRITE_TIMEOUT_MILLIS = 30_000;
+
+    private final SocketChannel channel;
+    private final Consumer<ChannelClient> listener;
+    private final BlockingQueue<byte[]> received;
+    private final AtomicInteger receivedBytes;
+    // Set by the event loop when it stops reading, cleared by whichever of it and the game sees it may read again
+    private final AtomicBoolean readPaused;
+    private final AtomicBoolean readResumed;
+    private final Queue<ByteBuffer> toWrite;
+    private final Semaphore writeCapacity;
+    private final InputStream input;
+    private final OutputStream output;
+    private volatile boolean closeRequested;
+    private volatile boolean closed;
+
+    /**
+     * A client connected through the given channel
+     *
+     * @param channel  The non-blocking {@link SocketChannel} of the client
+     * @param listener Called with the client whenever it has bytes to write, asks to be closed or may be read again,
+     *                 from the thread of its game
+     */
+    ChannelClient(SocketChannel channel, Consumer<ChannelClient> listener) {
+        this.channel = channel;
+        this.listener = listener;
+        this.received = new LinkedBlockingQueue<>();
+        this.receivedBytes = new AtomicInteger();
+        this.readPaused = new AtomicBoolean();
+        this.readResumed = new AtomicBoolean();
+        this.toWrite = new ConcurrentLinkedQueue<>();
+        this.writeCapacity = new Semaphore(MAX_PENDING_WRITE_BYTES);
+        this.input = new ChannelInputStream();
+        this.output = new ChannelOutputStream();
+        this.closeRequested = false;
+        this.closed = false;
+    }
+
+    /**
+     * @return The {@link SocketChannel} of the client
+     */
+    SocketChannel channel() {
+        return channel;
+    }
+
+    /**
+     * The bytes sent by the client, blocking until the event loop received some
+     *
+     * @return The {@link InputStream} of the bytes sent by the client
+     */
+    InputStream input() {
+        return input;
+    }
+
+    /**
+     * The bytes to send to the client, handed to the event loop on every flush and closing the channel
+     * once they are all written when closed
+     *
+     * @return The {@link OutputStream} of the bytes to send to the client
+     */
+    OutputStream output() {
+        return output;
+    }
+
+    /**
+     * Whether the thread of the game asked for the channel to be closed once every byte is written
+     *
+     * @return {@code true} if the game is over for this client
+     */
+    boolean closeRequested() {
+        return closeRequested;
+    }
+
+    /**
+     * Whether the event loop must stop reading the channel, until {@link #readResumed()}
+     *
+     * @return {@code true} if the game has not read enough of the bytes received yet
+     */
+    boolean readPaused() {
+        return readPaused.get();
+    }
+
+    /**
+     * Whether the game read enough of the bytes received for the event loop to read the channel again, since last
+     * asked, from the event loop
+     *
+     * @return {@code true} if the channel must be read again
+     */
+    boolean readResumed() {
+        return readResumed.getAndSet(false);
+    }
+
+    /**
+     * Reads the bytes available on the channel, from the event loop, pausing the reading once the game has too many
+     * bytes left to read
+     *
+     * @param buffer A {@link ByteBuffer} the bytes are read into before being copied
+     * @return {@code false} if the client closed its side of the channel
+     * @throws IOException If the channel could not be read
+     */
+    boolean read(ByteBuffer buffer) throws IOException {
+        int count = 0;
+        while (receivedBytes.get() < MAX_RECEIVED_BYTES && (count = channel.read(buffer.clear())) > 0) {
+            byte[] chunk = new byte[count];
+            buffer.flip().get(chunk);
+            receivedBytes.addAndGet(count);
+            received.add(chunk);
+        }
+        if (count < 0) {
+            received.add(END_OF_STREAM);
+            return false;
+        }
+        if (receivedBytes.get() >= MAX_RECEIVED_BYTES) {
+            readPaused.set(true);
+            // The game may have read them all before the reading was paused, and would then never resume it
+            if (receivedBytes.get() < MAX_RECEIVED_BYTES)
+                readPaused.compareAndSet(true, false);
+        }
+        return true;
+    }
+
+    /**
+     * Writes as many of the pending bytes as the channel accepts, from the event loop
+     *
+     * @return {@code true} if every pending byte was written
+     * @throws IOException If the channel could not be written
+     */
+    boolean write() throws IOException {
+        ByteBuffer buffer;
+        while ((buffer = toWrite.peek()) != null) {
+            channel.write(buffer);
+            if (buffer.hasRemaining())
+                return false;
+            toWrite.poll();
+            writeCapacity.release(Math.min(buffer.capacity(), MAX_PENDING_WRITE_BYTES));
+        }
+        return true;
+    }
+
+    /**
+     * Closes the channel and signals the end of the stream to the thread of the game, from the event loop
+     */
+    void close() {
+        closed = true;
+        // Lets a game waiting to flush go on, its bytes being dropped
+        writeCapacity.release(MAX_PENDING_WRITE_BYTES);
+        received.add(END_OF_STREAM);
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // The channel is closed anyway
+        }
+    }
+
+    private final class ChannelInputStream extends InputStream {
+        private byte[] chunk = new byte[0];
+        private int position = 0;
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (position == chunk.length) {
+                if (chunk == END_OF_STREAM)
+                    return -1;
+                try {
+                    chunk = received.take();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+                position = 0;
+                if (chunk == END_OF_STREAM)
+                    return -1;
+                if (receivedBytes.addAndGet(-chunk.length) < MAX_RECEIVED_BYTES && readPaused.compareAndSet(true, false)) {
+                    readResumed.set(true);
+                    listener.accept(ChannelClient.this);
+                }
+            }
+
+            int count = Math.min(len, chunk.length - position);
+            System.arraycopy(chunk, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return chunk.length - position;
+        }
+    }
+
+    private final class ChannelOutputStream extends OutputStream {
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) {
+            pending.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            pending.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (pending.size() == 0)
+                return;
+
+            byte[] bytes = pending.toByteArray();
+            pending.reset();
+            int permits = Math.min(bytes.length, MAX_PENDING_WRITE_BYTES);
+            try {
+                if (!writeCapacity.tryAcquire(permits, WRITE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    // Gives up on the bytes not written yet, so that the event loop closes the channel at once
+                    toWrite.clear();
+                    closeRequested = true;
+                    listener.accept(ChannelClient.this);
+                    throw new IOException("Client did not read its messages for " + WRITE_TIMEOUT_MILLIS + " ms");
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            if (closed) {
+                writeCapacity.release(permits);
+                return;
+            }
+            toWrite.add(ByteBuffer.wrap(bytes));
+            listener.accept(ChannelClient.this);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                closeRequested = true;
+                listener.accept(ChannelClient.this);
+            }
+        }
+    }
+}
@@ -0,0 +1,568 @@
+package ch.epfl.tchu.net;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A connection between the client and the server, exchanging messages in the text or in a binary {@link Protocol}
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see Protocol
+ */
+final class Connection implements Closeable {
+    private static final String ARGUMENT_SEPARATOR = " ";
+    private static final char MESSAGE_END = '\n';
+    private static final int INPUT_BUFFER_SIZE = 8_192;
+    // Far above the largest message of a game, so that a peer cannot make the connection allocate without limit
+    static final int MAX_FRAME_SIZE = 1 << 20;
+    // The same bound for the text protocol, a peer never ending its line being unable to grow its buffer without limit
+    static final int MAX_LINE_LENGTH = MAX_FRAME_SIZE;
+    // The number of bytes of a varint holding any int
+    private static final int MAX_FRAME_HEADER_LENGTH = 5;
+
+    private final Closeable resource;
+    private final InputStream input;
+    private final OutputStream output;
+    // Buffered here rather than by the JDK streams, whose monitors would be held while blocking on the socket
+    private final byte[] inputBuffer;
+    private int inputPosition;
+    private int inputLimit;
+    // The characters of the last line received, which its incoming message reads without copying them
+    private byte[] line;
+    private int lineLength;
+    private final TextWriter text;
+    private final BinaryWriter frame;
+    // The messages written but not flushed yet, sent together by a single write
+    private final BinaryWriter wire;
+    private boolean batching;
+    private Protocol protocol;
+    private long bytesWritten;
+    private long bytesRead;
+    private long writeCount;
+    private long flushCount;
+    // Null unless the messages are measured, the clock being read only then
+    private MessageStats stats;
+    private MessageId lastSentId;
+    private long lastSentNanos;
+    private MessageId lastReceivedId;
+    private long lastReceivedNanos;
+    // Whether a reply was sent since the last message was received, and when
+    private boolean hasReplied;
+    private long lastRepliedNanos;
+
+    /**
+     * A connection through the given socket, using the text protocol until told otherwise
+     *
+     * @param socket The connected {@link Socket}, on which Nagle's algorithm is disabled
+     * @throws UncheckedIOException If the streams of the socket could not be opened
+     */
+    Connection(Socket socket) {
+        this(socket, inputOf(socket), outputOf(socket));
+    }
+
+    /**
+     * A connection through the given streams, using the text protocol until told otherwise
+     *
+     * @param input  The {@link InputStream} messages are received from
+     * @param output The {@link OutputStream} messages are sent to
+     */
+    Connection(InputStream input, OutputStream output) {
+        this(() -> {
+            input.close();
+            output.close();
+        }, input, output);
+    }
+
+    private Connection(Closeable resource, InputStream input, OutputStream output) {
+        this.resource = resource;
+        this.input = input;
+        this.output = output;
+        this.inputBuffer = new byte[INPUT_BUFFER_SIZE];
+        this.inputPosition = 0;
+        this.inputLimit = 0;
+        this.line = new byte[INPUT_BUFFER_SIZE];
+        this.lineLength = 0;
+        this.text = new TextWriter();
+        this.frame = new BinaryWriter();
+        this.wire = new BinaryWriter();
+        this.batching = false;
+        this.protocol = Protocol.TEXT;
+        this.stats = null;
+    }
+
+    private static InputStream inputOf(Socket socket) {
+        try {
+            // Every message is flushed as soon as it is complete, it must not wait for the previous one to be acknowledged
+            socket.setTcpNoDelay(true);
+            return socket.getInputStream();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static OutputStream outputOf(Socket socket) {
+        try {
+            return socket.getOutputStream();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * The protocol messages are currently exchanged in
+     *
+     * @return The current {@link Protocol}
+     */
+    Protocol protocol() {
+        return protocol;
+    }
+
+    /**
+     * Switches the protocol of the next messages, once both sides agreed on it
+     *
+     * @param protocol The {@link Protocol} of the next messages
+     */
+    void setProtocol(Protocol protocol) {
+        this.protocol = Objects.requireNonNull(protocol);
+    }
+
+    /**
+     * The number of bytes sent so far
+     *
+     * @return The number of bytes sent through the connection
+     */
+    long bytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * The number of bytes received so far
+     *
+     * @return The number of bytes received through the connection
+     */
+    long bytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * The number of messages and replies written so far
+     *
+     * @return The number of messages written into the connection, flushed or not
+     */
+    long writeCount() {
+        return writeCount;
+    }
+
+    /**
+     * The number of times the messages written were flushed so far, each flush writing them to the stream at once
+     *
+     * @return The number of writes to the underlying stream
+     */
+    long flushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Makes the one-way messages, sent with {@link Outgoing#post()}, wait for the next message expecting a reply,
+     * the next receive or the closing of the connection to be flushed with it, or flushes them if disabled
+     *
+     * @param batching Whether the one-way messages are batched
+     * @throws UncheckedIOException If the messages waiting could not be flushed
+     */
+    void setBatching(boolean batching) {
+        this.batching = batching;
+        if (!batching)
+            flush();
+    }
+
+    /**
+     * Flushes the messages written but not flushed yet, if any
+     *
+     * @throws UncheckedIOException If the connection failed
+     */
+    void flush() {
+        try {
+            writePending();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void writePending() throws IOException {
+        if (wire.size() == 0)
+            return;
+
+        wire.writeTo(output);
+        output.flush();
+        wire.reset();
+        flushCount++;
+    }
+
+    /**
+     * Records the counters and durations of the next messages exchanged into the given statistics
+     *
+     * @param stats The {@link MessageStats}, which may be shared with other connections
+     */
+    void recordStats(MessageStats stats) {
+        this.stats = Objects.requireNonNull(stats);
+    }
+
+    /**
+     * Starts a message with the given identifier, whose arguments are then added with {@link Outgoing#with}
+     *
+     * @param messageId The {@link MessageId} of the message
+     * @return The {@link Outgoing} message, to be sent with {@link Outgoing#send()}
+     */
+    Outgoing message(MessageId messageId) {
+        return new Outgoing(messageId);
+    }
+
+    /**
+     * Starts the reply to the last received message, whose only argument is then added with {@link Outgoing#with}
+     *
+     * @return The {@link Outgoing} reply, to be sent with {@link Outgoing#send()}
+     */
+    Outgoing reply() {
+        if (!Objects.isNull(stats) && !Objects.isNull(lastReceivedId))
+            stats.record(MessageStats.Timing.THINK, lastReceivedId, System.nanoTime() - lastReceivedNanos);
+
+        return new Outgoing(null);
+    }
+
+    /**
+     * Waits for the next message
+     *
+     * @return The {@link Incoming} message, or {@code null} if the other side closed the connection
+     * @throws UncheckedIOException If the connection failed
+     */
+    Incoming receive() {
+        return receive(true);
+    }
+
+    /**
+     * Waits for the reply to the last sent message
+     *
+     * @return The {@link Incoming} reply
+     * @throws UncheckedIOException If the connection failed or was closed
+     */
+    Incoming receiveReply() {
+        Incoming reply = receive(false);
+        if (Objects.isNull(reply))
+            throw new UncheckedIOException(new EOFException());
+
+        return reply;
+    }
+
+    /**
+     * Flushes the messages waiting, if the connection is still open, and closes it
+     *
+     * @throws UncheckedIOException If the messages could not be flushed or the connection could not be closed
+     */
+    @Override
+    public void close() {
+        try {
+            try {
+                writePending();
+            } finally {
+                resource.close();
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private Incoming receive(boolean isMessage) {
+        // The other side may only answer once it received every message
+        flush();
+        long bytesReadBefore = bytesRead;
+        Incoming incoming = read(isMessage);
+        if (!Objects.isNull(stats) && !Objects.isNull(incoming)) {
+            long now = System.nanoTime();
+            int byteCount = (int) (bytesRead - bytesReadBefore);
+            if (isMessage) {
+                if (hasReplied)
+                    stats.record(MessageStats.Timing.RESPONSE, incoming.id(), now - lastRepliedNanos);
+                hasReplied = false;
+                lastReceivedId = incoming.id();
+                lastReceivedNanos = now;
+                stats.recordReceived(lastReceivedId, byteCount);
+            } else if (!Objects.isNull(lastSentId)) {
+                stats.recordReceived(lastSentId, byteCount);
+                stats.record(MessageStats.Timing.ROUND_TRIP, lastSentId, now - lastSentNanos);
+            }
+        }
+
+        return incoming;
+    }
+
+    private Incoming read(boolean isMessage) {
+        try {
+            switch (protocol) {
+                case TEXT:
+                    return readLine() ? new Incoming(new TextReader(line, 0, lineLength), isMessage) : null;
+                case BINARY:
+                case DELTA:
+                case EVENTS:
+                case SESSIONS:
+                    byte[] payload = readFrame();
+                    return Objects.isNull(payload) ? null : new Incoming(new BinaryReader(payload), isMessage);
+                default:
+                    throw new Error();
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    // The peer controls the identifier of a message, which must name one of them
+    private static MessageId messageId(String name) throws IOException {
+        try {
+            return MessageId.valueOf(name);
+        } catch (IllegalArgumentException exception) {
+            throw new IOException("Unknown message id " + name);
+        }
+    }
+
+    private static MessageId messageId(BinaryReader reader) throws IOException {
+        int ordinal;
+        try {
+            ordinal = reader.readVarInt();
+        } catch (IllegalArgumentException exception) {
+            throw new IOException("Frame without a message id");
+        }
+        if (ordinal < 0 || ordinal >= MessageId.ALL.size())
+            throw new IOException("Unknown message id " + Integer.toUnsignedString(ordinal));
+
+        return MessageId.ALL.get(ordinal);
+    }
+
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        int b;
+        while ((b = readByte()) != MESSAGE_END) {
+            if (b < 0) {
+                if (lineLength == 0)
+                    return false;
+                throw new EOFException();
+            }
+            if (lineLength == MAX_LINE_LENGTH)
+                throw new IOException("Line longer than " + MAX_LINE_LENGTH + " bytes");
+            if (lineLength == line.length)
+                line = Arrays.copyOf(line, Math.min(2 * lineLength, MAX_LINE_LENGTH));
+            line[lineLength++] = (byte) b;
+        }
+        bytesRead += lineLength + 1;
+
+        return true;
+    }
+
+    private byte[] readFrame() throws IOException {
+        int length = 0;
+        int headerLength = 0;
+        int b;
+        do {
+            b = readByte();
+            if (b < 0) {
+                if (headerLength == 0)
+                    return null;
+                throw new EOFException();
+            }
+            if (headerLength == MAX_FRAME_HEADER_LENGTH)
+                throw new IOException("Frame header longer than " + MAX_FRAME_HEADER_LENGTH + " bytes");
+            length |= (b & 0x7F) << (7 * headerLength++);
+        } while ((b & 0x80) != 0);
+        if (length < 0 || length > MAX_FRAME_SIZE)
+            throw new IOException("Frame of " + Integer.toUnsignedString(length) + " bytes, more than "
+                    + MAX_FRAME_SIZE);
+
+        byte[] payload = new byte[length];
+        int read = Math.min(length, inputLimit - inputPosition);
+        System.arraycopy(inputBuffer, inputPosition, payload, 0, read);
+        inputPosition += read;
+        while (read < length) {
+            int count = input.read(payload, read, length - read);
+            if (count < 0)
+                throw new EOFException();
+            read += count;
+        }
+        bytesRead += headerLength + length;
+
+        return payload;
+    }
+
+    private int readByte() throws IOException {
+        while (inputPosition == inputLimit) {
+            int count = input.read(inputBuffer, 0, inputBuffer.length);
+            if (count < 0)
+                return -1;
+            inputPosition = 0;
+            inputLimit = count;
+        }
+        return inputBuffer[inputPosition++] & 0xFF;
+    }
+
+    /**
+     * A message or a reply being built, in the current protocol of the connection
+     */
+    final class Outgoing {
+        private final MessageId messageId;
+        private final boolean isReply;
+        private final long startNanos;
+        private final boolean isText;
+        private boolean isEmpty;
+
+        private Outgoing(MessageId messageId) {
+            // A reply is measured with the message it answers
+            this.messageId = Objects.isNull(messageId) ? lastReceivedId : messageId;
+            this.isReply = Objects.isNull(messageId);
+            this.startNanos = Objects.isNull(stats) ? 0 : System.nanoTime();
+            switch (protocol) {
+                case TEXT:
+                    this.isText = true;
+                    text.reset();
+                    if (!Objects.isNull(messageId))
+                        text.write(messageId.name());
+                    this.isEmpty = Objects.isNull(messageId);
+                    break;
+                case BINARY:
+                case DELTA:
+                case EVENTS:
+                case SESSIONS:
+                    this.isText = false;
+                    frame.reset();
+                    if (!Objects.isNull(messageId))
+                        frame.writeVarInt(messageId.ordinal());
+                    break;
+                default:
+                    throw new Error();
+            }
+        }
+
+        /**
+         * Adds an argument to the message
+         *
+         * @param <T>   The type of the argument
+         * @param serde The {@link Serde} of the argument
+         * @param value The argument
+         * @return The message ({@code this})
+         */
+        <T> Outgoing with(Serde<T> serde, T value) {
+            if (isText) {
+                if (!isEmpty)
+                    text.write(ARGUMENT_SEPARATOR);
+                serde.serialize(value, text);
+                isEmpty = false;
+            } else {
+                serde.write(value, frame);
+            }
+
+            return this;
+        }
+
+        /**
+         * Sends the message, flushing it with the messages waiting before it
+         *
+         * @throws UncheckedIOException If the connection failed
+         */
+        void send() {
+            write();
+            flush();
+            if (!Objects.isNull(stats) && !Objects.isNull(messageId)) {
+                lastSentNanos = System.nanoTime();
+                if (isReply) {
+                    hasReplied = true;
+                    lastRepliedNanos = lastSentNanos;
+                }
+            }
+        }
+
+        /**
+         * Sends a message expecting no reply, which waits for the next flush if the connection batches messages
+         *
+         * @throws UncheckedIOException If the connection failed
+         */
+        void post() {
+            write();
+            if (!batching)
+                flush();
+        }
+
+        private void write() {
+            long serializedNanos = Objects.isNull(stats) ? 0 : System.nanoTime();
+            int sizeBefore = wire.size();
+            if (isText) {
+                text.write(MESSAGE_END).writeTo(wire);
+            } else {
+                wire.writeVarInt(frame.size()).writeAll(frame);
+            }
+            int byteCount = wire.size() - sizeBefore;
+            bytesWritten += byteCount;
+            writeCount++;
+
+            if (!Objects.isNull(stats) && !Objects.isNull(messageId)) {
+                stats.recordSent(messageId, byteCount, serializedNanos - startNanos);
+                lastSentId = messageId;
+                lastSentNanos = serializedNanos;
+            }
+        }
+    }
+
+    /**
+     * A received message or reply, whose arguments are read in order with {@link Incoming#next}, before the next
+     * message is received in the text protocol
+     */
+    final class Incoming {
+        private final MessageId messageId;
+        private final TextReader text;
+        private final BinaryReader reader;
+        private boolean isFirstArgument;
+
+        private Incoming(TextReader text, boolean isMessage) throws IOException {
+            this.text = text;
+            this.reader = null;
+            text.pushDelimiter(ARGUMENT_SEPARATOR);
+            this.messageId = isMessage ? messageId(text.readValue()) : null;
+            this.isFirstArgument = !isMessage;
+        }
+
+        private Incoming(BinaryReader reader, boolean isMessage) throws IOException {
+            this.text = null;
+            this.reader = reader;
+            this.messageId = isMessage ? messageId(reader) : null;
+        }
+
+        /**
+         * The identifier of the message
+         *
+         * @return The {@link MessageId} of the message, {@code null} for a reply
+         */
+        MessageId id() {
+            return messageId;
+        }
+
+        /**
+         * Reads the next argument of the message
+         *
+         * @param <T>   The type of the argument
+         * @param serde The {@link Serde} of the argument
+         * @return The next argument
+         */
+        <T> T next(Serde<T> serde) {
+            if (Objects.isNull(text))
+                return serde.read(reader);
+
+            if (!isFirstArgument)
+                text.expect(ARGUMENT_SEPARATOR);
+            isFirstArgument = false;
+            return serde.deserialize(text);
+        }
+    }
+}
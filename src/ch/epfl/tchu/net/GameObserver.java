@@ -0,0 +1,40 @@
+package ch.epfl.tchu.net;
+
+import java.util.Random;
+
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+
+/**
+ * An observer of a game hosted by a {@link GameServer}, which plays it with {@link Game#play} on the players and the
+ * random number generator the observer provides
+ * <p>
+ * Every method is called by the thread of the game.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see GameServer#observeGames
+ */
+public interface GameObserver {
+    /**
+     * The player the game is played with in place of the given one, which it typically forwards every call to
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @param player   The {@link Player} of the remote client
+     * @return The {@link Player} the game is played with
+     */
+    Player player(PlayerId playerId, Player player);
+
+    /**
+     * @return The random number generator the game is played with
+     */
+    Random random();
+
+    /**
+     * Called once the game ended or failed
+     *
+     * @param failure The {@link Throwable} that interrupted the game, {@code null} if it ended normally
+     */
+    void gameEnded(Throwable failure);
+}
@@ -0,0 +1,647 @@
+package ch.epfl.tchu.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * A headless server hosting many games between remote players at the same time, pairing the clients
+ * in the order they connect
+ * <p>
+ * A single event loop accepts, reads and writes every connection without blocking, while each game runs
+ * {@link Game#play} on its own thread, its {@link RemotePlayerProxy} only ever waiting for the bytes
+ * the event loop received for its client. The games run either on platform threads or, when the runtime
+ * provides them, on virtual threads, at most a given number of them at the same time
+ * <p>
+ * Unless the server only offers the text protocol, the handshake of a client takes place before it is paired, so that
+ * a client of a protocol with sessions presenting the token of its session takes its place in its game again. A client
+ * that did not complete its handshake in time is disconnected, and on platform threads only a bounded number of
+ * handshakes take place at the same time, the clients accepted while too many others wait for theirs being
+ * disconnected right away
+ * <p>
+ * When asked to, the server plays every game with the players and the random number generator of a
+ * {@link GameObserver}, e.g. to record it
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see ChannelClient
+ */
+public final class GameServer implements Closeable {
+    private static final Map<PlayerId, String> NAMES = Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles");
+    private static final SortedBag<Ticket> TICKETS = SortedBag.of(ChMap.tickets());
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    // Clients connecting while the accept queue is full believe they are connected but are never accepted
+    private static final int ACCEPT_BACKLOG = 1_024;
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+    // The time a game waits for a client which lost its connection to resume its session
+    private static final long RESUME_TIMEOUT_MILLIS = 30_000;
+    private static final long HANDSHAKE_TIMEOUT_MILLIS = 10_000;
+    private static final int MAX_CONCURRENT_HANDSHAKES = 64;
+    private static final int MAX_QUEUED_HANDSHAKES = 1_024;
+
+    /**
+     * The kind of threads the games run on
+     */
+    public enum ThreadMode {
+        /**
+         * One platform thread per game being played, idle threads being kept for a while to play the next games
+         */
+        PLATFORM,
+        /**
+         * One virtual thread per game, falling back to {@link #PLATFORM} if the runtime does not provide them
+         */
+        VIRTUAL
+    }
+
+    private final Protocol protocol;
+    private final ThreadMode threadMode;
+    private final int maxConcurrentGames;
+    private final Semaphore gameSlots;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService games;
+    // Runs the handshakes, which must not wait for a game slot, a game waiting for one of its clients to resume
+    private final ExecutorService handshakes;
+    private final long handshakeTimeoutNanos;
+    // The clients whose handshake started, in the order of their deadlines, only used by the event loop
+    private final ArrayDeque<NewPlayer> handshaking;
+    private final Thread eventLoop;
+    private final ByteBuffer readBuffer;
+    // The clients having bytes to write, asking to be closed or to be read again
+    private final Queue<ChannelClient> pendingClients;
+    private final AtomicBoolean wakeupRequested;
+    private final AtomicInteger pairedGames;
+    private final AtomicInteger startedGames;
+    private final AtomicInteger completedGames;
+    private final AtomicInteger failedGames;
+    private final MessageStats stats;
+    // Null unless the messages are measured
+    private volatile Consumer<MessageStats> gameStatsListener;
+    // Null unless the games are observed
+    private volatile Function<Map<PlayerId, String>, GameObserver> gameObservers;
+    // The sessions of the games being played, per token
+    private final Map<String, Session> sessions;
+    // Guards the client waiting for an opponent, paired by the event loop or by the thread of its handshake
+    private final Object pairingLock;
+    private NewPlayer waitingPlayer;
+
+    /**
+     * A client accepted but not paired yet, with its connection
+     */
+    private static final class NewPlayer {
+        private final ChannelClient client;
+        private final Connection connection;
+        // The messages of the handshake, null unless the messages are measured
+        private final MessageStats stats;
+        private final long handshakeDeadlineNanos;
+        private volatile boolean handshaken;
+
+        private NewPlayer(ChannelClient client, MessageStats stats, long handshakeDeadlineNanos) {
+            this.client = client;
+            this.connection = new Connection(client.input(), client.output());
+            // The connections being closed when the game ends, the last messages are flushed then
+            connection.setBatching(true);
+            this.stats = stats;
+            if (!Objects.isNull(stats))
+                connection.recordStats(stats);
+            this.handshakeDeadlineNanos = handshakeDeadlineNanos;
+            this.handshaken = false;
+        }
+    }
+
+    /**
+     * A server listening on the given port, playing every game on its own platform thread as soon as
+     * its players are paired, not accepting any connection before being started
+     *
+     * @param port     The port to listen on, {@code 0} for any free one
+     * @param protocol The newest {@link Protocol} offered to the clients
+     * @throws UncheckedIOException If the port could not be bound
+     */
+    public GameServer(int port, Protocol protocol) {
+        this(port, protocol, ThreadMode.PLATFORM, Integer.MAX_VALUE);
+    }
+
+    /**
+     * A server listening on the given port, not accepting any connection before being started
+     *
+     * @param port               The port to listen on, {@code 0} for any free one
+     * @param protocol           The newest {@link Protocol} offered to the clients
+     * @param threadMode         The kind of threads the games run on
+     * @param maxConcurrentGames The maximum number of games played at the same time, the players paired
+     *                           afterwards waiting for a game to end before theirs starts
+     * @throws IllegalArgumentException If the maximum number of games is not strictly positive
+     * @throws UncheckedIOException     If the port could not be bound
+     */
+    public GameServer(int port, Protocol protocol, ThreadMode threadMode, int maxConcurrentGames) {
+        this(port, protocol, threadMode, maxConcurrentGames, HANDSHAKE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * A server listening on the given port, not accepting any connection before being started
+     *
+     * @param port                   The port to listen on, {@code 0} for any free one
+     * @param protocol               The newest {@link Protocol} offered to the clients
+     * @param threadMode             The kind of threads the games run on
+     * @param maxConcurrentGames     The maximum number of games played at the same time
+     * @param handshakeTimeoutMillis The time a client has from its connection to complete its handshake
+     * @throws IllegalArgumentException If the maximum number of games or the timeout is not strictly positive
+     * @throws UncheckedIOException     If the port could not be bound
+     */
+    GameServer(int port, Protocol protocol, ThreadMode threadMode, int maxConcurrentGames,
+               long handshakeTimeoutMillis) {
+        Preconditions.checkArgument(maxConcurrentGames > 0 && handshakeTimeoutMillis > 0);
+        this.protocol = protocol;
+        this.maxConcurrentGames = maxConcurrentGames;
+        this.gameSlots = new Semaphore(maxConcurrentGames);
+        ExecutorService virtualThreads = threadMode == ThreadMode.VIRTUAL ? newVirtualThreadExecutor() : null;
+        if (virtualThreads != null) {
+            this.threadMode = ThreadMode.VIRTUAL;
+            this.games = virtualThreads;
+            this.handshakes = newVirtualThreadExecutor();
+        } else {
+            // Games waiting for a slot are queued rather than holding a thread each
+            ThreadPoolExecutor platformThreads = new ThreadPoolExecutor(maxConcurrentGames, maxConcurrentGames,
+                    IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+            platformThreads.allowCoreThreadTimeOut(true);
+            this.threadMode = ThreadMode.PLATFORM;
+            this.games = platformThreads;
+            ThreadPoolExecutor handshakeThreads = new ThreadPoolExecutor(MAX_CONCURRENT_HANDSHAKES,
+                    MAX_CONCURRENT_HANDSHAKES, IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(MAX_QUEUED_HANDSHAKES));
+            handshakeThreads.allowCoreThreadTimeOut(true);
+            this.handshakes = handshakeThreads;
+        }
+        try {
+            this.selector = Selector.open();
+            this.serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        this.handshakeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(handshakeTimeoutMillis);
+        this.handshaking = new ArrayDeque<>();
+        this.eventLoop = new Thread(this::runEventLoop, "tchu-server");
+        this.readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        this.pendingClients = new ConcurrentLinkedQueue<>();
+        this.wakeupRequested = new AtomicBoolean();
+        this.pairedGames = new AtomicInteger();
+        this.startedGames = new AtomicInteger();
+        this.completedGames = new AtomicInteger();
+        this.failedGames = new AtomicInteger();
+        this.stats = new MessageStats();
+        this.gameStatsListener = null;
+        this.gameObservers = null;
+        this.sessions = new ConcurrentHashMap<>();
+        this.pairingLock = new Object();
+        this.waitingPlayer = null;
+    }
+
+    /**
+     * Starts a server and lets it run until the process is killed
+     *
+     * @param args The arguments of the program, i.e. the port, the newest protocol offered, the kind of threads
+     *             the games run on, the maximum number of games played at the same time and {@code stats} to print
+     *             the statistics of the messages of every game when it ends
+     */
+    public static void main(String[] args) {
+        int port = args.length >= 1 ? Integer.parseInt(args[0]) : 5108;
+        Protocol protocol = args.length >= 2 ? Protocol.valueOf(args[1]) : Protocol.SESSIONS;
+        ThreadMode threadMode = args.length >= 3 ? ThreadMode.valueOf(args[2]) : ThreadMode.PLATFORM;
+        int maxConcurrentGames = args.length >= 4 ? Integer.parseInt(args[3]) : Integer.MAX_VALUE;
+
+        GameServer server = new GameServer(port, protocol, threadMode, maxConcurrentGames);
+        if (args.length >= 5 && args[4].equals("stats"))
+            server.recordStats(System.out::print);
+        server.start();
+        System.out.printf("Listening on port %d, offering protocols up to %s, playing games on %s threads%n",
+                server.port(), protocol, server.threadMode());
+    }
+
+    /**
+     * Whether the runtime provides virtual threads, i.e. whether {@link ThreadMode#VIRTUAL} does not fall back
+     * to platform threads
+     *
+     * @return {@code true} if the games can run on virtual threads
+     */
+    public static boolean virtualThreadsAvailable() {
+        ExecutorService executor = newVirtualThreadExecutor();
+        if (executor == null)
+            return false;
+        executor.shutdown();
+        return true;
+    }
+
+    // Looked up reflectively, so that the server still builds and runs on runtimes without virtual threads
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Starts the event loop, accepting connections
+     *
+     * @throws IllegalStateException If the server was already started
+     */
+    public void start() {
+        eventLoop.start();
+    }
+
+    /**
+     * Observes the games started from now on, each game being played with the players and the random number generator
+     * of its own observer
+     *
+     * @param gameObservers The {@link Function} giving the {@link GameObserver} of every game, given the names of its
+     *                      players and called by the thread of the game
+     */
+    public void observeGames(Function<Map<PlayerId, String>, GameObserver> gameObservers) {
+        this.gameObservers = Objects.requireNonNull(gameObservers);
+    }
+
+    /**
+     * Measures the messages of the games started from now on, each game recording them into its own statistics,
+     * which are added to {@link #stats()} when it ends and then given to the listener
+     *
+     * @param gameStatsListener The {@link Consumer} of the {@link MessageStats} of every game, called by the thread
+     *                          of the game
+     */
+    public void recordStats(Consumer<MessageStats> gameStatsListener) {
+        this.gameStatsListener = Objects.requireNonNull(gameStatsListener);
+    }
+
+    /**
+     * @return The {@link MessageStats} of the games that ended since the messages are measured
+     */
+    public MessageStats stats() {
+        return stats;
+    }
+
+    /**
+     * @return The port the server listens on
+     */
+    public int port() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return The kind of threads the games actually run on
+     */
+    public ThreadMode threadMode() {
+        return threadMode;
+    }
+
+    /**
+     * @return The maximum number of games played at the same time
+     */
+    public int maxConcurrentGames() {
+        return maxConcurrentGames;
+    }
+
+    /**
+     * @return The number of games whose players are paired, but which wait for another game to end to start
+     */
+    public int queuedGameCount() {
+        return pairedGames.get() - startedGames.get();
+    }
+
+    /**
+     * @return The number of games started so far
+     */
+    public int startedGameCount() {
+        return startedGames.get();
+    }
+
+    /**
+     * @return The number of games that ended normally so far
+     */
+    public int completedGameCount() {
+        return completedGames.get();
+    }
+
+    /**
+     * @return The number of games that ended because of an error, e.g. a client disconnecting, so far
+     */
+    public int failedGameCount() {
+        return failedGames.get();
+    }
+
+    /**
+     * @return The number of games being played
+     */
+    public int activeGameCount() {
+        return startedGameCount() - completedGameCount() - failedGameCount();
+    }
+
+    /**
+     * Stops accepting connections and closes every connection, the games being played failing
+     */
+    @Override
+    public void close() {
+        try {
+            serverChannel.close();
+            selector.wakeup();
+            if (eventLoop.isAlive())
+                eventLoop.join();
+            handshakes.shutdownNow();
+            games.shutdownNow();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runEventLoop() {
+        try {
+            while (serverChannel.isOpen()) {
+                selector.select(closeExpiredHandshakes());
+                // Cleared before the pending clients are handled, so that a request made afterwards wakes it up again
+                wakeupRequested.set(false);
+
+                ChannelClient client;
+                while ((client = pendingClients.poll()) != null) {
+                    SelectionKey key = client.channel().keyFor(selector);
+                    if (key != null && key.isValid() && client.readResumed())
+                        key.interestOpsOr(SelectionKey.OP_READ);
+                    if (key != null && key.isValid())
+                        write(key, client);
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid() && key.isAcceptable())
+                        accept();
+                    else if (key.isValid())
+                        handle(key, (ChannelClient) key.attachment());
+                }
+            }
+        } catch (IOException | ClosedSelectorException exception) {
+            // The server is closed
+        } finally {
+            for (SelectionKey key : selector.keys())
+                if (key.attachment() instanceof ChannelClient)
+                    ((ChannelClient) key.attachment()).close();
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // The selector is closed anyway
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null)
+            return;
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+
+        ChannelClient client = new ChannelClient(channel, this::request);
+        channel.register(selector, SelectionKey.OP_READ, client);
+        NewPlayer player = new NewPlayer(client, Objects.isNull(gameStatsListener) ? null : new MessageStats(),
+                System.nanoTime() + handshakeTimeoutNanos);
+        if (protocol == Protocol.TEXT) {
+            pair(player);
+            return;
+        }
+        try {
+            handshakes.execute(() -> greet(player));
+            handshaking.add(player);
+        } catch (RejectedExecutionException exception) {
+            // Too many clients are waiting for their handshake
+            client.close();
+        }
+    }
+
+    // Disconnects the clients whose handshake did not complete in time, and returns the time until the next deadline
+    private long closeExpiredHandshakes() {
+        long now = System.nanoTime();
+        NewPlayer player;
+        while ((player = handshaking.peek()) != null) {
+            if (player.handshaken) {
+                handshaking.poll();
+            } else if (now - player.handshakeDeadlineNanos >= 0) {
+                handshaking.poll();
+                player.client.close();
+            } else {
+                // Rounded up, since selecting for no time means selecting for ever
+                return TimeUnit.NANOSECONDS.toMillis(player.handshakeDeadlineNanos - now) + 1;
+            }
+        }
+        return 0;
+    }
+
+    private void handle(SelectionKey key, ChannelClient client) {
+        try {
+            if (key.isReadable()) {
+                if (!client.read(readBuffer)) {
+                    key.interestOpsAnd(~SelectionKey.OP_READ);
+                    // A client leaving before having been paired cannot fail any game
+                    unpair(client);
+                } else if (client.readPaused()) {
+                    // Read again once the game asks for it
+                    key.interestOpsAnd(~SelectionKey.OP_READ);
+                }
+            }
+            if (key.isValid() && key.isWritable())
+                write(key, client);
+        } catch (IOException exception) {
+            unpair(client);
+            client.close();
+        }
+    }
+
+    // Writes the pending bytes right away, only waiting for the channel to be writable if they do not all fit in it
+    private void write(SelectionKey key, ChannelClient client) {
+        try {
+            // Read before writing, so that every byte written before the request was queued
+            boolean closeRequested = client.closeRequested();
+            if (client.write()) {
+                key.interestOpsAnd(~SelectionKey.OP_WRITE);
+                if (closeRequested)
+                    client.close();
+            } else {
+                key.interestOpsOr(SelectionKey.OP_WRITE);
+            }
+        } catch (IOException exception) {
+            client.close();
+        }
+    }
+
+    private void request(ChannelClient client) {
+        pendingClients.add(client);
+        if (wakeupRequested.compareAndSet(false, true))
+            selector.wakeup();
+    }
+
+    // Pairs the client once it chose its protocol, or hands it to its game if it resumes its session
+    private void greet(NewPlayer player) {
+        try {
+            String token = RemotePlayerProxy.handshake(player.connection, protocol);
+            player.handshaken = true;
+            if (token.isEmpty()) {
+                pair(player);
+                return;
+            }
+
+            Session session = sessions.get(token);
+            if (Objects.isNull(session)) {
+                player.connection.close();
+                return;
+            }
+            if (!Objects.isNull(player.stats) && !Objects.isNull(session.stats())) {
+                session.stats().addAll(player.stats);
+                player.connection.recordStats(session.stats());
+            }
+            session.resume(player.connection);
+        } catch (RuntimeException exception) {
+            // The client left or did not follow the protocol
+            close(player.connection);
+        }
+    }
+
+    // Closes a connection whose client may not read its last messages anymore
+    private static void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (UncheckedIOException exception) {
+            // The client is disconnected anyway
+        }
+    }
+
+    private void pair(NewPlayer player) {
+        NewPlayer opponent;
+        synchronized (pairingLock) {
+            if (Objects.isNull(waitingPlayer)) {
+                waitingPlayer = player;
+                return;
+            }
+            opponent = waitingPlayer;
+            waitingPlayer = null;
+        }
+        pairedGames.incrementAndGet();
+        games.execute(() -> play(opponent, player));
+    }
+
+    private void unpair(ChannelClient client) {
+        synchronized (pairingLock) {
+            if (Objects.isNull(waitingPlayer) || waitingPlayer.client != client)
+                return;
+            waitingPlayer = null;
+        }
+        client.close();
+    }
+
+    private void play(NewPlayer player1, NewPlayer player2) {
+        Consumer<MessageStats> gameStatsListener = this.gameStatsListener;
+        Function<Map<PlayerId, String>, GameObserver> gameObservers = this.gameObservers;
+        MessageStats gameStats = Objects.isNull(gameStatsListener) ? null : new MessageStats();
+        Map<PlayerId, NewPlayer> newPlayers = Map.of(PlayerId.PLAYER_1, player1, PlayerId.PLAYER_2, player2);
+        if (!Objects.isNull(gameStats)) {
+            for (NewPlayer player : newPlayers.values()) {
+                if (!Objects.isNull(player.stats))
+                    gameStats.addAll(player.stats);
+                player.connection.recordStats(gameStats);
+            }
+        }
+        Map<PlayerId, RemotePlayerProxy> proxies = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, Session> gameSessions = new EnumMap<>(PlayerId.class);
+        try {
+            gameSlots.acquire();
+            try {
+                startedGames.incrementAndGet();
+                for (PlayerId playerId : PlayerId.ALL) {
+                    Connection connection = newPlayers.get(playerId).connection;
+                    Session session = null;
+                    if (connection.protocol().compareTo(Protocol.SESSIONS) >= 0) {
+                        session = new Session(RESUME_TIMEOUT_MILLIS, gameStats);
+                        sessions.put(session.token(), session);
+                        gameSessions.put(playerId, session);
+                    }
+                    proxies.put(playerId, new RemotePlayerProxy(connection, session));
+                }
+                GameObserver observer = Objects.isNull(gameObservers) ? null : gameObservers.apply(NAMES);
+                RuntimeException failure = null;
+                try {
+                    if (Objects.isNull(observer)) {
+                        Game.play(Map.copyOf(proxies), NAMES, TICKETS, new Random());
+                    } else {
+                        Map<PlayerId, Player> players = new EnumMap<>(PlayerId.class);
+                        proxies.forEach((playerId, proxy) -> players.put(playerId, observer.player(playerId, proxy)));
+                        Game.play(Map.copyOf(players), NAMES, TICKETS, observer.random());
+                    }
+                } catch (RuntimeException exception) {
+                    failure = exception;
+                    throw exception;
+                } finally {
+                    if (!Objects.isNull(observer))
+                        observer.gameEnded(failure);
+                }
+                completedGames.incrementAndGet();
+            } catch (RuntimeException exception) {
+                failedGames.incrementAndGet();
+            } finally {
+                gameSlots.release();
+            }
+        } catch (InterruptedException exception) {
+            // The server was closed before the game could start
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Session session : gameSessions.values()) {
+                sessions.remove(session.token());
+                session.close();
+            }
+            for (PlayerId playerId : PlayerId.ALL) {
+                close(newPlayers.get(playerId).connection);
+                // The connection the client resumed its session with, if any
+                if (proxies.containsKey(playerId))
+                    close(proxies.get(playerId).connection());
+            }
+            if (!Objects.isNull(gameStats)) {
+                stats.addAll(gameStats);
+                gameStatsListener.accept(gameStats);
+            }
+        }
+    }
+}
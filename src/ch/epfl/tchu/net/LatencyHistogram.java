@@ -0,0 +1,144 @@
+package ch.epfl.tchu.net;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import ch.epfl.tchu.Preconditions;
+
+/**
+ * A histogram of durations, which any number of threads record into without locking
+ * <p>
+ * The values are counted in buckets whose width grows with their magnitude, every power of two being split into
+ * {@value #HALF_SUB_BUCKET_COUNT} buckets, so that the value of a percentile is known to within about 6%
+ * whatever its magnitude, like in an HdrHistogram with one significant digit
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see MessageStats
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    // The values below it are counted exactly, each of them having its own bucket
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT
+            + (Long.SIZE - 1 - SUB_BUCKET_BITS) * HALF_SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong count;
+    private final AtomicLong sum;
+    private final AtomicLong max;
+
+    /**
+     * An empty histogram
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.count = new AtomicLong();
+        this.sum = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records the given value
+     *
+     * @param value The value, typically a duration in nanoseconds
+     * @throws IllegalArgumentException If the value is negative
+     */
+    public void record(long value) {
+        Preconditions.checkArgument(value >= 0);
+
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Records every value of the given histogram
+     *
+     * @param that The {@link LatencyHistogram} whose values are recorded
+     */
+    public void addAll(LatencyHistogram that) {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            long bucketCount = that.counts.get(bucket);
+            if (bucketCount != 0)
+                counts.addAndGet(bucket, bucketCount);
+        }
+        count.addAndGet(that.count.get());
+        sum.addAndGet(that.sum.get());
+        max.accumulateAndGet(that.max.get(), Math::max);
+    }
+
+    /**
+     * The number of values recorded
+     *
+     * @return The number of values recorded
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * The largest value recorded
+     *
+     * @return The largest value, {@code 0} if none was recorded
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * The mean of the values recorded
+     *
+     * @return The mean of the values, {@code 0} if none was recorded
+     */
+    public double mean() {
+        long count = this.count.get();
+        return count == 0 ? 0 : (double) sum.get() / count;
+    }
+
+    /**
+     * The value below which the given percentage of the values recorded lie
+     *
+     * @param percentile The percentage, between 0 and 100
+     * @return The largest value of the bucket of the percentile, at most the largest value recorded, {@code 0}
+     * if none was recorded
+     * @throws IllegalArgumentException If the percentage is not between 0 and 100
+     */
+    public long valueAtPercentile(double percentile) {
+        Preconditions.checkArgument(0 <= percentile && percentile <= 100);
+
+        long count = this.count.get();
+        if (count == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank)
+                return Math.min(highestValueOf(bucket), max.get());
+        }
+        // Values recorded while the buckets were read
+        return max.get();
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+
+        // The value is counted according to its SUB_BUCKET_BITS most significant bits
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_SUB_BUCKET_COUNT + mantissa - HALF_SUB_BUCKET_COUNT;
+    }
+
+    private static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT)
+            return bucket;
+
+        int shift = (bucket - SUB_BUCKET_COUNT) / HALF_SUB_BUCKET_COUNT + 1;
+        long mantissa = (bucket - SUB_BUCKET_COUNT) % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
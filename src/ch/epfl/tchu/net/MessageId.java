@@ -1,5 +1,8 @@
 package ch.epfl.tchu.net;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * The identifier of the message sent between the client and the server
  *
@@ -17,5 +20,11 @@ public enum MessageId {
     DRAW_SLOT,
     ROUTE,
     CARDS,
-    CHOOSE_ADDITIONAL_CARDS
+    CHOOSE_ADDITIONAL_CARDS,
+    HELLO,
+    RECEIVE_EVENT,
+    SESSION,
+    RESUME;
+
+    public static final List<MessageId> ALL = Arrays.asList(MessageId.values());
 }
\ No newline at end of file
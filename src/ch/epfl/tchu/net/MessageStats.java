@@ -0,0 +1,205 @@
+package ch.epfl.tchu.net;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The counters and latency histograms of the messages exchanged through connections, per {@link MessageId}, which
+ * any number of connections record into without locking
+ * <p>
+ * A reply is counted with the message it answers. The connections without statistics, the default, do not even
+ * read the clock
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see LatencyHistogram
+ */
+public final class MessageStats {
+    /**
+     * The durations measured, in nanoseconds
+     */
+    public enum Timing {
+        /**
+         * From the start of a message or of a reply to the moment it is written, its arguments being serialized
+         */
+        SERIALIZATION,
+        /**
+         * From the moment a message is sent to the moment its reply is received, on the side sending it
+         */
+        ROUND_TRIP,
+        /**
+         * From the moment a message is received to the start of its reply, on the side answering it
+         */
+        THINK,
+        /**
+         * From the moment a reply is sent to the moment the next message is received, on the side answering, i.e.
+         * the time the other side takes to go on, counted with that next message
+         */
+        RESPONSE
+    }
+
+    private static final int TIMING_COUNT = Timing.values().length;
+
+    private final AtomicLongArray sentMessages;
+    private final AtomicLongArray sentBytes;
+    private final AtomicLongArray receivedMessages;
+    private final AtomicLongArray receivedBytes;
+    // Created the first time a duration of the message is recorded, at index timing * MessageId count + message
+    private final AtomicReferenceArray<LatencyHistogram> histograms;
+
+    /**
+     * Statistics without any message
+     */
+    public MessageStats() {
+        this.sentMessages = new AtomicLongArray(MessageId.ALL.size());
+        this.sentBytes = new AtomicLongArray(MessageId.ALL.size());
+        this.receivedMessages = new AtomicLongArray(MessageId.ALL.size());
+        this.receivedBytes = new AtomicLongArray(MessageId.ALL.size());
+        this.histograms = new AtomicReferenceArray<>(TIMING_COUNT * MessageId.ALL.size());
+    }
+
+    /**
+     * The number of the given messages and of their replies sent
+     *
+     * @param messageId The {@link MessageId}
+     * @return The number of messages sent
+     */
+    public long sentMessages(MessageId messageId) {
+        return sentMessages.get(messageId.ordinal());
+    }
+
+    /**
+     * The number of bytes of the given messages and of their replies sent
+     *
+     * @param messageId The {@link MessageId}
+     * @return The number of bytes sent, including the framing
+     */
+    public long sentBytes(MessageId messageId) {
+        return sentBytes.get(messageId.ordinal());
+    }
+
+    /**
+     * The number of the given messages and of their replies received
+     *
+     * @param messageId The {@link MessageId}
+     * @return The number of messages received
+     */
+    public long receivedMessages(MessageId messageId) {
+        return receivedMessages.get(messageId.ordinal());
+    }
+
+    /**
+     * The number of bytes of the given messages and of their replies received
+     *
+     * @param messageId The {@link MessageId}
+     * @return The number of bytes received, including the framing
+     */
+    public long receivedBytes(MessageId messageId) {
+        return receivedBytes.get(messageId.ordinal());
+    }
+
+    /**
+     * The durations of the given kind measured for the given messages
+     *
+     * @param timing    The {@link Timing} measured
+     * @param messageId The {@link MessageId}
+     * @return The {@link LatencyHistogram} of the durations, in nanoseconds, which keeps being recorded into
+     */
+    public LatencyHistogram histogram(Timing timing, MessageId messageId) {
+        int index = timing.ordinal() * MessageId.ALL.size() + messageId.ordinal();
+        LatencyHistogram histogram = histograms.get(index);
+        if (Objects.isNull(histogram)) {
+            histograms.compareAndSet(index, null, new LatencyHistogram());
+            histogram = histograms.get(index);
+        }
+        return histogram;
+    }
+
+    /**
+     * The durations of the given kind measured for every message
+     *
+     * @param timing The {@link Timing} measured
+     * @return A new {@link LatencyHistogram} of the durations recorded so far, in nanoseconds
+     */
+    public LatencyHistogram histogram(Timing timing) {
+        LatencyHistogram merged = new LatencyHistogram();
+        for (MessageId messageId : MessageId.ALL) {
+            LatencyHistogram histogram = histograms.get(timing.ordinal() * MessageId.ALL.size() + messageId.ordinal());
+            if (!Objects.isNull(histogram))
+                merged.addAll(histogram);
+        }
+        return merged;
+    }
+
+    /**
+     * Adds the counters and the durations of the given statistics to these ones
+     *
+     * @param that The {@link MessageStats} to add
+     */
+    public void addAll(MessageStats that) {
+        for (MessageId messageId : MessageId.ALL) {
+            int i = messageId.ordinal();
+            sentMessages.addAndGet(i, that.sentMessages.get(i));
+            sentBytes.addAndGet(i, that.sentBytes.get(i));
+            receivedMessages.addAndGet(i, that.receivedMessages.get(i));
+            receivedBytes.addAndGet(i, that.receivedBytes.get(i));
+            for (Timing timing : Timing.values()) {
+                LatencyHistogram histogram = that.histograms.get(timing.ordinal() * MessageId.ALL.size() + i);
+                if (!Objects.isNull(histogram))
+                    histogram(timing, messageId).addAll(histogram);
+            }
+        }
+    }
+
+    void recordSent(MessageId messageId, int byteCount, long serializationNanos) {
+        sentMessages.incrementAndGet(messageId.ordinal());
+        sentBytes.addAndGet(messageId.ordinal(), byteCount);
+        histogram(Timing.SERIALIZATION, messageId).record(serializationNanos);
+    }
+
+    void recordReceived(MessageId messageId, int byteCount) {
+        receivedMessages.incrementAndGet(messageId.ordinal());
+        receivedBytes.addAndGet(messageId.ordinal(), byteCount);
+    }
+
+    void record(Timing timing, MessageId messageId, long nanos) {
+        histogram(timing, messageId).record(nanos);
+    }
+
+    /**
+     * A table of the counters and of the median, 99th percentile and largest durations, in microseconds, of every
+     * message exchanged
+     *
+     * @return The table, one line per message
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format(Locale.ROOT,
+                "%-24s %8s %10s %8s %10s %-23s %-26s %-26s %-26s%n", "message", "sent", "bytes", "received", "bytes",
+                "serialization p50/p99", "round trip p50/p99/max", "think p50/p99/max", "response p50/p99/max"));
+        for (MessageId messageId : MessageId.ALL) {
+            if (sentMessages(messageId) == 0 && receivedMessages(messageId) == 0)
+                continue;
+            builder.append(String.format(Locale.ROOT, "%-24s %8d %10d %8d %10d %-23s %-26s %-26s %-26s%n",
+                    messageId, sentMessages(messageId), sentBytes(messageId), receivedMessages(messageId),
+                    receivedBytes(messageId), durations(Timing.SERIALIZATION, messageId, false),
+                    durations(Timing.ROUND_TRIP, messageId, true), durations(Timing.THINK, messageId, true),
+                    durations(Timing.RESPONSE, messageId, true)));
+        }
+        return builder.toString();
+    }
+
+    private String durations(Timing timing, MessageId messageId, boolean withMax) {
+        LatencyHistogram histogram = histograms.get(timing.ordinal() * MessageId.ALL.size() + messageId.ordinal());
+        if (Objects.isNull(histogram) || histogram.count() == 0)
+            return "-";
+        String percentiles = micros(histogram.valueAtPercentile(50)) + "/" + micros(histogram.valueAtPercentile(99));
+        return withMax ? percentiles + "/" + micros(histogram.max()) : percentiles;
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000d);
+    }
+}
@@ -0,0 +1,40 @@
+package ch.epfl.tchu.net;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The wire format of the messages sent between the client and the server, ordered from the oldest to the newest
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see Connection
+ */
+public enum Protocol {
+    /**
+     * ASCII lines of space-separated arguments, serialized by {@link Serde#serialize}
+     */
+    TEXT,
+    /**
+     * Length-prefixed frames of arguments, written by {@link Serde#write}
+     */
+    BINARY,
+    /**
+     * The frames of {@link #BINARY}, the state of the game only being sent as the {@link StateDelta} since
+     * the previous one
+     */
+    DELTA,
+    /**
+     * The frames of {@link #DELTA}, the information being sent as the {@link ch.epfl.tchu.game.GameEvent} the client
+     * renders instead of its text
+     */
+    EVENTS,
+    /**
+     * The frames of {@link #EVENTS}, the {@link GameServer} giving every client a session token with which it resumes
+     * its game after reconnecting
+     */
+    SESSIONS;
+
+    public static final List<Protocol> ALL = Arrays.asList(Protocol.values());
+    public static final int COUNT = ALL.size();
+}
@@ -1,22 +1,18 @@
 package ch.epfl.tchu.net;
 
-import static java.nio.charset.StandardCharsets.US_ASCII;
-
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.io.UncheckedIOException;
 import java.net.Socket;
-import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.GameEvent;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
@@ -24,116 +20,237 @@ import ch.epfl.tchu.game.PublicGameState;
 import ch.epfl.tchu.game.Ticket;
 
 /**
- * The client of a remote player
+ * The client of a remote player, playing a single game
+ * <p>
+ * In a protocol with sessions, a client losing its connection before the end of its game reconnects and resumes
+ * it from the snapshot the server sends, the player only receiving the events it missed
  *
  * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
  * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
  */
 public final class RemotePlayerClient {
+    private static final int MAX_RECONNECTIONS = 10;
+    // The delay before the n-th attempt to reconnect is n times this one
+    private static final long RECONNECTION_DELAY_MILLIS = 100;
+
     private final Player player;
     private final String host;
     private final int port;
-    private String lastMessage;
+    private final Protocol maxProtocol;
+    private final MessageStats stats;
+    // The state of the game, kept from one connection to the next
+    private StateSync stateSync;
+    private Map<PlayerId, String> playerNames;
+    private boolean hasInitialTickets;
+    private int eventCount;
+    private boolean gameOver;
+    // Empty until the server opens a session
+    private String token;
+    private int reconnectionCount;
 
     /**
-     * Constructs a client using a player, a hostname and a server port
+     * Constructs a client using a player, a hostname and a server port, accepting every protocol the server offers
      *
      * @param player The {@link Player} who needs a remote access
      * @param host   The server's hostname
      * @param port   The server's port
      */
     public RemotePlayerClient(Player player, String host, int port) {
+        this(player, host, port, Protocol.SESSIONS);
+    }
+
+    /**
+     * Constructs a client using a player, a hostname and a server port, accepting the protocols up to the given one
+     *
+     * @param player      The {@link Player} who needs a remote access
+     * @param host        The server's hostname
+     * @param port        The server's port
+     * @param maxProtocol The newest {@link Protocol} the client accepts
+     */
+    public RemotePlayerClient(Player player, String host, int port, Protocol maxProtocol) {
+        this(player, host, port, maxProtocol, null);
+    }
+
+    /**
+     * Constructs a client using a player, a hostname and a server port, accepting the protocols up to the given one
+     * and recording the messages exchanged into the given statistics, the time the player takes to answer being
+     * measured as {@link MessageStats.Timing#THINK}
+     *
+     * @param player      The {@link Player} who needs a remote access
+     * @param host        The server's hostname
+     * @param port        The server's port
+     * @param maxProtocol The newest {@link Protocol} the client accepts
+     * @param stats       The {@link MessageStats}, {@code null} not to measure the messages
+     */
+    public RemotePlayerClient(Player player, String host, int port, Protocol maxProtocol, MessageStats stats) {
         this.player = player;
         this.host = host;
         this.port = port;
-        this.lastMessage = "";
+        this.maxProtocol = Objects.requireNonNull(maxProtocol);
+        this.stats = stats;
+        this.stateSync = new StateSync();
+        this.playerNames = Map.of();
+        this.hasInitialTickets = false;
+        this.eventCount = 0;
+        this.gameOver = false;
+        this.token = "";
+        this.reconnectionCount = 0;
     }
 
     /**
      * Waits for a message coming from the server and deserializes it, calls the corresponding
-     * player's method and serializes the eventual result and sends it back
+     * player's method and serializes the eventual result and sends it back, until the end of the game
+     *
+     * @throws UncheckedIOException If the connection failed, and could not be resumed in a protocol with sessions
      */
     public void run() {
-        try {
-            Socket socket = new Socket(host, port);
-            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
-            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), US_ASCII));
+        while (true) {
+            UncheckedIOException failure = null;
+            try (Socket socket = new Socket(host, port)) {
+                run(new Connection(socket));
+            } catch (IOException exception) {
+                failure = new UncheckedIOException(exception);
+            } catch (UncheckedIOException exception) {
+                failure = exception;
+            }
 
-            while (!Objects.isNull(lastMessage)) {
-                lastMessage = reader.readLine();
-                if (Objects.isNull(lastMessage)) {
-                    socket.close();
+            // Without session, the server closing the connection ends the game
+            if (gameOver || token.isEmpty()) {
+                if (Objects.isNull(failure))
                     return;
-                }
-                MessageId messageId = MessageId.valueOf(Arrays.stream(lastMessage.split(Pattern.quote(" "), -1))
-                        .collect(Collectors.toList()).get(0));
-                List<String> arguments = Arrays.stream(lastMessage.split(Pattern.quote(" "), -1))
-                        .collect(Collectors.toList());
-                arguments.remove(0);
+                throw failure;
+            }
+            if (++reconnectionCount > MAX_RECONNECTIONS)
+                throw Objects.isNull(failure) ? new UncheckedIOException(new EOFException()) : failure;
+            try {
+                Thread.sleep((reconnectionCount - 1) * RECONNECTION_DELAY_MILLIS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw Objects.isNull(failure) ? new UncheckedIOException(new EOFException()) : failure;
+            }
+        }
+    }
 
-                switch (messageId) {
-                    case CARDS:
-                        writer.write(Serdes.CARD_SORTED_BAG.serialize(player.initialClaimCards()));
-                        endMessage(writer);
-                        break;
-                    case CHOOSE_ADDITIONAL_CARDS:
-                        List<SortedBag<Card>> optionCards = Serdes.CARD_SORTED_BAG_LIST.deserialize(arguments.get(0));
-                        writer.write(Serdes.CARD_SORTED_BAG.serialize(player.chooseAdditionalCards(optionCards)));
-                        endMessage(writer);
-                        break;
-                    case CHOOSE_INITIAL_TICKETS:
-                        writer.write(Serdes.TICKET_SORTED_BAG.serialize(player.chooseInitialTickets()));
-                        endMessage(writer);
-                        break;
-                    case CHOOSE_TICKETS:
-                        SortedBag<Ticket> optionTickets = Serdes.TICKET_SORTED_BAG.deserialize(arguments.get(0));
-                        writer.write(Serdes.TICKET_SORTED_BAG.serialize(player.chooseTickets(optionTickets)));
-                        endMessage(writer);
-                        break;
-                    case DRAW_SLOT:
-                        writer.write(Serdes.INTEGER.serialize(player.drawSlot()));
-                        endMessage(writer);
-                        break;
-                    case INIT_PLAYERS:
-                        PlayerId ownId = Serdes.PLAYER_ID.deserialize(arguments.get(0));
-                        List<String> names = Serdes.STRING_LIST.deserialize(arguments.get(1));
-                        player.initPlayers(ownId, PlayerId.ALL.stream().collect(Collectors.toMap(p -> p, p -> names.get(PlayerId.ALL.indexOf(p)))));
-                        break;
-                    case NEXT_TURN:
-                        writer.write(Serdes.TURN_KIND.serialize(player.nextTurn()));
-                        endMessage(writer);
-                        break;
-                    case RECEIVE_INFO:
-                        player.receiveInfo(Serdes.STRING.deserialize(arguments.get(0)));
-                        break;
-                    case ROUTE:
-                        writer.write(Serdes.ROUTE.serialize(player.claimedRoute()));
-                        endMessage(writer);
-                        break;
-                    case SET_INITIAL_TICKETS:
-                        player.setInitialTicketChoice(Serdes.TICKET_SORTED_BAG.deserialize(arguments.get(0)));
-                        break;
-                    case UPDATE_STATE:
-                        PublicGameState newState = Serdes.PUBLIC_GAME_STATE.deserialize(arguments.get(0));
-                        PlayerState ownState = Serdes.PLAYER_STATE.deserialize(arguments.get(1));
+    /**
+     * Handles the messages coming through the given connection until the server closes it
+     *
+     * @param connection The {@link Connection} to the server
+     */
+    void run(Connection connection) {
+        if (!Objects.isNull(stats))
+            connection.recordStats(stats);
+        Connection.Incoming message;
+        while (!Objects.isNull(message = connection.receive())) {
+            switch (message.id()) {
+                case CARDS:
+                    connection.reply().with(Serdes.CARD_SORTED_BAG, player.initialClaimCards()).send();
+                    break;
+                case CHOOSE_ADDITIONAL_CARDS:
+                    List<SortedBag<Card>> optionCards = message.next(Serdes.CARD_SORTED_BAG_LIST);
+                    connection.reply().with(Serdes.CARD_SORTED_BAG, player.chooseAdditionalCards(optionCards)).send();
+                    break;
+                case CHOOSE_INITIAL_TICKETS:
+                    connection.reply().with(Serdes.TICKET_SORTED_BAG, player.chooseInitialTickets()).send();
+                    break;
+                case CHOOSE_TICKETS:
+                    SortedBag<Ticket> optionTickets = message.next(Serdes.TICKET_SORTED_BAG);
+                    connection.reply().with(Serdes.TICKET_SORTED_BAG, player.chooseTickets(optionTickets)).send();
+                    break;
+                case DRAW_SLOT:
+                    connection.reply().with(Serdes.INTEGER, player.drawSlot()).send();
+                    break;
+                case INIT_PLAYERS:
+                    PlayerId ownId = message.next(Serdes.PLAYER_ID);
+                    initPlayers(ownId, message.next(Serdes.STRING_LIST));
+                    break;
+                case NEXT_TURN:
+                    connection.reply().with(Serdes.TURN_KIND, player.nextTurn()).send();
+                    break;
+                case RECEIVE_INFO:
+                    player.receiveInfo(message.next(Serdes.STRING));
+                    break;
+                case RECEIVE_EVENT:
+                    receiveEvent(message.next(Serdes.GAME_EVENT));
+                    break;
+                case ROUTE:
+                    connection.reply().with(Serdes.ROUTE, player.claimedRoute()).send();
+                    break;
+                case SET_INITIAL_TICKETS:
+                    hasInitialTickets = true;
+                    player.setInitialTicketChoice(message.next(Serdes.TICKET_SORTED_BAG));
+                    break;
+                case UPDATE_STATE:
+                    if (connection.protocol().compareTo(Protocol.DELTA) >= 0) {
+                        stateSync.apply(message.next(StateDelta.SERDE));
+                        player.updateState(stateSync.state(), stateSync.ownState());
+                    } else {
+                        PublicGameState newState = message.next(Serdes.PUBLIC_GAME_STATE);
+                        PlayerState ownState = message.next(Serdes.PLAYER_STATE);
                         player.updateState(newState, ownState);
-                        break;
-                    default:
-                        break;
-                }
+                    }
+                    break;
+                case HELLO:
+                    // The newest protocol both sides know, the text one being always known
+                    Protocol protocol = message.next(Serdes.PROTOCOL_LIST).stream()
+                            .filter(p -> p.compareTo(maxProtocol) <= 0)
+                            .max(Comparator.naturalOrder())
+                            .orElse(Protocol.TEXT);
+                    Connection.Outgoing reply = connection.reply().with(Serdes.PROTOCOL, protocol);
+                    if (protocol.compareTo(Protocol.SESSIONS) >= 0)
+                        reply.with(Serdes.STRING, token);
+                    reply.send();
+                    connection.setProtocol(protocol);
+                    break;
+                case SESSION:
+                    token = message.next(Serdes.STRING);
+                    break;
+                case RESUME:
+                    resume(message);
+                    break;
+                default:
+                    break;
             }
-            socket.close();
-        } catch (IOException exception) {
-            throw new UncheckedIOException(exception);
         }
     }
 
-    private void endMessage(BufferedWriter writer) {
-        try {
-            writer.write('\n');
-            writer.flush();
-        } catch (IOException exception) {
-            throw new UncheckedIOException(exception);
+    private void initPlayers(PlayerId ownId, List<String> names) {
+        playerNames = PlayerId.ALL.stream().collect(Collectors.toMap(p -> p, p -> names.get(PlayerId.ALL.indexOf(p))));
+        player.initPlayers(ownId, playerNames);
+    }
+
+    private void receiveEvent(GameEvent event) {
+        eventCount++;
+        if (event.kind() == GameEvent.Kind.WON || event.kind() == GameEvent.Kind.DRAW)
+            gameOver = true;
+        player.receiveEvent(event, playerNames);
+    }
+
+    // Catches up on the snapshot of a resumed session, the player being only told what it did not receive yet
+    private void resume(Connection.Incoming message) {
+        PlayerId ownId = message.next(Serdes.PLAYER_ID);
+        List<String> names = message.next(Serdes.STRING_LIST);
+        StateDelta snapshot = message.next(StateDelta.SERDE);
+        SortedBag<Ticket> initialTickets = message.next(Serdes.TICKET_SORTED_BAG);
+        int resumedEventCount = message.next(Serdes.INTEGER);
+        List<GameEvent> recentEvents = message.next(Serdes.GAME_EVENT_LIST);
+
+        if (playerNames.isEmpty())
+            initPlayers(ownId, names);
+        if (!hasInitialTickets && !initialTickets.isEmpty()) {
+            hasInitialTickets = true;
+            player.setInitialTicketChoice(initialTickets);
+        }
+        int firstEvent = resumedEventCount - recentEvents.size();
+        for (int i = Math.max(eventCount, firstEvent); i < resumedEventCount; i++)
+            receiveEvent(recentEvents.get(i - firstEvent));
+        eventCount = resumedEventCount;
+
+        stateSync = new StateSync();
+        // The connection may have been lost before the first state was sent
+        if (snapshot.version() != StateDelta.NONE.version()) {
+            stateSync.apply(snapshot);
+            player.updateState(stateSync.state(), stateSync.ownState());
         }
+        reconnectionCount = 0;
     }
-}
\ No newline at end of file
+}
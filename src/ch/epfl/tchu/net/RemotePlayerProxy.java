@@ -1,20 +1,18 @@
 package ch.epfl.tchu.net;
 
-import static java.nio.charset.StandardCharsets.US_ASCII;
-
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.io.UncheckedIOException;
 import java.net.Socket;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.GameEvent;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
@@ -24,125 +22,285 @@ import ch.epfl.tchu.game.Ticket;
 
 /**
  * The proxy of a remote player
+ * <p>
+ * Given a {@link Session}, the proxy survives the loss of the connection to its client: it waits for the client
+ * to reconnect, sends it a single snapshot of its state and of the last events, and asks it again what the game
+ * was waiting for, so that resuming takes the same time whatever the length of the game
  *
  * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
  * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
  * @see ch.epfl.tchu.game.Player
  */
 public final class RemotePlayerProxy implements Player {
-    private final Socket socket;
+    // The events sent again to a client resuming its session, as many as the information view shows and more
+    private static final int RECENT_EVENT_COUNT = 10;
+
+    private Connection connection;
+    private StateSync stateSync;
+    // Null without session, the initial tickets and the recent events only being kept with one
+    private final Session session;
+    private PlayerId ownId;
+    private List<String> names;
+    // The initial tickets offered, until they are chosen
+    private SortedBag<Ticket> initialTickets;
+    private final Deque<GameEvent> recentEvents;
+    private int eventCount;
 
     /**
-     * Constructs a proxy with a socket
+     * Constructs a proxy with a socket, talking to the client in the text protocol without any handshake
      *
      * @param socket A {@link Socket} to communicate to the client
      */
     public RemotePlayerProxy(Socket socket) {
-        this.socket = socket;
+        this(socket, Protocol.TEXT);
+    }
+
+    /**
+     * Constructs a proxy with a socket, offering the client every protocol up to the given one in a handshake
+     * and switching to the one it chose
+     *
+     * @param socket      A {@link Socket} to communicate to the client
+     * @param maxProtocol The newest {@link Protocol} to offer, no handshake taking place for {@link Protocol#TEXT}
+     * @throws UncheckedIOException If the handshake failed
+     */
+    public RemotePlayerProxy(Socket socket, Protocol maxProtocol) {
+        this(new Connection(socket), maxProtocol);
+    }
+
+    /**
+     * Constructs a proxy with a socket, offering the client every protocol up to the given one in a handshake,
+     * and recording the messages exchanged, the handshake included, into the given statistics
+     *
+     * @param socket      A {@link Socket} to communicate to the client
+     * @param maxProtocol The newest {@link Protocol} to offer, no handshake taking place for {@link Protocol#TEXT}
+     * @param stats       The {@link MessageStats}, which may be shared with other proxies
+     * @throws UncheckedIOException If the handshake failed
+     */
+    public RemotePlayerProxy(Socket socket, Protocol maxProtocol, MessageStats stats) {
+        this(withStats(new Connection(socket), stats), maxProtocol);
+    }
+
+    /**
+     * Constructs a proxy with a connection, offering the client every protocol up to the given one in a handshake
+     * and switching to the one it chose
+     *
+     * @param connection  The {@link Connection} to the client
+     * @param maxProtocol The newest {@link Protocol} to offer, no handshake taking place for {@link Protocol#TEXT}
+     * @throws UncheckedIOException If the handshake failed
+     */
+    RemotePlayerProxy(Connection connection, Protocol maxProtocol) {
+        this(handshaken(connection, maxProtocol), (Session) null);
+    }
+
+    /**
+     * Constructs a proxy with a connection whose handshake is done, which gives the client the token of the given
+     * session if their protocol has sessions
+     *
+     * @param connection The {@link Connection} to the client, in the protocol both sides agreed on
+     * @param session    The {@link Session} of the client, {@code null} for a proxy failing with its connection
+     */
+    RemotePlayerProxy(Connection connection, Session session) {
+        this.connection = connection;
+        this.stateSync = new StateSync();
+        this.session = connection.protocol().compareTo(Protocol.SESSIONS) >= 0 ? session : null;
+        this.initialTickets = SortedBag.of();
+        this.recentEvents = new ArrayDeque<>(RECENT_EVENT_COUNT);
+        this.eventCount = 0;
+        if (!Objects.isNull(this.session))
+            connection.message(MessageId.SESSION).with(Serdes.STRING, this.session.token()).post();
+    }
+
+    /**
+     * Offers the client every protocol up to the given one and switches the connection to the one it chose,
+     * the client of a protocol with sessions giving the token of the session it resumes
+     *
+     * @param connection  The {@link Connection} to the client
+     * @param maxProtocol The newest {@link Protocol} to offer, no handshake taking place for {@link Protocol#TEXT}
+     * @return The token of the session the client resumes, empty if it starts a new one
+     * @throws UncheckedIOException If the handshake failed
+     */
+    static String handshake(Connection connection, Protocol maxProtocol) {
+        if (maxProtocol == Protocol.TEXT)
+            return "";
+
+        connection.message(MessageId.HELLO)
+                .with(Serdes.PROTOCOL_LIST, Protocol.ALL.subList(0, maxProtocol.ordinal() + 1))
+                .send();
+        Connection.Incoming reply = connection.receiveReply();
+        Protocol protocol = reply.next(Serdes.PROTOCOL);
+        String token = protocol.compareTo(Protocol.SESSIONS) >= 0 ? reply.next(Serdes.STRING) : "";
+        connection.setProtocol(protocol);
+        return token;
+    }
+
+    private static Connection handshaken(Connection connection, Protocol maxProtocol) {
+        handshake(connection, maxProtocol);
+        return connection;
+    }
+
+    private static Connection withStats(Connection connection, MessageStats stats) {
+        connection.recordStats(stats);
+        return connection;
+    }
+
+    /**
+     * The current connection to the client
+     *
+     * @return The {@link Connection} to the client, which counts the bytes exchanged
+     */
+    Connection connection() {
+        return connection;
     }
 
     @Override
     public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
         List<String> names = new ArrayList<>();
         PlayerId.ALL.forEach(p -> names.add(playerNames.get(p)));
-        send(MessageId.INIT_PLAYERS, List.of(Serdes.PLAYER_ID.serialize(ownId),
-                Serdes.STRING_LIST.serialize(names)));
+        this.ownId = ownId;
+        this.names = names;
+        post(c -> c.message(MessageId.INIT_PLAYERS)
+                .with(Serdes.PLAYER_ID, ownId)
+                .with(Serdes.STRING_LIST, names));
     }
 
     @Override
     public void receiveInfo(String info) {
-        send(MessageId.RECEIVE_INFO, List.of(Serdes.STRING.serialize(info)));
+        post(c -> c.message(MessageId.RECEIVE_INFO).with(Serdes.STRING, info));
+    }
+
+    @Override
+    public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+        // The clients of the older protocols receive the text of the event
+        if (connection.protocol().compareTo(Protocol.EVENTS) < 0) {
+            receiveInfo(event.text(playerNames));
+            return;
+        }
+
+        if (!Objects.isNull(session)) {
+            if (recentEvents.size() == RECENT_EVENT_COUNT)
+                recentEvents.removeFirst();
+            recentEvents.addLast(event);
+            eventCount++;
+        }
+        post(c -> c.message(MessageId.RECEIVE_EVENT).with(Serdes.GAME_EVENT, event));
     }
 
     @Override
     public void updateState(PublicGameState newState, PlayerState ownState) {
-        send(MessageId.UPDATE_STATE, List.of(Serdes.PUBLIC_GAME_STATE.serialize(newState), Serdes.PLAYER_STATE.serialize(ownState)));
+        if (connection.protocol().compareTo(Protocol.DELTA) >= 0) {
+            // Nothing is sent if the state did not change
+            StateDelta delta = stateSync.advance(newState, ownState);
+            if (!Objects.isNull(delta))
+                post(c -> c.message(MessageId.UPDATE_STATE).with(StateDelta.SERDE, delta));
+            return;
+        }
+
+        post(c -> c.message(MessageId.UPDATE_STATE)
+                .with(Serdes.PUBLIC_GAME_STATE, newState)
+                .with(Serdes.PLAYER_STATE, ownState));
     }
 
     @Override
     public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
-        send(MessageId.SET_INITIAL_TICKETS, List.of(Serdes.TICKET_SORTED_BAG.serialize(tickets)));
+        if (!Objects.isNull(session))
+            initialTickets = tickets;
+        post(c -> c.message(MessageId.SET_INITIAL_TICKETS).with(Serdes.TICKET_SORTED_BAG, tickets));
     }
 
     @Override
     public SortedBag<Ticket> chooseInitialTickets() {
-        send(MessageId.CHOOSE_INITIAL_TICKETS, List.of());
+        SortedBag<Ticket> tickets = request(Serdes.TICKET_SORTED_BAG, c -> c.message(MessageId.CHOOSE_INITIAL_TICKETS));
+        initialTickets = SortedBag.of();
 
-        return Serdes.TICKET_SORTED_BAG.deserialize(receive());
+        return tickets;
     }
 
     @Override
     public TurnKind nextTurn() {
-        send(MessageId.NEXT_TURN, List.of());
-
-        return Serdes.TURN_KIND.deserialize(receive());
+        return request(Serdes.TURN_KIND, c -> c.message(MessageId.NEXT_TURN));
     }
 
     @Override
     public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
-        send(MessageId.CHOOSE_TICKETS, List.of(Serdes.TICKET_SORTED_BAG.serialize(options)));
-
-        return Serdes.TICKET_SORTED_BAG.deserialize(receive());
+        return request(Serdes.TICKET_SORTED_BAG,
+                c -> c.message(MessageId.CHOOSE_TICKETS).with(Serdes.TICKET_SORTED_BAG, options));
     }
 
     @Override
     public int drawSlot() {
-        send(MessageId.DRAW_SLOT, List.of());
-
-        return Serdes.INTEGER.deserialize(receive());
+        return request(Serdes.INTEGER, c -> c.message(MessageId.DRAW_SLOT));
     }
 
     @Override
     public Route claimedRoute() {
-        send(MessageId.ROUTE, List.of());
-
-        return Serdes.ROUTE.deserialize(receive());
+        return request(Serdes.ROUTE, c -> c.message(MessageId.ROUTE));
     }
 
     @Override
     public SortedBag<Card> initialClaimCards() {
-        send(MessageId.CARDS, List.of());
-
-        return Serdes.CARD_SORTED_BAG.deserialize(receive());
+        return request(Serdes.CARD_SORTED_BAG, c -> c.message(MessageId.CARDS));
     }
 
     @Override
     public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
-        send(MessageId.CHOOSE_ADDITIONAL_CARDS, List.of(Serdes.CARD_SORTED_BAG_LIST.serialize(options)));
-
-        return Serdes.CARD_SORTED_BAG.deserialize(receive());
+        return request(Serdes.CARD_SORTED_BAG,
+                c -> c.message(MessageId.CHOOSE_ADDITIONAL_CARDS).with(Serdes.CARD_SORTED_BAG_LIST, options));
     }
 
-    /**
-     * Sends a serialized message to the client using its socket
-     *
-     * @param messageId      The {@link MessageId} of the server's message
-     * @param serializedArgs A {@link List} of serialized {@link String} arguments to send to the client
-     */
-    private void send(MessageId messageId, List<String> serializedArgs) {
-        List<String> arguments = new ArrayList<>();
-        arguments.add(messageId.name());
-        arguments.addAll(serializedArgs);
+    // Sends a message expecting no reply, which a client resuming its session catches up on with the snapshot
+    private void post(Function<Connection, Connection.Outgoing> message) {
         try {
-            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), US_ASCII));
-            String message = String.join(" ", arguments);
-            writer.write(message);
-            writer.write('\n');
-            writer.flush();
-
-        } catch (IOException exception) {
-            throw new UncheckedIOException(exception);
+            message.apply(connection).post();
+        } catch (UncheckedIOException exception) {
+            if (Objects.isNull(session))
+                throw exception;
         }
     }
 
-    private String receive() {
-        try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), US_ASCII));
+    // Sends a message and waits for its reply, sending it again once the client resumed its session if need be
+    private <T> T request(Serde<T> replySerde, Function<Connection, Connection.Outgoing> message) {
+        while (true) {
+            try {
+                message.apply(connection).send();
+                return connection.receiveReply().next(replySerde);
+            } catch (UncheckedIOException exception) {
+                resume(exception);
+            }
+        }
+    }
 
-            return reader.readLine();
+    private void resume(UncheckedIOException failure) {
+        if (Objects.isNull(session))
+            throw failure;
 
-        } catch (IOException exception) {
-            throw new UncheckedIOException(exception);
+        try {
+            connection.close();
+        } catch (UncheckedIOException ignored) {
+            // The connection is lost anyway
         }
+        Connection reconnection;
+        try {
+            reconnection = session.awaitReconnection();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+        if (Objects.isNull(reconnection))
+            throw failure;
+
+        // The snapshot is the whole last state, which the next deltas start from, if the client was sent any yet
+        PublicGameState state = stateSync.state();
+        PlayerState ownState = stateSync.ownState();
+        connection = reconnection;
+        stateSync = new StateSync();
+        StateDelta snapshot = Objects.isNull(state) ? StateDelta.NONE : stateSync.advance(state, ownState);
+        connection.message(MessageId.RESUME)
+                .with(Serdes.PLAYER_ID, ownId)
+                .with(Serdes.STRING_LIST, names)
+                .with(StateDelta.SERDE, snapshot)
+                .with(Serdes.TICKET_SORTED_BAG, initialTickets)
+                .with(Serdes.INTEGER, eventCount)
+                .with(Serdes.GAME_EVENT_LIST, List.copyOf(recentEvents))
+                .post();
     }
 }
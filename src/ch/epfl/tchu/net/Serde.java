@@ -1,12 +1,13 @@
 package ch.epfl.tchu.net;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.StringJoiner;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import ch.epfl.tchu.SortedBag;
 
@@ -34,6 +35,48 @@ public interface Serde<T> {
      */
     T deserialize(String toDeserialize);
 
+    /**
+     * Serializes a given object into a buffer, without building its {@link String}, by default appending
+     * the one of {@link Serde#serialize(Object)}
+     *
+     * @param toSerialize The object of type {@code T} to serialize
+     * @param writer      The {@link TextWriter} to write to
+     */
+    default void serialize(T toSerialize, TextWriter writer) {
+        writer.write(serialize(toSerialize));
+    }
+
+    /**
+     * Deserializes an object from the current position of a text, without splitting it, by default passing
+     * the characters up to the end of the value to {@link Serde#deserialize(String)}
+     *
+     * @param reader The {@link TextReader} to read from
+     * @return the object of type {@code T} read
+     */
+    default T deserialize(TextReader reader) {
+        return deserialize(reader.readValue());
+    }
+
+    /**
+     * Writes a given object in the binary protocol, by default as its length-prefixed serialized {@link String}
+     *
+     * @param toWrite The object of type {@code T} to write
+     * @param writer  The {@link BinaryWriter} to write to
+     */
+    default void write(T toWrite, BinaryWriter writer) {
+        writer.writeString(serialize(toWrite));
+    }
+
+    /**
+     * Reads an object written in the binary protocol by {@link Serde#write}
+     *
+     * @param reader The {@link BinaryReader} to read from
+     * @return the object of type {@code T} read
+     */
+    default T read(BinaryReader reader) {
+        return deserialize(reader.readString());
+    }
+
     /**
      * Returns a serde using the given serialize and deserialize functions
      *
@@ -56,6 +99,113 @@ public interface Serde<T> {
         };
     }
 
+    /**
+     * Returns a serde using the given serialize and deserialize functions for the text protocol,
+     * and the given write and read functions for the binary protocol
+     *
+     * @param <T>                 The type of the resulting {@link Serde}
+     * @param serializeFunction   The {@link Serde}'s {@link Serde#serialize} function
+     * @param deserializeFunction The {@link Serde}'s {@link Serde#deserialize} function
+     * @param writeFunction       The {@link Serde}'s {@link Serde#write} function
+     * @param readFunction        The {@link Serde}'s {@link Serde#read} function
+     * @return a {@link Serde} of type {@code T} using the given functions
+     */
+    static <T> Serde<T> of(Function<T, String> serializeFunction, Function<String, T> deserializeFunction,
+                           BiConsumer<T, BinaryWriter> writeFunction, Function<BinaryReader, T> readFunction) {
+        return new Serde<>() {
+            @Override
+            public String serialize(T toSerialize) {
+                return serializeFunction.apply(toSerialize);
+            }
+
+            @Override
+            public T deserialize(String toDeserialize) {
+                return deserializeFunction.apply(toDeserialize);
+            }
+
+            @Override
+            public void write(T toWrite, BinaryWriter writer) {
+                writeFunction.accept(toWrite, writer);
+            }
+
+            @Override
+            public T read(BinaryReader reader) {
+                return readFunction.apply(reader);
+            }
+        };
+    }
+
+    /**
+     * Returns a serde using the given functions serializing into and deserializing from a buffer for the text
+     * protocol, its {@link String}s being derived from them, and the given write and read functions for the binary
+     * protocol
+     *
+     * @param <T>                 The type of the resulting {@link Serde}
+     * @param serializeFunction   The {@link Serde}'s {@link Serde#serialize(Object, TextWriter)} function
+     * @param deserializeFunction The {@link Serde}'s {@link Serde#deserialize(TextReader)} function
+     * @param writeFunction       The {@link Serde}'s {@link Serde#write} function
+     * @param readFunction        The {@link Serde}'s {@link Serde#read} function
+     * @return a {@link Serde} of type {@code T} using the given functions
+     */
+    static <T> Serde<T> of(BiConsumer<T, TextWriter> serializeFunction, Function<TextReader, T> deserializeFunction,
+                           BiConsumer<T, BinaryWriter> writeFunction, Function<BinaryReader, T> readFunction) {
+        return new Serde<>() {
+            @Override
+            public String serialize(T toSerialize) {
+                TextWriter writer = new TextWriter();
+                serializeFunction.accept(toSerialize, writer);
+                return writer.toString();
+            }
+
+            @Override
+            public T deserialize(String toDeserialize) {
+                return deserializeFunction.apply(new TextReader(toDeserialize));
+            }
+
+            @Override
+            public void serialize(T toSerialize, TextWriter writer) {
+                serializeFunction.accept(toSerialize, writer);
+            }
+
+            @Override
+            public T deserialize(TextReader reader) {
+                return deserializeFunction.apply(reader);
+            }
+
+            @Override
+            public void write(T toWrite, BinaryWriter writer) {
+                writeFunction.accept(toWrite, writer);
+            }
+
+            @Override
+            public T read(BinaryReader reader) {
+                return readFunction.apply(reader);
+            }
+        };
+    }
+
+    /**
+     * Returns a serde using the given write and read functions for the binary protocol, the text protocol
+     * serializing the written bytes in Base64
+     *
+     * @param <T>           The type of the resulting {@link Serde}
+     * @param writeFunction The {@link Serde}'s {@link Serde#write} function
+     * @param readFunction  The {@link Serde}'s {@link Serde#read} function
+     * @return a {@link Serde} of type {@code T} using the given functions
+     */
+    static <T> Serde<T> ofBinary(BiConsumer<T, BinaryWriter> writeFunction, Function<BinaryReader, T> readFunction) {
+        return Serde.of(
+                (i, t) -> {
+                    BinaryWriter writer = new BinaryWriter();
+                    writeFunction.accept(i, writer);
+                    t.writeBase64(writer.toByteArray());
+                },
+                t -> readFunction.apply(new BinaryReader(t.readBase64())),
+                writeFunction,
+                readFunction
+        );
+    }
+
     /**
      * Returns a serde using the given list of all values of a set of enumerated values
      *
@@ -65,8 +215,16 @@ public interface Serde<T> {
      */
     static <T> Serde<T> oneOf(List<T> all) {
         return Serde.of(
-                i -> Objects.isNull(i) ? "" : String.valueOf(all.indexOf(i)),
-                i -> i.isEmpty() ? null : all.get(Integer.parseInt(i))
+                (i, t) -> {
+                    if (!Objects.isNull(i))
+                        t.writeInt(all.indexOf(i));
+                },
+                t -> t.atValueEnd() ? null : all.get(t.readInt()),
+                (i, w) -> w.writeVarInt(Objects.isNull(i) ? 0 : all.indexOf(i) + 1),
+                r -> {
+                    int index = r.readVarInt();
+                    return index == 0 ? null : all.get(index - 1);
+                }
         );
     }
 
@@ -82,14 +240,23 @@ public interface Serde<T> {
      */
     static <T> Serde<List<T>> listOf(Serde<T> serde, String delimiter) {
         return Serde.of(
+                (l, t) -> serializeAll(l, serde, delimiter, t),
                 t -> {
-                    StringJoiner stringJoiner = new StringJoiner(delimiter);
-                    t.forEach(e -> stringJoiner.add(serde.serialize(e)));
-                    return stringJoiner.toString();
+                    List<T> list = new ArrayList<>();
+                    deserializeAll(t, serde, delimiter, list::add);
+                    return list;
+                },
+                (t, w) -> {
+                    w.writeVarInt(t.size());
+                    t.forEach(e -> serde.write(e, w));
                 },
-                t -> t.isEmpty() ? List.of() : Arrays.stream(t.split(Pattern.quote(delimiter), -1))
-                        .map(serde::deserialize)
-                        .collect(Collectors.toList())
+                r -> {
+                    int size = r.readVarInt();
+                    List<T> list = new ArrayList<>(Math.min(size, r.remaining()));
+                    for (int i = 0; i < size; i++)
+                        list.add(serde.read(r));
+                    return list;
+                }
         );
     }
 
@@ -105,14 +272,95 @@ public interface Serde<T> {
      */
     static <T extends Comparable<T>> Serde<SortedBag<T>> bagOf(Serde<T> serde, String delimiter) {
         return Serde.of(
+                (b, t) -> serializeAll(b, serde, delimiter, t),
                 t -> {
-                    StringJoiner stringJoiner = new StringJoiner(delimiter);
-                    t.forEach(e -> stringJoiner.add(serde.serialize(e)));
-                    return stringJoiner.toString();
+                    SortedBag.Builder<T> builder = new SortedBag.Builder<>();
+                    deserializeAll(t, serde, delimiter, builder::add);
+                    return builder.build();
+                },
+                (t, w) -> {
+                    // Every distinct element is written once, followed by its multiplicity
+                    w.writeVarInt(t.toMap().size());
+                    for (Map.Entry<T, Integer> entry : t.toMap().entrySet()) {
+                        serde.write(entry.getKey(), w);
+                        w.writeVarInt(entry.getValue());
+                    }
+                },
+                r -> {
+                    int distinctCount = r.readVarInt();
+                    SortedBag.Builder<T> builder = new SortedBag.Builder<>();
+                    for (int i = 0; i < distinctCount; i++) {
+                        T element = serde.read(r);
+                        builder.add(r.readVarInt(), element);
+                    }
+                    return builder.build();
+                }
+        );
+    }
+
+    /**
+     * Returns a serde able to serialize-deserialize a list of distinct values taken among the given ones,
+     * whose text is the one of {@link Serde#listOf} and which is written in the binary protocol as the indices
+     * of the values or as a set of bits indexed like the given values, whichever is shorter; the list read back
+     * is therefore ordered like the given values
+     *
+     * @param <T>       The value type of the given {@link Serde}
+     * @param all       The list of all possible values
+     * @param serde     The {@link Serde} of the values in the text protocol
+     * @param delimiter The delimiting {@link String}
+     * @return a {@link Serde} able to {@link Serde#serialize}/{@link Serde#deserialize} a list of distinct values
+     * of {@code all}
+     */
+    static <T> Serde<List<T>> subsetOf(List<T> all, Serde<T> serde, String delimiter) {
+        Serde<List<T>> text = listOf(serde, delimiter);
+        // The number of values from which the set of bits is shorter than their indices
+        int bitSetSize = (all.size() + 7) / 8;
+        return Serde.of(
+                (l, t) -> text.serialize(l, t),
+                t -> text.deserialize(t),
+                (t, w) -> {
+                    BitSet bits = new BitSet(all.size());
+                    t.forEach(e -> bits.set(all.indexOf(e)));
+                    w.writeVarInt(t.size());
+                    if (t.size() < bitSetSize)
+                        bits.stream().forEach(w::writeVarInt);
+                    else
+                        w.writeBitSet(bits, all.size());
                 },
-                t -> t.isEmpty() ? SortedBag.of() : SortedBag.of(Arrays.stream(t.split(Pattern.quote(delimiter), -1))
-                        .map(serde::deserialize)
-                        .collect(Collectors.toList()))
+                r -> {
+                    int size = r.readVarInt();
+                    List<T> list = new ArrayList<>(Math.min(size, all.size()));
+                    if (size < bitSetSize) {
+                        for (int i = 0; i < size; i++)
+                            list.add(all.get(r.readVarInt()));
+                    } else {
+                        r.readBitSet(all.size()).stream().forEach(i -> list.add(all.get(i)));
+                    }
+                    return list;
+                }
         );
     }
-}
\ No newline at end of file
+
+    // The serialized values separated by the delimiter, like StringJoiner would have joined them
+    private static <T> void serializeAll(Iterable<T> values, Serde<T> serde, String delimiter, TextWriter writer) {
+        boolean first = true;
+        for (T value : values) {
+            if (!first)
+                writer.write(delimiter);
+            serde.serialize(value, writer);
+            first = false;
+        }
+    }
+
+    // The values separated by the delimiter, none if the value is empty, like String.split would have cut them
+    private static <T> void deserializeAll(TextReader reader, Serde<T> serde, String delimiter, Consumer<T> action) {
+        if (reader.atValueEnd())
+            return;
+
+        reader.pushDelimiter(delimiter);
+        do {
+            action.accept(serde.deserialize(reader));
+        } while (reader.skip(delimiter));
+        reader.popDelimiter();
+    }
+}
@@ -1,14 +1,14 @@
 package ch.epfl.tchu.net;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
+import ch.epfl.tchu.Preconditions;
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
 import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameEvent;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
@@ -16,6 +16,7 @@ import ch.epfl.tchu.game.PublicCardState;
 import ch.epfl.tchu.game.PublicGameState;
 import ch.epfl.tchu.game.PublicPlayerState;
 import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Station;
 import ch.epfl.tchu.game.Ticket;
 
 /**
@@ -36,24 +37,34 @@ public class Serdes {
      * The {@link Serde} applicable to an {@link Boolean}
      */
     public static final Serde<Boolean> BOOLEAN = Serde.of(
-            i -> i ? "1" : "0",
-            Boolean::valueOf
+            (i, t) -> t.write(i ? '1' : '0'),
+            t -> {
+                int value = t.readInt();
+                Preconditions.checkArgument(value == 0 || value == 1);
+                return value == 1;
+            },
+            (i, w) -> w.writeBoolean(i),
+            BinaryReader::readBoolean
     );
 
     /**
      * The {@link Serde} applicable to an {@link Integer}
      */
     public static final Serde<Integer> INTEGER = Serde.of(
-            i -> Integer.toString(i),
-            Integer::parseInt
+            (i, t) -> t.writeInt(i),
+            TextReader::readInt,
+            (i, w) -> w.writeSignedVarInt(i),
+            BinaryReader::readSignedVarInt
     );
 
     /**
      * The {@link Serde} applicable to a {@link String}
      */
     public static final Serde<String> STRING = Serde.of(
-            i -> new String(Base64.getEncoder().encode(i.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8),
-            i -> new String(Base64.getDecoder().decode(i), StandardCharsets.UTF_8)
+            (i, t) -> t.writeBase64(i.getBytes(StandardCharsets.UTF_8)),
+            t -> new String(t.readBase64(), StandardCharsets.UTF_8),
+            (i, w) -> w.writeString(i),
+            BinaryReader::readString
     );
 
     /**
@@ -92,9 +103,10 @@ public class Serdes {
     public static final Serde<List<Card>> CARD_LIST = Serde.listOf(Serdes.CARD, ",");
 
     /**
-     * The {@link Serde} applicable to a {@link List} of {@link Route}
+     * The {@link Serde} applicable to a {@link List} of {@link Route}, read back from the binary protocol
+     * in the order of {@link ChMap#routes()}
      */
-    public static final Serde<List<Route>> ROUTE_LIST = Serde.listOf(Serdes.ROUTE, ",");
+    public static final Serde<List<Route>> ROUTE_LIST = Serde.subsetOf(ChMap.routes(), Serdes.ROUTE, ",");
 
     /**
      * The {@link Serde} applicable to a {@link SortedBag} of {@link Card}
@@ -115,14 +127,36 @@ public class Serdes {
      * The {@link Serde} applicable to a {@link PublicCardState}
      */
     public static final Serde<PublicCardState> PUBLIC_CARD_STATE = Serde.of(
-            i -> String.join(";", List.of(CARD_LIST.serialize(i.faceUpCards()), INTEGER.serialize(i.deckSize()),
-                    INTEGER.serialize(i.discardsSize()))),
+            (i, t) -> {
+                CARD_LIST.serialize(i.faceUpCards(), t);
+                t.write(';');
+                INTEGER.serialize(i.deckSize(), t);
+                t.write(';');
+                INTEGER.serialize(i.discardsSize(), t);
+            },
 
-            i -> {
-                String[] s = i.split(Pattern.quote(";"), -1);
-                List<Card> faceUpCards = CARD_LIST.deserialize(s[0]);
-                int deckSize = INTEGER.deserialize(s[1]);
-                int discardSize = INTEGER.deserialize(s[2]);
+            t -> {
+                t.pushDelimiter(";");
+                List<Card> faceUpCards = CARD_LIST.deserialize(t);
+                t.expect(";");
+                int deckSize = INTEGER.deserialize(t);
+                t.expect(";");
+                int discardSize = INTEGER.deserialize(t);
+                t.popDelimiter();
+
+                return new PublicCardState(faceUpCards, deckSize, discardSize);
+            },
+
+            (i, w) -> {
+                CARD_LIST.write(i.faceUpCards(), w);
+                INTEGER.write(i.deckSize(), w);
+                INTEGER.write(i.discardsSize(), w);
+            },
+
+            r -> {
+                List<Card> faceUpCards = CARD_LIST.read(r);
+                int deckSize = INTEGER.read(r);
+                int discardSize = INTEGER.read(r);
 
                 return new PublicCardState(faceUpCards, deckSize, discardSize);
             }
@@ -132,15 +166,36 @@ public class Serdes {
      * The {@link Serde} applicable to a {@link PublicPlayerState}
      */
     public static final Serde<PublicPlayerState> PUBLIC_PLAYER_STATE = Serde.of(
-            i -> String.join(";",
-                    List.of(INTEGER.serialize(i.ticketCount()), INTEGER.serialize(i.cardCount()),
-                            ROUTE_LIST.serialize(i.routes()))),
+            (i, t) -> {
+                INTEGER.serialize(i.ticketCount(), t);
+                t.write(';');
+                INTEGER.serialize(i.cardCount(), t);
+                t.write(';');
+                ROUTE_LIST.serialize(i.routes(), t);
+            },
+
+            t -> {
+                t.pushDelimiter(";");
+                int ticketCount = INTEGER.deserialize(t);
+                t.expect(";");
+                int cardCount = INTEGER.deserialize(t);
+                t.expect(";");
+                List<Route> routes = ROUTE_LIST.deserialize(t);
+                t.popDelimiter();
 
-            i -> {
-                String[] t = i.split(Pattern.quote(";"), -1);
-                int ticketCount = INTEGER.deserialize(t[0]);
-                int cardCount = INTEGER.deserialize(t[1]);
-                List<Route> routes = ROUTE_LIST.deserialize(t[2]);
+                return new PublicPlayerState(ticketCount, cardCount, routes);
+            },
+
+            (i, w) -> {
+                INTEGER.write(i.ticketCount(), w);
+                INTEGER.write(i.cardCount(), w);
+                ROUTE_LIST.write(i.routes(), w);
+            },
+
+            r -> {
+                int ticketCount = INTEGER.read(r);
+                int cardCount = INTEGER.read(r);
+                List<Route> routes = ROUTE_LIST.read(r);
 
                 return new PublicPlayerState(ticketCount, cardCount, routes);
             }
@@ -150,15 +205,36 @@ public class Serdes {
      * The {@link Serde} applicable to a {@link PlayerState}
      */
     public static final Serde<PlayerState> PLAYER_STATE = Serde.of(
-            i -> String.join(";",
-                    List.of(TICKET_SORTED_BAG.serialize(i.tickets()),
-                            CARD_SORTED_BAG.serialize(i.cards()), ROUTE_LIST.serialize(i.routes()))),
+            (i, t) -> {
+                TICKET_SORTED_BAG.serialize(i.tickets(), t);
+                t.write(';');
+                CARD_SORTED_BAG.serialize(i.cards(), t);
+                t.write(';');
+                ROUTE_LIST.serialize(i.routes(), t);
+            },
+
+            t -> {
+                t.pushDelimiter(";");
+                SortedBag<Ticket> tickets = TICKET_SORTED_BAG.deserialize(t);
+                t.expect(";");
+                SortedBag<Card> cards = CARD_SORTED_BAG.deserialize(t);
+                t.expect(";");
+                List<Route> routes = ROUTE_LIST.deserialize(t);
+                t.popDelimiter();
+
+                return new PlayerState(tickets, cards, routes);
+            },
+
+            (i, w) -> {
+                TICKET_SORTED_BAG.write(i.tickets(), w);
+                CARD_SORTED_BAG.write(i.cards(), w);
+                ROUTE_LIST.write(i.routes(), w);
+            },
 
-            i -> {
-                String[] c = i.split(Pattern.quote(";"), -1);
-                SortedBag<Ticket> tickets = TICKET_SORTED_BAG.deserialize(c[0]);
-                SortedBag<Card> cards = CARD_SORTED_BAG.deserialize(c[1]);
-                List<Route> routes = ROUTE_LIST.deserialize(c[2]);
+            r -> {
+                SortedBag<Ticket> tickets = TICKET_SORTED_BAG.read(r);
+                SortedBag<Card> cards = CARD_SORTED_BAG.read(r);
+                List<Route> routes = ROUTE_LIST.read(r);
 
                 return new PlayerState(tickets, cards, routes);
             }
@@ -168,26 +244,169 @@ public class Serdes {
      * The {@link Serde} applicable to a {@link PublicGameState}
      */
     public static final Serde<PublicGameState> PUBLIC_GAME_STATE = Serde.of(
-            i -> String.join(":",
-                    List.of(INTEGER.serialize(i.ticketsCount()), PUBLIC_CARD_STATE.serialize(i.cardState()),
-                            PLAYER_ID.serialize(i.currentPlayerId()),
-                            PUBLIC_PLAYER_STATE.serialize(i.playerState(PlayerId.PLAYER_1)),
-                            PUBLIC_PLAYER_STATE.serialize(i.playerState(PlayerId.PLAYER_2)),
-                            PLAYER_ID.serialize(i.lastPlayer()),
-                            BOOLEAN.serialize(i.gameEnded()))),
-
-            i -> {
-                String[] r = i.split(Pattern.quote(":"), -1);
-                int ticketCount = INTEGER.deserialize(r[0]);
-                PublicCardState cardState = PUBLIC_CARD_STATE.deserialize(r[1]);
-                PlayerId currentPlayerId = PLAYER_ID.deserialize(r[2]);
-                PublicPlayerState PPS1 = PUBLIC_PLAYER_STATE.deserialize(r[3]);
-                PublicPlayerState PPS2 = PUBLIC_PLAYER_STATE.deserialize(r[4]);
-                PlayerId lastPlayer = PLAYER_ID.deserialize(r[5]);
-                boolean gameEnded = BOOLEAN.deserialize(r[6]);
+            (i, t) -> {
+                INTEGER.serialize(i.ticketsCount(), t);
+                t.write(':');
+                PUBLIC_CARD_STATE.serialize(i.cardState(), t);
+                t.write(':');
+                PLAYER_ID.serialize(i.currentPlayerId(), t);
+                t.write(':');
+                PUBLIC_PLAYER_STATE.serialize(i.playerState(PlayerId.PLAYER_1), t);
+                t.write(':');
+                PUBLIC_PLAYER_STATE.serialize(i.playerState(PlayerId.PLAYER_2), t);
+                t.write(':');
+                PLAYER_ID.serialize(i.lastPlayer(), t);
+                t.write(':');
+                BOOLEAN.serialize(i.gameEnded(), t);
+            },
+
+            t -> {
+                t.pushDelimiter(":");
+                int ticketCount = INTEGER.deserialize(t);
+                t.expect(":");
+                PublicCardState cardState = PUBLIC_CARD_STATE.deserialize(t);
+                t.expect(":");
+                PlayerId currentPlayerId = PLAYER_ID.deserialize(t);
+                t.expect(":");
+                PublicPlayerState PPS1 = PUBLIC_PLAYER_STATE.deserialize(t);
+                t.expect(":");
+                PublicPlayerState PPS2 = PUBLIC_PLAYER_STATE.deserialize(t);
+                t.expect(":");
+                PlayerId lastPlayer = PLAYER_ID.deserialize(t);
+                t.expect(":");
+                boolean gameEnded = BOOLEAN.deserialize(t);
+                t.popDelimiter();
+
+                return new PublicGameState(ticketCount, cardState, currentPlayerId,
+                        Map.of(PlayerId.PLAYER_1, PPS1, PlayerId.PLAYER_2, PPS2), lastPlayer, gameEnded);
+            },
+
+            (i, w) -> {
+                INTEGER.write(i.ticketsCount(), w);
+                PUBLIC_CARD_STATE.write(i.cardState(), w);
+                PLAYER_ID.write(i.currentPlayerId(), w);
+                PUBLIC_PLAYER_STATE.write(i.playerState(PlayerId.PLAYER_1), w);
+                PUBLIC_PLAYER_STATE.write(i.playerState(PlayerId.PLAYER_2), w);
+                PLAYER_ID.write(i.lastPlayer(), w);
+                BOOLEAN.write(i.gameEnded(), w);
+            },
+
+            r -> {
+                int ticketCount = INTEGER.read(r);
+                PublicCardState cardState = PUBLIC_CARD_STATE.read(r);
+                PlayerId currentPlayerId = PLAYER_ID.read(r);
+                PublicPlayerState PPS1 = PUBLIC_PLAYER_STATE.read(r);
+                PublicPlayerState PPS2 = PUBLIC_PLAYER_STATE.read(r);
+                PlayerId lastPlayer = PLAYER_ID.read(r);
+                boolean gameEnded = BOOLEAN.read(r);
 
                 return new PublicGameState(ticketCount, cardState, currentPlayerId,
                         Map.of(PlayerId.PLAYER_1, PPS1, PlayerId.PLAYER_2, PPS2), lastPlayer, gameEnded);
             }
     );
-}
\ No newline at end of file
+
+    /**
+     * The {@link Serde} applicable to a {@link Protocol}
+     */
+    public static final Serde<Protocol> PROTOCOL = Serde.oneOf(Protocol.ALL);
+
+    /**
+     * The {@link Serde} applicable to a {@link List} of {@link Protocol}
+     */
+    public static final Serde<List<Protocol>> PROTOCOL_LIST = Serde.listOf(Serdes.PROTOCOL, ",");
+
+    /**
+     * The {@link Serde} applicable to a {@link Station}
+     */
+    public static final Serde<Station> STATION = Serde.oneOf(ChMap.stations());
+
+    /**
+     * The {@link Serde} applicable to a {@link GameEvent.Kind}
+     */
+    public static final Serde<GameEvent.Kind> GAME_EVENT_KIND = Serde.oneOf(GameEvent.Kind.ALL);
+
+    /**
+     * The {@link Serde} applicable to a {@link GameEvent}, only the values used by its kind being written
+     */
+    public static final Serde<GameEvent> GAME_EVENT = Serde.ofBinary(Serdes::writeGameEvent, Serdes::readGameEvent);
+
+    /**
+     * The {@link Serde} applicable to a {@link List} of {@link GameEvent}
+     */
+    public static final Serde<List<GameEvent>> GAME_EVENT_LIST = Serde.listOf(Serdes.GAME_EVENT, ",");
+
+    private static void writeGameEvent(GameEvent event, BinaryWriter writer) {
+        GAME_EVENT_KIND.write(event.kind(), writer);
+        PLAYER_ID.write(event.playerId(), writer);
+        switch (event.kind()) {
+            case KEPT_TICKETS:
+            case DREW_TICKETS:
+            case LAST_TURN_BEGINS:
+            case DRAW:
+                INTEGER.write(event.count(), writer);
+                break;
+            case DREW_VISIBLE_CARD:
+                CARD.write(event.card(), writer);
+                break;
+            case CLAIMED_ROUTE:
+            case ATTEMPTS_TUNNEL_CLAIM:
+                ROUTE.write(event.route(), writer);
+                CARD_SORTED_BAG.write(event.cards(), writer);
+                break;
+            case DREW_ADDITIONAL_CARDS:
+                CARD_SORTED_BAG.write(event.cards(), writer);
+                INTEGER.write(event.count(), writer);
+                break;
+            case DID_NOT_CLAIM_ROUTE:
+                ROUTE.write(event.route(), writer);
+                break;
+            case GETS_LONGEST_TRAIL_BONUS:
+                STATION.write(event.station1(), writer);
+                STATION.write(event.station2(), writer);
+                break;
+            case WON:
+                INTEGER.write(event.count(), writer);
+                INTEGER.write(event.otherCount(), writer);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static GameEvent readGameEvent(BinaryReader reader) {
+        GameEvent.Kind kind = GAME_EVENT_KIND.read(reader);
+        PlayerId playerId = PLAYER_ID.read(reader);
+        switch (kind) {
+            case WILL_PLAY_FIRST:
+                return GameEvent.willPlayFirst(playerId);
+            case KEPT_TICKETS:
+                return GameEvent.keptTickets(playerId, INTEGER.read(reader));
+            case CAN_PLAY:
+                return GameEvent.canPlay(playerId);
+            case DREW_TICKETS:
+                return GameEvent.drewTickets(playerId, INTEGER.read(reader));
+            case DREW_BLIND_CARD:
+                return GameEvent.drewBlindCard(playerId);
+            case DREW_VISIBLE_CARD:
+                return GameEvent.drewVisibleCard(playerId, CARD.read(reader));
+            case CLAIMED_ROUTE:
+                return GameEvent.claimedRoute(playerId, ROUTE.read(reader), CARD_SORTED_BAG.read(reader));
+            case ATTEMPTS_TUNNEL_CLAIM:
+                return GameEvent.attemptsTunnelClaim(playerId, ROUTE.read(reader), CARD_SORTED_BAG.read(reader));
+            case DREW_ADDITIONAL_CARDS:
+                return GameEvent.drewAdditionalCards(playerId, CARD_SORTED_BAG.read(reader), INTEGER.read(reader));
+            case DID_NOT_CLAIM_ROUTE:
+                return GameEvent.didNotClaimRoute(playerId, ROUTE.read(reader));
+            case LAST_TURN_BEGINS:
+                return GameEvent.lastTurnBegins(playerId, INTEGER.read(reader));
+            case GETS_LONGEST_TRAIL_BONUS:
+                return GameEvent.getsLongestTrailBonus(playerId, STATION.read(reader), STATION.read(reader));
+            case WON:
+                return GameEvent.won(playerId, INTEGER.read(reader), INTEGER.read(reader));
+            case DRAW:
+                return GameEvent.draw(playerId, INTEGER.read(reader));
+            default:
+                throw new Error();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ch.epfl.tchu.net;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The session of a remote player in a game of a {@link GameServer}, identified by a token the client presents
+ * to take its place in the game again after losing its connection
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see RemotePlayerProxy
+ */
+final class Session {
+    private static final SecureRandom TOKENS = new SecureRandom();
+    private static final int TOKEN_BYTES = 16;
+
+    private final String token;
+    private final long resumeTimeoutMillis;
+    private final MessageStats stats;
+    // The connections of the client handshaken since its last one was lost, in the order they arrived
+    private final BlockingQueue<Connection> reconnections;
+    private volatile boolean closed;
+
+    /**
+     * A new session with a random token
+     *
+     * @param resumeTimeoutMillis The time the game waits for the client to reconnect once its connection is lost,
+     *                            in milliseconds
+     * @param stats               The {@link MessageStats} of the game the next connections record their messages
+     *                            into, {@code null} if the messages are not measured
+     */
+    Session(long resumeTimeoutMillis, MessageStats stats) {
+        byte[] token = new byte[TOKEN_BYTES];
+        TOKENS.nextBytes(token);
+        this.token = Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+        this.resumeTimeoutMillis = resumeTimeoutMillis;
+        this.stats = stats;
+        this.reconnections = new LinkedBlockingQueue<>();
+        this.closed = false;
+    }
+
+    /**
+     * @return The token of the session, which only its client knows
+     */
+    String token() {
+        return token;
+    }
+
+    /**
+     * @return The {@link MessageStats} the connections of the session record their messages into, {@code null} if
+     * the messages are not measured
+     */
+    MessageStats stats() {
+        return stats;
+    }
+
+    /**
+     * Hands a new connection of the client, whose handshake is done, to the game, the connection being closed
+     * instead if the game is over
+     *
+     * @param connection The new {@link Connection} of the client
+     */
+    void resume(Connection connection) {
+        reconnections.add(connection);
+        // Closed in the meantime, the game may not take it anymore
+        if (closed)
+            closeReconnections();
+    }
+
+    /**
+     * Waits for the client to reconnect
+     *
+     * @return The new {@link Connection} of the client, {@code null} if it did not reconnect in time
+     * @throws InterruptedException If interrupted while waiting
+     */
+    Connection awaitReconnection() throws InterruptedException {
+        return reconnections.poll(resumeTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ends the session, once its game is over, closing the connections that arrived too late
+     */
+    void close() {
+        closed = true;
+        closeReconnections();
+    }
+
+    private void closeReconnections() {
+        Connection connection;
+        while (!Objects.isNull(connection = reconnections.poll()))
+            connection.close();
+    }
+}
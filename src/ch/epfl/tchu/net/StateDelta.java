@@ -0,0 +1,80 @@
+package ch.epfl.tchu.net;
+
+import java.util.Arrays;
+
+/**
+ * The changes leading a player from the previous state of the game it received to the next one, as computed by
+ * {@link StateSync#advance}
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see StateSync
+ */
+final class StateDelta {
+    /**
+     * The {@link Serde} applicable to a {@link StateDelta}
+     */
+    static final Serde<StateDelta> SERDE = Serde.ofBinary(
+            (i, w) -> w.writeVarInt(i.version).writeBytes(i.changes),
+            r -> new StateDelta(r.readVarInt(), r.readBytes())
+    );
+
+    /**
+     * The snapshot sent to a client resuming its session before having received any state, whose version precedes
+     * that of every state
+     */
+    static final StateDelta NONE = new StateDelta(0, new byte[0]);
+
+    private final int version;
+    private final byte[] changes;
+
+    /**
+     * The changes leading to the state of the given version
+     *
+     * @param version The version of the state the changes lead to
+     * @param changes The encoded changes
+     */
+    StateDelta(int version, byte[] changes) {
+        this.version = version;
+        this.changes = changes.clone();
+    }
+
+    /**
+     * The version of the state the changes lead to, the versions sent to a player following each other
+     *
+     * @return The version of the resulting state
+     */
+    int version() {
+        return version;
+    }
+
+    /**
+     * The changes, encoded by {@link StateSync#advance}
+     *
+     * @return The encoded changes
+     */
+    byte[] changes() {
+        return changes.clone();
+    }
+
+    /**
+     * The number of bytes of the encoded changes
+     *
+     * @return The size of the changes
+     */
+    int size() {
+        return changes.length;
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        return that instanceof StateDelta
+                && version == ((StateDelta) that).version
+                && Arrays.equals(changes, ((StateDelta) that).changes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * version + Arrays.hashCode(changes);
+    }
+}
@@ -0,0 +1,273 @@
+package ch.epfl.tchu.net;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicCardState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.PublicPlayerState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * The last state of the game a player received, which the server advances to compute the {@link StateDelta}
+ * to send and the client advances by applying it
+ * <p>
+ * The connections being ordered and reliable, every delta sent before the last reply of the player was received
+ * by it, so that the server only needs to remember the last state it sent. Each delta holds the groups of fields
+ * that changed since that state, its routes and cards being sent as the ones gained or lost, and is numbered
+ * with the version of the resulting state, so that a client missing a delta notices it
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see StateDelta
+ */
+final class StateSync {
+    // The whole state, sent first and whenever the changes cannot be expressed as gains and losses
+    private static final int FULL = 1;
+    // The number of tickets, the current and last players and the end of the game
+    private static final int TURN = 1 << 1;
+    // The face-up cards that changed and the sizes of the deck and the discards
+    private static final int CARDS = 1 << 2;
+    // The tickets, cards and routes the player gained and the cards it lost
+    private static final int OWN_STATE = 1 << 3;
+    // The counts and the new routes of a player, shifted by its ordinal
+    private static final int PLAYER_STATE = 1 << 4;
+
+    private static final Serde<List<Route>> NEW_ROUTES = Serde.listOf(Serdes.ROUTE, ",");
+
+    private PublicGameState state;
+    private PlayerState ownState;
+    private int version;
+
+    /**
+     * The state of a player which has not received any yet
+     */
+    StateSync() {
+        this.state = null;
+        this.ownState = null;
+        this.version = 0;
+    }
+
+    /**
+     * The last public state of the game
+     *
+     * @return The last {@link PublicGameState}, {@code null} if none was received yet
+     */
+    PublicGameState state() {
+        return state;
+    }
+
+    /**
+     * The last state of the player
+     *
+     * @return The last {@link PlayerState}, {@code null} if none was received yet
+     */
+    PlayerState ownState() {
+        return ownState;
+    }
+
+    /**
+     * The version of the last state, counting the states that differed from the previous one
+     *
+     * @return The version of the last state
+     */
+    int version() {
+        return version;
+    }
+
+    /**
+     * Advances to the given state, from the server
+     *
+     * @param newState    The new {@link PublicGameState}
+     * @param newOwnState The new {@link PlayerState} of the player
+     * @return The {@link StateDelta} leading to the new state, {@code null} if it is identical to the last one
+     */
+    StateDelta advance(PublicGameState newState, PlayerState newOwnState) {
+        int changes = Objects.isNull(state) ? FULL : changesTo(newState, newOwnState);
+        if (changes == 0)
+            return null;
+
+        BinaryWriter writer = new BinaryWriter().writeVarInt(changes);
+        if ((changes & FULL) != 0) {
+            Serdes.PUBLIC_GAME_STATE.write(newState, writer);
+            Serdes.PLAYER_STATE.write(newOwnState, writer);
+        } else {
+            writeChanges(changes, newState, newOwnState, writer);
+        }
+
+        state = newState;
+        ownState = newOwnState;
+        return new StateDelta(++version, writer.toByteArray());
+    }
+
+    /**
+     * Applies the given changes to the last state, from the client
+     *
+     * @param delta The {@link StateDelta} computed by the server
+     * @throws IllegalArgumentException If the delta does not lead to the state following the last one
+     */
+    void apply(StateDelta delta) {
+        BinaryReader reader = new BinaryReader(delta.changes());
+        int changes = reader.readVarInt();
+        if ((changes & FULL) != 0) {
+            state = Serdes.PUBLIC_GAME_STATE.read(reader);
+            ownState = Serdes.PLAYER_STATE.read(reader);
+        } else {
+            Preconditions.checkArgument(!Objects.isNull(state) && delta.version() == version + 1);
+            readChanges(changes, reader);
+        }
+        version = delta.version();
+    }
+
+    private int changesTo(PublicGameState newState, PlayerState newOwnState) {
+        if (!extendsRoutes(ownState, newOwnState) || !newOwnState.tickets().contains(ownState.tickets()))
+            return FULL;
+        for (PlayerId playerId : PlayerId.ALL)
+            if (!extendsRoutes(state.playerState(playerId), newState.playerState(playerId)))
+                return FULL;
+
+        int changes = 0;
+        if (newState.ticketsCount() != state.ticketsCount()
+                || newState.currentPlayerId() != state.currentPlayerId()
+                || newState.lastPlayer() != state.lastPlayer()
+                || newState.gameEnded() != state.gameEnded())
+            changes |= TURN;
+
+        PublicCardState cardState = state.cardState();
+        PublicCardState newCardState = newState.cardState();
+        if (!newCardState.faceUpCards().equals(cardState.faceUpCards())
+                || newCardState.deckSize() != cardState.deckSize()
+                || newCardState.discardsSize() != cardState.discardsSize())
+            changes |= CARDS;
+
+        for (PlayerId playerId : PlayerId.ALL) {
+            PublicPlayerState playerState = state.playerState(playerId);
+            PublicPlayerState newPlayerState = newState.playerState(playerId);
+            if (newPlayerState.ticketCount() != playerState.ticketCount()
+                    || newPlayerState.cardCount() != playerState.cardCount()
+                    || newPlayerState.routes().size() != playerState.routes().size())
+                changes |= PLAYER_STATE << playerId.ordinal();
+        }
+
+        if (newOwnState.tickets().size() != ownState.tickets().size()
+                || newOwnState.routes().size() != ownState.routes().size()
+                || !newOwnState.cards().equals(ownState.cards()))
+            changes |= OWN_STATE;
+
+        return changes;
+    }
+
+    // Whether the routes of the new state are the ones of the last state followed by the ones claimed since
+    private static boolean extendsRoutes(PublicPlayerState playerState, PublicPlayerState newPlayerState) {
+        List<Route> routes = playerState.routes();
+        List<Route> newRoutes = newPlayerState.routes();
+        return newRoutes.size() >= routes.size() && newRoutes.subList(0, routes.size()).equals(routes);
+    }
+
+    private void writeChanges(int changes, PublicGameState newState, PlayerState newOwnState, BinaryWriter writer) {
+        if ((changes & TURN) != 0) {
+            writer.writeVarInt(newState.ticketsCount());
+            Serdes.PLAYER_ID.write(newState.currentPlayerId(), writer);
+            Serdes.PLAYER_ID.write(newState.lastPlayer(), writer);
+            Serdes.BOOLEAN.write(newState.gameEnded(), writer);
+        }
+
+        if ((changes & CARDS) != 0) {
+            PublicCardState cardState = state.cardState();
+            PublicCardState newCardState = newState.cardState();
+            int changedSlots = 0;
+            for (int slot : Constants.FACE_UP_CARD_SLOTS)
+                if (newCardState.faceUpCard(slot) != cardState.faceUpCard(slot))
+                    changedSlots |= 1 << slot;
+            writer.writeVarInt(changedSlots);
+            for (int slot : Constants.FACE_UP_CARD_SLOTS)
+                if ((changedSlots & 1 << slot) != 0)
+                    Serdes.CARD.write(newCardState.faceUpCard(slot), writer);
+            writer.writeVarInt(newCardState.deckSize());
+            writer.writeVarInt(newCardState.discardsSize());
+        }
+
+        for (PlayerId playerId : PlayerId.ALL) {
+            if ((changes & PLAYER_STATE << playerId.ordinal()) != 0) {
+                PublicPlayerState newPlayerState = newState.playerState(playerId);
+                writer.writeVarInt(newPlayerState.ticketCount());
+                writer.writeVarInt(newPlayerState.cardCount());
+                NEW_ROUTES.write(newRoutes(state.playerState(playerId), newPlayerState), writer);
+            }
+        }
+
+        if ((changes & OWN_STATE) != 0) {
+            Serdes.TICKET_SORTED_BAG.write(newOwnState.tickets().difference(ownState.tickets()), writer);
+            Serdes.CARD_SORTED_BAG.write(newOwnState.cards().difference(ownState.cards()), writer);
+            Serdes.CARD_SORTED_BAG.write(ownState.cards().difference(newOwnState.cards()), writer);
+            NEW_ROUTES.write(newRoutes(ownState, newOwnState), writer);
+        }
+    }
+
+    private static List<Route> newRoutes(PublicPlayerState playerState, PublicPlayerState newPlayerState) {
+        return newPlayerState.routes().subList(playerState.routes().size(), newPlayerState.routes().size());
+    }
+
+    private void readChanges(int changes, BinaryReader reader) {
+        int ticketsCount = state.ticketsCount();
+        PlayerId currentPlayerId = state.currentPlayerId();
+        PlayerId lastPlayer = state.lastPlayer();
+        boolean gameEnded = state.gameEnded();
+        if ((changes & TURN) != 0) {
+            ticketsCount = reader.readVarInt();
+            currentPlayerId = Serdes.PLAYER_ID.read(reader);
+            lastPlayer = Serdes.PLAYER_ID.read(reader);
+            gameEnded = Serdes.BOOLEAN.read(reader);
+        }
+
+        PublicCardState cardState = state.cardState();
+        if ((changes & CARDS) != 0) {
+            List<Card> faceUpCards = new ArrayList<>(cardState.faceUpCards());
+            int changedSlots = reader.readVarInt();
+            for (int slot : Constants.FACE_UP_CARD_SLOTS)
+                if ((changedSlots & 1 << slot) != 0)
+                    faceUpCards.set(slot, Serdes.CARD.read(reader));
+            int deckSize = reader.readVarInt();
+            int discardsSize = reader.readVarInt();
+            cardState = new PublicCardState(faceUpCards, deckSize, discardsSize);
+        }
+
+        Map<PlayerId, PublicPlayerState> playerStates = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            PublicPlayerState playerState = state.playerState(playerId);
+            if ((changes & PLAYER_STATE << playerId.ordinal()) != 0) {
+                int ticketCount = reader.readVarInt();
+                int cardCount = reader.readVarInt();
+                List<Route> routes = withNewRoutes(playerState, NEW_ROUTES.read(reader));
+                playerState = new PublicPlayerState(ticketCount, cardCount, routes);
+            }
+            playerStates.put(playerId, playerState);
+        }
+
+        if ((changes & OWN_STATE) != 0) {
+            SortedBag<Ticket> tickets = ownState.tickets().union(Serdes.TICKET_SORTED_BAG.read(reader));
+            SortedBag<Card> newCards = Serdes.CARD_SORTED_BAG.read(reader);
+            SortedBag<Card> lostCards = Serdes.CARD_SORTED_BAG.read(reader);
+            SortedBag<Card> cards = ownState.cards().union(newCards).difference(lostCards);
+            ownState = new PlayerState(tickets, cards, withNewRoutes(ownState, NEW_ROUTES.read(reader)));
+        }
+
+        state = new PublicGameState(ticketsCount, cardState, currentPlayerId, playerStates, lastPlayer, gameEnded);
+    }
+
+    private static List<Route> withNewRoutes(PublicPlayerState playerState, List<Route> newRoutes) {
+        List<Route> routes = new ArrayList<>(playerState.routes());
+        routes.addAll(newRoutes);
+        return routes;
+    }
+}
@@ -0,0 +1,193 @@
+package ch.epfl.tchu.net;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+
+import ch.epfl.tchu.Preconditions;
+
+/**
+ * A cursor reading the values of a text written in the text protocol, without splitting it
+ * <p>
+ * A value ends where the text ends or where one of the delimiters of the values enclosing it starts, composite
+ * values pushing their delimiter while their components are read, like {@link String#split} would have cut them
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see TextWriter
+ */
+public final class TextReader {
+    private final CharSequence text;
+    private final byte[] bytes;
+    private final int limit;
+    private int position;
+    private String[] delimiters;
+    private int depth;
+
+    /**
+     * A reader of the given text, from its first character
+     *
+     * @param text The text to read, which is not copied
+     */
+    public TextReader(CharSequence text) {
+        this(Objects.requireNonNull(text), null, 0, text.length());
+    }
+
+    /**
+     * A reader of the given range of ASCII characters
+     *
+     * @param bytes  The ASCII characters to read, which are not copied
+     * @param offset The index of the first character to read
+     * @param length The number of characters to read
+     * @throws IndexOutOfBoundsException If the range is not within {@code bytes}
+     */
+    public TextReader(byte[] bytes, int offset, int length) {
+        this(null, bytes, offset, offset + length);
+        if (offset < 0 || length < 0 || limit > bytes.length)
+            throw new IndexOutOfBoundsException();
+    }
+
+    private TextReader(CharSequence text, byte[] bytes, int position, int limit) {
+        this.text = text;
+        this.bytes = bytes;
+        this.position = position;
+        this.limit = limit;
+        this.delimiters = new String[4];
+        this.depth = 0;
+    }
+
+    /**
+     * Makes the given delimiter end the values read until it is popped
+     *
+     * @param delimiter The delimiter of the components of the value being read
+     * @throws IllegalArgumentException If the delimiter is empty
+     */
+    public void pushDelimiter(String delimiter) {
+        Preconditions.checkArgument(!delimiter.isEmpty());
+
+        if (depth == delimiters.length)
+            delimiters = Arrays.copyOf(delimiters, 2 * depth);
+        delimiters[depth++] = delimiter;
+    }
+
+    /**
+     * Stops the last pushed delimiter from ending the values read
+     *
+     * @throws IllegalStateException If no delimiter is pushed
+     */
+    public void popDelimiter() {
+        if (depth == 0)
+            throw new IllegalStateException();
+        delimiters[--depth] = null;
+    }
+
+    /**
+     * Whether the value being read ends at the current position
+     *
+     * @return {@code true} if the text ends or one of the pushed delimiters starts at the current position
+     */
+    public boolean atValueEnd() {
+        if (position == limit)
+            return true;
+        for (int i = 0; i < depth; i++)
+            if (startsWith(delimiters[i]))
+                return true;
+        return false;
+    }
+
+    /**
+     * Skips the given delimiter if it starts at the current position
+     *
+     * @param delimiter The delimiter to skip
+     * @return {@code true} if the delimiter was skipped
+     */
+    public boolean skip(String delimiter) {
+        if (!startsWith(delimiter))
+            return false;
+        position += delimiter.length();
+        return true;
+    }
+
+    /**
+     * Skips the given delimiter, which must start at the current position
+     *
+     * @param delimiter The delimiter to skip
+     * @throws IllegalArgumentException If the delimiter does not start at the current position
+     */
+    public void expect(String delimiter) {
+        Preconditions.checkArgument(skip(delimiter));
+    }
+
+    /**
+     * Reads the characters of a value, up to its end
+     *
+     * @return The {@link String} of the characters read, which may be empty
+     */
+    public String readValue() {
+        int start = position;
+        while (!atValueEnd())
+            position++;
+
+        return Objects.isNull(bytes)
+                ? text.subSequence(start, position).toString()
+                : new String(bytes, start, position - start, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads an integer written in base 10, like {@link Integer#parseInt(String)}
+     *
+     * @return The integer read
+     * @throws IllegalArgumentException If the value is not an integer
+     */
+    public int readInt() {
+        boolean negative = skip("-");
+        if (!negative)
+            skip("+");
+
+        long value = 0;
+        int digitCount = 0;
+        while (!atValueEnd()) {
+            char c = charAt(position++);
+            Preconditions.checkArgument('0' <= c && c <= '9' && value <= Integer.MAX_VALUE);
+            value = 10 * value + (c - '0');
+            digitCount++;
+        }
+        value = negative ? -value : value;
+        Preconditions.checkArgument(digitCount > 0 && Integer.MIN_VALUE <= value && value <= Integer.MAX_VALUE);
+
+        return (int) value;
+    }
+
+    /**
+     * Reads the bytes of a value encoded in Base64
+     *
+     * @return The decoded bytes
+     * @throws IllegalArgumentException If the value is not valid Base64
+     */
+    public byte[] readBase64() {
+        return Base64.getDecoder().decode(readValue());
+    }
+
+    /**
+     * The number of characters left to read
+     *
+     * @return The number of characters left to read
+     */
+    public int remaining() {
+        return limit - position;
+    }
+
+    private boolean startsWith(String prefix) {
+        if (prefix.length() > limit - position)
+            return false;
+        for (int i = 0; i < prefix.length(); i++)
+            if (charAt(position + i) != prefix.charAt(i))
+                return false;
+        return true;
+    }
+
+    private char charAt(int index) {
+        return Objects.isNull(bytes) ? text.charAt(index) : (char) (bytes[index] & 0xFF);
+    }
+}
@@ -0,0 +1,183 @@
+package ch.epfl.tchu.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import ch.epfl.tchu.Preconditions;
+
+/**
+ * A growable buffer into which values are written in the text protocol, whose characters are all ASCII
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see TextReader
+ */
+public final class TextWriter {
+    // The number of characters of the longest integer, Integer.MIN_VALUE
+    private static final int MAX_INT_LENGTH = 11;
+
+    private byte[] bytes;
+    private int size;
+
+    /**
+     * An empty text writer
+     */
+    public TextWriter() {
+        this.bytes = new byte[64];
+        this.size = 0;
+    }
+
+    /**
+     * Writes a single character
+     *
+     * @param value The ASCII character to write
+     * @return The writer ({@code this})
+     * @throws IllegalArgumentException If the character is not ASCII
+     */
+    public TextWriter write(char value) {
+        Preconditions.checkArgument(value < 0x80);
+
+        ensureCapacity(1);
+        bytes[size++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Writes the characters of a sequence
+     *
+     * @param value The sequence of ASCII characters to write
+     * @return The writer ({@code this})
+     * @throws IllegalArgumentException If one of the characters is not ASCII
+     */
+    public TextWriter write(CharSequence value) {
+        ensureCapacity(value.length());
+        for (int i = 0; i < value.length(); i++)
+            write(value.charAt(i));
+        return this;
+    }
+
+    /**
+     * Writes an integer in base 10, like {@link Integer#toString(int)}
+     *
+     * @param value The integer to write
+     * @return The writer ({@code this})
+     */
+    public TextWriter writeInt(int value) {
+        ensureCapacity(MAX_INT_LENGTH);
+        long remaining = value;
+        if (remaining < 0) {
+            bytes[size++] = '-';
+            remaining = -remaining;
+        }
+
+        // The digits are written from the last one
+        int end = size + digitCount(remaining);
+        for (int i = end - 1; i >= size; i--) {
+            bytes[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        size = end;
+        return this;
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the Base64 encoding of the given bytes
+     *
+     * @param value The bytes to encode
+     * @return The writer ({@code this})
+     */
+    public TextWriter writeBase64(byte[] value) {
+        byte[] encoded = Base64.getEncoder().encode(value);
+        ensureCapacity(encoded.length);
+        System.arraycopy(encoded, 0, bytes, size, encoded.length);
+        size += encoded.length;
+        return this;
+    }
+
+    /**
+     * The number of characters written so far
+     *
+     * @return The number of characters in the buffer
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the buffer
+     *
+     * @return The writer ({@code this})
+     */
+    public TextWriter reset() {
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Writes the ASCII characters of the buffer to the given stream
+     *
+     * @param output The {@link OutputStream}
+     * @throws IOException If the stream could not be written
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        output.write(bytes, 0, size);
+    }
+
+    /**
+     * Writes the ASCII characters of the buffer to the given byte buffer
+     *
+     * @param buffer The {@link ByteBuffer}, from its position
+     * @throws java.nio.BufferOverflowException If the characters do not fit in the remaining bytes of the buffer
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(bytes, 0, size);
+    }
+
+    /**
+     * Writes the ASCII characters of the buffer into the given binary writer
+     *
+     * @param writer The {@link BinaryWriter}
+     */
+    public void writeTo(BinaryWriter writer) {
+        writer.writeRaw(bytes, 0, size);
+    }
+
+    /**
+     * Appends the characters of the buffer to the given destination
+     *
+     * @param destination The {@link Appendable}
+     * @throws IOException If the destination could not be appended to
+     */
+    public void appendTo(Appendable destination) throws IOException {
+        for (int i = 0; i < size; i++)
+            destination.append((char) bytes[i]);
+    }
+
+    /**
+     * The characters written so far
+     *
+     * @return The {@link String} of the characters in the buffer
+     */
+    @Override
+    public String toString() {
+        return new String(bytes, 0, size, StandardCharsets.US_ASCII);
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > bytes.length)
+            bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, size + additional));
+    }
+}
@@ -0,0 +1,245 @@
+package ch.epfl.tchu.sim;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.net.BinaryReader;
+import ch.epfl.tchu.net.BinaryWriter;
+import ch.epfl.tchu.net.Serdes;
+
+/**
+ * The log of a game played with {@link Game#play} on all the tickets of {@link ChMap}, from which a
+ * {@link GameReplay} plays it again
+ * <p>
+ * A record holds the seed of the random number generator of the game, the number of values drawn from it, every
+ * decision of every player written in the binary protocol, the checksum of every information the players received, and
+ * how the game failed if it did. A player failing, e.g. because its client left, is recorded as the call to the player
+ * that threw an exception.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see GameRecorder
+ * @see GameReplay
+ */
+public final class GameRecord {
+    private static final int VERSION = 1;
+
+    /**
+     * The kinds of decisions of a player, each written before the decision itself
+     */
+    enum Decision {
+        INITIAL_TICKETS,
+        TURN_KIND,
+        TICKETS,
+        DRAW_SLOT,
+        CLAIMED_ROUTE,
+        INITIAL_CLAIM_CARDS,
+        ADDITIONAL_CARDS;
+
+        static final List<Decision> ALL = List.of(Decision.values());
+    }
+
+    private final long seed;
+    private final Map<PlayerId, String> playerNames;
+    private final int randomDrawCount;
+    private final Map<PlayerId, byte[]> decisions;
+    private final Map<PlayerId, int[]> infoChecksums;
+    private final PlayerId failedPlayer;
+    private final int failedCall;
+    private final String failure;
+
+    /**
+     * A record of a game
+     *
+     * @param seed            The seed of the random number generator of the game
+     * @param playerNames     The names of the players
+     * @param randomDrawCount The number of values drawn from the random number generator
+     * @param decisions       The decisions of every player, written in the binary protocol
+     * @param infoChecksums   The checksums of the information every player received, in order
+     * @param failedPlayer    The {@link PlayerId} of the player who threw an exception, {@code null} if none did
+     * @param failedCall      The index of the call to the player that threw an exception, among all the calls to it
+     * @param failure         The exception that interrupted the game as given by {@link Throwable#toString()}, empty if
+     *                        the game ended
+     * @throws IllegalArgumentException If a player has no name, decisions or checksums
+     */
+    GameRecord(long seed, Map<PlayerId, String> playerNames, int randomDrawCount, Map<PlayerId, byte[]> decisions,
+               Map<PlayerId, int[]> infoChecksums, PlayerId failedPlayer, int failedCall, String failure) {
+        for (PlayerId playerId : PlayerId.ALL) {
+            Preconditions.checkArgument(playerNames.containsKey(playerId) && decisions.containsKey(playerId)
+                    && infoChecksums.containsKey(playerId));
+        }
+
+        this.seed = seed;
+        this.playerNames = Map.copyOf(playerNames);
+        this.randomDrawCount = randomDrawCount;
+        this.decisions = new EnumMap<>(PlayerId.class);
+        this.infoChecksums = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            this.decisions.put(playerId, decisions.get(playerId).clone());
+            this.infoChecksums.put(playerId, infoChecksums.get(playerId).clone());
+        }
+        this.failedPlayer = failedPlayer;
+        this.failedCall = failedCall;
+        this.failure = Objects.requireNonNull(failure);
+    }
+
+    /**
+     * The record written in the given bytes
+     *
+     * @param bytes The bytes written by {@link #toBytes()}
+     * @return The {@link GameRecord} written in the bytes
+     * @throws IllegalArgumentException If the bytes are not those of a record of this version
+     */
+    public static GameRecord fromBytes(byte[] bytes) {
+        BinaryReader reader = new BinaryReader(bytes);
+        Preconditions.checkArgument(reader.readVarInt() == VERSION);
+
+        byte[] seedBytes = reader.readBytes();
+        Preconditions.checkArgument(seedBytes.length == Long.BYTES);
+        long seed = ByteBuffer.wrap(seedBytes).getLong();
+        int randomDrawCount = reader.readVarInt();
+        PlayerId failedPlayer = Serdes.PLAYER_ID.read(reader);
+        int failedCall = reader.readVarInt();
+        String failure = reader.readString();
+
+        Map<PlayerId, String> playerNames = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, byte[]> decisions = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, int[]> infoChecksums = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            playerNames.put(playerId, reader.readString());
+            decisions.put(playerId, reader.readBytes());
+            byte[] checksums = reader.readBytes();
+            Preconditions.checkArgument(checksums.length % Integer.BYTES == 0);
+            int[] values = new int[checksums.length / Integer.BYTES];
+            ByteBuffer.wrap(checksums).asIntBuffer().get(values);
+            infoChecksums.put(playerId, values);
+        }
+        Preconditions.checkArgument(reader.remaining() == 0);
+
+        return new GameRecord(seed, playerNames, randomDrawCount, decisions, infoChecksums, failedPlayer, failedCall,
+                failure);
+    }
+
+    /**
+     * The checksum of the given information, as recorded
+     *
+     * @param info The information received by a player
+     * @return The CRC-32 of the UTF-8 bytes of the information
+     */
+    static int checksum(String info) {
+        CRC32 crc = new CRC32();
+        crc.update(info.getBytes(StandardCharsets.UTF_8));
+
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @return The seed of the random number generator of the game
+     */
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * @return The names of the players
+     */
+    public Map<PlayerId, String> playerNames() {
+        return playerNames;
+    }
+
+    /**
+     * @return The number of values drawn from the random number generator of the game
+     */
+    public int randomDrawCount() {
+        return randomDrawCount;
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The number of information the player received
+     */
+    public int infoCount(PlayerId playerId) {
+        return infoChecksums.get(playerId).length;
+    }
+
+    /**
+     * @return The {@link PlayerId} of the player who threw an exception, {@code null} if none did
+     */
+    public PlayerId failedPlayer() {
+        return failedPlayer;
+    }
+
+    /**
+     * @return The index of the call to the failed player that threw an exception, among all the calls to it
+     */
+    int failedCall() {
+        return failedCall;
+    }
+
+    /**
+     * @return The exception that interrupted the game as given by {@link Throwable#toString()}, empty if the game ended
+     */
+    public String failure() {
+        return failure;
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return A {@link BinaryReader} of the decisions of the player
+     */
+    BinaryReader decisions(PlayerId playerId) {
+        return new BinaryReader(decisions.get(playerId));
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The decisions of the player, written in the binary protocol
+     */
+    byte[] decisionBytes(PlayerId playerId) {
+        return decisions.get(playerId).clone();
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @param index    The index of the information
+     * @return The checksum of the information of the given index the player received
+     * @throws IndexOutOfBoundsException If the player did not receive that many information
+     */
+    int infoChecksum(PlayerId playerId, int index) {
+        return infoChecksums.get(playerId)[index];
+    }
+
+    /**
+     * The bytes of the record, from which {@link #fromBytes(byte[])} reads it back
+     *
+     * @return The bytes of the record
+     */
+    public byte[] toBytes() {
+        BinaryWriter writer = new BinaryWriter()
+                .writeVarInt(VERSION)
+                .writeBytes(ByteBuffer.allocate(Long.BYTES).putLong(seed).array())
+                .writeVarInt(randomDrawCount);
+        Serdes.PLAYER_ID.write(failedPlayer, writer);
+        writer.writeVarInt(failedCall)
+                .writeString(failure);
+        for (PlayerId playerId : PlayerId.ALL) {
+            int[] checksums = infoChecksums.get(playerId);
+            ByteBuffer checksumBytes = ByteBuffer.allocate(checksums.length * Integer.BYTES);
+            checksumBytes.asIntBuffer().put(checksums);
+            writer.writeString(playerNames.get(playerId))
+                    .writeBytes(decisions.get(playerId))
+                    .writeBytes(checksumBytes.array());
+        }
+
+        return writer.toByteArray();
+    }
+}
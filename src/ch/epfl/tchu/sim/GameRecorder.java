@@ -0,0 +1,305 @@
+package ch.epfl.tchu.sim;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameEvent;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.net.BinaryWriter;
+import ch.epfl.tchu.net.GameObserver;
+import ch.epfl.tchu.net.GameServer;
+import ch.epfl.tchu.net.Protocol;
+import ch.epfl.tchu.net.Serde;
+import ch.epfl.tchu.net.Serdes;
+
+/**
+ * The recorder of a game, providing the random number generator and the players to give to {@link Game#play}, which
+ * log the seed, the decisions of the players and the information they receive
+ * <p>
+ * The players forward every call to the players they record, and are only called by the thread of the game. As a
+ * {@link GameObserver}, a recorder records a game hosted by a {@link GameServer}.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see GameRecord
+ */
+public final class GameRecorder implements GameObserver {
+    private final Map<PlayerId, String> playerNames;
+    private final Consumer<GameRecord> recordListener;
+    private final RecordingRandom random;
+    private final Map<PlayerId, BinaryWriter> decisions;
+    private final Map<PlayerId, InfoChecksums> infoChecksums;
+    private PlayerId failedPlayer;
+    private int failedCall;
+    private String failure;
+
+    /**
+     * The growable list of the checksums of the information a player received
+     */
+    private static final class InfoChecksums {
+        private int[] values = new int[256];
+        private int size;
+
+        private void add(String info) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, 2 * size);
+            values[size++] = GameRecord.checksum(info);
+        }
+    }
+
+    /**
+     * A recorder of a game between players of the given names, whose random number generator has the given seed
+     *
+     * @param playerNames The names of the players, as given to {@link Game#play}
+     * @param seed        The seed of the random number generator of the game
+     * @throws IllegalArgumentException If a player has no name
+     */
+    public GameRecorder(Map<PlayerId, String> playerNames, long seed) {
+        this(playerNames, seed, record -> {});
+    }
+
+    /**
+     * A recorder of a game between players of the given names, whose random number generator has the given seed,
+     * giving its record to the given listener when the game ends
+     *
+     * @param playerNames    The names of the players, as given to {@link Game#play}
+     * @param seed           The seed of the random number generator of the game
+     * @param recordListener The {@link Consumer} of the {@link GameRecord} of the game, called by
+     *                       {@link #gameEnded(Throwable)}
+     * @throws IllegalArgumentException If a player has no name
+     */
+    public GameRecorder(Map<PlayerId, String> playerNames, long seed, Consumer<GameRecord> recordListener) {
+        Preconditions.checkArgument(playerNames.keySet().containsAll(PlayerId.ALL));
+
+        this.playerNames = Map.copyOf(playerNames);
+        this.recordListener = Objects.requireNonNull(recordListener);
+        this.random = new RecordingRandom(seed);
+        this.decisions = new EnumMap<>(PlayerId.class);
+        this.infoChecksums = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            decisions.put(playerId, new BinaryWriter());
+            infoChecksums.put(playerId, new InfoChecksums());
+        }
+        this.failure = "";
+    }
+
+    /**
+     * Starts a {@link GameServer} recording every game, and writing the record of every failed game to a file of the
+     * working directory named after its seed, until the process is killed
+     *
+     * @param args The arguments of the program, i.e. the port, the newest protocol offered, the kind of threads the
+     *             games run on and the maximum number of games played at the same time
+     */
+    public static void main(String[] args) {
+        int port = args.length >= 1 ? Integer.parseInt(args[0]) : 5108;
+        Protocol protocol = args.length >= 2 ? Protocol.valueOf(args[1]) : Protocol.SESSIONS;
+        GameServer.ThreadMode threadMode = args.length >= 3
+                ? GameServer.ThreadMode.valueOf(args[2])
+                : GameServer.ThreadMode.PLATFORM;
+        int maxConcurrentGames = args.length >= 4 ? Integer.parseInt(args[3]) : Integer.MAX_VALUE;
+
+        GameServer server = new GameServer(port, protocol, threadMode, maxConcurrentGames);
+        server.observeGames(playerNames -> new GameRecorder(playerNames, ThreadLocalRandom.current().nextLong(),
+                GameRecorder::saveFailedGame));
+        server.start();
+        System.out.printf("Listening on port %d, offering protocols up to %s, recording games played on %s threads%n",
+                server.port(), protocol, server.threadMode());
+    }
+
+    // Writes the record of a failed game to a file named after its seed
+    private static void saveFailedGame(GameRecord record) {
+        if (record.failure().isEmpty())
+            return;
+
+        Path file = Path.of(String.format("game-%016x.tchu", record.seed()));
+        try {
+            Files.write(file, record.toBytes());
+            System.out.printf("Recorded failed game to %s: %s%n", file, record.failure());
+        } catch (IOException exception) {
+            System.err.printf("Could not record failed game to %s: %s%n", file, exception);
+        }
+    }
+
+    /**
+     * @return The random number generator to give to {@link Game#play}
+     */
+    @Override
+    public Random random() {
+        return random;
+    }
+
+    /**
+     * The player to give to {@link Game#play} in place of the given one, which records it
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @param player   The recorded {@link Player}
+     * @return The recording {@link Player}
+     */
+    @Override
+    public Player player(PlayerId playerId, Player player) {
+        return new RecordingPlayer(playerId, Objects.requireNonNull(player));
+    }
+
+    /**
+     * Records how the game ended, and gives its record to the listener
+     *
+     * @param failure The {@link Throwable} thrown by {@link Game#play}, {@code null} if the game ended normally
+     */
+    @Override
+    public void gameEnded(Throwable failure) {
+        if (!Objects.isNull(failure))
+            this.failure = failure.toString();
+        recordListener.accept(record());
+    }
+
+    /**
+     * @return The {@link GameRecord} of the game so far
+     */
+    public GameRecord record() {
+        Map<PlayerId, byte[]> decisionBytes = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, int[]> checksums = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            decisionBytes.put(playerId, decisions.get(playerId).toByteArray());
+            InfoChecksums playerChecksums = infoChecksums.get(playerId);
+            checksums.put(playerId, Arrays.copyOf(playerChecksums.values, playerChecksums.size));
+        }
+
+        return new GameRecord(random.seed(), playerNames, random.drawCount(), decisionBytes, checksums, failedPlayer,
+                failedCall, failure);
+    }
+
+    /**
+     * A player forwarding every call to another one, recording its decisions and the information it receives
+     */
+    private final class RecordingPlayer implements Player {
+        private final PlayerId playerId;
+        private final Player player;
+        private final BinaryWriter decisions;
+        private final InfoChecksums infoChecksums;
+        private int callCount;
+
+        /**
+         * A player recording the given one
+         *
+         * @param playerId The {@link PlayerId} of the player
+         * @param player   The recorded {@link Player}
+         */
+        private RecordingPlayer(PlayerId playerId, Player player) {
+            this.playerId = playerId;
+            this.player = player;
+            this.decisions = GameRecorder.this.decisions.get(playerId);
+            this.infoChecksums = GameRecorder.this.infoChecksums.get(playerId);
+        }
+
+        // Forwards a call, recording the player as failed at this call if it throws an exception
+        private <T> T called(Supplier<T> call) {
+            try {
+                T result = call.get();
+                callCount++;
+                return result;
+            } catch (RuntimeException | Error exception) {
+                if (Objects.isNull(failedPlayer)) {
+                    failedPlayer = playerId;
+                    failedCall = callCount;
+                }
+                throw exception;
+            }
+        }
+
+        private void called(Runnable call) {
+            called(() -> {
+                call.run();
+                return null;
+            });
+        }
+
+        private <T> T decided(GameRecord.Decision kind, Serde<T> serde, Supplier<T> decision) {
+            T value = called(decision);
+            decisions.writeVarInt(kind.ordinal());
+            serde.write(value, decisions);
+            return value;
+        }
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            called(() -> player.initPlayers(ownId, playerNames));
+        }
+
+        @Override
+        public void receiveInfo(String info) {
+            infoChecksums.add(info);
+            called(() -> player.receiveInfo(info));
+        }
+
+        @Override
+        public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+            infoChecksums.add(event.text(playerNames));
+            called(() -> player.receiveEvent(event, playerNames));
+        }
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            called(() -> player.updateState(newState, ownState));
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            called(() -> player.setInitialTicketChoice(tickets));
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            return decided(GameRecord.Decision.INITIAL_TICKETS, Serdes.TICKET_SORTED_BAG, player::chooseInitialTickets);
+        }
+
+        @Override
+        public TurnKind nextTurn() {
+            return decided(GameRecord.Decision.TURN_KIND, Serdes.TURN_KIND, player::nextTurn);
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            return decided(GameRecord.Decision.TICKETS, Serdes.TICKET_SORTED_BAG, () -> player.chooseTickets(options));
+        }
+
+        @Override
+        public int drawSlot() {
+            return decided(GameRecord.Decision.DRAW_SLOT, Serdes.INTEGER, player::drawSlot);
+        }
+
+        @Override
+        public Route claimedRoute() {
+            return decided(GameRecord.Decision.CLAIMED_ROUTE, Serdes.ROUTE, player::claimedRoute);
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            return decided(GameRecord.Decision.INITIAL_CLAIM_CARDS, Serdes.CARD_SORTED_BAG, player::initialClaimCards);
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            return decided(GameRecord.Decision.ADDITIONAL_CARDS, Serdes.CARD_SORTED_BAG,
+                    () -> player.chooseAdditionalCards(options));
+        }
+    }
+}
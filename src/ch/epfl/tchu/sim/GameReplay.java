@@ -0,0 +1,320 @@
+package ch.epfl.tchu.sim;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameEvent;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.net.BinaryReader;
+import ch.epfl.tchu.net.Serde;
+import ch.epfl.tchu.net.Serdes;
+
+/**
+ * A game played again from its {@link GameRecord} by {@link Game#play}, its players taking the recorded decisions
+ * without any input, output or user interface, and checked against the record
+ * <p>
+ * The replay is exact if every player received the recorded information, was asked for the recorded decisions and,
+ * if it failed, failed at the recorded call, if as many values were drawn from the random number generator and if the
+ * game ended or failed as it did.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see GameRecorder
+ */
+public final class GameReplay {
+    private static final SortedBag<Ticket> TICKETS = SortedBag.of(ChMap.tickets());
+
+    private final String divergence;
+    private final Throwable failure;
+    private final long elapsedNanos;
+
+    /**
+     * The exception a replaying player throws when the game diverges from its record
+     */
+    private static final class Divergence extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * A divergence of the game from its record
+         *
+         * @param message The description of the divergence
+         */
+        private Divergence(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * The exception a replaying player throws at the call at which the recorded player failed
+     */
+    private static final class RecordedFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The recorded failure of a player
+         */
+        private RecordedFailure() {
+            super(null, null, false, false);
+        }
+    }
+
+    private GameReplay(String divergence, Throwable failure, long elapsedNanos) {
+        this.divergence = divergence;
+        this.failure = failure;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Plays the recorded game again and checks it against its record
+     *
+     * @param record The {@link GameRecord} of the game
+     * @return The {@link GameReplay} of the game
+     */
+    public static GameReplay of(GameRecord record) {
+        RecordingRandom random = new RecordingRandom(record.seed());
+        Map<PlayerId, ReplayingPlayer> players = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL)
+            players.put(playerId, new ReplayingPlayer(record, playerId));
+
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            Game.play(Map.copyOf(players), record.playerNames(), TICKETS, random);
+        } catch (RuntimeException | Error exception) {
+            failure = exception;
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        return new GameReplay(divergence(record, players, random, failure), failure, elapsedNanos);
+    }
+
+    /**
+     * Replays the games recorded in the given files, each the given number of times, and prints whether they were
+     * exact and how fast they were replayed
+     *
+     * @param args The arguments of the program, i.e. the number of replays of every game then the files of the records
+     * @throws IOException If a file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        int replayCount = Integer.parseInt(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            GameRecord record = GameRecord.fromBytes(Files.readAllBytes(Path.of(args[i])));
+            GameReplay replay = null;
+            long elapsedNanos = 0;
+            for (int r = 0; r < replayCount; r++) {
+                replay = of(record);
+                elapsedNanos += replay.elapsedNanos();
+            }
+
+            System.out.printf(Locale.ROOT, "%s: %s, %.1f replays/s%n", args[i],
+                    replay.isExact() ? "exact" : "diverged, " + replay.divergence(),
+                    replayCount / (elapsedNanos / 1e9));
+            if (!Objects.isNull(replay.failure()) && !(replay.failure() instanceof RecordedFailure))
+                replay.failure().printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * @return True iff. the game was replayed exactly as it was recorded
+     */
+    public boolean isExact() {
+        return divergence.isEmpty();
+    }
+
+    /**
+     * @return The description of the first difference between the replay and the record, empty if the replay is exact
+     */
+    public String divergence() {
+        return divergence;
+    }
+
+    /**
+     * @return The {@link Throwable} that interrupted the replayed game, {@code null} if it ended
+     */
+    public Throwable failure() {
+        return failure;
+    }
+
+    /**
+     * @return The wall-clock time taken to replay the game, in nanoseconds
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    private static String divergence(GameRecord record, Map<PlayerId, ReplayingPlayer> players,
+                                     RecordingRandom random, Throwable failure) {
+        if (failure instanceof Divergence)
+            return failure.getMessage();
+        if (failure instanceof RecordedFailure && Objects.isNull(record.failedPlayer()))
+            return "a player failed without having failed in the record";
+
+        if (Objects.isNull(record.failedPlayer())) {
+            String replayedFailure = Objects.isNull(failure) ? "" : failure.toString();
+            if (!replayedFailure.equals(record.failure()))
+                return String.format("the game failed with '%s' instead of '%s'", replayedFailure, record.failure());
+        } else if (!(failure instanceof RecordedFailure)) {
+            return String.format("%s did not fail at call %d", record.failedPlayer(), record.failedCall());
+        }
+
+        for (PlayerId playerId : PlayerId.ALL) {
+            String playerDivergence = players.get(playerId).remainder();
+            if (!playerDivergence.isEmpty())
+                return playerDivergence;
+        }
+        if (random.drawCount() != record.randomDrawCount())
+            return String.format("%d random values were drawn instead of %d", random.drawCount(),
+                    record.randomDrawCount());
+
+        return "";
+    }
+
+    /**
+     * A player taking the decisions of its record, and checking the information it receives against it
+     */
+    private static final class ReplayingPlayer implements Player {
+        private final GameRecord record;
+        private final PlayerId playerId;
+        private final BinaryReader decisions;
+        private final int infoCount;
+        private final boolean fails;
+        private int infoIndex;
+        private int decisionIndex;
+        private int callCount;
+
+        /**
+         * A player replaying the given player of the given record
+         *
+         * @param record   The {@link GameRecord} of the game
+         * @param playerId The {@link PlayerId} of the player
+         */
+        private ReplayingPlayer(GameRecord record, PlayerId playerId) {
+            this.record = record;
+            this.playerId = playerId;
+            this.decisions = record.decisions(playerId);
+            this.infoCount = record.infoCount(playerId);
+            this.fails = record.failedPlayer() == playerId;
+        }
+
+        /**
+         * @return The description of the information and decisions of the record the player did not replay, empty if
+         * there is none
+         */
+        private String remainder() {
+            if (infoIndex < infoCount)
+                return String.format("%s received %d information instead of %d", playerId, infoIndex, infoCount);
+            if (decisions.remaining() > 0)
+                return String.format("%s took %d decisions, fewer than recorded", playerId, decisionIndex);
+
+            return "";
+        }
+
+        // Counts a call, failing if it is the one at which the recorded player failed
+        private void call() {
+            if (fails && callCount == record.failedCall())
+                throw new RecordedFailure();
+            callCount++;
+        }
+
+        private void received(String info) {
+            if (infoIndex >= infoCount)
+                throw new Divergence(String.format("%s received more than %d information, the next being '%s'",
+                        playerId, infoCount, info));
+            if (GameRecord.checksum(info) != record.infoChecksum(playerId, infoIndex))
+                throw new Divergence(String.format("%s received '%s' as information %d, which differs from the record",
+                        playerId, info, infoIndex));
+            infoIndex++;
+        }
+
+        private <T> T decided(GameRecord.Decision kind, Serde<T> serde) {
+            call();
+            if (decisions.remaining() == 0)
+                throw new Divergence(String.format("%s was asked for decision %d (%s), beyond the record", playerId,
+                        decisionIndex, kind));
+
+            GameRecord.Decision recordedKind = GameRecord.Decision.ALL.get(decisions.readVarInt());
+            if (recordedKind != kind)
+                throw new Divergence(String.format("%s was asked for decision %d as %s instead of %s", playerId,
+                        decisionIndex, kind, recordedKind));
+            decisionIndex++;
+            return serde.read(decisions);
+        }
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            call();
+        }
+
+        @Override
+        public void receiveInfo(String info) {
+            received(info);
+            call();
+        }
+
+        @Override
+        public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+            received(event.text(playerNames));
+            call();
+        }
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            call();
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            call();
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            return decided(GameRecord.Decision.INITIAL_TICKETS, Serdes.TICKET_SORTED_BAG);
+        }
+
+        @Override
+        public TurnKind nextTurn() {
+            return decided(GameRecord.Decision.TURN_KIND, Serdes.TURN_KIND);
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            return decided(GameRecord.Decision.TICKETS, Serdes.TICKET_SORTED_BAG);
+        }
+
+        @Override
+        public int drawSlot() {
+            return decided(GameRecord.Decision.DRAW_SLOT, Serdes.INTEGER);
+        }
+
+        @Override
+        public Route claimedRoute() {
+            return decided(GameRecord.Decision.CLAIMED_ROUTE, Serdes.ROUTE);
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            return decided(GameRecord.Decision.INITIAL_CLAIM_CARDS, Serdes.CARD_SORTED_BAG);
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            return decided(GameRecord.Decision.ADDITIONAL_CARDS, Serdes.CARD_SORTED_BAG);
+        }
+    }
+}
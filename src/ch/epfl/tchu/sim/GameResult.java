@@ -0,0 +1,153 @@
+package ch.epfl.tchu.sim;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.Trail;
+
+/**
+ * The outcome of a simulated game of tCHu
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ */
+public final class GameResult {
+    private final long seed;
+    private final Map<PlayerId, Integer> scores;
+    private final Map<PlayerId, Integer> ticketCounts;
+    private final Map<PlayerId, Integer> completedTicketCounts;
+    private final List<PlayerId> longestTrailWinners;
+    private final int turnCount;
+    private final Throwable failure;
+
+    private GameResult(long seed, Map<PlayerId, Integer> scores, Map<PlayerId, Integer> ticketCounts,
+                       Map<PlayerId, Integer> completedTicketCounts, List<PlayerId> longestTrailWinners,
+                       int turnCount, Throwable failure) {
+        this.seed = seed;
+        this.scores = Map.copyOf(scores);
+        this.ticketCounts = Map.copyOf(ticketCounts);
+        this.completedTicketCounts = Map.copyOf(completedTicketCounts);
+        this.longestTrailWinners = List.copyOf(longestTrailWinners);
+        this.turnCount = turnCount;
+        this.failure = failure;
+    }
+
+    /**
+     * The result of a game that ended with the given final player states, scored as {@link ch.epfl.tchu.game.Game} does
+     *
+     * @param seed        The seed of the game
+     * @param finalStates The final {@link PlayerState} of every player
+     * @param turnCount   The number of turns played
+     * @return The {@link GameResult} of the game
+     */
+    static GameResult of(long seed, Map<PlayerId, PlayerState> finalStates, int turnCount) {
+        Map<PlayerId, Integer> scores = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, Integer> ticketCounts = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, Integer> completedTicketCounts = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, Integer> longestTrailLengths = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            PlayerState state = finalStates.get(playerId);
+            scores.put(playerId, state.finalPoints());
+            ticketCounts.put(playerId, state.ticketCount());
+            completedTicketCounts.put(playerId, (int) state.tickets().stream()
+                    .filter(t -> t.points(state.connectivity()) > 0)
+                    .count());
+            longestTrailLengths.put(playerId, Trail.longest(state.routes()).length());
+        }
+
+        int longestTrailLength = longestTrailLengths.values().stream().reduce(Integer.MIN_VALUE, Integer::max);
+        List<PlayerId> longestTrailWinners = PlayerId.ALL.stream()
+                .filter(p -> longestTrailLengths.get(p) == longestTrailLength)
+                .collect(Collectors.toList());
+        longestTrailWinners.forEach(p -> scores.merge(p, Constants.LONGEST_TRAIL_BONUS_POINTS, Integer::sum));
+
+        return new GameResult(seed, scores, ticketCounts, completedTicketCounts, longestTrailWinners, turnCount, null);
+    }
+
+    /**
+     * The result of a game that could not be played until its end
+     *
+     * @param seed    The seed of the game
+     * @param failure The {@link Throwable} that interrupted the game
+     * @return The failed {@link GameResult} of the game
+     */
+    static GameResult failed(long seed, Throwable failure) {
+        return new GameResult(seed, Map.of(), Map.of(), Map.of(), List.of(), 0, Objects.requireNonNull(failure));
+    }
+
+    /**
+     * @return The seed from which the game was played
+     */
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * @return True iff. the game was played until its end
+     */
+    public boolean succeeded() {
+        return failure == null;
+    }
+
+    /**
+     * @return The {@link Throwable} that interrupted the game, {@code null} if it succeeded
+     */
+    public Throwable failure() {
+        return failure;
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The final score of the player, longest trail bonus included
+     */
+    public int score(PlayerId playerId) {
+        return scores.get(playerId);
+    }
+
+    /**
+     * @return The {@link List} of {@link PlayerId} of the players with the highest score
+     */
+    public List<PlayerId> winners() {
+        int highestScore = scores.values().stream().reduce(Integer.MIN_VALUE, Integer::max);
+
+        return PlayerId.ALL.stream()
+                .filter(p -> scores.containsKey(p) && scores.get(p) == highestScore)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return The {@link List} of {@link PlayerId} of the players who got the longest trail bonus
+     */
+    public List<PlayerId> longestTrailWinners() {
+        return longestTrailWinners;
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The number of tickets the player kept
+     */
+    public int ticketCount(PlayerId playerId) {
+        return ticketCounts.get(playerId);
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The number of tickets whose stations the player connected
+     */
+    public int completedTicketCount(PlayerId playerId) {
+        return completedTicketCounts.get(playerId);
+    }
+
+    /**
+     * @return The number of turns played by both players
+     */
+    public int turnCount() {
+        return turnCount;
+    }
+}
@@ -0,0 +1,218 @@
+package ch.epfl.tchu.sim;
+
+import java.io.Closeable;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.net.GameServer;
+import ch.epfl.tchu.net.MessageStats;
+import ch.epfl.tchu.net.Protocol;
+import ch.epfl.tchu.net.RemotePlayerClient;
+
+/**
+ * A headless load generator, running more and more remote clients backed by bots against a server, each of them
+ * playing one game after the other, and measuring the games they play and the messages they exchange
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see LoadReport
+ */
+public final class LoadGenerator implements Closeable {
+    // The time a client waits after failing before it connects again, so that it does not spin if the server is down
+    private static final long RETRY_MILLIS = 100;
+    private static final long DRAIN_MILLIS = 10_000;
+
+    private final String host;
+    private final int port;
+    private final Protocol protocol;
+    private final Function<Random, Player> playerFactory;
+    private final SplittableRandom seeds;
+    private final List<Thread> clients;
+    // The measures of the current step, which the clients add the games they end and their errors to
+    private final AtomicReference<Step> step;
+    private volatile boolean stopped;
+
+    /**
+     * The games ended and the errors of the clients during a step
+     */
+    private static final class Step {
+        private final MessageStats stats = new MessageStats();
+        // Every game is ended by both of its clients
+        private final LongAdder clientGames = new LongAdder();
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        private LoadReport report(int clientCount, long elapsedNanos) {
+            Map<String, Integer> errorCounts = errors.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().intValue()));
+            return new LoadReport(clientCount, elapsedNanos, clientGames.intValue() / 2, errorCounts, stats);
+        }
+    }
+
+    /**
+     * A load generator whose clients connect to the given server, without any client until ramped up
+     *
+     * @param host          The server's hostname
+     * @param port          The server's port
+     * @param protocol      The newest {@link Protocol} the clients accept
+     * @param playerFactory The factory of the bot of every game of a client, given a {@link Random} number
+     *                      generator dedicated to it
+     * @param seed          The seed the random number generators of the bots derive from
+     */
+    public LoadGenerator(String host, int port, Protocol protocol, Function<Random, Player> playerFactory, long seed) {
+        this.host = Objects.requireNonNull(host);
+        this.port = port;
+        this.protocol = Objects.requireNonNull(protocol);
+        this.playerFactory = Objects.requireNonNull(playerFactory);
+        this.seeds = new SplittableRandom(seed);
+        this.clients = new ArrayList<>();
+        this.step = new AtomicReference<>(new Step());
+        this.stopped = false;
+    }
+
+    /**
+     * Ramps up random bots against a server, prints the report of every step and then the messages of the last one
+     *
+     * @param args The arguments of the program, i.e. the final number of clients, the number of clients added per
+     *             step, the duration of a step in seconds, the newest protocol the clients accept and the hostname and
+     *             port of the server, a server being started in the process if none is given
+     * @throws InterruptedException If interrupted while ramping up
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int maxClientCount = args.length >= 1 ? Integer.parseInt(args[0]) : 2_000;
+        int clientsPerStep = args.length >= 2 ? Integer.parseInt(args[1]) : 200;
+        long stepMillis = 1_000 * (args.length >= 3 ? Long.parseLong(args[2]) : 10);
+        Protocol protocol = args.length >= 4 ? Protocol.valueOf(args[3]) : Protocol.SESSIONS;
+
+        GameServer server = null;
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+        int port;
+        if (args.length >= 6) {
+            host = args[4];
+            port = Integer.parseInt(args[5]);
+        } else {
+            server = new GameServer(0, protocol);
+            server.start();
+            port = server.port();
+        }
+
+        System.out.printf("Ramping up to %d clients against %s:%d, %d more every %d s%n",
+                maxClientCount, host, port, clientsPerStep, stepMillis / 1_000);
+        LoadReport report = null;
+        try (LoadGenerator generator = new LoadGenerator(host, port, protocol, RandomPlayer::new, 2021)) {
+            for (int clientCount = clientsPerStep; clientCount < maxClientCount + clientsPerStep;
+                 clientCount += clientsPerStep) {
+                report = generator.rampTo(Math.min(clientCount, maxClientCount), stepMillis);
+                System.out.println(report);
+            }
+        }
+        if (!Objects.isNull(report))
+            System.out.print(report.stats());
+        if (!Objects.isNull(server)) {
+            System.out.printf("server: %d games completed, %d failed%n",
+                    server.completedGameCount(), server.failedGameCount());
+            server.close();
+        }
+    }
+
+    /**
+     * @return The number of clients started so far
+     */
+    public int clientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Starts clients until the given number of them are playing and measures them for the given duration
+     *
+     * @param clientCount    The number of clients
+     * @param durationMillis The duration of the step, in milliseconds
+     * @return The {@link LoadReport} of the step
+     * @throws IllegalArgumentException If fewer clients than the ones already started are asked for, or if the
+     *                                  duration is negative
+     * @throws IllegalStateException    If the load generator was closed
+     * @throws InterruptedException     If interrupted while measuring the clients
+     */
+    public LoadReport rampTo(int clientCount, long durationMillis) throws InterruptedException {
+        Preconditions.checkArgument(clientCount >= clients.size() && durationMillis >= 0);
+        if (stopped)
+            throw new IllegalStateException();
+
+        Step current = new Step();
+        step.set(current);
+        long start = System.nanoTime();
+        while (clients.size() < clientCount)
+            startClient(seeds.nextLong());
+        Thread.sleep(durationMillis);
+        // The games ending from now on are not measured until the next step
+        step.set(new Step());
+
+        return current.report(clients.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Stops the clients once they end their game, waiting for them for at most {@value #DRAIN_MILLIS} ms, the ones
+     * still waiting for an opponent then being abandoned
+     */
+    @Override
+    public void close() {
+        stopped = true;
+        long deadline = System.currentTimeMillis() + DRAIN_MILLIS;
+        try {
+            for (Thread client : clients)
+                client.join(Math.max(1, deadline - System.currentTimeMillis()));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void startClient(long seed) {
+        Thread client = new Thread(() -> play(seed), "load-client-" + clients.size());
+        // Never keeps the process alive, as a client waiting for an opponent may never be answered
+        client.setDaemon(true);
+        client.start();
+        clients.add(client);
+    }
+
+    private void play(long seed) {
+        Random rng = new Random(seed);
+        while (!stopped) {
+            // Measured on its own, the game being counted in the step it ends in
+            MessageStats gameStats = new MessageStats();
+            try {
+                Player player = playerFactory.apply(new Random(rng.nextLong()));
+                new RemotePlayerClient(player, host, port, protocol, gameStats).run();
+                Step current = step.get();
+                current.stats.addAll(gameStats);
+                current.clientGames.increment();
+            } catch (RuntimeException exception) {
+                Step current = step.get();
+                current.stats.addAll(gameStats);
+                current.errors.computeIfAbsent(nameOf(exception), name -> new LongAdder()).increment();
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException interruptedException) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // The name of the deepest cause of the exception, e.g. ConnectException rather than UncheckedIOException
+    private static String nameOf(Throwable exception) {
+        while (!Objects.isNull(exception.getCause()))
+            exception = exception.getCause();
+        return exception.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,108 @@
+package ch.epfl.tchu.sim;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import ch.epfl.tchu.net.LatencyHistogram;
+import ch.epfl.tchu.net.MessageStats;
+
+/**
+ * The measures of a step of a {@link LoadGenerator}, during which a given number of clients played against a server
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see LoadGenerator
+ */
+public final class LoadReport {
+    private final int clientCount;
+    private final long elapsedNanos;
+    private final int gameCount;
+    private final Map<String, Integer> errors;
+    private final MessageStats stats;
+    private final LatencyHistogram latency;
+
+    /**
+     * A report on the games the clients played during a step
+     *
+     * @param clientCount  The number of clients playing during the step
+     * @param elapsedNanos The wall-clock duration of the step, in nanoseconds
+     * @param gameCount    The number of games that ended during the step
+     * @param errors       The number of clients that failed during the step, per kind of error
+     * @param stats        The {@link MessageStats} of the messages of the games that ended during the step
+     */
+    LoadReport(int clientCount, long elapsedNanos, int gameCount, Map<String, Integer> errors, MessageStats stats) {
+        this.clientCount = clientCount;
+        this.elapsedNanos = elapsedNanos;
+        this.gameCount = gameCount;
+        this.errors = Map.copyOf(errors);
+        this.stats = stats;
+        this.latency = stats.histogram(MessageStats.Timing.RESPONSE);
+    }
+
+    /**
+     * @return The number of clients playing during the step
+     */
+    public int clientCount() {
+        return clientCount;
+    }
+
+    /**
+     * @return The number of games that ended during the step
+     */
+    public int gameCount() {
+        return gameCount;
+    }
+
+    /**
+     * @return The number of games that ended per minute of wall-clock time
+     */
+    public double gamesPerMinute() {
+        return elapsedNanos == 0 ? 0 : gameCount / (elapsedNanos / 60e9);
+    }
+
+    /**
+     * @return The number of clients that failed during the step, e.g. because they could not connect
+     */
+    public int errorCount() {
+        return errors.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * @return The number of clients that failed during the step, per simple name of the exception that made them fail
+     */
+    public Map<String, Integer> errors() {
+        return errors;
+    }
+
+    /**
+     * @return The {@link MessageStats} of the messages of the games that ended during the step, from their start
+     */
+    public MessageStats stats() {
+        return stats;
+    }
+
+    /**
+     * The latency of the messages, i.e. the time the server took to send the clients their next message once they
+     * replied, which includes the time their opponents took to play
+     *
+     * @return The {@link LatencyHistogram} of the latencies, in nanoseconds
+     * @see MessageStats.Timing#RESPONSE
+     */
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    /**
+     * The textual summary of the report
+     *
+     * @return The textual summary of the report, on a single line
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%6d clients %8.1f games/min %7d games   latency p50 %7.2f ms p99 %8.2f ms"
+                        + "   %d errors %s", clientCount, gamesPerMinute(), gameCount,
+                latency.valueAtPercentile(50) / 1e6, latency.valueAtPercentile(99) / 1e6, errorCount(),
+                errors.isEmpty() ? "" : new TreeMap<>(errors));
+    }
+}
@@ -0,0 +1,483 @@
+package ch.epfl.tchu.sim;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.GameEvent;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicCardState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.PublicPlayerState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.SimulationState;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * A headless player searching its decisions with an information set Monte Carlo tree search, every iteration playing
+ * a game whose hidden cards and tickets are dealt at random among the ones the player does not see
+ * <p>
+ * The search of a decision stops at the first of its budgets, a number of iterations and a duration, and is split
+ * between independent trees searched at the same time, whose visits of the moves of the decision are added up.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see Playout
+ */
+public final class MonteCarloPlayer implements Player {
+    private static final int DEFAULT_ITERATIONS = 10_000;
+    private static final long DEFAULT_MILLIS = 1_000;
+    private static final double EXPLORATION = 0.7;
+    private static final int MAX_ROLLOUT_TURNS = 500;
+    private static final int INITIAL_KEPT_TICKETS = 3;
+    private static final int NO_MOVE = -1;
+
+    // The searches of all the players, whose threads never keep the process alive
+    private static final ExecutorService SEARCHERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "monte-carlo-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int iterations;
+    private final long budgetNanos;
+    private final int parallelism;
+    private final Random rng;
+    private final AtomicLong iterationCount;
+    private final AtomicLong searchNanos;
+
+    private PlayerId ownId;
+    private PublicGameState gameState;
+    private PlayerState ownState;
+    // The tickets the player saw being left out of the deck, which the determinizations never deal
+    private final SortedBag.Builder<Ticket> discardedTickets;
+    private SortedBag<Ticket> initialTickets;
+    private GameEvent lastAdditionalCards;
+
+    // The decisions of the turn found by the search of nextTurn
+    private int slotToDraw;
+    private Route routeToClaim;
+    private SortedBag<Card> initialClaimCards;
+
+    /**
+     * The decision searched, i.e. what the player knows of the game when taking it
+     */
+    private static final class Decision {
+        private final PublicGameState gameState;
+        private final PlayerId ownId;
+        private final PlayerState ownState;
+        private final SortedBag<Ticket> tickets;
+        private final SortedBag<Ticket> topTickets;
+        private final SortedBag<Card> discardedCards;
+        private final Playout.Phase phase;
+        // The tunnel whose additional cards are drawn, in Phase#PAY_TUNNEL
+        private final int route;
+        private final SortedBag<Card> initialCards;
+        private final int additionalCardsCount;
+
+        private Decision(PublicGameState gameState, PlayerId ownId, PlayerState ownState, SortedBag<Ticket> tickets,
+                         SortedBag<Ticket> topTickets, SortedBag<Card> discardedCards, Playout.Phase phase,
+                         int route, SortedBag<Card> initialCards, int additionalCardsCount) {
+            this.gameState = gameState;
+            this.ownId = ownId;
+            this.ownState = ownState;
+            this.tickets = tickets;
+            this.topTickets = topTickets;
+            this.discardedCards = discardedCards;
+            this.phase = phase;
+            this.route = route;
+            this.initialCards = initialCards;
+            this.additionalCardsCount = additionalCardsCount;
+        }
+
+        // A playout of a random determinization of the decision
+        private Playout sample(Random rng) {
+            SimulationState state = SimulationState.sampled(gameState, ownId, ownState, tickets, topTickets,
+                    discardedCards, rng);
+
+            return phase == Playout.Phase.PAY_TUNNEL
+                    ? new Playout(state, route, initialCards, additionalCardsCount, rng)
+                    : new Playout(state, phase, rng);
+        }
+    }
+
+    /**
+     * A node of a search tree, i.e. a move and the statistics of the iterations that played it
+     */
+    private static final class Node {
+        private final int move;
+        private final PlayerId playerId;
+        private final List<Node> children = new ArrayList<>();
+        private int visits;
+        // The sum of the rewards of the player who played the move
+        private double reward;
+        // The number of iterations in which the move was legal, in place of the visits of the parent
+        private int availability;
+
+        private Node(int move, PlayerId playerId) {
+            this.move = move;
+            this.playerId = playerId;
+        }
+
+        private Node child(int move) {
+            for (Node child : children) {
+                if (child.move == move)
+                    return child;
+            }
+
+            return null;
+        }
+
+        private double value() {
+            return reward / visits + EXPLORATION * Math.sqrt(Math.log(availability) / visits);
+        }
+    }
+
+    /**
+     * A player searching every decision with {@value #DEFAULT_ITERATIONS} iterations or for {@value #DEFAULT_MILLIS}
+     * ms, on every processor
+     *
+     * @param rng The {@link Random} number generator of the player
+     */
+    public MonteCarloPlayer(Random rng) {
+        this(DEFAULT_ITERATIONS, DEFAULT_MILLIS, Runtime.getRuntime().availableProcessors(), rng);
+    }
+
+    /**
+     * A player searching every decision with the given budgets
+     *
+     * @param iterations  The number of iterations of a decision, split between the trees
+     * @param millis      The duration of the search of a decision, in milliseconds
+     * @param parallelism The number of trees searched at the same time
+     * @param rng         The {@link Random} number generator of the player, the searches being deterministic if they
+     *                    stop at their number of iterations
+     * @throws IllegalArgumentException If a budget or {@code parallelism} is not strictly positive
+     */
+    public MonteCarloPlayer(int iterations, long millis, int parallelism, Random rng) {
+        Preconditions.checkArgument(iterations > 0 && millis > 0 && parallelism > 0);
+
+        this.iterations = iterations;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        this.parallelism = parallelism;
+        this.rng = Objects.requireNonNull(rng);
+        this.iterationCount = new AtomicLong();
+        this.searchNanos = new AtomicLong();
+        this.discardedTickets = new SortedBag.Builder<>();
+        this.slotToDraw = NO_MOVE;
+    }
+
+    /**
+     * Plays games of this player against a random one and prints the report and the speed of the searches
+     *
+     * @param args The arguments of the program, i.e. the number of games, the number of iterations and the duration
+     *             in milliseconds of the search of a decision, and the root seed
+     */
+    public static void main(String[] args) {
+        int gameCount = args.length >= 1 ? Integer.parseInt(args[0]) : 20;
+        int iterations = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_ITERATIONS;
+        long millis = args.length >= 3 ? Long.parseLong(args[2]) : DEFAULT_MILLIS;
+        long rootSeed = args.length >= 4 ? Long.parseLong(args[3]) : 2021;
+
+        List<MonteCarloPlayer> players = new ArrayList<>();
+        Simulator simulator = new Simulator((id, rng) -> {
+            if (id != PlayerId.PLAYER_1)
+                return new RandomPlayer(rng);
+
+            MonteCarloPlayer player = new MonteCarloPlayer(iterations, millis,
+                    Runtime.getRuntime().availableProcessors(), rng);
+            synchronized (players) {
+                players.add(player);
+            }
+            return player;
+        }, 1);
+        System.out.print(simulator.run(Simulator.seeds(rootSeed, gameCount)));
+
+        long iterationCount = players.stream().mapToLong(MonteCarloPlayer::iterationCount).sum();
+        long searchNanos = players.stream().mapToLong(MonteCarloPlayer::searchNanos).sum();
+        System.out.printf("%s: %d iterations in %.1f s, %.0f iterations/s%n", PlayerId.PLAYER_1, iterationCount,
+                searchNanos / 1e9, iterationCount * 1e9 / Math.max(1, searchNanos));
+    }
+
+    /**
+     * @return The number of iterations of all the searches of the player so far
+     */
+    public long iterationCount() {
+        return iterationCount.get();
+    }
+
+    /**
+     * @return The time spent by the player searching its decisions so far, in nanoseconds
+     */
+    public long searchNanos() {
+        return searchNanos.get();
+    }
+
+    /**
+     * @return The number of iterations per second of the searches of the player so far, {@code 0} if it did not
+     * search yet
+     */
+    public double iterationsPerSecond() {
+        long nanos = searchNanos();
+
+        return nanos == 0 ? 0 : iterationCount() * 1e9 / nanos;
+    }
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+        this.ownId = ownId;
+    }
+
+    @Override
+    public void receiveInfo(String info) {
+    }
+
+    @Override
+    public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+        // The additional cards of its tunnel are the only discarded cards the player keeps track of
+        if (event.kind() == GameEvent.Kind.DREW_ADDITIONAL_CARDS && event.playerId() == ownId)
+            lastAdditionalCards = event;
+    }
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        this.gameState = newState;
+        this.ownState = ownState;
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        this.initialTickets = tickets;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        // Keeps the tickets losing the fewest points if they are not completed
+        List<Ticket> tickets = new ArrayList<>(initialTickets.toList());
+        tickets.sort(Comparator.comparingInt(t -> -t.points((s1, s2) -> false)));
+        SortedBag<Ticket> chosen = SortedBag.of(tickets.subList(0, Math.min(INITIAL_KEPT_TICKETS, tickets.size())));
+        discardedTickets.add(initialTickets.difference(chosen));
+
+        return chosen;
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        slotToDraw = NO_MOVE;
+        Decision decision = decision(gameState, SortedBag.of(), SortedBag.of(), Playout.Phase.TURN);
+        int move = search(decision);
+
+        if (move == NO_MOVE)
+            return gameState.canDrawCards() || !gameState.canDrawTickets() ? TurnKind.DRAW_CARDS : TurnKind.DRAW_TICKETS;
+        if (move == Playout.DRAW_TICKETS)
+            return TurnKind.DRAW_TICKETS;
+        if (move < Playout.CLAIM_ROUTE) {
+            slotToDraw = move - Playout.DRAW_CARD - 1;
+            return TurnKind.DRAW_CARDS;
+        }
+
+        int route = move - Playout.CLAIM_ROUTE;
+        routeToClaim = ChMap.routes().get(route);
+        initialClaimCards = decision.sample(rng).claimCards(route);
+        return TurnKind.CLAIM_ROUTE;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        int mask = search(decision(gameState, options, SortedBag.of(), Playout.Phase.KEEP_TICKETS));
+        if (mask == NO_MOVE)
+            mask = 1;
+
+        SortedBag.Builder<Ticket> chosen = new SortedBag.Builder<>();
+        for (int i = 0; i < options.size(); i++) {
+            if ((mask & (1 << i)) != 0)
+                chosen.add(options.get(i));
+        }
+        SortedBag<Ticket> chosenTickets = chosen.build();
+        discardedTickets.add(options.difference(chosenTickets));
+
+        return chosenTickets;
+    }
+
+    @Override
+    public int drawSlot() {
+        // The first card is the one chosen by the search of the turn, the second one is searched once it is drawn
+        if (slotToDraw != NO_MOVE) {
+            int slot = slotToDraw;
+            slotToDraw = NO_MOVE;
+            return slot;
+        }
+
+        int move = search(decision(gameState, SortedBag.of(), SortedBag.of(), Playout.Phase.SECOND_DRAW));
+        return move == NO_MOVE ? Constants.DECK_SLOT : move - Playout.DRAW_CARD - 1;
+    }
+
+    @Override
+    public Route claimedRoute() {
+        return routeToClaim;
+    }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() {
+        return initialClaimCards;
+    }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        // The clients of the protocols older than events are not told which cards were drawn
+        if (Objects.isNull(lastAdditionalCards))
+            return options.get(0);
+
+        // The state was last updated before the additional cards were drawn from the deck, then discarded
+        PublicCardState cardState = gameState.cardState();
+        int deckSize = cardState.deckSize();
+        int discardsSize = cardState.discardsSize();
+        if (deckSize >= Constants.ADDITIONAL_TUNNEL_CARDS) {
+            deckSize -= Constants.ADDITIONAL_TUNNEL_CARDS;
+            discardsSize += Constants.ADDITIONAL_TUNNEL_CARDS;
+        } else {
+            discardsSize -= Constants.ADDITIONAL_TUNNEL_CARDS - deckSize;
+            deckSize = discardsSize;
+            discardsSize = Constants.ADDITIONAL_TUNNEL_CARDS;
+        }
+        Map<PlayerId, PublicPlayerState> playerStates = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL)
+            playerStates.put(playerId, gameState.playerState(playerId));
+        PublicGameState drawnState = new PublicGameState(gameState.ticketsCount(),
+                new PublicCardState(cardState.faceUpCards(), deckSize, discardsSize), gameState.currentPlayerId(),
+                playerStates, gameState.lastPlayer(), gameState.gameEnded());
+
+        Decision decision = new Decision(drawnState, ownId, ownState, unseenTickets(), SortedBag.of(),
+                lastAdditionalCards.cards(), Playout.Phase.PAY_TUNNEL, SimulationState.routeIndex(routeToClaim),
+                initialClaimCards, lastAdditionalCards.count());
+        lastAdditionalCards = null;
+
+        return search(decision) == Playout.PAY ? options.get(0) : SortedBag.of();
+    }
+
+    // The tickets the determinizations deal, i.e. all of them but the ones the player saw being left out
+    private SortedBag<Ticket> unseenTickets() {
+        return SortedBag.of(ChMap.tickets()).difference(discardedTickets.build());
+    }
+
+    private Decision decision(PublicGameState gameState, SortedBag<Ticket> topTickets,
+                              SortedBag<Card> discardedCards, Playout.Phase phase) {
+        return new Decision(gameState, ownId, ownState, unseenTickets(), topTickets, discardedCards, phase,
+                0, null, 0);
+    }
+
+    // The most visited move of the root of the trees, NO_MOVE if the player cannot move
+    private int search(Decision decision) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        List<Future<Node>> searches = new ArrayList<>();
+        for (int i = 0; i < parallelism; i++) {
+            int treeIterations = iterations / parallelism + (i < iterations % parallelism ? 1 : 0);
+            Random treeRng = new Random(rng.nextLong());
+            if (treeIterations > 0)
+                searches.add(SEARCHERS.submit(() -> searchTree(decision, treeIterations, deadline, treeRng)));
+        }
+
+        Map<Integer, Integer> visits = new TreeMap<>();
+        try {
+            for (Future<Node> search : searches) {
+                Node root = search.get();
+                iterationCount.addAndGet(root.visits);
+                for (Node child : root.children)
+                    visits.merge(child.move, child.visits, Integer::sum);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        } finally {
+            searchNanos.addAndGet(System.nanoTime() - start);
+        }
+
+        int bestMove = NO_MOVE;
+        int bestVisits = 0;
+        for (Map.Entry<Integer, Integer> entry : visits.entrySet()) {
+            if (entry.getValue() > bestVisits) {
+                bestMove = entry.getKey();
+                bestVisits = entry.getValue();
+            }
+        }
+
+        return bestMove;
+    }
+
+    // Searches a tree until it has the given number of iterations or the deadline is reached, at least once
+    private static Node searchTree(Decision decision, int iterations, long deadline, Random rng) {
+        Node root = new Node(NO_MOVE, decision.ownId);
+        int[] moves = new int[Playout.MAX_MOVE_COUNT];
+        List<Node> path = new ArrayList<>();
+        do {
+            iterate(root, decision.sample(rng), moves, path, rng);
+        } while (root.visits < iterations && System.nanoTime() < deadline);
+
+        return root;
+    }
+
+    // Selects the moves of a determinization down the tree, expands it by one move, rolls out and backs the reward up
+    private static void iterate(Node root, Playout playout, int[] moves, List<Node> path, Random rng) {
+        path.clear();
+        Node node = root;
+        while (!playout.isOver()) {
+            int count = playout.legalMoves(moves);
+            if (count == 0)
+                break;
+
+            // The moves that are not in the tree yet are moved to the front of the array
+            int untriedCount = 0;
+            Node best = null;
+            for (int i = 0; i < count; i++) {
+                Node child = node.child(moves[i]);
+                if (Objects.isNull(child)) {
+                    moves[untriedCount++] = moves[i];
+                } else {
+                    child.availability++;
+                    if (Objects.isNull(best) || child.value() > best.value())
+                        best = child;
+                }
+            }
+
+            PlayerId mover = playout.mover();
+            if (untriedCount > 0) {
+                Node child = new Node(moves[rng.nextInt(untriedCount)], mover);
+                child.availability = 1;
+                node.children.add(child);
+                playout.play(child.move);
+                path.add(child);
+                break;
+            }
+            playout.play(best.move);
+            path.add(best);
+            node = best;
+        }
+
+        playout.rollout(MAX_ROLLOUT_TURNS);
+        root.visits++;
+        for (Node visited : path) {
+            visited.visits++;
+            visited.reward += playout.reward(visited.playerId);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ch.epfl.tchu.sim;
+
+import java.util.List;
+import java.util.Map;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.GameEvent;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * A player that forwards every call to another one while keeping track of the last states it received and of its turns
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see ch.epfl.tchu.game.Player
+ */
+final class ObservedPlayer implements Player {
+    private final Player player;
+    private final int maxTurns;
+    private PublicGameState lastGameState;
+    private PlayerState lastOwnState;
+    private int turnCount;
+
+    /**
+     * An observed player
+     *
+     * @param player   The observed {@link Player}
+     * @param maxTurns The number of turns after which the game is considered stuck and aborted
+     */
+    ObservedPlayer(Player player, int maxTurns) {
+        this.player = player;
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * @return The last {@link PublicGameState} the player received, {@code null} if none
+     */
+    PublicGameState lastGameState() {
+        return lastGameState;
+    }
+
+    /**
+     * @return The last {@link PlayerState} the player received, {@code null} if none
+     */
+    PlayerState lastOwnState() {
+        return lastOwnState;
+    }
+
+    /**
+     * @return The number of turns the player played
+     */
+    int turnCount() {
+        return turnCount;
+    }
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+        player.initPlayers(ownId, playerNames);
+    }
+
+    @Override
+    public void receiveInfo(String info) {
+        player.receiveInfo(info);
+    }
+
+    @Override
+    public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+        player.receiveEvent(event, playerNames);
+    }
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        lastGameState = newState;
+        lastOwnState = ownState;
+        player.updateState(newState, ownState);
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        player.setInitialTicketChoice(tickets);
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        return player.chooseInitialTickets();
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        if (++turnCount > maxTurns)
+            throw new IllegalStateException("The game did not end after " + maxTurns + " turns");
+
+        return player.nextTurn();
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        return player.chooseTickets(options);
+    }
+
+    @Override
+    public int drawSlot() {
+        return player.drawSlot();
+    }
+
+    @Override
+    public Route claimedRoute() {
+        return player.claimedRoute();
+    }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() {
+        return player.initialClaimCards();
+    }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        return player.chooseAdditionalCards(options);
+    }
+}
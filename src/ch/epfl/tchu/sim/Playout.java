@@ -0,0 +1,385 @@
+package ch.epfl.tchu.sim;
+
+import java.util.Objects;
+import java.util.Random;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.SimulationState;
+
+/**
+ * A game of tCHu played on a {@link SimulationState} one decision at a time, every decision of a player being a move
+ * encoded as an integer
+ * <p>
+ * A turn is made of one or two decisions: drawing tickets is followed by choosing which ones to keep, drawing a card
+ * by drawing a second one, and claiming a tunnel that requires additional cards by paying them or giving up. Claims
+ * are made with a single set of cards, the one of {@link #claimCards(int)}.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see MonteCarloPlayer
+ */
+final class Playout {
+    /**
+     * The decision a player is about to take
+     */
+    enum Phase {
+        TURN, SECOND_DRAW, KEEP_TICKETS, PAY_TUNNEL
+    }
+
+    private static final int ROUTE_COUNT = ChMap.routes().size();
+    private static final boolean[] TUNNELS = computeTunnels();
+
+    /**
+     * The move of drawing tickets, in {@link Phase#TURN}
+     */
+    static final int DRAW_TICKETS = 0;
+    /**
+     * The move of drawing the card of {@link Constants#DECK_SLOT}, in {@link Phase#TURN} or {@link Phase#SECOND_DRAW},
+     * the one of a face-up card being {@code DRAW_CARD + 1 + slot}
+     */
+    static final int DRAW_CARD = 1;
+    /**
+     * The move of claiming the first route of {@link ChMap#routes()}, in {@link Phase#TURN}, the one of another route
+     * being {@code CLAIM_ROUTE + index}
+     */
+    static final int CLAIM_ROUTE = DRAW_CARD + 1 + Constants.FACE_UP_CARDS_COUNT;
+    /**
+     * The move of giving up a tunnel, in {@link Phase#PAY_TUNNEL}, the moves of {@link Phase#KEEP_TICKETS} being the
+     * non-empty masks of the kept tickets as in {@link SimulationState#keepAdditionalTickets(int)}
+     */
+    static final int GIVE_UP = 0;
+    /**
+     * The move of paying the additional cards of a tunnel with the fewest locomotives, in {@link Phase#PAY_TUNNEL}
+     */
+    static final int PAY = 1;
+    /**
+     * The maximum number of moves of a decision
+     */
+    static final int MAX_MOVE_COUNT = CLAIM_ROUTE + ROUTE_COUNT;
+
+    private static final int MIN_CARD_COUNT = 10;
+
+    private final SimulationState state;
+    private final Random rng;
+    private final int[] moves;
+    private Phase phase;
+    private int turnCount;
+    private boolean stalled;
+
+    // The claim attempted by the current player, set by claimCards and kept while they decide to pay for it
+    private int claimedRoute;
+    private Card claimCard;
+    private int claimCardCount;
+    private int claimLocomotiveCount;
+    private int additionalCardsCount;
+
+    // The final points of every player, with the longest trail bonus, computed once the playout is over
+    private final int[] points;
+    private boolean scored;
+
+    /**
+     * A playout of the given state, whose current player is about to take a decision of the given phase
+     *
+     * @param state The {@link SimulationState} played, which is modified in place
+     * @param phase The {@link Phase} of the first decision, which may not be {@link Phase#PAY_TUNNEL}
+     * @param rng   The {@link Random} number generator of the rollouts and of the cards drawn
+     * @throws IllegalArgumentException If {@code phase} is {@link Phase#PAY_TUNNEL}
+     * @see #Playout(SimulationState, int, SortedBag, int, Random)
+     */
+    Playout(SimulationState state, Phase phase, Random rng) {
+        Preconditions.checkArgument(phase != Phase.PAY_TUNNEL);
+
+        this.state = state;
+        this.rng = rng;
+        this.moves = new int[MAX_MOVE_COUNT];
+        this.phase = phase;
+        this.points = new int[PlayerId.COUNT];
+    }
+
+    /**
+     * A playout of the given state, whose current player decides whether to pay the additional cards of the tunnel
+     * they attempted to claim
+     *
+     * @param state                The {@link SimulationState} played, whose additional cards are already drawn
+     * @param route                The index of the tunnel in {@link ChMap#routes()}
+     * @param initialCards         The {@link SortedBag} of {@link Card} the player attempted to claim it with
+     * @param additionalCardsCount The number of additional cards to pay
+     * @param rng                  The {@link Random} number generator of the rollouts and of the cards drawn
+     */
+    Playout(SimulationState state, int route, SortedBag<Card> initialCards, int additionalCardsCount, Random rng) {
+        this(state, Phase.TURN, rng);
+        this.phase = Phase.PAY_TUNNEL;
+        this.claimedRoute = route;
+        this.claimCard = initialCards.get(0);
+        this.claimCardCount = claimCard == Card.LOCOMOTIVE ? 0 : initialCards.countOf(claimCard);
+        this.claimLocomotiveCount = initialCards.countOf(Card.LOCOMOTIVE);
+        this.additionalCardsCount = additionalCardsCount;
+    }
+
+    /**
+     * @return The {@link Phase} of the next decision
+     */
+    Phase phase() {
+        return phase;
+    }
+
+    /**
+     * @return The {@link PlayerId} of the player taking the next decision
+     */
+    PlayerId mover() {
+        return state.currentPlayerId();
+    }
+
+    /**
+     * @return True iff. the game ended, or stopped because a player could not move or it lasted too long
+     */
+    boolean isOver() {
+        return state.gameEnded() || stalled;
+    }
+
+    /**
+     * Writes the legal moves of the next decision into the given array
+     *
+     * @param legalMoves The array of at least {@link #MAX_MOVE_COUNT} moves
+     * @return The number of legal moves, zero if the current player cannot move
+     */
+    int legalMoves(int[] legalMoves) {
+        int count = 0;
+        switch (phase) {
+            case TURN:
+                if (state.ticketsCount() >= Constants.IN_GAME_TICKETS_COUNT)
+                    legalMoves[count++] = DRAW_TICKETS;
+                if (state.canDrawCards())
+                    count = addDrawMoves(legalMoves, count);
+                // Tunnels are only claimed if the additional cards can be drawn, Game#play failing otherwise
+                boolean canDrawAdditionalCards =
+                        state.deckSize() + state.discardsSize() >= Constants.ADDITIONAL_TUNNEL_CARDS;
+                for (int route = 0; route < ROUTE_COUNT; route++) {
+                    if (state.canClaimRoute(route) && (canDrawAdditionalCards || !TUNNELS[route]))
+                        legalMoves[count++] = CLAIM_ROUTE + route;
+                }
+                return count;
+            case SECOND_DRAW:
+                return state.deckSize() + state.discardsSize() > 0 ? addDrawMoves(legalMoves, count) : 0;
+            case KEEP_TICKETS:
+                for (int mask = 1; mask < 1 << Constants.IN_GAME_TICKETS_COUNT; mask++)
+                    legalMoves[count++] = mask;
+                return count;
+            case PAY_TUNNEL:
+                legalMoves[count++] = GIVE_UP;
+                if (canPayAdditionalCards())
+                    legalMoves[count++] = PAY;
+                return count;
+            default:
+                throw new Error();
+        }
+    }
+
+    /**
+     * Makes the current player take the given decision
+     *
+     * @param move The move, which must be legal
+     */
+    void play(int move) {
+        switch (phase) {
+            case TURN:
+                if (move == DRAW_TICKETS) {
+                    phase = Phase.KEEP_TICKETS;
+                } else if (move < CLAIM_ROUTE) {
+                    state.drawCard(move - DRAW_CARD - 1, rng);
+                    phase = Phase.SECOND_DRAW;
+                } else {
+                    claimRoute(move - CLAIM_ROUTE);
+                }
+                break;
+            case SECOND_DRAW:
+                state.drawCard(move - DRAW_CARD - 1, rng);
+                endTurn();
+                break;
+            case KEEP_TICKETS:
+                state.keepAdditionalTickets(move);
+                endTurn();
+                break;
+            case PAY_TUNNEL:
+                if (move == PAY) {
+                    int locomotiveCount = Math.min(additionalCardsCount, claimCard == Card.LOCOMOTIVE
+                            ? additionalCardsCount
+                            : Math.max(0, additionalCardsCount - remainingCardCount(claimCard, claimCardCount)));
+                    state.claimRoute(claimedRoute, claimCard, claimCardCount + additionalCardsCount - locomotiveCount,
+                            claimLocomotiveCount + locomotiveCount);
+                }
+                endTurn();
+                break;
+            default:
+                throw new Error();
+        }
+    }
+
+    /**
+     * Plays random moves until the playout is over, claiming routes rather than drawing cards once the current player
+     * has {@value #MIN_CARD_COUNT} cards, drawing tickets only if nothing else is possible and keeping a single one
+     *
+     * @param maxTurns The number of turns after which the playout stops even if the game did not end
+     */
+    void rollout(int maxTurns) {
+        while (!isOver()) {
+            int count = legalMoves(moves);
+            if (count == 0 || turnCount >= maxTurns) {
+                stalled = true;
+                return;
+            }
+            play(rolloutMove(count));
+        }
+    }
+
+    /**
+     * The reward of the given player once the playout is over, as if the game had ended in its current state
+     *
+     * @param playerId The {@link PlayerId} of the player
+     * @return {@code 1} if the player has strictly more points than the others, {@code 0.5} for a draw, {@code 0}
+     * otherwise
+     */
+    double reward(PlayerId playerId) {
+        if (!scored)
+            score();
+
+        int own = points[playerId.ordinal()];
+        double reward = 1;
+        for (int p = 0; p < PlayerId.COUNT; p++) {
+            if (p != playerId.ordinal() && points[p] > own)
+                return 0;
+            if (p != playerId.ordinal() && points[p] == own)
+                reward = 0.5;
+        }
+
+        return reward;
+    }
+
+    /**
+     * The cards the current player claims the given route with, i.e. the fewest locomotives and then the car cards of
+     * which they have the most
+     *
+     * @param route The index of the {@link Route} in {@link ChMap#routes()}, which the player can claim
+     * @return The {@link SortedBag} of {@link Card} of the claim
+     */
+    SortedBag<Card> claimCards(int route) {
+        selectClaimCards(route);
+
+        return claimCard == Card.LOCOMOTIVE
+                ? SortedBag.of(claimLocomotiveCount, Card.LOCOMOTIVE)
+                : SortedBag.of(claimCardCount, claimCard, claimLocomotiveCount, Card.LOCOMOTIVE);
+    }
+
+    private int addDrawMoves(int[] legalMoves, int count) {
+        for (int slot = Constants.DECK_SLOT; slot < Constants.FACE_UP_CARDS_COUNT; slot++)
+            legalMoves[count++] = DRAW_CARD + 1 + slot;
+
+        return count;
+    }
+
+    private void claimRoute(int route) {
+        selectClaimCards(route);
+        if (!TUNNELS[route]) {
+            state.claimRoute(route, claimCard, claimCardCount, claimLocomotiveCount);
+            endTurn();
+            return;
+        }
+
+        claimedRoute = route;
+        additionalCardsCount = state.drawAdditionalCards(claimCard, rng);
+        if (additionalCardsCount == 0) {
+            state.claimRoute(route, claimCard, claimCardCount, claimLocomotiveCount);
+            endTurn();
+        } else if (canPayAdditionalCards()) {
+            phase = Phase.PAY_TUNNEL;
+        } else {
+            endTurn();
+        }
+    }
+
+    private void selectClaimCards(int route) {
+        Route claimed = ChMap.routes().get(route);
+        PlayerId playerId = state.currentPlayerId();
+        Card best = Card.LOCOMOTIVE;
+        int bestCount = 0;
+        for (Card card : Card.CARS) {
+            int count = state.cardCount(playerId, card);
+            if ((Objects.isNull(claimed.color()) || card.color() == claimed.color()) && count > bestCount) {
+                best = card;
+                bestCount = count;
+            }
+        }
+
+        claimCard = best;
+        claimCardCount = Math.min(bestCount, claimed.length());
+        claimLocomotiveCount = claimed.length() - claimCardCount;
+    }
+
+    // The number of cards of the given type the current player has beyond the ones of the attempted claim
+    private int remainingCardCount(Card card, int usedCount) {
+        return state.cardCount(state.currentPlayerId(), card) - usedCount;
+    }
+
+    private boolean canPayAdditionalCards() {
+        int locomotives = remainingCardCount(Card.LOCOMOTIVE, claimLocomotiveCount);
+
+        return claimCard == Card.LOCOMOTIVE
+                ? locomotives >= additionalCardsCount
+                : remainingCardCount(claimCard, claimCardCount) + locomotives >= additionalCardsCount;
+    }
+
+    private int rolloutMove(int count) {
+        switch (phase) {
+            case TURN:
+                int firstClaim = 0;
+                while (firstClaim < count && moves[firstClaim] < CLAIM_ROUTE)
+                    firstClaim++;
+                int firstDraw = count > 0 && moves[0] == DRAW_TICKETS ? 1 : 0;
+                boolean canClaim = firstClaim < count;
+                boolean canDraw = firstDraw < firstClaim;
+                if (canClaim && (!canDraw || state.cardCount(state.currentPlayerId()) >= MIN_CARD_COUNT
+                        || rng.nextBoolean()))
+                    return moves[firstClaim + rng.nextInt(count - firstClaim)];
+                if (canDraw)
+                    return moves[firstDraw + rng.nextInt(firstClaim - firstDraw)];
+                return DRAW_TICKETS;
+            case KEEP_TICKETS:
+                return 1 << rng.nextInt(Constants.IN_GAME_TICKETS_COUNT);
+            case PAY_TUNNEL:
+                return moves[count - 1];
+            default:
+                return moves[rng.nextInt(count)];
+        }
+    }
+
+    private void endTurn() {
+        phase = Phase.TURN;
+        turnCount++;
+        state.endTurn();
+    }
+
+    private static boolean[] computeTunnels() {
+        boolean[] tunnels = new boolean[ROUTE_COUNT];
+        for (int route = 0; route < ROUTE_COUNT; route++)
+            tunnels[route] = ChMap.routes().get(route).level() == Route.Level.UNDERGROUND;
+
+        return tunnels;
+    }
+
+    private void score() {
+        int longest = 0;
+        for (PlayerId playerId : PlayerId.ALL)
+            longest = Math.max(longest, state.longestTrailLength(playerId));
+        for (PlayerId playerId : PlayerId.ALL) {
+            points[playerId.ordinal()] = state.finalPoints(playerId)
+                    + (state.longestTrailLength(playerId) == longest ? Constants.LONGEST_TRAIL_BONUS_POINTS : 0);
+        }
+        scored = true;
+    }
+}
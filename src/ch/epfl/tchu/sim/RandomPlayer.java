@@ -0,0 +1,150 @@
+package ch.epfl.tchu.sim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Constants;
+import ch.epfl.tchu.game.GameEvent;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * A headless player that plays random legal moves
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see ch.epfl.tchu.game.Player
+ */
+public final class RandomPlayer implements Player {
+    private static final int MIN_CARD_COUNT = 10;
+    private static final int DRAW_TICKETS_ODDS = 20;
+    private static final int INITIAL_KEPT_TICKETS = 3;
+
+    private final Random rng;
+    private SortedBag<Ticket> initialTickets;
+    private PublicGameState gameState;
+    private PlayerState ownState;
+    private Route routeToClaim;
+    private SortedBag<Card> initialClaimCards;
+
+    /**
+     * A random player drawing its decisions from the given random number generator
+     *
+     * @param rng The {@link Random} number generator of the player
+     */
+    public RandomPlayer(Random rng) {
+        this.rng = rng;
+    }
+
+    @Override
+    public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+    }
+
+    @Override
+    public void receiveInfo(String info) {
+    }
+
+    @Override
+    public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+        // The events are not rendered, the player not reading them
+    }
+
+    @Override
+    public void updateState(PublicGameState newState, PlayerState ownState) {
+        this.gameState = newState;
+        this.ownState = ownState;
+    }
+
+    @Override
+    public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+        this.initialTickets = tickets;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseInitialTickets() {
+        return randomSubset(initialTickets, INITIAL_KEPT_TICKETS);
+    }
+
+    @Override
+    public TurnKind nextTurn() {
+        List<Route> claimableRoutes = claimableRoutes(gameState, ownState);
+        boolean wantsToClaim = !claimableRoutes.isEmpty()
+                && (ownState.cardCount() >= MIN_CARD_COUNT || rng.nextBoolean());
+
+        if (gameState.canDrawTickets() && rng.nextInt(DRAW_TICKETS_ODDS) == 0)
+            return TurnKind.DRAW_TICKETS;
+        if (wantsToClaim || (!claimableRoutes.isEmpty() && !gameState.canDrawCards()))
+            return claimRandomRoute(claimableRoutes);
+        if (gameState.canDrawCards() || !gameState.canDrawTickets())
+            return TurnKind.DRAW_CARDS;
+
+        return TurnKind.DRAW_TICKETS;
+    }
+
+    @Override
+    public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+        return randomSubset(options, 1 + rng.nextInt(options.size()));
+    }
+
+    @Override
+    public int drawSlot() {
+        return rng.nextInt(Constants.FACE_UP_CARDS_COUNT + 1) - 1;
+    }
+
+    @Override
+    public Route claimedRoute() {
+        return routeToClaim;
+    }
+
+    @Override
+    public SortedBag<Card> initialClaimCards() {
+        return initialClaimCards;
+    }
+
+    @Override
+    public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+        return options.get(0);
+    }
+
+    /**
+     * The routes that the given player can claim, i.e. that are neither claimed nor the neighbor of a claimed route
+     *
+     * @param gameState The {@link PublicGameState} of the game
+     * @param ownState  The {@link PlayerState} of the player
+     * @return The {@link List} of {@link Route} of {@link ChMap} that the player can claim
+     */
+    static List<Route> claimableRoutes(PublicGameState gameState, PlayerState ownState) {
+        List<Route> claimedRoutes = gameState.claimedRoutes();
+
+        return ChMap.routes().stream()
+                .filter(r -> claimedRoutes.stream().noneMatch(c -> c.stations().containsAll(r.stations())))
+                .filter(ownState::canClaimRoute)
+                .collect(Collectors.toList());
+    }
+
+    private TurnKind claimRandomRoute(List<Route> claimableRoutes) {
+        routeToClaim = claimableRoutes.get(rng.nextInt(claimableRoutes.size()));
+        List<SortedBag<Card>> options = ownState.possibleClaimCards(routeToClaim);
+        initialClaimCards = options.get(rng.nextInt(options.size()));
+
+        return TurnKind.CLAIM_ROUTE;
+    }
+
+    private <E extends Comparable<E>> SortedBag<E> randomSubset(SortedBag<E> bag, int size) {
+        List<E> shuffled = new ArrayList<>(bag.toList());
+        Collections.shuffle(shuffled, rng);
+
+        return SortedBag.of(shuffled.subList(0, Math.min(size, shuffled.size())));
+    }
+}
@@ -0,0 +1,49 @@
+package ch.epfl.tchu.sim;
+
+import java.util.Random;
+
+/**
+ * A random number generator that keeps its seed and counts the values drawn from it, through which every method of
+ * {@link Random} draws
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see GameRecorder
+ */
+final class RecordingRandom extends Random {
+    private static final long serialVersionUID = 1L;
+
+    private final long seed;
+    // Only drawn from by the thread of a game
+    private int drawCount;
+
+    /**
+     * A generator of the given seed, from which no value was drawn yet
+     *
+     * @param seed The seed of the generator
+     */
+    RecordingRandom(long seed) {
+        super(seed);
+        this.seed = seed;
+    }
+
+    /**
+     * @return The seed the generator was created with
+     */
+    long seed() {
+        return seed;
+    }
+
+    /**
+     * @return The number of values drawn from the generator so far
+     */
+    int drawCount() {
+        return drawCount;
+    }
+
+    @Override
+    protected int next(int bits) {
+        drawCount++;
+        return super.next(bits);
+    }
+}
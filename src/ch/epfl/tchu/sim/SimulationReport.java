@@ -0,0 +1,126 @@
+package ch.epfl.tchu.sim;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import ch.epfl.tchu.game.PlayerId;
+
+/**
+ * The aggregated results of a batch of simulated games
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see GameResult
+ */
+public final class SimulationReport {
+    private final List<GameResult> results;
+    private final List<GameResult> succeeded;
+    private final long elapsedNanos;
+
+    /**
+     * A report on the given results
+     *
+     * @param results      The {@link List} of {@link GameResult}, in the order of their seeds
+     * @param elapsedNanos The wall-clock time taken to play the games, in nanoseconds
+     */
+    SimulationReport(List<GameResult> results, long elapsedNanos) {
+        this.results = List.copyOf(results);
+        this.succeeded = results.stream().filter(GameResult::succeeded).collect(Collectors.toList());
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return The {@link List} of every {@link GameResult}, in the order of their seeds
+     */
+    public List<GameResult> results() {
+        return results;
+    }
+
+    /**
+     * @return The number of games that were played
+     */
+    public int gameCount() {
+        return results.size();
+    }
+
+    /**
+     * @return The number of games that could not be played until their end
+     */
+    public int failureCount() {
+        return results.size() - succeeded.size();
+    }
+
+    /**
+     * @return The number of games played per second of wall-clock time
+     */
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : results.size() / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The average final score of the player over the games that ended
+     */
+    public double averageScore(PlayerId playerId) {
+        return average(r -> r.score(playerId));
+    }
+
+    /**
+     * @return The average number of turns of the games that ended
+     */
+    public double averageTurnCount() {
+        return average(GameResult::turnCount);
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The number of games the player won, draws included
+     */
+    public int winCount(PlayerId playerId) {
+        return (int) succeeded.stream().filter(r -> r.winners().contains(playerId)).count();
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The number of games in which the player got the longest trail bonus
+     */
+    public int longestTrailWinCount(PlayerId playerId) {
+        return (int) succeeded.stream().filter(r -> r.longestTrailWinners().contains(playerId)).count();
+    }
+
+    /**
+     * @param playerId The {@link PlayerId} of the player
+     * @return The proportion of the tickets kept by the player whose stations they connected
+     */
+    public double ticketCompletionRate(PlayerId playerId) {
+        int ticketCount = succeeded.stream().mapToInt(r -> r.ticketCount(playerId)).sum();
+        int completedCount = succeeded.stream().mapToInt(r -> r.completedTicketCount(playerId)).sum();
+
+        return ticketCount == 0 ? 0 : (double) completedCount / ticketCount;
+    }
+
+    /**
+     * The textual summary of the report
+     *
+     * @return The textual summary of the report
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format(Locale.ROOT,
+                "%d games (%d failed) in %.2f s, %.1f games/s, %.1f turns/game%n",
+                gameCount(), failureCount(), elapsedNanos / 1e9, gamesPerSecond(), averageTurnCount()));
+        for (PlayerId playerId : PlayerId.ALL)
+            builder.append(String.format(Locale.ROOT,
+                    "%s: %.1f points, %d wins, %d longest trails, %.1f%% tickets completed%n",
+                    playerId, averageScore(playerId), winCount(playerId), longestTrailWinCount(playerId),
+                    100 * ticketCompletionRate(playerId)));
+
+        return builder.toString();
+    }
+
+    private double average(ToIntFunction<GameResult> value) {
+        return succeeded.stream().mapToInt(value).average().orElse(0);
+    }
+}
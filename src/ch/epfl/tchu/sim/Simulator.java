@@ -0,0 +1,148 @@
+package ch.epfl.tchu.sim;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.Ticket;
+
+/**
+ * A headless simulator playing batches of games of tCHu in parallel
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see ch.epfl.tchu.game.Game
+ */
+public final class Simulator {
+    private static final SortedBag<Ticket> TICKETS = SortedBag.of(ChMap.tickets());
+    private static final int MAX_TURNS = 1_000;
+
+    private final PlayerFactory playerFactory;
+    private final int parallelism;
+
+    /**
+     * A factory of the players of the simulated games
+     */
+    @FunctionalInterface
+    public interface PlayerFactory {
+        /**
+         * Creates a new player for a simulated game
+         *
+         * @param playerId The {@link PlayerId} of the player in the game
+         * @param rng      The {@link Random} number generator dedicated to the player
+         * @return The new {@link Player}
+         */
+        Player newPlayer(PlayerId playerId, Random rng);
+    }
+
+    /**
+     * A simulator creating the players of every game with the given factory
+     *
+     * @param playerFactory The {@link PlayerFactory} of the players
+     * @param parallelism   The number of games played at the same time
+     * @throws IllegalArgumentException If {@code parallelism} is not strictly positive
+     */
+    public Simulator(PlayerFactory playerFactory, int parallelism) {
+        Preconditions.checkArgument(parallelism > 0);
+
+        this.playerFactory = playerFactory;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Simulates games of random players and prints the report
+     *
+     * @param args The arguments of the program, i.e. the number of games and the root seed
+     */
+    public static void main(String[] args) {
+        int gameCount = args.length >= 1 ? Integer.parseInt(args[0]) : 1_000;
+        long rootSeed = args.length >= 2 ? Long.parseLong(args[1]) : 2021;
+
+        Simulator simulator = new Simulator((id, rng) -> new RandomPlayer(rng), Runtime.getRuntime().availableProcessors());
+        System.out.print(simulator.run(seeds(rootSeed, gameCount)));
+    }
+
+    /**
+     * The seeds of a batch of games, derived from a single root seed
+     *
+     * @param rootSeed The root seed
+     * @param count    The number of seeds
+     * @return The {@link List} of {@code count} seeds
+     */
+    public static List<Long> seeds(long rootSeed, int count) {
+        return new SplittableRandom(rootSeed).longs(count).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * Plays one game per given seed and aggregates their results
+     *
+     * @param seeds The {@link List} of seeds of the games
+     * @return The {@link SimulationReport} of the games, whose results are in the order of {@code seeds}
+     */
+    public SimulationReport run(List<Long> seeds) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            List<GameResult> results = pool.submit(() -> seeds.parallelStream()
+                    .map(this::play)
+                    .collect(Collectors.toList()))
+                    .get();
+
+            return new SimulationReport(results, System.nanoTime() - start);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException(exception.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays a single game whose random number generators all derive from the given seed,
+     * so that its result does not depend on the thread playing it
+     *
+     * @param seed The seed of the game
+     * @return The {@link GameResult} of the game
+     */
+    public GameResult play(long seed) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        Random gameRng = new Random(seeds.nextLong());
+
+        Map<PlayerId, ObservedPlayer> observedPlayers = new EnumMap<>(PlayerId.class);
+        Map<PlayerId, String> playerNames = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL) {
+            Player player = playerFactory.newPlayer(playerId, new Random(seeds.nextLong()));
+            observedPlayers.put(playerId, new ObservedPlayer(player, MAX_TURNS));
+            playerNames.put(playerId, playerId.name());
+        }
+
+        try {
+            Game.play(Map.copyOf(observedPlayers), playerNames, TICKETS, gameRng);
+        } catch (RuntimeException exception) {
+            return GameResult.failed(seed, exception);
+        }
+
+        Map<PlayerId, PlayerState> finalStates = new EnumMap<>(PlayerId.class);
+        int turnCount = 0;
+        for (PlayerId playerId : PlayerId.ALL) {
+            finalStates.put(playerId, observedPlayers.get(playerId).lastOwnState());
+            turnCount += observedPlayers.get(playerId).turnCount();
+        }
+
+        return GameResult.of(seed, finalStates, turnCount);
+    }
+}
@@ -0,0 +1,303 @@
+package ch.epfl.tchu.sim;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.game.PlayerId;
+
+/**
+ * A round-robin tournament between named kinds of players, playing every pairing of them in parallel over the same
+ * seeds, once from each seat
+ * <p>
+ * The games of a tournament are interleaved by seed, so that the games played so far cover every pairing evenly.
+ * Each game is written to a CSV file as soon as it ends, and only the totals of every pairing are kept.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see TournamentReport
+ */
+public final class Tournament {
+    /**
+     * The header of the CSV files of the games of tournaments
+     */
+    public static final String CSV_HEADER = "game,seed,player1,player2,score1,score2,points1,turns,failure";
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<String> names;
+    private final List<Simulator.PlayerFactory> factories;
+    private final int parallelism;
+
+    /**
+     * A tournament between the given entrants
+     *
+     * @param entrants    The {@link Simulator.PlayerFactory} of the players of every entrant, by name, in the order of
+     *                    the standings
+     * @param parallelism The number of games played at the same time
+     * @throws IllegalArgumentException If there are less than two entrants or if {@code parallelism} is not strictly
+     *                                  positive
+     */
+    public Tournament(Map<String, Simulator.PlayerFactory> entrants, int parallelism) {
+        Preconditions.checkArgument(entrants.size() >= 2 && parallelism > 0);
+
+        this.names = List.copyOf(entrants.keySet());
+        this.factories = List.copyOf(entrants.values());
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Plays a tournament between a random player and two searching players, writes its games to a CSV file and prints
+     * its standings
+     *
+     * @param args The arguments of the program, i.e. the number of seeds per pairing, the number of iterations of the
+     *             strongest searching player, the CSV file and the root seed
+     * @throws IOException If the CSV file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int seedCount = args.length >= 1 ? Integer.parseInt(args[0]) : 50;
+        int iterations = args.length >= 2 ? Integer.parseInt(args[1]) : 400;
+        String csvFile = args.length >= 3 ? args[2] : "tournament.csv";
+        long rootSeed = args.length >= 4 ? Long.parseLong(args[3]) : 2021;
+
+        Map<String, Simulator.PlayerFactory> entrants = new LinkedHashMap<>();
+        entrants.put("random", (id, rng) -> new RandomPlayer(rng));
+        for (int budget : new int[]{Math.max(1, iterations / 4), iterations}) {
+            entrants.put("mcts-" + budget, (id, rng) ->
+                    new MonteCarloPlayer(budget, TimeUnit.MINUTES.toMillis(1), 1, rng));
+        }
+
+        Tournament tournament = new Tournament(entrants, Runtime.getRuntime().availableProcessors());
+        try (Writer csv = new FileWriter(csvFile, StandardCharsets.UTF_8)) {
+            System.out.print(tournament.run(rootSeed, seedCount, csv, System.err));
+        }
+    }
+
+    /**
+     * @param seedCount The number of seeds of every pairing
+     * @return The number of games of the tournament
+     * @throws ArithmeticException If there are more than {@link Integer#MAX_VALUE} games
+     */
+    public int gameCount(int seedCount) {
+        return Math.multiplyExact(pairingCount() * PlayerId.COUNT, seedCount);
+    }
+
+    /**
+     * Plays every pairing of entrants from both seats over the seeds derived from the given root seed
+     *
+     * @param rootSeed  The root seed of the games, as given to {@link Simulator#seeds(long, int)}
+     * @param seedCount The number of seeds of every pairing
+     * @param csv       The {@link Writer} of the CSV file to which every game is written, then flushed, when it ends
+     * @param progress  The {@link PrintStream} on which the number of games played per second and the time left are
+     *                  printed about once per second
+     * @return The {@link TournamentReport} of the games
+     * @throws IllegalArgumentException If {@code seedCount} is not strictly positive
+     * @throws UncheckedIOException     If the CSV file could not be written
+     * @throws IllegalStateException    If a player failed outside of a game or if the tournament was interrupted
+     */
+    public TournamentReport run(long rootSeed, int seedCount, Writer csv, PrintStream progress) {
+        Preconditions.checkArgument(seedCount > 0);
+
+        Standings standings = new Standings(gameCount(seedCount), csv, progress);
+        List<Long> seeds = Simulator.seeds(rootSeed, seedCount);
+        AtomicInteger nextGame = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try {
+            standings.start();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < parallelism; i++) {
+                workers.add(pool.submit(() -> {
+                    try {
+                        for (int game = nextGame.getAndIncrement(); game < standings.gameCount;
+                             game = nextGame.getAndIncrement())
+                            play(game, seeds, standings);
+                    } catch (RuntimeException exception) {
+                        // Stops the other workers too
+                        nextGame.set(standings.gameCount);
+                        throw exception;
+                    }
+                }));
+            }
+            for (Future<?> worker : workers)
+                worker.get();
+
+            return standings.report();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof UncheckedIOException)
+                throw (UncheckedIOException) exception.getCause();
+            throw new IllegalStateException(exception.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * The line of the progress meter of a tournament
+     *
+     * @param playedCount  The number of games played so far
+     * @param gameCount    The number of games of the tournament
+     * @param elapsedNanos The wall-clock time since the start of the tournament, in nanoseconds
+     * @return The number of games played, their number per second and the estimated time left
+     */
+    static String progress(int playedCount, int gameCount, long elapsedNanos) {
+        double gamesPerSecond = elapsedNanos == 0 ? 0 : playedCount / (elapsedNanos / 1e9);
+        String left = gamesPerSecond == 0 ? "?" : duration(Math.round((gameCount - playedCount) / gamesPerSecond));
+
+        return String.format(Locale.ROOT, "%d/%d games, %.1f games/s, %s left", playedCount, gameCount,
+                gamesPerSecond, left);
+    }
+
+    // The given number of seconds, as hours, minutes and seconds
+    private static String duration(long seconds) {
+        return String.format(Locale.ROOT, "%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+
+    private int pairingCount() {
+        return names.size() * (names.size() - 1) / 2;
+    }
+
+    // Plays the given game, the games being ordered by seed, then pairing, then seat
+    private void play(int game, List<Long> seeds, Standings standings) {
+        int seat = game % PlayerId.COUNT;
+        int pairing = game / PlayerId.COUNT % pairingCount();
+        long seed = seeds.get(game / PlayerId.COUNT / pairingCount());
+
+        int first = 0;
+        while (pairing >= names.size() - 1 - first) {
+            pairing -= names.size() - 1 - first;
+            first++;
+        }
+        int second = first + 1 + pairing;
+        int player1 = seat == 0 ? first : second;
+        int player2 = seat == 0 ? second : first;
+
+        Simulator simulator = new Simulator((id, rng) ->
+                factories.get(id == PlayerId.PLAYER_1 ? player1 : player2).newPlayer(id, rng), 1);
+        standings.add(game, player1, player2, simulator.play(seed));
+    }
+
+    /**
+     * The totals of the games of a tournament played so far, to which the threads playing the games add their
+     * results one at a time
+     */
+    private final class Standings {
+        private final int gameCount;
+        private final Writer csv;
+        private final PrintStream progress;
+        private final double[][] points;
+        private final int[][] gameCounts;
+        private final long[] scoreSums;
+        private int failureCount;
+        private int playedCount;
+        private long start;
+        private long lastProgress;
+
+        /**
+         * Empty standings
+         *
+         * @param gameCount The number of games of the tournament
+         * @param csv       The {@link Writer} of the CSV file of the games
+         * @param progress  The {@link PrintStream} of the progress meter
+         */
+        private Standings(int gameCount, Writer csv, PrintStream progress) {
+            this.gameCount = gameCount;
+            this.csv = csv;
+            this.progress = progress;
+            this.points = new double[names.size()][names.size()];
+            this.gameCounts = new int[names.size()][names.size()];
+            this.scoreSums = new long[names.size()];
+        }
+
+        /**
+         * Writes the header of the CSV file and starts the clock of the progress meter
+         */
+        private synchronized void start() {
+            write(CSV_HEADER + System.lineSeparator());
+            this.start = System.nanoTime();
+            this.lastProgress = start;
+        }
+
+        /**
+         * Adds the result of a game to the totals, writes it to the CSV file and updates the progress meter
+         *
+         * @param game    The index of the game
+         * @param player1 The index of the entrant playing as {@link PlayerId#PLAYER_1}
+         * @param player2 The index of the entrant playing as {@link PlayerId#PLAYER_2}
+         * @param result  The {@link GameResult} of the game
+         */
+        private synchronized void add(int game, int player1, int player2, GameResult result) {
+            String line;
+            if (result.succeeded()) {
+                List<PlayerId> winners = result.winners();
+                double points1 = winners.contains(PlayerId.PLAYER_1) ? 1.0 / winners.size() : 0;
+                points[player1][player2] += points1;
+                points[player2][player1] += 1 - points1;
+                gameCounts[player1][player2]++;
+                gameCounts[player2][player1]++;
+                scoreSums[player1] += result.score(PlayerId.PLAYER_1);
+                scoreSums[player2] += result.score(PlayerId.PLAYER_2);
+                line = String.format(Locale.ROOT, "%d,%d,%s,%s,%d,%d,%s,%d,", game, result.seed(),
+                        csvField(names.get(player1)), csvField(names.get(player2)), result.score(PlayerId.PLAYER_1),
+                        result.score(PlayerId.PLAYER_2), points1, result.turnCount());
+            } else {
+                failureCount++;
+                line = String.format(Locale.ROOT, "%d,%d,%s,%s,,,,,%s", game, result.seed(),
+                        csvField(names.get(player1)), csvField(names.get(player2)),
+                        csvField(String.valueOf(result.failure())));
+            }
+            write(line + System.lineSeparator());
+
+            playedCount++;
+            long now = System.nanoTime();
+            if (now - lastProgress >= PROGRESS_INTERVAL_NANOS || playedCount == gameCount) {
+                lastProgress = now;
+                progress.print("\r" + Tournament.progress(playedCount, gameCount, now - start));
+                if (playedCount == gameCount)
+                    progress.println();
+                progress.flush();
+            }
+        }
+
+        /**
+         * @return The {@link TournamentReport} of the games played so far
+         */
+        private synchronized TournamentReport report() {
+            return new TournamentReport(names, points, gameCounts, scoreSums, failureCount, System.nanoTime() - start);
+        }
+
+        private void write(String text) {
+            try {
+                csv.write(text);
+                csv.flush();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        // The given text as a field of a CSV file, quoted if needed
+        private String csvField(String text) {
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0)
+                return text;
+
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+}
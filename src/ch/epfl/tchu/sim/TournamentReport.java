@@ -0,0 +1,320 @@
+package ch.epfl.tchu.sim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import ch.epfl.tchu.Preconditions;
+
+/**
+ * The standings of a {@link Tournament}, whose Elo ratings are the maximum likelihood estimates of the Bradley-Terry
+ * model of the games the entrants played against each other
+ * <p>
+ * A draw counts as half a win for both entrants, and every pair of entrants is credited with one more drawn game, so
+ * that an entrant who won or lost all of its games keeps a finite rating. The ratings average to
+ * {@value #AVERAGE_RATING}, and their margins follow from the Fisher information of the games.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see Tournament
+ */
+public final class TournamentReport {
+    /**
+     * The average of the ratings of the entrants
+     */
+    public static final double AVERAGE_RATING = 1500;
+
+    // The number of standard errors of a 95% confidence interval
+    private static final double Z_95 = 1.96;
+    private static final double ELO_PER_NATURAL_UNIT = 400 / Math.log(10);
+    private static final int MAX_ITERATIONS = 10_000;
+    private static final double TOLERANCE = 1e-10;
+
+    private final List<String> names;
+    private final double[][] points;
+    private final int[][] gameCounts;
+    private final long[] scoreSums;
+    private final int failureCount;
+    private final long elapsedNanos;
+    private final double[] ratings;
+    private final double[] margins;
+
+    /**
+     * The standings of the entrants after the given games
+     *
+     * @param names        The {@link List} of the names of the entrants
+     * @param points       The points every entrant took against every other one, {@code 1} per win and {@code 0.5}
+     *                     per draw, indexed by entrant then opponent
+     * @param gameCounts   The number of games every entrant finished against every other one, indexed by entrant then
+     *                     opponent
+     * @param scoreSums    The sum of the final scores of every entrant over its finished games
+     * @param failureCount The number of games that could not be played until their end
+     * @param elapsedNanos The wall-clock time taken to play the games, in nanoseconds
+     * @throws IllegalArgumentException If there are less than two entrants, or if the arrays do not have one entry per
+     *                                  entrant
+     */
+    TournamentReport(List<String> names, double[][] points, int[][] gameCounts, long[] scoreSums, int failureCount,
+                     long elapsedNanos) {
+        int n = names.size();
+        Preconditions.checkArgument(n >= 2 && points.length == n && gameCounts.length == n && scoreSums.length == n);
+
+        this.names = List.copyOf(names);
+        this.points = new double[n][];
+        this.gameCounts = new int[n][];
+        for (int i = 0; i < n; i++) {
+            Preconditions.checkArgument(points[i].length == n && gameCounts[i].length == n);
+            this.points[i] = points[i].clone();
+            this.gameCounts[i] = gameCounts[i].clone();
+        }
+        this.scoreSums = scoreSums.clone();
+        this.failureCount = failureCount;
+        this.elapsedNanos = elapsedNanos;
+
+        double[] strengths = computeStrengths();
+        this.ratings = new double[n];
+        double logMean = 0;
+        for (double strength : strengths)
+            logMean += Math.log(strength) / n;
+        for (int i = 0; i < n; i++)
+            ratings[i] = AVERAGE_RATING + ELO_PER_NATURAL_UNIT * (Math.log(strengths[i]) - logMean);
+        this.margins = computeMargins(strengths);
+    }
+
+    /**
+     * @return The {@link List} of the names of the entrants, in the order they entered the tournament
+     */
+    public List<String> names() {
+        return names;
+    }
+
+    /**
+     * @return The number of games that were played, failed ones included
+     */
+    public int gameCount() {
+        int gameCount = failureCount;
+        for (int i = 0; i < names.size(); i++) {
+            for (int j = i + 1; j < names.size(); j++)
+                gameCount += gameCounts[i][j];
+        }
+
+        return gameCount;
+    }
+
+    /**
+     * @return The number of games that could not be played until their end
+     */
+    public int failureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return The number of games played per second of wall-clock time
+     */
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : gameCount() / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * @param name The name of the entrant
+     * @return The number of games the entrant finished
+     * @throws IllegalArgumentException If {@code name} is not the name of an entrant
+     */
+    public int gameCount(String name) {
+        int gameCount = 0;
+        for (int count : gameCounts[indexOf(name)])
+            gameCount += count;
+
+        return gameCount;
+    }
+
+    /**
+     * @param name The name of the entrant
+     * @return The points the entrant took, {@code 1} per win and {@code 0.5} per draw
+     * @throws IllegalArgumentException If {@code name} is not the name of an entrant
+     */
+    public double points(String name) {
+        double sum = 0;
+        for (double p : points[indexOf(name)])
+            sum += p;
+
+        return sum;
+    }
+
+    /**
+     * @param name     The name of the entrant
+     * @param opponent The name of its opponent
+     * @return The points the entrant took against the opponent, {@code 1} per win and {@code 0.5} per draw
+     * @throws IllegalArgumentException If {@code name} or {@code opponent} is not the name of an entrant
+     */
+    public double points(String name, String opponent) {
+        return points[indexOf(name)][indexOf(opponent)];
+    }
+
+    /**
+     * @param name The name of the entrant
+     * @return The average final score of the entrant over the games it finished, {@code 0} if there is none
+     * @throws IllegalArgumentException If {@code name} is not the name of an entrant
+     */
+    public double averageScore(String name) {
+        int gameCount = gameCount(name);
+
+        return gameCount == 0 ? 0 : (double) scoreSums[indexOf(name)] / gameCount;
+    }
+
+    /**
+     * @param name The name of the entrant
+     * @return The Elo rating of the entrant
+     * @throws IllegalArgumentException If {@code name} is not the name of an entrant
+     */
+    public double rating(String name) {
+        return ratings[indexOf(name)];
+    }
+
+    /**
+     * @param name The name of the entrant
+     * @return The half-width of the 95% confidence interval of the rating of the entrant
+     * @throws IllegalArgumentException If {@code name} is not the name of an entrant
+     */
+    public double ratingMargin(String name) {
+        return margins[indexOf(name)];
+    }
+
+    /**
+     * The textual standings of the entrants, by decreasing rating
+     *
+     * @return The textual standings of the entrants
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format(Locale.ROOT,
+                "%d games (%d failed) in %.2f s, %.1f games/s%n",
+                gameCount(), failureCount(), elapsedNanos / 1e9, gamesPerSecond()));
+        List<String> standings = new ArrayList<>(names);
+        standings.sort(Comparator.comparingDouble(this::rating).reversed());
+        for (String name : standings)
+            builder.append(String.format(Locale.ROOT, "%-20s %6.0f +/- %3.0f  %7.1f / %d points, %.1f score%n",
+                    name, rating(name), ratingMargin(name), points(name), gameCount(name), averageScore(name)));
+
+        return builder.toString();
+    }
+
+    private int indexOf(String name) {
+        int index = names.indexOf(name);
+        Preconditions.checkArgument(index >= 0);
+
+        return index;
+    }
+
+    // The number of games between the given entrants, the prior drawn game included
+    private double games(int i, int j) {
+        return gameCounts[i][j] + 1;
+    }
+
+    // The points of the given entrant against the given opponent, half of the prior drawn game included
+    private double wins(int i, int j) {
+        return points[i][j] + 0.5;
+    }
+
+    // The strengths of the entrants, computed with the minorization-maximization algorithm of Hunter
+    private double[] computeStrengths() {
+        int n = names.size();
+        double[] strengths = new double[n];
+        Arrays.fill(strengths, 1);
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double[] next = new double[n];
+            double logMean = 0;
+            for (int i = 0; i < n; i++) {
+                double wins = 0;
+                double denominator = 0;
+                for (int j = 0; j < n; j++) {
+                    if (j == i)
+                        continue;
+                    wins += wins(i, j);
+                    denominator += games(i, j) / (strengths[i] + strengths[j]);
+                }
+                next[i] = wins / denominator;
+                logMean += Math.log(next[i]) / n;
+            }
+
+            double change = 0;
+            for (int i = 0; i < n; i++) {
+                next[i] /= Math.exp(logMean);
+                change = Math.max(change, Math.abs(next[i] / strengths[i] - 1));
+            }
+            strengths = next;
+            if (change < TOLERANCE)
+                break;
+        }
+
+        return strengths;
+    }
+
+    // The margins of the ratings, from the inverse of the Fisher information of the games, whose ratings are only
+    // known up to a common offset, completed so that they average to a fixed value
+    private double[] computeMargins(double[] strengths) {
+        int n = names.size();
+        double[][] information = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (j == i)
+                    continue;
+                double p = strengths[i] / (strengths[i] + strengths[j]);
+                double pairInformation = games(i, j) * p * (1 - p);
+                information[i][j] -= pairInformation;
+                information[i][i] += pairInformation;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++)
+                information[i][j] += 1.0 / n;
+        }
+
+        double[][] covariance = inverse(information);
+        double[] margins = new double[n];
+        for (int i = 0; i < n; i++)
+            margins[i] = Z_95 * ELO_PER_NATURAL_UNIT * Math.sqrt(Math.max(0, covariance[i][i] - 1.0 / n));
+
+        return margins;
+    }
+
+    // The inverse of the given symmetric positive definite matrix, by Gauss-Jordan elimination
+    private static double[][] inverse(double[][] matrix) {
+        int n = matrix.length;
+        double[][] a = new double[n][2 * n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(matrix[i], 0, a[i], 0, n);
+            a[i][n + i] = 1;
+        }
+
+        for (int column = 0; column < n; column++) {
+            int pivot = column;
+            for (int row = column + 1; row < n; row++) {
+                if (Math.abs(a[row][column]) > Math.abs(a[pivot][column]))
+                    pivot = row;
+            }
+            double[] swapped = a[column];
+            a[column] = a[pivot];
+            a[pivot] = swapped;
+
+            double divisor = a[column][column];
+            for (int k = 0; k < 2 * n; k++)
+                a[column][k] /= divisor;
+            for (int row = 0; row < n; row++) {
+                if (row == column)
+                    continue;
+                double factor = a[row][column];
+                for (int k = 0; k < 2 * n; k++)
+                    a[row][k] -= factor * a[column][k];
+            }
+        }
+
+        double[][] inverse = new double[n][n];
+        for (int i = 0; i < n; i++)
+            System.arraycopy(a[i], n, inverse[i], 0, n);
+
+        return inverse;
+    }
+}
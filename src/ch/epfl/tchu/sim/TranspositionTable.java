@@ -0,0 +1,143 @@
+package ch.epfl.tchu.sim;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.epfl.tchu.Preconditions;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.SimulationState;
+
+/**
+ * A fixed-size table of the values searches computed for game states, identified by their Zobrist key, that threads
+ * share without locking
+ * <p>
+ * Every entry keeps its value and the exclusive or of its key and value. A thread reading an entry that another one
+ * is writing sees a key and a value that do not match, and misses rather than reads a value stored for another key.
+ * Each key has a single entry, which a value stored for another key replaces.
+ *
+ * @author <a href="https://people.epfl.ch/jad.tala">Jad Tala (310821)</a>
+ * @author <a href="https://people.epfl.ch/sofiya.malamud">Sofiya Malamud (313789)</a>
+ * @see GameState#zobristKey()
+ * @see SimulationState#zobristKey()
+ */
+public final class TranspositionTable {
+    private final AtomicLongArray entries;
+    private final int mask;
+    private final LongAdder probeCount;
+    private final LongAdder hitCount;
+    private final LongAdder storeCount;
+
+    /**
+     * An empty table
+     *
+     * @param capacity The number of entries of the table, rounded up to a power of two
+     * @throws IllegalArgumentException If {@code capacity} is not between {@code 1} and {@code 2^29}
+     */
+    public TranspositionTable(int capacity) {
+        Preconditions.checkArgument(0 < capacity && capacity <= 1 << 29);
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        // Two longs per entry, the checked key then the value
+        this.entries = new AtomicLongArray(2 * size);
+        this.mask = size - 1;
+        this.probeCount = new LongAdder();
+        this.hitCount = new LongAdder();
+        this.storeCount = new LongAdder();
+    }
+
+    /**
+     * @return The number of entries of the table
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * The value stored for the given key
+     *
+     * @param key    The Zobrist key of the state
+     * @param absent The value returned if the table has no value for the key
+     * @return The value last stored for {@code key}, {@code absent} if it was never stored, was replaced or if the
+     * key is {@code 0}
+     */
+    public long get(long key, long absent) {
+        probeCount.increment();
+        int index = index(key);
+        long value = entries.get(index + 1);
+        if (key == 0 || (entries.get(index) ^ value) != key)
+            return absent;
+
+        hitCount.increment();
+        return value;
+    }
+
+    /**
+     * Stores the value of the given key, in place of the value of the key that had the same entry
+     *
+     * @param key   The Zobrist key of the state, {@code 0} being ignored so that empty entries never match
+     * @param value The value
+     */
+    public void put(long key, long value) {
+        if (key == 0)
+            return;
+
+        storeCount.increment();
+        int index = index(key);
+        entries.set(index, key ^ value);
+        entries.set(index + 1, value);
+    }
+
+    /**
+     * Empties the table and resets its statistics, while no other thread uses it
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++)
+            entries.set(i, 0);
+        probeCount.reset();
+        hitCount.reset();
+        storeCount.reset();
+    }
+
+    /**
+     * @return The number of calls to {@link #get(long, long)} so far
+     */
+    public long probeCount() {
+        return probeCount.sum();
+    }
+
+    /**
+     * @return The number of calls to {@link #get(long, long)} that found a value so far
+     */
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return The number of values stored so far
+     */
+    public long storeCount() {
+        return storeCount.sum();
+    }
+
+    /**
+     * @return The ratio of the probes that found a value, {@code 0} if there was none
+     */
+    public double hitRate() {
+        long probes = probeCount();
+
+        return probes == 0 ? 0 : (double) hitCount() / probes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d entries, %d probes, %.1f%% hits, %d stores",
+                capacity(), probeCount(), 100 * hitRate(), storeCount());
+    }
+
+    // The index of the first long of the entry of the key, taken from its high bits
+    private int index(long key) {
+        return 2 * ((int) (key >>> 32) & mask);
+    }
+}
@@ -0,0 +1,60 @@
+package ch.epfl.tchu;
+
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedBagTest {
+    private static Set<SortedBag<Integer>> recursiveSubsetsOfSize(SortedBag<Integer> bag, int size) {
+        if (size == 0)
+            return Set.of(SortedBag.of());
+
+        var result = new HashSet<SortedBag<Integer>>();
+        for (var e1 : bag.toSet()) {
+            var s1 = SortedBag.of(e1);
+            recursiveSubsetsOfSize(bag.difference(s1), size - 1)
+                    .forEach(e -> result.add(s1.union(e)));
+        }
+        return result;
+    }
+
+    @Test
+    void sortedBagSubsetsOfSizeFailsWithInvalidSize() {
+        var bag = SortedBag.of(2, 1, 3, 2);
+        assertThrows(IllegalArgumentException.class, () -> bag.subsetsOfSize(-1));
+        assertThrows(IllegalArgumentException.class, () -> bag.subsetsOfSize(6));
+    }
+
+    @Test
+    void sortedBagSubsetsOfSizeWorksOnTrivialSizes() {
+        var bag = SortedBag.of(2, 1, 3, 2);
+        assertEquals(Set.of(SortedBag.of()), bag.subsetsOfSize(0));
+        assertEquals(Set.of(bag), bag.subsetsOfSize(bag.size()));
+        assertEquals(Set.of(SortedBag.of()), SortedBag.<Integer>of().subsetsOfSize(0));
+    }
+
+    @Test
+    void sortedBagSubsetsOfSizeIsEquivalentToRecursiveDefinition() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 200; i++) {
+            var builder = new SortedBag.Builder<Integer>();
+            var distinct = 1 + rng.nextInt(5);
+            for (int e = 0; e < distinct; e++)
+                builder.add(rng.nextInt(4), e);
+            var bag = builder.build();
+
+            for (int size = 0; size <= bag.size(); size++) {
+                var subsets = bag.subsetsOfSize(size);
+                assertEquals(recursiveSubsetsOfSize(bag, size), subsets);
+                for (var subset : subsets) {
+                    assertEquals(size, subset.size());
+                    assertTrue(bag.contains(subset));
+                }
+            }
+        }
+    }
+}
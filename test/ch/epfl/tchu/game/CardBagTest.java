@@ -0,0 +1,83 @@
+package ch.epfl.tchu.game;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.test.TestRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardBagTest {
+    private static SortedBag<Card> randomCards(Random rng, int maxCount) {
+        var builder = new SortedBag.Builder<Card>();
+        for (var card : Card.ALL)
+            builder.add(rng.nextInt(maxCount + 1), card);
+        return builder.build();
+    }
+
+    @Test
+    void cardBagOfFailsWithInvalidCount() {
+        assertThrows(IllegalArgumentException.class, () -> CardBag.of(-1, Card.RED));
+        assertThrows(IllegalArgumentException.class, () -> CardBag.of(CardBag.MAX_COUNT + 1, Card.RED));
+        assertThrows(IllegalArgumentException.class, () -> CardBag.of(SortedBag.of(CardBag.MAX_COUNT + 1, Card.BLUE)));
+    }
+
+    @Test
+    void cardBagIsEquivalentToSortedBag() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var cards = randomCards(rng, 14);
+            var bag = CardBag.of(cards);
+
+            assertEquals(cards, bag.toSortedBag());
+            assertEquals(cards.size(), bag.size());
+            assertEquals(cards.isEmpty(), bag.isEmpty());
+            assertEquals(cards.toSet().size(), bag.distinctCount());
+            assertEquals(cards.toString(), bag.toString());
+            for (var card : Card.ALL)
+                assertEquals(cards.countOf(card), bag.countOf(card));
+        }
+    }
+
+    @Test
+    void cardBagOperationsAreEquivalentToSortedBagOnes() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var maxCount = i % 2 == 0 ? 3 : CardBag.MAX_COUNT / 2;
+            var cards1 = randomCards(rng, maxCount);
+            var cards2 = randomCards(rng, maxCount);
+            var bag1 = CardBag.of(cards1);
+            var bag2 = CardBag.of(cards2);
+
+            assertEquals(cards1.contains(cards2), bag1.contains(bag2));
+            assertEquals(cards1.union(cards2), bag1.union(bag2).toSortedBag());
+            assertEquals(cards1.union(cards2).size(), bag1.union(bag2).size());
+            assertEquals(cards1.difference(cards2), bag1.difference(bag2).toSortedBag());
+            assertEquals(cards1.difference(cards2).size(), bag1.difference(bag2).size());
+
+            var card = Card.ALL.get(rng.nextInt(Card.COUNT));
+            assertEquals(cards1.union(SortedBag.of(card)), bag1.with(card).toSortedBag());
+        }
+    }
+
+    @Test
+    void cardBagUnionFailsOnOverflow() {
+        var bag = CardBag.of(CardBag.MAX_COUNT, Card.LOCOMOTIVE);
+
+        assertThrows(IllegalArgumentException.class, () -> bag.union(CardBag.of(1, Card.LOCOMOTIVE)));
+        assertThrows(IllegalArgumentException.class, () -> bag.with(Card.LOCOMOTIVE));
+        assertEquals(CardBag.MAX_COUNT + 1, bag.union(CardBag.of(1, Card.BLACK)).size());
+    }
+
+    @Test
+    void cardBagEqualityDependsOnCountsOnly() {
+        var bag1 = CardBag.of(2, Card.RED, 1, Card.LOCOMOTIVE);
+        var bag2 = CardBag.of(SortedBag.of(1, Card.LOCOMOTIVE, 2, Card.RED));
+
+        assertEquals(bag1, bag2);
+        assertEquals(bag1.hashCode(), bag2.hashCode());
+        assertNotEquals(bag1, CardBag.of(2, Card.RED));
+        assertEquals(CardBag.EMPTY, bag1.difference(bag2));
+    }
+}
@@ -120,6 +120,42 @@ class DeckTest {
         assertEquals(cards, actualCardsBuilder.build());
     }
 
+    @Test
+    void deckOfShufflesLikeCollectionsShuffle() {
+        var cards = listOfSize(110);
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var expected = new ArrayList<>(cards);
+            Collections.shuffle(expected, new Random(i));
+            assertEquals(expected, deckToList(Deck.of(SortedBag.of(cards), new Random(i))));
+        }
+    }
+
+    @Test
+    void deckOfCardBagIsEquivalentToDeckOfSortedBag() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var builder = new SortedBag.Builder<Card>();
+            for (var card : Card.ALL)
+                builder.add(rng.nextInt(15), card);
+            var cards = builder.build();
+            var seed = rng.nextLong();
+
+            assertEquals(deckToList(Deck.of(cards, new Random(seed))),
+                    deckToList(Deck.of(CardBag.of(cards), new Random(seed))));
+        }
+    }
+
+    @Test
+    void deckWithoutTopCardsSharesCardsWithOriginalDeck() {
+        var deck = Deck.of(SortedBag.of(listOfSize(20)), TestRandomizer.newRandom());
+        var list = deckToList(deck);
+        var rest = deck.withoutTopCards(5);
+
+        assertEquals(list.subList(5, 20), deckToList(rest));
+        assertEquals(list, deckToList(deck));
+        assertSame(deck, deck.withoutTopCards(0));
+    }
+
     private static <E extends Comparable<E>> List<E> deckToList(Deck<E> deck) {
         var list = new ArrayList<E>(deck.size());
         while (!deck.isEmpty()) {
@@ -440,6 +440,58 @@ class GameStateTest {
         assertTrue(playersToTest.isEmpty());
     }
 
+    @Test
+    void gameStateZobristKeyIsEqualForTranspositions() {
+        var rng = TestRandomizer.newRandom();
+        var allRoutes = new ArrayList<>(new ChMap().ALL_ROUTES);
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            Collections.shuffle(allRoutes, rng);
+            var gameState = GameState.initial(SortedBag.of(), rng);
+            for (int j = 0; j < 30; j++)
+                gameState = gameState.withBlindlyDrawnCard();
+
+            // Two routes claimed in both orders, with cards of different types
+            var claimable = new ArrayList<Route>();
+            var claimCards = new ArrayList<SortedBag<Card>>();
+            for (var route : allRoutes) {
+                if (claimable.size() < 2 && gameState.currentPlayerState().canClaimRoute(route)
+                        && (claimable.isEmpty() || !claimable.get(0).stations().containsAll(route.stations()))) {
+                    var cards = gameState.currentPlayerState().possibleClaimCards(route).get(0);
+                    if (claimCards.isEmpty() || Collections.disjoint(claimCards.get(0).toSet(), cards.toSet())) {
+                        claimable.add(route);
+                        claimCards.add(cards);
+                    }
+                }
+            }
+            if (claimable.size() < 2)
+                continue;
+
+            var first = gameState.withClaimedRoute(claimable.get(0), claimCards.get(0));
+            var second = gameState.withClaimedRoute(claimable.get(1), claimCards.get(1));
+            var both = first.withClaimedRoute(claimable.get(1), claimCards.get(1));
+            assertNotEquals(first.zobristKey(), second.zobristKey());
+            assertNotEquals(gameState.zobristKey(), first.zobristKey());
+            assertEquals(both.zobristKey(), second.withClaimedRoute(claimable.get(0), claimCards.get(0)).zobristKey());
+            assertEquals(both.zobristKey(), Zobrist.keyOf(both.cardState().faceUpCards(), both.currentPlayerId(),
+                    Map.of(PLAYER_1, both.playerState(PLAYER_1), PLAYER_2, both.playerState(PLAYER_2)),
+                    both.lastPlayer(), both.gameEnded()));
+        }
+    }
+
+    @Test
+    void gameStateZobristKeyIgnoresHiddenCardsAndTickets() {
+        var rng = TestRandomizer.newRandom();
+        var gameState = GameState.initial(SortedBag.of(new ChMap().ALL_TICKETS), rng);
+
+        assertEquals(gameState.zobristKey(), gameState.withoutTopTickets(3).zobristKey());
+        assertEquals(gameState.zobristKey(), gameState.withoutTopCard().zobristKey());
+        assertEquals(gameState.zobristKey(), gameState.withMoreDiscardedCards(SortedBag.of(Card.BLUE)).zobristKey());
+        assertNotEquals(gameState.zobristKey(), gameState.forNextTurn().zobristKey());
+        assertEquals(gameState.zobristKey(), gameState.forNextTurn().forNextTurn().zobristKey());
+        assertNotEquals(gameState.zobristKey(), gameState.gameHasEnded().zobristKey());
+        assertNotEquals(gameState.zobristKey(), gameState.withBlindlyDrawnCard().zobristKey());
+    }
+
     @Test
     void gameStateForNextTurnWorks() {
         var rng = TestRandomizer.newRandom();
@@ -6,6 +6,8 @@ import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -119,6 +121,110 @@ class PlayerStateTest {
         }
     }
 
+    @Test
+    void playerStateCanBeSharedBetweenThreads() throws Exception {
+        var chMap = new ChMap();
+        var rng = TestRandomizer.newRandom();
+        var hands = new ArrayList<SortedBag<Card>>();
+        var states = new ArrayList<PlayerState>();
+        var expected = new ArrayList<List<List<SortedBag<Card>>>>();
+        for (var i = 0; i < 200; i++) {
+            var builder = new SortedBag.Builder<Card>();
+            for (var card : Card.ALL)
+                builder.add(rng.nextInt(4), card);
+            var cards = builder.build();
+            var options = new ArrayList<List<SortedBag<Card>>>();
+            var reference = new PlayerState(SortedBag.of(), cards, List.of());
+            for (var route : chMap.ALL_ROUTES)
+                options.add(reference.possibleClaimCards(route));
+            hands.add(cards);
+            // Drawn then discarded, so that its sorted bag of cards is built lazily as well
+            states.add(new PlayerState(SortedBag.of(), cards, List.of())
+                    .withAddedCard(Card.LOCOMOTIVE)
+                    .withClaimedRoute(chMap.ALL_ROUTES.get(0), SortedBag.of(Card.LOCOMOTIVE)));
+            expected.add(options);
+        }
+
+        // Every thread queries the same states, whose cards and claim indices are built lazily
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var results = new ArrayList<Future<?>>();
+            for (var t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    for (var i = 0; i < states.size(); i++) {
+                        for (var r = 0; r < chMap.ALL_ROUTES.size(); r++)
+                            assertEquals(expected.get(i).get(r), states.get(i).possibleClaimCards(chMap.ALL_ROUTES.get(r)));
+                        assertEquals(hands.get(i), states.get(i).cards());
+                    }
+                }));
+            }
+            for (var result : results)
+                result.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void playerStatePossibleClaimCardsIsEquivalentToFilteringRouteClaimCards() {
+        var chMap = new ChMap();
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < 100; i++) {
+            var builder = new SortedBag.Builder<Card>();
+            for (var card : Card.ALL)
+                builder.add(rng.nextInt(4), card);
+            var cards = builder.build();
+            var playerState = new PlayerState(SortedBag.of(), cards, List.of());
+            var states = List.of(
+                    playerState,
+                    playerState.withAddedTickets(SortedBag.of(chMap.ALL_TICKETS.get(0))),
+                    playerState.withAddedCard(Card.LOCOMOTIVE));
+
+            for (var state : states) {
+                for (var route : chMap.ALL_ROUTES) {
+                    var expected = new ArrayList<SortedBag<Card>>();
+                    for (var claimCards : route.possibleClaimCards())
+                        if (state.cards().contains(claimCards))
+                            expected.add(claimCards);
+
+                    assertEquals(expected, state.possibleClaimCards(route));
+                    assertEquals(!expected.isEmpty(), state.canClaimRoute(route));
+                }
+            }
+        }
+    }
+
+    @Test
+    void playerStateTicketPointsMatchRescoringEveryTicket() {
+        var chMap = new ChMap();
+        var rng = TestRandomizer.newRandom();
+        for (var i = 0; i < 200; i++) {
+            var routes = new ArrayList<>(chMap.ALL_ROUTES);
+            Collections.shuffle(routes, rng);
+            var playerState = new PlayerState(SortedBag.of(), SortedBag.of(), List.of());
+            for (var step = 0; step < 30; step++) {
+                switch (rng.nextInt(3)) {
+                    case 0:
+                        playerState = playerState.withAddedTickets(SortedBag.of(
+                                chMap.ALL_TICKETS.get(rng.nextInt(chMap.ALL_TICKETS.size()))));
+                        break;
+                    case 1:
+                        playerState = playerState.withClaimedRoute(routes.get(step), SortedBag.of());
+                        break;
+                    default:
+                        playerState = playerState.withAddedCard(Card.LOCOMOTIVE);
+                        break;
+                }
+
+                var connectivity = playerState.connectivity();
+                var expected = 0;
+                for (var ticket : playerState.tickets())
+                    expected += ticket.points(connectivity);
+                assertEquals(expected, playerState.ticketPoints());
+            }
+        }
+    }
+
     @Test
     void playerStatePossibleClaimCardsFailsWhenNotEnoughCars() {
         var chMap = new ChMap();
@@ -0,0 +1,388 @@
+package ch.epfl.tchu.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.sim.RandomPlayer;
+import ch.epfl.test.TestRandomizer;
+
+class SimulationStateTest {
+    private static final SortedBag<Ticket> TICKETS = SortedBag.of(ChMap.tickets());
+    private static final int GAME_COUNT = 20;
+
+    // A random player recording, in a trace shared by both players, the decisions it takes and the states of the game
+    private static final class RecordingPlayer implements Player {
+        private final Player player;
+        private final Deque<Object> trace;
+        private final boolean recordsStates;
+
+        private RecordingPlayer(Player player, Deque<Object> trace, boolean recordsStates) {
+            this.player = player;
+            this.trace = trace;
+            this.recordsStates = recordsStates;
+        }
+
+        private <T> T recorded(T decision) {
+            trace.add(decision);
+            return decision;
+        }
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            player.initPlayers(ownId, playerNames);
+        }
+
+        @Override
+        public void receiveInfo(String info) {
+            player.receiveInfo(info);
+        }
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            // Every state is sent to both players, and recorded once
+            if (recordsStates)
+                trace.add(newState);
+            player.updateState(newState, ownState);
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            player.setInitialTicketChoice(tickets);
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            return recorded(player.chooseInitialTickets());
+        }
+
+        @Override
+        public TurnKind nextTurn() {
+            return recorded(player.nextTurn());
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            return recorded(player.chooseTickets(options));
+        }
+
+        @Override
+        public int drawSlot() {
+            return recorded(player.drawSlot());
+        }
+
+        @Override
+        public Route claimedRoute() {
+            return recorded(player.claimedRoute());
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            return recorded(player.initialClaimCards());
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            return recorded(player.chooseAdditionalCards(options));
+        }
+    }
+
+    // The trace of a game of random players played with a generator of the given seed
+    private static Deque<Object> playedGame(long seed) {
+        Deque<Object> trace = new ArrayDeque<>();
+        Random rng = new Random(seed);
+        Map<PlayerId, Player> players = Map.of(
+                PlayerId.PLAYER_1, new RecordingPlayer(new RandomPlayer(new Random(rng.nextLong())), trace, true),
+                PlayerId.PLAYER_2, new RecordingPlayer(new RandomPlayer(new Random(rng.nextLong())), trace, false));
+        Game.play(players, Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles"), TICKETS, rng);
+
+        return trace;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T next(Deque<Object> trace) {
+        return (T) trace.remove();
+    }
+
+    /**
+     * Plays the recorded game again on a simulation state following Game#play, checking the state against the
+     * recorded one every time the players were updated, and going on with the state the given function returns
+     */
+    private static void replay(long seed, BiFunction<GameState, SimulationState, SimulationState> checkpoint) {
+        Deque<Object> trace = playedGame(seed);
+        Random rng = new Random(seed);
+        rng.nextLong();
+        rng.nextLong();
+
+        SimulationState state = SimulationState.initial(TICKETS, rng);
+        for (PlayerId playerId : PlayerId.ALL) {
+            state = checked(trace, state, checkpoint);
+            state.keepInitialTickets(playerId, next(trace));
+        }
+
+        do {
+            state = checked(trace, state, checkpoint);
+            Player.TurnKind turnKind = next(trace);
+            switch (turnKind) {
+                case DRAW_TICKETS:
+                    state.keepAdditionalTickets(next(trace));
+                    break;
+                case DRAW_CARDS:
+                    for (int i = 0; i < 2; i++) {
+                        state = checked(trace, state, checkpoint);
+                        state.drawCard(next(trace), rng);
+                    }
+                    break;
+                case CLAIM_ROUTE:
+                    Route route = next(trace);
+                    SortedBag<Card> initialCards = next(trace);
+                    if (route.level() == Route.Level.OVERGROUND) {
+                        state.claimRoute(route, initialCards);
+                        break;
+                    }
+                    int additionalCardsCount = state.drawAdditionalCards(initialCards.get(0), rng);
+                    if (additionalCardsCount == 0) {
+                        state.claimRoute(route, initialCards);
+                    } else if (!state.possibleAdditionalCards(additionalCardsCount, initialCards).isEmpty()) {
+                        SortedBag<Card> additionalCards = next(trace);
+                        if (!additionalCards.isEmpty())
+                            state.claimRoute(route, initialCards.union(additionalCards));
+                    }
+                    break;
+                default:
+                    throw new Error();
+            }
+        } while (state.endTurn());
+
+        checked(trace, state, checkpoint);
+        assertTrue(trace.isEmpty());
+    }
+
+    private static SimulationState checked(Deque<Object> trace, SimulationState state,
+                                           BiFunction<GameState, SimulationState, SimulationState> checkpoint) {
+        GameState expected = next(trace);
+        assertMatches(expected, state);
+
+        return checkpoint.apply(expected, state);
+    }
+
+    private static void assertMatches(GameState expected, SimulationState actual) {
+        assertEquals(expected.currentPlayerId(), actual.currentPlayerId());
+        assertEquals(expected.lastPlayer(), actual.lastPlayer());
+        assertEquals(expected.gameEnded(), actual.gameEnded());
+        assertEquals(expected.lastTurnBegins(), actual.lastTurnBegins());
+        assertEquals(expected.ticketsCount(), actual.ticketsCount());
+        assertEquals(expected.canDrawTickets(), actual.canDrawTickets());
+        assertEquals(expected.canDrawCards(), actual.canDrawCards());
+        assertEquals(expected.cardState().deckSize(), actual.deckSize());
+        assertEquals(expected.cardState().discardsSize(), actual.discardsSize());
+        for (int slot : Constants.FACE_UP_CARD_SLOTS)
+            assertEquals(expected.cardState().faceUpCard(slot), actual.faceUpCard(slot));
+
+        for (PlayerId playerId : PlayerId.ALL) {
+            PlayerState playerState = expected.playerState(playerId);
+            for (Card card : Card.ALL)
+                assertEquals(playerState.cards().countOf(card), actual.cardCount(playerId, card));
+            assertEquals(playerState.cardCount(), actual.cardCount(playerId));
+            assertEquals(playerState.ticketCount(), actual.ticketCount(playerId));
+            assertEquals(playerState.carCount(), actual.carCount(playerId));
+            assertEquals(playerState.claimPoints(), actual.claimPoints(playerId));
+            assertEquals(playerState.ticketPoints(), actual.ticketPoints(playerId));
+            assertEquals(playerState.finalPoints(), actual.finalPoints(playerId));
+            assertEquals(Trail.longest(playerState.routes()).length(), actual.longestTrailLength(playerId));
+        }
+
+        List<Route> claimedRoutes = expected.claimedRoutes();
+        PlayerState currentPlayerState = expected.currentPlayerState();
+        for (int r = 0; r < ChMap.routes().size(); r++) {
+            Route route = ChMap.routes().get(r);
+            PlayerId owner = null;
+            for (PlayerId playerId : PlayerId.ALL) {
+                if (expected.playerState(playerId).routes().contains(route))
+                    owner = playerId;
+            }
+            assertEquals(owner, actual.routeOwner(r));
+            boolean claimable = claimedRoutes.stream().noneMatch(c -> c.stations().containsAll(route.stations()))
+                    && currentPlayerState.canClaimRoute(route);
+            assertEquals(claimable, actual.canClaimRoute(r));
+        }
+
+        // Both keys are computed incrementally, and equal to the one computed from scratch
+        Map<PlayerId, PlayerState> playerStates = Map.of(PlayerId.PLAYER_1, expected.playerState(PlayerId.PLAYER_1),
+                PlayerId.PLAYER_2, expected.playerState(PlayerId.PLAYER_2));
+        assertEquals(Zobrist.keyOf(expected.cardState().faceUpCards(), expected.currentPlayerId(), playerStates,
+                expected.lastPlayer(), expected.gameEnded()), expected.zobristKey());
+        assertEquals(expected.zobristKey(), actual.zobristKey());
+
+        assertSameGameState(expected, actual.toGameState());
+    }
+
+    private static void assertSameGameState(GameState expected, GameState actual) {
+        assertEquals(expected.currentPlayerId(), actual.currentPlayerId());
+        assertEquals(expected.lastPlayer(), actual.lastPlayer());
+        assertEquals(expected.gameEnded(), actual.gameEnded());
+
+        // The hidden cards and tickets are in the same order
+        assertEquals(expected.ticketsCount(), actual.ticketsCount());
+        for (int i = 0; i < expected.ticketsCount(); i++)
+            assertSame(expected.ticketDeck().card(i), actual.ticketDeck().card(i));
+        CardState expectedCards = expected.privateCardState();
+        CardState actualCards = actual.privateCardState();
+        assertEquals(expectedCards.faceUpCards(), actualCards.faceUpCards());
+        assertEquals(expectedCards.deckSize(), actualCards.deckSize());
+        for (int i = 0; i < expectedCards.deckSize(); i++)
+            assertEquals(expectedCards.deck().card(i), actualCards.deck().card(i));
+        assertEquals(expectedCards.discards(), actualCards.discards());
+
+        for (PlayerId playerId : PlayerId.ALL) {
+            PlayerState expectedPlayer = expected.playerState(playerId);
+            PlayerState actualPlayer = actual.playerState(playerId);
+            assertEquals(expectedPlayer.tickets(), actualPlayer.tickets());
+            assertEquals(expectedPlayer.cards(), actualPlayer.cards());
+            assertEquals(expectedPlayer.routes(), actualPlayer.routes());
+            assertEquals(expectedPlayer.carCount(), actualPlayer.carCount());
+            assertEquals(expectedPlayer.finalPoints(), actualPlayer.finalPoints());
+        }
+    }
+
+    @Test
+    void simulationStateFollowsGamePlayInLockstep() {
+        Random rng = TestRandomizer.newRandom();
+        for (int i = 0; i < GAME_COUNT; i++)
+            replay(rng.nextLong(), (expected, state) -> state);
+    }
+
+    @Test
+    void simulationStateOfGameStateGoesOnLikeTheGame() {
+        Random rng = TestRandomizer.newRandom();
+        for (int i = 0; i < GAME_COUNT; i++)
+            replay(rng.nextLong(), (expected, state) -> SimulationState.of(expected));
+    }
+
+    @Test
+    void simulationStateCopyGoesOnLikeTheOriginal() {
+        Random rng = TestRandomizer.newRandom();
+        SimulationState[] buffers = {SimulationState.initial(SortedBag.of(), rng), SimulationState.initial(TICKETS, rng)};
+        int[] checkpoints = new int[1];
+        for (int i = 0; i < GAME_COUNT; i++) {
+            // Alternating between two states, which are copied into rather than allocated
+            replay(rng.nextLong(), (expected, state) -> {
+                SimulationState copy = buffers[checkpoints[0]++ % buffers.length];
+                copy.copyFrom(state);
+                return copy;
+            });
+        }
+    }
+
+    @Test
+    void simulationStateCopyIsIndependentOfTheOriginal() {
+        Random rng = TestRandomizer.newRandom();
+        SimulationState state = SimulationState.initial(TICKETS, rng);
+        SimulationState copy = state.copy();
+        copy.keepInitialTickets(copy.currentPlayerId(), copy.topTickets(3));
+        copy.drawCard(Constants.DECK_SLOT, rng);
+
+        assertEquals(TICKETS.size(), state.ticketsCount());
+        assertEquals(0, state.ticketCount(state.currentPlayerId()));
+        assertEquals(Constants.INITIAL_CARDS_COUNT, state.cardCount(state.currentPlayerId()));
+        assertNotEquals(state.deckSize(), copy.deckSize());
+    }
+
+    @Test
+    void sampledSimulationStateIsConsistentWithWhatThePlayerKnows() {
+        Random rng = TestRandomizer.newRandom();
+        for (int i = 0; i < GAME_COUNT; i++) {
+            PlayerId ownId = PlayerId.ALL.get(i % PlayerId.COUNT);
+            replay(rng.nextLong(), (expected, state) -> {
+                PlayerState ownState = expected.playerState(ownId);
+                SimulationState sampled = SimulationState.sampled(expected, ownId, ownState, TICKETS,
+                        SortedBag.of(), SortedBag.of(), rng);
+
+                assertEquals(expected.currentPlayerId(), sampled.currentPlayerId());
+                assertEquals(expected.lastPlayer(), sampled.lastPlayer());
+                assertEquals(expected.gameEnded(), sampled.gameEnded());
+                assertEquals(expected.ticketsCount(), sampled.ticketsCount());
+                assertEquals(expected.cardState().deckSize(), sampled.deckSize());
+                assertEquals(expected.cardState().discardsSize(), sampled.discardsSize());
+                for (int slot : Constants.FACE_UP_CARD_SLOTS)
+                    assertEquals(expected.cardState().faceUpCard(slot), sampled.faceUpCard(slot));
+                for (Card card : Card.ALL)
+                    assertEquals(ownState.cards().countOf(card), sampled.cardCount(ownId, card));
+                assertEquals(ownState.ticketPoints(), sampled.ticketPoints(ownId));
+                for (PlayerId playerId : PlayerId.ALL) {
+                    assertEquals(expected.playerState(playerId).cardCount(), sampled.cardCount(playerId));
+                    assertEquals(expected.playerState(playerId).ticketCount(), sampled.ticketCount(playerId));
+                    assertEquals(expected.playerState(playerId).carCount(), sampled.carCount(playerId));
+                    assertEquals(expected.playerState(playerId).claimPoints(), sampled.claimPoints(playerId));
+                }
+                for (int r = 0; r < ChMap.routes().size(); r++)
+                    assertEquals(state.routeOwner(r), sampled.routeOwner(r));
+
+                // The cards are all dealt somewhere
+                GameState sampledState = sampled.toGameState();
+                SortedBag.Builder<Card> allCards = new SortedBag.Builder<>();
+                allCards.add(SortedBag.of(sampledState.cardState().faceUpCards()));
+                for (int c = 0; c < sampled.deckSize(); c++)
+                    allCards.add(sampledState.privateCardState().deck().card(c));
+                for (Card card : Card.ALL)
+                    allCards.add(sampledState.privateCardState().discards().countOf(card), card);
+                for (PlayerId playerId : PlayerId.ALL)
+                    allCards.add(sampledState.playerState(playerId).cards());
+                assertEquals(Constants.ALL_CARDS, allCards.build());
+
+                return state;
+            });
+        }
+    }
+
+    @Test
+    void sampledSimulationStateFailsOnWhatThePlayerCannotKnow() {
+        Random rng = TestRandomizer.newRandom();
+        GameState gameState = GameState.initial(TICKETS, rng);
+        PlayerId ownId = gameState.currentPlayerId();
+        PlayerState ownState = gameState.playerState(ownId);
+        SortedBag<Ticket> topTickets = gameState.topTickets(Constants.IN_GAME_TICKETS_COUNT);
+
+        assertThrows(IllegalArgumentException.class, () -> SimulationState.sampled(gameState, ownId, ownState,
+                TICKETS.difference(topTickets), topTickets, SortedBag.of(), rng));
+        assertThrows(IllegalArgumentException.class, () -> SimulationState.sampled(gameState, ownId, ownState,
+                TICKETS, SortedBag.of(), SortedBag.of(Card.BLUE), rng));
+        assertThrows(IllegalArgumentException.class, () -> SimulationState.sampled(gameState, ownId, ownState,
+                SortedBag.of(), SortedBag.of(), SortedBag.of(), rng));
+    }
+
+    @Test
+    void simulationStateFailsOnMovesGameStateCannotRepresent() {
+        Random rng = TestRandomizer.newRandom();
+        SimulationState state = SimulationState.initial(TICKETS, rng);
+        PlayerId playerId = state.currentPlayerId();
+        Route foreignRoute = new Route("X", ChMap.stations().get(10), ChMap.stations().get(13), 4,
+                Route.Level.OVERGROUND, null);
+
+        assertThrows(IllegalArgumentException.class, () -> SimulationState.routeIndex(foreignRoute));
+        assertThrows(IllegalArgumentException.class, () -> state.keepAdditionalTickets(1 << Constants.IN_GAME_TICKETS_COUNT));
+        SortedBag<Ticket> notDrawnTicket = state.topTickets(Constants.INITIAL_TICKETS_COUNT + 1)
+                .difference(state.topTickets(Constants.INITIAL_TICKETS_COUNT));
+        assertThrows(IllegalArgumentException.class, () -> state.keepInitialTickets(playerId, notDrawnTicket));
+
+        state.keepInitialTickets(playerId, state.topTickets(3));
+        assertThrows(IllegalArgumentException.class, () -> state.keepInitialTickets(playerId, SortedBag.of()));
+
+        Route route = ChMap.routes().get(0);
+        SortedBag<Card> tooManyCards = SortedBag.of(Constants.INITIAL_CARDS_COUNT + 1, Card.LOCOMOTIVE);
+        assertThrows(IllegalArgumentException.class, () -> state.claimRoute(route, tooManyCards));
+        assertThrows(IndexOutOfBoundsException.class, () -> state.drawFaceUpCard(Constants.FACE_UP_CARDS_COUNT));
+    }
+}
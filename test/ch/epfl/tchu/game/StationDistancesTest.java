@@ -0,0 +1,188 @@
+package ch.epfl.tchu.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.test.TestRandomizer;
+
+class StationDistancesTest {
+    private static final List<Station> STATIONS = ChMap.stations();
+    private static final List<Route> ROUTES = ChMap.routes();
+    private static final int N = STATIONS.size();
+    private static final int INFINITY = Integer.MAX_VALUE / 4;
+
+    private static final Station LAU = STATIONS.get(13);
+    private static final Station FRI = STATIONS.get(9);
+    private static final Station BER = STATIONS.get(3);
+
+    // The distances between all stations, computed from scratch with the Floyd-Warshall algorithm
+    private static int[][] floydWarshall(List<Route> owned, List<Route> blocked) {
+        int[][] distances = new int[N][N];
+        for (int[] row : distances)
+            Arrays.fill(row, INFINITY);
+        for (int s = 0; s < N; s++)
+            distances[s][s] = 0;
+        for (Route route : ROUTES) {
+            int s1 = route.station1().id();
+            int s2 = route.station2().id();
+            distances[s1][s2] = distances[s2][s1] = Math.min(distances[s1][s2], route.length());
+        }
+        for (Route route : blocked) {
+            int s1 = route.station1().id();
+            int s2 = route.station2().id();
+            distances[s1][s2] = distances[s2][s1] = INFINITY;
+        }
+        for (Route route : owned) {
+            int s1 = route.station1().id();
+            int s2 = route.station2().id();
+            distances[s1][s2] = distances[s2][s1] = 0;
+        }
+
+        for (int k = 0; k < N; k++) {
+            for (int i = 0; i < N; i++) {
+                for (int j = 0; j < N; j++)
+                    distances[i][j] = Math.min(distances[i][j], distances[i][k] + distances[k][j]);
+            }
+        }
+
+        return distances;
+    }
+
+    private static void assertMatches(int[][] expected, StationDistances distances, List<Route> owned,
+                                      List<Route> blocked) {
+        for (Station from : STATIONS) {
+            for (Station to : STATIONS) {
+                int expectedDistance = expected[from.id()][to.id()];
+                int distance = distances.distance(from, to);
+                assertEquals(expectedDistance >= INFINITY ? StationDistances.UNREACHABLE : expectedDistance, distance);
+
+                List<Route> path = distances.path(from, to);
+                if (from.equals(to) || distance == StationDistances.UNREACHABLE) {
+                    assertTrue(path.isEmpty());
+                    assertNull(distances.nextRoute(from, to));
+                    continue;
+                }
+
+                assertEquals(path.get(0), distances.nextRoute(from, to));
+                Station station = from;
+                int length = 0;
+                for (Route route : path) {
+                    assertTrue(route.stations().contains(station));
+                    assertTrue(!blocked.contains(route) || owned.contains(route));
+                    if (!owned.contains(route))
+                        length += route.length();
+                    station = route.stationOpposite(station);
+                }
+                assertEquals(to, station);
+                assertEquals(distance, length);
+            }
+        }
+    }
+
+    @Test
+    void stationDistancesInitiallyAreShortestRouteLengths() {
+        StationDistances distances = new StationDistances();
+
+        assertEquals(0, distances.distance(LAU, LAU));
+        assertEquals(3, distances.distance(LAU, FRI));
+        assertEquals(1, distances.distance(FRI, BER));
+        assertEquals(4, distances.distance(LAU, BER));
+        assertEquals(List.of(distances.nextRoute(LAU, FRI)), distances.path(LAU, FRI));
+        assertMatches(floydWarshall(List.of(), List.of()), distances, List.of(), List.of());
+    }
+
+    @Test
+    void stationDistancesWorkAfterRandomOwnsAndBlocks() {
+        Random rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 20; i++) {
+            StationDistances distances = new StationDistances();
+            List<Route> routes = new ArrayList<>(ROUTES);
+            Collections.shuffle(routes, rng);
+            List<Route> owned = new ArrayList<>();
+            List<Route> blocked = new ArrayList<>();
+
+            for (Route route : routes.subList(0, 40)) {
+                if (rng.nextBoolean()) {
+                    owned.add(route);
+                    distances.own(route);
+                } else {
+                    blocked.add(route);
+                    distances.block(route);
+                }
+                if ((owned.size() + blocked.size()) % 10 == 0)
+                    assertMatches(floydWarshall(owned, blocked), distances, owned, blocked);
+            }
+            assertMatches(floydWarshall(owned, blocked), distances, owned, blocked);
+        }
+    }
+
+    @Test
+    void stationDistancesNeverBlockOwnedRoutes() {
+        Route route = ROUTES.get(0);
+        StationDistances distances = new StationDistances();
+        distances.own(route);
+        distances.block(route);
+
+        assertEquals(0, distances.distance(route.station1(), route.station2()));
+        assertEquals(route, distances.nextRoute(route.station1(), route.station2()));
+    }
+
+    @Test
+    void stationDistancesOfGameStateOwnsAndBlocksClaimedRoutes() {
+        Random rng = TestRandomizer.newRandom();
+        List<Route> routes = new ArrayList<>(ROUTES);
+        Collections.shuffle(routes, rng);
+        List<Route> owned = routes.subList(0, 15);
+        List<Route> blocked = routes.subList(15, 30);
+
+        Map<PlayerId, PublicPlayerState> playerStates = new EnumMap<>(PlayerId.class);
+        playerStates.put(PlayerId.PLAYER_1, new PublicPlayerState(0, 0, owned));
+        playerStates.put(PlayerId.PLAYER_2, new PublicPlayerState(0, 0, blocked));
+        PublicGameState gameState = new PublicGameState(0, new PublicCardState(Collections.nCopies(5, Card.BLUE), 0, 0),
+                PlayerId.PLAYER_1, playerStates, null, false);
+
+        List<Route> blockedNotOwned = new ArrayList<>(blocked);
+        blockedNotOwned.removeIf(b -> owned.stream().anyMatch(o -> o.stations().containsAll(b.stations())));
+        StationDistances distances = StationDistances.of(gameState, PlayerId.PLAYER_1);
+        assertMatches(floydWarshall(owned, blockedNotOwned), distances, owned, blockedNotOwned);
+    }
+
+    @Test
+    void stationDistancesOfTicketIsTheShortestTrip() {
+        StationDistances distances = new StationDistances();
+        for (Ticket ticket : ChMap.tickets()) {
+            int expected = StationDistances.UNREACHABLE;
+            for (int trip = 0; trip < ticket.tripCount(); trip++) {
+                expected = Math.min(expected, distances.distance(STATIONS.get(ticket.tripFrom(trip)),
+                        STATIONS.get(ticket.tripTo(trip))));
+            }
+            assertEquals(expected, distances.distance(ticket));
+        }
+
+        Route route = ROUTES.get(0);
+        Ticket ticket = new Ticket(route.station1(), route.station2(), 1);
+        distances.own(route);
+        assertEquals(0, distances.distance(ticket));
+    }
+
+    @Test
+    void stationDistancesFailOnForeignRoutes() {
+        Route foreignRoute = new Route("X", STATIONS.get(10), STATIONS.get(13), 4, Route.Level.OVERGROUND, null);
+        StationDistances distances = new StationDistances();
+
+        assertThrows(IllegalArgumentException.class, () -> distances.own(foreignRoute));
+        assertThrows(IllegalArgumentException.class, () -> distances.block(foreignRoute));
+    }
+}
@@ -154,6 +154,49 @@ class StationPartitionTest {
         }
     }
 
+    @Test
+    void stationPartitionWithConnectedIsEquivalentToBuilder() {
+        var stations = new ChMap().ALL_STATIONS;
+
+        Random rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 100; i++) {
+            var connections = new ArrayList<List<Station>>();
+            for (int j = rng.nextInt(40); j > 0; j--)
+                connections.add(List.of(
+                        stations.get(rng.nextInt(stations.size())),
+                        stations.get(rng.nextInt(stations.size()))));
+
+            var partition = StationPartition.of(List.of());
+            for (var c : connections)
+                partition = partition.withConnected(c.get(0), c.get(1));
+
+            var reference = new StationPartition.Builder(stations.size());
+            connections.forEach(c -> reference.connect(c.get(0), c.get(1)));
+            var expected = reference.build();
+
+            for (var s1 : stations)
+                for (var s2 : stations)
+                    assertEquals(expected.connected(s1, s2), partition.connected(s1, s2));
+        }
+    }
+
+    @Test
+    void stationPartitionWithConnectedReusesPartitionOfConnectedStations() {
+        var stations = reducedChStations();
+        var partition = new StationPartition.Builder(stations.size())
+                .connect(stations.get(0), stations.get(1))
+                .connect(stations.get(1), stations.get(2))
+                .build();
+
+        assertSame(partition, partition.withConnected(stations.get(2), stations.get(0)));
+        assertSame(partition, partition.withConnected(stations.get(3), stations.get(3)));
+
+        var extended = partition.withConnected(stations.get(2), stations.get(14));
+        assertNotSame(partition, extended);
+        assertFalse(partition.connected(stations.get(0), stations.get(14)));
+        assertTrue(extended.connected(stations.get(0), stations.get(14)));
+    }
+
     private static List<Station> reducedChStations() {
         return List.of(
                 new Station(0, "Berne"),
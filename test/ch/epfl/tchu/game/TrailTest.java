@@ -1,7 +1,11 @@
 package ch.epfl.tchu.game;
 
+import ch.epfl.test.TestRandomizer;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -335,6 +339,107 @@ class TrailTest {
         assertEquals(28, longestG.length());
     }
 
+    @Test
+    void trailLongestIsEquivalentToBreadthFirstSearchOnRandomRoutes() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            var routes = new ArrayList<>(ChMap.routes());
+            Collections.shuffle(routes, rng);
+            var subset = routes.subList(0, 1 + rng.nextInt(14));
+
+            var longest = Trail.longest(subset);
+            var expected = breadthFirstLongest(subset);
+            assertEquals(expected.get(0).length, longest.length());
+            assertValidTrail(subset, longest);
+            // Ties may be broken differently, but the endpoints must be those of one of the longest trails
+            assertTrue(expected.stream().anyMatch(t ->
+                    t.station1.equals(longest.station1()) && t.station2.equals(longest.station2())));
+        }
+    }
+
+    @Test
+    void trailLongestWorksOnManyRoutes() {
+        var rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 20; i++) {
+            var routes = new ArrayList<>(ChMap.routes());
+            Collections.shuffle(routes, rng);
+            var subset = routes.subList(0, 30);
+
+            var longest = Trail.longest(subset);
+            assertValidTrail(subset, longest);
+            assertTrue(longest.length() >= subset.stream().mapToInt(Route::length).max().orElseThrow());
+        }
+    }
+
+    private static void assertValidTrail(List<Route> routes, Trail trail) {
+        if (trail.routes().isEmpty()) {
+            assertNull(trail.station1());
+            assertNull(trail.station2());
+            assertEquals(0, trail.length());
+            return;
+        }
+
+        // Owned by the player, and disjoint
+        assertTrue(routes.containsAll(trail.routes()));
+        assertEquals(trail.routes().size(), new HashSet<>(trail.routes()).size());
+
+        // Connected from the first station to the second one
+        var station = trail.station1();
+        var length = 0;
+        for (var route : trail.routes()) {
+            assertTrue(route.stations().contains(station), route.id() + " does not start at " + station);
+            station = route.stationOpposite(station);
+            length += route.length();
+        }
+        assertEquals(trail.station2(), station);
+        assertEquals(trail.length(), length);
+    }
+
+    // The breadth-first search previously used by Trail.longest, kept as a reference, returning every longest trail
+    private static List<Partial> breadthFirstLongest(List<Route> routes) {
+        var toExtend = new ArrayList<Partial>();
+        routes.forEach(r -> {
+            toExtend.add(new Partial(r.station1(), r.station2(), List.of(r), r.length()));
+            toExtend.add(new Partial(r.station2(), r.station1(), List.of(r), r.length()));
+        });
+
+        var longest = new ArrayList<Partial>();
+        while (!toExtend.isEmpty()) {
+            var extended = new ArrayList<Partial>();
+            for (var t : toExtend) {
+                if (longest.isEmpty() || t.length > longest.get(0).length)
+                    longest.clear();
+                if (longest.isEmpty() || t.length == longest.get(0).length)
+                    longest.add(t);
+                for (var r : routes) {
+                    if (t.routes.contains(r) || !r.stations().contains(t.station2))
+                        continue;
+                    var updatedRoutes = new ArrayList<>(t.routes);
+                    updatedRoutes.add(r);
+                    extended.add(new Partial(t.station1, r.stationOpposite(t.station2), updatedRoutes,
+                            t.length + r.length()));
+                }
+            }
+            toExtend.clear();
+            toExtend.addAll(extended);
+        }
+        return longest;
+    }
+
+    private static final class Partial {
+        final Station station1;
+        final Station station2;
+        final List<Route> routes;
+        final int length;
+
+        Partial(Station station1, Station station2, List<Route> routes, int length) {
+            this.station1 = station1;
+            this.station2 = station2;
+            this.routes = routes;
+            this.length = length;
+        }
+    }
+
     private static final class ChRoutes {
         // Stations
         final Station BAD = new Station(0, "Baden");
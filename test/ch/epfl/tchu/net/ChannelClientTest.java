@@ -0,0 +1,134 @@
+package ch.epfl.tchu.net;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ChannelClientTest {
+    // A connected pair of channels, the first non-blocking, the second blocking
+    private static SocketChannel[] connectedChannels() throws IOException {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            SocketChannel peer = SocketChannel.open(server.getLocalAddress());
+            SocketChannel accepted = server.accept();
+            accepted.configureBlocking(false);
+            return new SocketChannel[]{accepted, peer};
+        }
+    }
+
+    @Test
+    void channelClientPausesReadingUntilTheGameCatchesUp() throws IOException, InterruptedException {
+        SocketChannel[] channels = connectedChannels();
+        AtomicInteger requests = new AtomicInteger();
+        ChannelClient client = new ChannelClient(channels[0], c -> requests.incrementAndGet());
+        Thread sender = new Thread(() -> {
+            try {
+                channels[1].write(ByteBuffer.allocate(4 * ChannelClient.MAX_RECEIVED_BYTES));
+            } catch (IOException exception) {
+                // Closed by the end of the test
+            }
+        });
+        sender.start();
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        while (!client.readPaused()) {
+            assertTrue(client.read(buffer));
+            Thread.sleep(1);
+        }
+        InputStream input = client.input();
+        assertTrue(input.available() + ChannelClient.MAX_RECEIVED_BYTES <= 2 * ChannelClient.MAX_RECEIVED_BYTES);
+        assertFalse(client.readResumed());
+
+        byte[] bytes = new byte[1 << 16];
+        while (requests.get() == 0)
+            assertTrue(input.read(bytes) > 0);
+        assertFalse(client.readPaused());
+        assertTrue(client.readResumed());
+        assertFalse(client.readResumed());
+
+        channels[1].close();
+        client.close();
+        sender.join();
+    }
+
+    @Test
+    void channelClientMakesTheGameWaitForItsBytesToBeWritten() throws IOException, InterruptedException {
+        SocketChannel[] channels = connectedChannels();
+        ChannelClient client = new ChannelClient(channels[0], c -> {});
+        OutputStream output = client.output();
+        output.write(new byte[ChannelClient.MAX_PENDING_WRITE_BYTES]);
+        output.flush();
+
+        Thread game = new Thread(() -> {
+            try {
+                output.write(1);
+                output.flush();
+            } catch (IOException exception) {
+                throw new AssertionError(exception);
+            }
+        });
+        game.start();
+        game.join(200);
+        assertTrue(game.isAlive());
+
+        Thread peer = new Thread(() -> {
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+                while (channels[1].read(buffer.clear()) >= 0) ;
+            } catch (IOException exception) {
+                // Closed by the end of the test
+            }
+        });
+        peer.start();
+        // The event loop writes the pending bytes while the peer reads them
+        while (game.isAlive()) {
+            client.write();
+            Thread.sleep(1);
+        }
+        while (!client.write())
+            Thread.sleep(1);
+
+        client.close();
+        peer.join();
+        channels[1].close();
+    }
+
+    @Test
+    void channelClientDropsTheBytesOfAClosedClient() throws IOException, InterruptedException {
+        SocketChannel[] channels = connectedChannels();
+        ChannelClient client = new ChannelClient(channels[0], c -> {});
+        OutputStream output = client.output();
+        output.write(new byte[ChannelClient.MAX_PENDING_WRITE_BYTES]);
+        output.flush();
+
+        Thread game = new Thread(() -> {
+            try {
+                output.write(1);
+                output.flush();
+            } catch (IOException exception) {
+                throw new AssertionError(exception);
+            }
+        });
+        game.start();
+        game.join(200);
+        assertTrue(game.isAlive());
+        client.close();
+        game.join(10_000);
+
+        assertFalse(game.isAlive());
+        assertEquals(-1, client.input().read());
+        channels[1].close();
+    }
+}
@@ -0,0 +1,178 @@
+package ch.epfl.tchu.net;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ConnectionTest {
+    // The chunks written to it, one per call to write
+    private static final class RecordingOutputStream extends OutputStream {
+        private final List<String> writes = new ArrayList<>();
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            writes.add(new String(b, off, len, StandardCharsets.US_ASCII));
+        }
+    }
+
+    private static final InputStream NO_INPUT = new ByteArrayInputStream(new byte[0]);
+
+    @Test
+    void postedMessagesAreFlushedWithTheNextRequest() {
+        RecordingOutputStream output = new RecordingOutputStream();
+        Connection connection = new Connection(NO_INPUT, output);
+        connection.setBatching(true);
+
+        connection.message(MessageId.RECEIVE_INFO).with(Serdes.STRING, "a").post();
+        connection.message(MessageId.UPDATE_STATE).with(Serdes.INTEGER, 1).post();
+        assertEquals(List.of(), output.writes);
+
+        connection.message(MessageId.NEXT_TURN).send();
+        assertEquals(List.of("RECEIVE_INFO YQ==\nUPDATE_STATE 1\nNEXT_TURN\n"), output.writes);
+        assertEquals(3, connection.writeCount());
+        assertEquals(1, connection.flushCount());
+    }
+
+    @Test
+    void postedMessagesAreFlushedBeforeReceivingOrClosing() {
+        RecordingOutputStream output = new RecordingOutputStream();
+        Connection connection = new Connection(NO_INPUT, output);
+        connection.setBatching(true);
+
+        connection.message(MessageId.RECEIVE_INFO).with(Serdes.STRING, "a").post();
+        assertNull(connection.receive());
+        assertEquals(List.of("RECEIVE_INFO YQ==\n"), output.writes);
+
+        connection.message(MessageId.RECEIVE_INFO).with(Serdes.STRING, "b").post();
+        connection.close();
+        assertEquals(List.of("RECEIVE_INFO YQ==\n", "RECEIVE_INFO Yg==\n"), output.writes);
+    }
+
+    @Test
+    void postedMessagesAreFlushedAtOnceWithoutBatching() {
+        RecordingOutputStream output = new RecordingOutputStream();
+        Connection connection = new Connection(NO_INPUT, output);
+
+        connection.message(MessageId.RECEIVE_INFO).with(Serdes.STRING, "a").post();
+        connection.message(MessageId.NEXT_TURN).send();
+        assertEquals(List.of("RECEIVE_INFO YQ==\n", "NEXT_TURN\n"), output.writes);
+
+        connection.setBatching(true);
+        connection.message(MessageId.RECEIVE_INFO).with(Serdes.STRING, "b").post();
+        connection.setBatching(false);
+        assertEquals(3, output.writes.size());
+        assertEquals(3, connection.flushCount());
+    }
+
+    @Test
+    void batchedBinaryFramesAreReadBackInOrder() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Connection connection = new Connection(NO_INPUT, output);
+        connection.setProtocol(Protocol.BINARY);
+        connection.setBatching(true);
+        for (int i = 0; i < 10; i++)
+            connection.message(MessageId.UPDATE_STATE).with(Serdes.INTEGER, i).post();
+        connection.message(MessageId.DRAW_SLOT).send();
+
+        Connection reader = new Connection(new ByteArrayInputStream(output.toByteArray()), new ByteArrayOutputStream());
+        reader.setProtocol(Protocol.BINARY);
+        for (int i = 0; i < 10; i++) {
+            Connection.Incoming message = reader.receive();
+            assertEquals(MessageId.UPDATE_STATE, message.id());
+            assertEquals((Integer) i, message.next(Serdes.INTEGER));
+        }
+        assertEquals(MessageId.DRAW_SLOT, reader.receive().id());
+        assertNull(reader.receive());
+    }
+
+    private static Connection binaryConnectionReading(byte[] bytes) {
+        Connection connection = new Connection(new ByteArrayInputStream(bytes), new ByteArrayOutputStream());
+        connection.setProtocol(Protocol.BINARY);
+        return connection;
+    }
+
+    @Test
+    void oversizedBinaryFramesAreRejected() {
+        byte[] header = new BinaryWriter().writeVarInt(Connection.MAX_FRAME_SIZE + 1).toByteArray();
+        assertThrows(UncheckedIOException.class, () -> binaryConnectionReading(header).receive());
+
+        // A varint overflowing an int into a negative length
+        byte[] negative = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        assertThrows(UncheckedIOException.class, () -> binaryConnectionReading(negative).receive());
+    }
+
+    @Test
+    void binaryFrameHeadersLongerThanAnIntAreRejected() {
+        byte[] header = {(byte) 0x81, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x00};
+        assertThrows(UncheckedIOException.class, () -> binaryConnectionReading(header).receive());
+    }
+
+    @Test
+    void binaryFramesOfTheMaximumSizeAreRead() {
+        BinaryWriter writer = new BinaryWriter().writeVarInt(Connection.MAX_FRAME_SIZE);
+        writer.writeVarInt(MessageId.NEXT_TURN.ordinal());
+        for (int i = 1; i < Connection.MAX_FRAME_SIZE; i++)
+            writer.writeVarInt(0);
+
+        assertEquals(MessageId.NEXT_TURN, binaryConnectionReading(writer.toByteArray()).receive().id());
+    }
+
+    @Test
+    void unknownBinaryMessageIdsAreRejected() {
+        byte[] outOfRange = new BinaryWriter().writeVarInt(1).writeVarInt(MessageId.ALL.size()).toByteArray();
+        assertThrows(UncheckedIOException.class, () -> binaryConnectionReading(outOfRange).receive());
+
+        // A varint overflowing an int into a negative id
+        byte[] negative = {0x05, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        assertThrows(UncheckedIOException.class, () -> binaryConnectionReading(negative).receive());
+
+        byte[] empty = new BinaryWriter().writeVarInt(0).toByteArray();
+        assertThrows(UncheckedIOException.class, () -> binaryConnectionReading(empty).receive());
+    }
+
+    @Test
+    void unknownTextMessageIdsAreRejected() {
+        byte[] line = "NOT_A_MESSAGE\n".getBytes(StandardCharsets.US_ASCII);
+        Connection connection = new Connection(new ByteArrayInputStream(line), new ByteArrayOutputStream());
+
+        assertThrows(UncheckedIOException.class, connection::receive);
+    }
+
+    @Test
+    void textLinesLongerThanTheMaximumAreRejected() {
+        byte[] line = new byte[Connection.MAX_LINE_LENGTH + 1];
+        Arrays.fill(line, (byte) 'A');
+        Connection connection = new Connection(new ByteArrayInputStream(line), new ByteArrayOutputStream());
+
+        assertThrows(UncheckedIOException.class, connection::receive);
+    }
+
+    @Test
+    void textLinesOfTheMaximumLengthAreRead() {
+        byte[] line = new byte[Connection.MAX_LINE_LENGTH + 1];
+        byte[] id = MessageId.NEXT_TURN.name().getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(id, 0, line, 0, id.length);
+        Arrays.fill(line, id.length, line.length - 1, (byte) ' ');
+        line[line.length - 1] = '\n';
+        Connection connection = new Connection(new ByteArrayInputStream(line), new ByteArrayOutputStream());
+
+        assertEquals(MessageId.NEXT_TURN, connection.receive().id());
+    }
+}
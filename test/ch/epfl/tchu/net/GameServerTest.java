@@ -0,0 +1,188 @@
+package ch.epfl.tchu.net;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.sim.GameRecord;
+import ch.epfl.tchu.sim.GameRecorder;
+import ch.epfl.tchu.sim.GameReplay;
+import ch.epfl.tchu.sim.RandomPlayer;
+import ch.epfl.test.TestRandomizer;
+
+class GameServerTest {
+    private static void playGames(GameServer server, int gameCount, Protocol clientProtocol) throws InterruptedException {
+        Random rng = TestRandomizer.newRandom();
+        AtomicReference<Throwable> clientFailure = new AtomicReference<>();
+        List<Thread> bots = new ArrayList<>();
+        for (int i = 0; i < 2 * gameCount; i++) {
+            RemotePlayerClient client = new RemotePlayerClient(new RandomPlayer(new Random(rng.nextLong())),
+                    InetAddress.getLoopbackAddress().getHostAddress(), server.port(), clientProtocol);
+            Thread bot = new Thread(client::run);
+            bot.setUncaughtExceptionHandler((t, e) -> clientFailure.set(e));
+            bot.start();
+            bots.add(bot);
+        }
+        for (Thread bot : bots)
+            bot.join();
+        assertNull(clientFailure.get());
+    }
+
+    @Test
+    void gameServerHostsConcurrentGamesUntilTheirEnd() throws InterruptedException {
+        try (GameServer server = new GameServer(0, Protocol.BINARY)) {
+            server.start();
+            playGames(server, 16, Protocol.BINARY);
+
+            assertEquals(16, server.startedGameCount());
+            assertEquals(16, server.completedGameCount());
+            assertEquals(0, server.failedGameCount());
+            assertEquals(0, server.activeGameCount());
+        }
+    }
+
+    @Test
+    void gameServerRecordsGamesThatReplayExactly() throws InterruptedException {
+        List<GameRecord> records = new ArrayList<>();
+        AtomicLong seeds = new AtomicLong(TestRandomizer.SEED);
+        try (GameServer server = new GameServer(0, Protocol.BINARY)) {
+            server.observeGames(playerNames -> new GameRecorder(playerNames, seeds.getAndIncrement(), record -> {
+                synchronized (records) {
+                    records.add(record);
+                }
+            }));
+            server.start();
+            playGames(server, 4, Protocol.BINARY);
+
+            assertEquals(4, server.completedGameCount());
+        }
+
+        assertEquals(4, records.size());
+        for (GameRecord record : records) {
+            assertEquals("", record.failure());
+            assertEquals("", GameReplay.of(GameRecord.fromBytes(record.toBytes())).divergence());
+        }
+    }
+
+    @Test
+    void gameServerFallsBackToTextProtocol() throws InterruptedException {
+        try (GameServer server = new GameServer(0, Protocol.BINARY)) {
+            server.start();
+            playGames(server, 2, Protocol.TEXT);
+
+            assertEquals(2, server.completedGameCount());
+            assertEquals(0, server.failedGameCount());
+        }
+    }
+
+    @Test
+    void gameServerPlaysGamesOnVirtualThreadsOrFallsBack() throws InterruptedException {
+        try (GameServer server = new GameServer(0, Protocol.BINARY, GameServer.ThreadMode.VIRTUAL, 4)) {
+            server.start();
+            playGames(server, 8, Protocol.BINARY);
+
+            GameServer.ThreadMode expected = GameServer.virtualThreadsAvailable()
+                    ? GameServer.ThreadMode.VIRTUAL
+                    : GameServer.ThreadMode.PLATFORM;
+            assertEquals(expected, server.threadMode());
+            assertEquals(8, server.completedGameCount());
+            assertEquals(0, server.failedGameCount());
+        }
+    }
+
+    @Test
+    void gameServerCapsConcurrentGames() throws IOException, InterruptedException {
+        for (GameServer.ThreadMode threadMode : GameServer.ThreadMode.values()) {
+            try (GameServer server = new GameServer(0, Protocol.TEXT, threadMode, 2)) {
+                server.start();
+                // Clients never answering, whose games wait for their initial tickets until they leave
+                List<Socket> sockets = new ArrayList<>();
+                for (int i = 0; i < 2 * 3; i++)
+                    sockets.add(new Socket(InetAddress.getLoopbackAddress(), server.port()));
+                while (server.startedGameCount() + server.queuedGameCount() < 3)
+                    Thread.sleep(10);
+                Thread.sleep(100);
+
+                assertEquals(2, server.activeGameCount());
+                assertEquals(1, server.queuedGameCount());
+
+                sockets.get(0).close();
+                while (server.failedGameCount() == 0)
+                    Thread.sleep(10);
+                while (server.startedGameCount() < 3)
+                    Thread.sleep(10);
+
+                assertEquals(2, server.activeGameCount());
+                assertEquals(0, server.queuedGameCount());
+                for (Socket socket : sockets)
+                    socket.close();
+            }
+        }
+    }
+
+    @Test
+    void gameServerFailsOnNonPositiveGameCap() {
+        assertThrows(IllegalArgumentException.class, ()
+                -> new GameServer(0, Protocol.BINARY, GameServer.ThreadMode.PLATFORM, 0));
+    }
+
+    @Test
+    void gameServerFailsGamesWhoseClientLeaves() throws IOException, InterruptedException {
+        try (GameServer server = new GameServer(0, Protocol.TEXT)) {
+            server.start();
+            Socket leaving = new Socket(InetAddress.getLoopbackAddress(), server.port());
+            Socket opponent = new Socket(InetAddress.getLoopbackAddress(), server.port());
+            while (server.startedGameCount() == 0)
+                Thread.sleep(10);
+            leaving.close();
+            // The opponent receives its messages until the server notices that the other client left
+            while (opponent.getInputStream().read() >= 0) ;
+            opponent.close();
+
+            assertEquals(1, server.startedGameCount());
+            assertEquals(0, server.completedGameCount());
+            assertEquals(1, server.failedGameCount());
+        }
+    }
+
+    @Test
+    void gameServerDoesNotPairClientsLeavingBeforeTheirOpponentArrives() throws IOException, InterruptedException {
+        try (GameServer server = new GameServer(0, Protocol.BINARY)) {
+            server.start();
+            new Socket(InetAddress.getLoopbackAddress(), server.port()).close();
+            // Lets the server notice the client left before the next ones connect
+            Thread.sleep(200);
+            playGames(server, 1, Protocol.BINARY);
+
+            assertEquals(1, server.startedGameCount());
+            assertEquals(1, server.completedGameCount());
+        }
+    }
+
+    @Test
+    void gameServerDisconnectsClientsNotCompletingTheirHandshake() throws IOException, InterruptedException {
+        try (GameServer server = new GameServer(0, Protocol.BINARY, GameServer.ThreadMode.PLATFORM, 4, 200)) {
+            server.start();
+            try (Socket silent = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+                silent.setSoTimeout(10_000);
+                // The client receives the HELLO of the server, then the end of the stream instead of its game
+                while (silent.getInputStream().read() >= 0) ;
+            }
+            playGames(server, 1, Protocol.BINARY);
+
+            assertEquals(1, server.startedGameCount());
+            assertEquals(1, server.completedGameCount());
+        }
+    }
+}
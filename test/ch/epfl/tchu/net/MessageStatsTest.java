@@ -0,0 +1,146 @@
+package ch.epfl.tchu.net;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.sim.RandomPlayer;
+import ch.epfl.test.TestRandomizer;
+
+class MessageStatsTest {
+    @Test
+    void latencyHistogramCountsSmallValuesExactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 20; i++)
+            histogram.record(i);
+
+        assertEquals(20, histogram.count());
+        assertEquals(20, histogram.max());
+        assertEquals(10.5, histogram.mean(), 1e-9);
+        assertEquals(10, histogram.valueAtPercentile(50));
+        assertEquals(20, histogram.valueAtPercentile(100));
+        assertEquals(1, histogram.valueAtPercentile(0));
+    }
+
+    @Test
+    void latencyHistogramPercentilesAreWithinTheirBucket() {
+        Random rng = TestRandomizer.newRandom();
+        for (int i = 0; i < TestRandomizer.RANDOM_ITERATIONS; i++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            long[] values = new long[1 + rng.nextInt(200)];
+            for (int j = 0; j < values.length; j++) {
+                values[j] = (long) Math.pow(2, 40 * rng.nextDouble());
+                histogram.record(values[j]);
+            }
+            Arrays.sort(values);
+
+            for (double percentile : new double[]{1, 50, 90, 99, 100}) {
+                long exact = values[(int) Math.max(0, Math.ceil(percentile / 100 * values.length) - 1)];
+                long measured = histogram.valueAtPercentile(percentile);
+                assertTrue(exact <= measured && measured <= exact + exact / 16 + 1);
+            }
+            assertEquals(values[values.length - 1], histogram.max());
+        }
+    }
+
+    @Test
+    void latencyHistogramAddsTheValuesOfAnother() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LatencyHistogram other = new LatencyHistogram();
+        histogram.record(1_000);
+        other.record(3_000);
+        other.record(Long.MAX_VALUE);
+        histogram.addAll(other);
+
+        assertEquals(3, histogram.count());
+        assertEquals(Long.MAX_VALUE, histogram.max());
+        assertEquals(Long.MAX_VALUE, histogram.valueAtPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.valueAtPercentile(101));
+    }
+
+    @Test
+    void latencyHistogramRecordsConcurrently() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++)
+                    histogram.record(j);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(40_000, histogram.count());
+        assertEquals(9_999, histogram.max());
+    }
+
+    @Test
+    void statsOfBothSidesOfTheGamesMatch() throws InterruptedException {
+        MessageStats clientStats = new MessageStats();
+        List<MessageStats> gameStats = Collections.synchronizedList(new ArrayList<>());
+        try (GameServer server = new GameServer(0, Protocol.EVENTS)) {
+            server.recordStats(gameStats::add);
+            server.start();
+
+            Random rng = TestRandomizer.newRandom();
+            AtomicReference<Throwable> clientFailure = new AtomicReference<>();
+            List<Thread> bots = new ArrayList<>();
+            for (int i = 0; i < 2 * 2; i++) {
+                RemotePlayerClient client = new RemotePlayerClient(new RandomPlayer(new Random(rng.nextLong())),
+                        InetAddress.getLoopbackAddress().getHostAddress(), server.port(), Protocol.EVENTS, clientStats);
+                Thread bot = new Thread(client::run);
+                bot.setUncaughtExceptionHandler((t, e) -> clientFailure.set(e));
+                bot.start();
+                bots.add(bot);
+            }
+            for (Thread bot : bots)
+                bot.join();
+            assertNull(clientFailure.get());
+            while (gameStats.size() < 2)
+                Thread.sleep(10);
+
+            MessageStats serverStats = server.stats();
+            assertTrue(serverStats.sentMessages(MessageId.NEXT_TURN) > 0);
+            for (MessageId messageId : MessageId.ALL) {
+                assertEquals(serverStats.sentMessages(messageId), clientStats.receivedMessages(messageId));
+                assertEquals(serverStats.sentBytes(messageId), clientStats.receivedBytes(messageId));
+                assertEquals(serverStats.receivedMessages(messageId), clientStats.sentMessages(messageId));
+                assertEquals(serverStats.receivedBytes(messageId), clientStats.sentBytes(messageId));
+                assertEquals(gameStats.get(0).sentMessages(messageId) + gameStats.get(1).sentMessages(messageId),
+                        serverStats.sentMessages(messageId));
+            }
+            // Every request is answered, and timed on both sides
+            for (MessageId messageId : List.of(MessageId.HELLO, MessageId.NEXT_TURN, MessageId.CHOOSE_INITIAL_TICKETS)) {
+                long requestCount = serverStats.sentMessages(messageId);
+                assertEquals(requestCount, serverStats.receivedMessages(messageId));
+                assertEquals(requestCount,
+                        serverStats.histogram(MessageStats.Timing.ROUND_TRIP, messageId).count());
+                assertEquals(requestCount, clientStats.histogram(MessageStats.Timing.THINK, messageId).count());
+            }
+            assertEquals(0, serverStats.histogram(MessageStats.Timing.ROUND_TRIP, MessageId.RECEIVE_EVENT).count());
+            // Only the clients answer, and measure the time the server takes to go on
+            assertEquals(0, serverStats.histogram(MessageStats.Timing.RESPONSE).count());
+            assertTrue(clientStats.histogram(MessageStats.Timing.RESPONSE).count() > 0);
+            assertTrue(clientStats.histogram(MessageStats.Timing.RESPONSE).count()
+                    <= clientStats.histogram(MessageStats.Timing.THINK).count());
+            assertEquals(serverStats.sentMessages(MessageId.UPDATE_STATE),
+                    serverStats.histogram(MessageStats.Timing.SERIALIZATION, MessageId.UPDATE_STATE).count());
+            assertTrue(serverStats.toString().contains("NEXT_TURN"));
+        }
+    }
+}
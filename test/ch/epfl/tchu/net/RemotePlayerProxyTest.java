@@ -0,0 +1,248 @@
+package ch.epfl.tchu.net;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.sim.RandomPlayer;
+import ch.epfl.test.TestRandomizer;
+
+class RemotePlayerProxyTest {
+    private static final Map<PlayerId, String> NAMES = Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles");
+    private static final int GAME_COUNT = 3;
+
+    private static final class RecordingPlayer implements Player {
+        private final Player player;
+        private final List<String> infos = new ArrayList<>();
+        // The states received, in the binary protocol whose routes do not depend on the order they were claimed in
+        private final List<String> states = new ArrayList<>();
+
+        private RecordingPlayer(Player player) {
+            this.player = player;
+        }
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            player.initPlayers(ownId, playerNames);
+        }
+
+        @Override
+        public void receiveInfo(String info) {
+            infos.add(info);
+            player.receiveInfo(info);
+        }
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            BinaryWriter writer = new BinaryWriter();
+            Serdes.PUBLIC_GAME_STATE.write(newState, writer);
+            Serdes.PLAYER_STATE.write(ownState, writer);
+            String state = Base64.getEncoder().encodeToString(writer.toByteArray());
+            // Identical successive states are not sent in the delta protocol
+            if (states.isEmpty() || !states.get(states.size() - 1).equals(state))
+                states.add(state);
+            player.updateState(newState, ownState);
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            player.setInitialTicketChoice(tickets);
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            return player.chooseInitialTickets();
+        }
+
+        @Override
+        public TurnKind nextTurn() {
+            return player.nextTurn();
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            return player.chooseTickets(options);
+        }
+
+        @Override
+        public int drawSlot() {
+            return player.drawSlot();
+        }
+
+        @Override
+        public Route claimedRoute() {
+            return player.claimedRoute();
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            return player.initialClaimCards();
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            return player.chooseAdditionalCards(options);
+        }
+    }
+
+    private static final class NetworkGame {
+        private final Map<PlayerId, List<String>> infos = new EnumMap<>(PlayerId.class);
+        private final Map<PlayerId, List<String>> states = new EnumMap<>(PlayerId.class);
+        private final Map<PlayerId, Protocol> protocols = new EnumMap<>(PlayerId.class);
+        private long byteCount;
+    }
+
+    private static Map<PlayerId, RecordingPlayer> randomPlayers(long seed) {
+        Map<PlayerId, RecordingPlayer> players = new EnumMap<>(PlayerId.class);
+        for (PlayerId playerId : PlayerId.ALL)
+            players.put(playerId, new RecordingPlayer(new RandomPlayer(new Random(seed * PlayerId.COUNT + playerId.ordinal()))));
+        return players;
+    }
+
+    private static Map<PlayerId, RecordingPlayer> playLocally(long seed) {
+        Map<PlayerId, RecordingPlayer> players = randomPlayers(seed);
+        Game.play(new EnumMap<>(players), NAMES, SortedBag.of(ChMap.tickets()), new Random(seed));
+        return players;
+    }
+
+    private static NetworkGame playOverNetwork(long seed, Protocol serverProtocol, Protocol clientProtocol)
+            throws IOException, InterruptedException {
+        Map<PlayerId, RecordingPlayer> clientPlayers = randomPlayers(seed);
+        Map<PlayerId, RemotePlayerProxy> proxies = new EnumMap<>(PlayerId.class);
+        List<Socket> sockets = new ArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+        AtomicReference<Throwable> clientFailure = new AtomicReference<>();
+
+        try (ServerSocket serverSocket = new ServerSocket(0, PlayerId.COUNT, InetAddress.getLoopbackAddress())) {
+            for (PlayerId playerId : PlayerId.ALL) {
+                RemotePlayerClient client = new RemotePlayerClient(clientPlayers.get(playerId),
+                        serverSocket.getInetAddress().getHostAddress(), serverSocket.getLocalPort(), clientProtocol);
+                Thread thread = new Thread(client::run);
+                thread.setUncaughtExceptionHandler((t, e) -> clientFailure.set(e));
+                thread.start();
+                clients.add(thread);
+
+                Socket socket = serverSocket.accept();
+                sockets.add(socket);
+                proxies.put(playerId, serverProtocol == Protocol.TEXT
+                        ? new RemotePlayerProxy(socket)
+                        : new RemotePlayerProxy(socket, serverProtocol));
+            }
+
+            Game.play(new EnumMap<>(proxies), NAMES, SortedBag.of(ChMap.tickets()), new Random(seed));
+        } finally {
+            for (Socket socket : sockets)
+                socket.close();
+            for (Thread thread : clients)
+                thread.join();
+        }
+        assertNull(clientFailure.get());
+
+        NetworkGame game = new NetworkGame();
+        for (PlayerId playerId : PlayerId.ALL) {
+            Connection connection = proxies.get(playerId).connection();
+            game.infos.put(playerId, clientPlayers.get(playerId).infos);
+            game.states.put(playerId, clientPlayers.get(playerId).states);
+            game.protocols.put(playerId, connection.protocol());
+            game.byteCount += connection.bytesWritten() + connection.bytesRead();
+        }
+        return game;
+    }
+
+    @Test
+    void gamesOverEveryProtocolAreIdenticalToLocalGames() throws IOException, InterruptedException {
+        Random rng = TestRandomizer.newRandom();
+        for (int i = 0; i < GAME_COUNT; i++) {
+            long seed = rng.nextLong();
+            Map<PlayerId, RecordingPlayer> local = playLocally(seed);
+            NetworkGame text = playOverNetwork(seed, Protocol.TEXT, Protocol.EVENTS);
+            NetworkGame binary = playOverNetwork(seed, Protocol.BINARY, Protocol.EVENTS);
+            NetworkGame delta = playOverNetwork(seed, Protocol.DELTA, Protocol.EVENTS);
+            NetworkGame events = playOverNetwork(seed, Protocol.EVENTS, Protocol.EVENTS);
+            NetworkGame sessions = playOverNetwork(seed, Protocol.SESSIONS, Protocol.SESSIONS);
+
+            for (PlayerId playerId : PlayerId.ALL) {
+                List<String> infos = local.get(playerId).infos;
+                assertFalse(infos.isEmpty());
+                assertEquals(infos, text.infos.get(playerId));
+                assertEquals(infos, binary.infos.get(playerId));
+                assertEquals(infos, delta.infos.get(playerId));
+                assertEquals(infos, events.infos.get(playerId));
+                assertEquals(infos, sessions.infos.get(playerId));
+                assertEquals(Protocol.TEXT, text.protocols.get(playerId));
+                assertEquals(Protocol.BINARY, binary.protocols.get(playerId));
+                assertEquals(Protocol.DELTA, delta.protocols.get(playerId));
+                assertEquals(Protocol.EVENTS, events.protocols.get(playerId));
+                assertEquals(Protocol.SESSIONS, sessions.protocols.get(playerId));
+            }
+            assertTrue(binary.byteCount < text.byteCount);
+            assertTrue(delta.byteCount < binary.byteCount);
+            assertTrue(events.byteCount < delta.byteCount);
+        }
+    }
+
+    @Test
+    void deltaClientsRebuildTheStatesOfTheFullStateProtocol() throws IOException, InterruptedException {
+        Random rng = TestRandomizer.newRandom();
+        for (int i = 0; i < GAME_COUNT; i++) {
+            long seed = rng.nextLong();
+            Map<PlayerId, RecordingPlayer> local = playLocally(seed);
+            NetworkGame binary = playOverNetwork(seed, Protocol.BINARY, Protocol.BINARY);
+            NetworkGame delta = playOverNetwork(seed, Protocol.DELTA, Protocol.DELTA);
+
+            for (PlayerId playerId : PlayerId.ALL) {
+                List<String> states = local.get(playerId).states;
+                assertFalse(states.isEmpty());
+                assertEquals(states, binary.states.get(playerId));
+                assertEquals(states, delta.states.get(playerId));
+            }
+        }
+    }
+
+    @Test
+    void handshakeFallsBackToTextForTextOnlyClients() throws IOException, InterruptedException {
+        long seed = TestRandomizer.SEED;
+        NetworkGame game = playOverNetwork(seed, Protocol.BINARY, Protocol.TEXT);
+
+        for (PlayerId playerId : PlayerId.ALL) {
+            assertEquals(Protocol.TEXT, game.protocols.get(playerId));
+            assertEquals(playLocally(seed).get(playerId).infos, game.infos.get(playerId));
+        }
+    }
+
+    @Test
+    void clientsWithoutEventsReceiveTheirText() throws IOException, InterruptedException {
+        long seed = TestRandomizer.SEED;
+        NetworkGame game = playOverNetwork(seed, Protocol.EVENTS, Protocol.DELTA);
+
+        for (PlayerId playerId : PlayerId.ALL) {
+            assertEquals(Protocol.DELTA, game.protocols.get(playerId));
+            assertEquals(playLocally(seed).get(playerId).infos, game.infos.get(playerId));
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package ch.epfl.tchu.net;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
@@ -10,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import ch.epfl.tchu.SortedBag;
 import ch.epfl.tchu.game.Card;
 import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameEvent;
 import ch.epfl.tchu.game.Player;
 import ch.epfl.tchu.game.PlayerId;
 import ch.epfl.tchu.game.PlayerState;
@@ -18,9 +23,27 @@ import ch.epfl.tchu.game.PublicGameState;
 import ch.epfl.tchu.game.PublicPlayerState;
 import ch.epfl.tchu.game.Route;
 import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.gui.Info;
 
 
 public class SerdeTest {
+  private static <T> T writeAndRead(Serde<T> serde, T toWrite) {
+    BinaryWriter writer = new BinaryWriter();
+    serde.write(toWrite, writer);
+    BinaryReader reader = new BinaryReader(writer.toByteArray());
+    T read = serde.read(reader);
+    assertEquals(0, reader.remaining());
+    return read;
+  }
+
+  private static int binarySize(Serde<?> serde, Object toWrite) {
+    BinaryWriter writer = new BinaryWriter();
+    @SuppressWarnings("unchecked")
+    Serde<Object> objectSerde = (Serde<Object>) serde;
+    objectSerde.write(toWrite, writer);
+    return writer.size();
+  }
+
   @Test
   void integerSerdeWorks() {
     Integer toSerialize = 42;
@@ -28,6 +51,16 @@ public class SerdeTest {
     assertEquals(toSerialize, Serdes.INTEGER.deserialize(Serdes.INTEGER.serialize(toSerialize)));
   }
 
+  @Test
+  void booleanSerdeWorks() {
+    assertEquals("1", Serdes.BOOLEAN.serialize(true));
+    assertEquals("0", Serdes.BOOLEAN.serialize(false));
+    assertEquals(true, Serdes.BOOLEAN.deserialize(Serdes.BOOLEAN.serialize(true)));
+    assertEquals(false, Serdes.BOOLEAN.deserialize(Serdes.BOOLEAN.serialize(false)));
+    assertEquals(true, Serdes.BOOLEAN.deserialize(new TextReader(Serdes.BOOLEAN.serialize(true))));
+    assertThrows(IllegalArgumentException.class, () -> Serdes.BOOLEAN.deserialize("true"));
+  }
+
   @Test
   void stringSerdeWorks() {
     String toSerialize = "Imagine je fonctionne";
@@ -163,4 +196,188 @@ public class SerdeTest {
     assertEquals(gs.currentPlayerId(), deserialized.currentPlayerId());
     assertEquals(gs.lastPlayer(), deserialized.lastPlayer());
   }
-}
\ No newline at end of file
+
+  @Test
+  void varIntsAreWrittenOnAsFewBytesAsPossible() {
+    BinaryWriter writer = new BinaryWriter();
+    writer.writeVarInt(0).writeVarInt(127).writeVarInt(128).writeSignedVarInt(-1).writeVarInt(-1);
+    assertEquals(1 + 1 + 2 + 1 + 5, writer.size());
+    BinaryReader reader = new BinaryReader(writer.toByteArray());
+    assertEquals(0, reader.readVarInt());
+    assertEquals(127, reader.readVarInt());
+    assertEquals(128, reader.readVarInt());
+    assertEquals(-1, reader.readSignedVarInt());
+    assertEquals(-1, reader.readVarInt());
+    assertThrows(IllegalArgumentException.class, reader::readByte);
+  }
+
+  @Test
+  void binaryReaderFailsOnTruncatedString() {
+    BinaryWriter writer = new BinaryWriter();
+    writer.writeString("Imagine je fonctionne");
+    byte[] bytes = writer.toByteArray();
+    assertThrows(IllegalArgumentException.class, () -> new BinaryReader(bytes, 0, bytes.length - 1).readString());
+  }
+
+  @Test
+  void simpleSerdesWriteAndReadBack() {
+    for (int i : new int[]{0, 1, -1, 42, Integer.MIN_VALUE, Integer.MAX_VALUE})
+      assertEquals((Integer) i, writeAndRead(Serdes.INTEGER, i));
+    assertEquals("Imagine je fonctionne ✓", writeAndRead(Serdes.STRING, "Imagine je fonctionne ✓"));
+    assertEquals(true, writeAndRead(Serdes.BOOLEAN, true));
+    assertEquals(false, writeAndRead(Serdes.BOOLEAN, false));
+    assertEquals(PlayerId.PLAYER_2, writeAndRead(Serdes.PLAYER_ID, PlayerId.PLAYER_2));
+    assertNull(writeAndRead(Serdes.PLAYER_ID, null));
+    assertEquals(Card.LOCOMOTIVE, writeAndRead(Serdes.CARD, Card.LOCOMOTIVE));
+    assertEquals(ChMap.routes().get(86), writeAndRead(Serdes.ROUTE, ChMap.routes().get(86)));
+    assertEquals(Protocol.BINARY, writeAndRead(Serdes.PROTOCOL, Protocol.BINARY));
+    assertEquals(1, binarySize(Serdes.ROUTE, ChMap.routes().get(86)));
+  }
+
+  @Test
+  void collectionSerdesWriteAndReadBack() {
+    List<String> strings = List.of("Imagine", "je", "fonctionne", "");
+    assertEquals(strings, writeAndRead(Serdes.STRING_LIST, strings));
+    SortedBag<Card> cards = SortedBag.of(2, Card.RED, 3, Card.LOCOMOTIVE);
+    assertEquals(cards, writeAndRead(Serdes.CARD_SORTED_BAG, cards));
+    assertEquals(1 + 2 * 2, binarySize(Serdes.CARD_SORTED_BAG, cards));
+    SortedBag<Ticket> tickets = SortedBag.of(4, ChMap.tickets().get(7), 7, ChMap.tickets().get(2));
+    assertEquals(tickets, writeAndRead(Serdes.TICKET_SORTED_BAG, tickets));
+    List<SortedBag<Card>> options = List.of(SortedBag.of(2, Card.LOCOMOTIVE, 1, Card.BLACK), SortedBag.of(3, Card.GREEN), SortedBag.of());
+    assertEquals(options, writeAndRead(Serdes.CARD_SORTED_BAG_LIST, options));
+  }
+
+  @Test
+  void routeListIsWrittenInMapOrder() {
+    List<Route> routes = List.of(ChMap.routes().get(14), ChMap.routes().get(7), ChMap.routes().get(17));
+    assertEquals(List.of(ChMap.routes().get(7), ChMap.routes().get(14), ChMap.routes().get(17)), writeAndRead(Serdes.ROUTE_LIST, routes));
+    assertEquals(List.of(), writeAndRead(Serdes.ROUTE_LIST, List.of()));
+    assertEquals(ChMap.routes(), writeAndRead(Serdes.ROUTE_LIST, ChMap.routes()));
+    assertEquals(1 + (ChMap.routes().size() + 7) / 8, binarySize(Serdes.ROUTE_LIST, ChMap.routes()));
+    assertEquals(1 + routes.size(), binarySize(Serdes.ROUTE_LIST, routes));
+    List<Route> manyRoutes = ChMap.routes().subList(20, 60);
+    assertEquals(manyRoutes, writeAndRead(Serdes.ROUTE_LIST, manyRoutes));
+  }
+
+  @Test
+  void stateSerdesWriteAndReadBack() {
+    SortedBag<Ticket> tickets = SortedBag.of(4, ChMap.tickets().get(7), 7, ChMap.tickets().get(2));
+    SortedBag<Card> cards = SortedBag.of(2, Card.RED, 3, Card.LOCOMOTIVE);
+    List<Route> routes = ChMap.routes().subList(3, 9);
+    PlayerState playerState = writeAndRead(Serdes.PLAYER_STATE, new PlayerState(tickets, cards, routes));
+    assertEquals(tickets, playerState.tickets());
+    assertEquals(cards, playerState.cards());
+    assertEquals(routes, playerState.routes());
+
+    List<Card> fu = List.of(Card.RED, Card.WHITE, Card.BLUE, Card.BLACK, Card.RED);
+    Map<PlayerId, PublicPlayerState> ps = Map.of(
+      PlayerId.PLAYER_1, new PublicPlayerState(10, 11, ChMap.routes().subList(0, 2)),
+      PlayerId.PLAYER_2, new PublicPlayerState(20, 21, List.of())
+    );
+    PublicGameState gs = new PublicGameState(40, new PublicCardState(fu, 30, 31), PlayerId.PLAYER_2, ps, PlayerId.PLAYER_1, true);
+    PublicGameState read = writeAndRead(Serdes.PUBLIC_GAME_STATE, gs);
+    assertEquals(gs.ticketsCount(), read.ticketsCount());
+    assertEquals(gs.cardState().faceUpCards(), read.cardState().faceUpCards());
+    assertEquals(gs.cardState().deckSize(), read.cardState().deckSize());
+    assertEquals(gs.cardState().discardsSize(), read.cardState().discardsSize());
+    assertEquals(gs.currentPlayerId(), read.currentPlayerId());
+    for (PlayerId playerId : PlayerId.ALL) {
+      assertEquals(gs.playerState(playerId).ticketCount(), read.playerState(playerId).ticketCount());
+      assertEquals(gs.playerState(playerId).cardCount(), read.playerState(playerId).cardCount());
+      assertEquals(gs.playerState(playerId).routes(), read.playerState(playerId).routes());
+    }
+    assertEquals(gs.lastPlayer(), read.lastPlayer());
+    assertTrue(read.gameEnded());
+    assertTrue(binarySize(Serdes.PUBLIC_GAME_STATE, gs) < Serdes.PUBLIC_GAME_STATE.serialize(gs).length());
+  }
+
+  @Test
+  void textSerdesStreamIntoAndFromASharedBuffer() {
+    List<Card> fu = List.of(Card.RED, Card.WHITE, Card.BLUE, Card.BLACK, Card.RED);
+    Map<PlayerId, PublicPlayerState> ps = Map.of(
+      PlayerId.PLAYER_1, new PublicPlayerState(10, 11, ChMap.routes().subList(0, 2)),
+      PlayerId.PLAYER_2, new PublicPlayerState(20, 21, List.of())
+    );
+    PublicGameState gs = new PublicGameState(40, new PublicCardState(fu, 30, 31), PlayerId.PLAYER_2, ps, null, false);
+    List<SortedBag<Card>> options = List.of(SortedBag.of(), SortedBag.of(2, Card.LOCOMOTIVE, 1, Card.BLACK), SortedBag.of());
+    PlayerState playerState = new PlayerState(SortedBag.of(ChMap.tickets().get(2)), SortedBag.of(), ChMap.routes().subList(3, 5));
+
+    TextWriter writer = new TextWriter();
+    Serdes.INTEGER.serialize(Integer.MIN_VALUE, writer);
+    writer.write(' ');
+    Serdes.STRING.serialize("Imagine je fonctionne ✓", writer);
+    writer.write(' ');
+    Serdes.CARD_SORTED_BAG_LIST.serialize(options, writer);
+    writer.write(' ');
+    Serdes.PUBLIC_GAME_STATE.serialize(gs, writer);
+    writer.write(' ');
+    Serdes.PLAYER_STATE.serialize(playerState, writer);
+    assertEquals(String.join(" ", Serdes.INTEGER.serialize(Integer.MIN_VALUE),
+        Serdes.STRING.serialize("Imagine je fonctionne ✓"), Serdes.CARD_SORTED_BAG_LIST.serialize(options),
+        Serdes.PUBLIC_GAME_STATE.serialize(gs), Serdes.PLAYER_STATE.serialize(playerState)), writer.toString());
+
+    ByteBuffer buffer = ByteBuffer.allocate(writer.size());
+    writer.writeTo(buffer);
+    TextReader reader = new TextReader(buffer.array(), 0, buffer.position());
+    reader.pushDelimiter(" ");
+    assertEquals((Integer) Integer.MIN_VALUE, Serdes.INTEGER.deserialize(reader));
+    reader.expect(" ");
+    assertEquals("Imagine je fonctionne ✓", Serdes.STRING.deserialize(reader));
+    reader.expect(" ");
+    assertEquals(options, Serdes.CARD_SORTED_BAG_LIST.deserialize(reader));
+    reader.expect(" ");
+    assertEquals(Serdes.PUBLIC_GAME_STATE.serialize(gs), Serdes.PUBLIC_GAME_STATE.serialize(Serdes.PUBLIC_GAME_STATE.deserialize(reader)));
+    reader.expect(" ");
+    PlayerState read = Serdes.PLAYER_STATE.deserialize(reader);
+    assertEquals(playerState.tickets(), read.tickets());
+    assertEquals(playerState.cards(), read.cards());
+    assertEquals(playerState.routes(), read.routes());
+    assertEquals(0, reader.remaining());
+  }
+
+  @Test
+  void textReaderReadsIntegersLikeParseInt() {
+    for (String integer : List.of("0", "-1", "+7", "2147483647", "-2147483648"))
+      assertEquals(Integer.parseInt(integer), new TextReader(integer).readInt());
+    for (String notInteger : List.of("", "-", "1a", "2147483648", "-2147483649", "99999999999"))
+      assertThrows(IllegalArgumentException.class, () -> new TextReader(notInteger).readInt());
+    for (int i : new int[]{0, 9, 10, -10, 123456789, Integer.MIN_VALUE, Integer.MAX_VALUE})
+      assertEquals(Integer.toString(i), new TextWriter().writeInt(i).toString());
+  }
+
+  @Test
+  void gameEventSerdeWritesAndReadsEveryKind() {
+    Map<PlayerId, String> names = Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles");
+    Route route = ChMap.routes().get(7);
+    SortedBag<Card> cards = SortedBag.of(2, Card.LOCOMOTIVE, 1, Card.BLUE);
+    List<GameEvent> events = List.of(
+      GameEvent.willPlayFirst(PlayerId.PLAYER_2),
+      GameEvent.keptTickets(PlayerId.PLAYER_1, 3),
+      GameEvent.canPlay(PlayerId.PLAYER_1),
+      GameEvent.drewTickets(PlayerId.PLAYER_2, 3),
+      GameEvent.drewBlindCard(PlayerId.PLAYER_1),
+      GameEvent.drewVisibleCard(PlayerId.PLAYER_2, Card.VIOLET),
+      GameEvent.claimedRoute(PlayerId.PLAYER_1, route, cards),
+      GameEvent.attemptsTunnelClaim(PlayerId.PLAYER_2, route, cards),
+      GameEvent.drewAdditionalCards(PlayerId.PLAYER_2, SortedBag.of(3, Card.RED), 0),
+      GameEvent.didNotClaimRoute(PlayerId.PLAYER_1, route),
+      GameEvent.lastTurnBegins(PlayerId.PLAYER_2, 2),
+      GameEvent.getsLongestTrailBonus(PlayerId.PLAYER_1, ChMap.stations().get(3), ChMap.stations().get(30)),
+      GameEvent.won(PlayerId.PLAYER_2, 120, 98),
+      GameEvent.draw(PlayerId.PLAYER_2, 77)
+    );
+    assertEquals(GameEvent.Kind.ALL.size(), events.size());
+
+    for (GameEvent event : events) {
+      BinaryWriter writer = new BinaryWriter();
+      Serdes.GAME_EVENT.write(event, writer);
+      GameEvent read = Serdes.GAME_EVENT.read(new BinaryReader(writer.toByteArray()));
+      assertEquals(event, read);
+      assertEquals(event, Serdes.GAME_EVENT.deserialize(Serdes.GAME_EVENT.serialize(event)));
+      assertEquals(event.text(names), read.text(names));
+      assertTrue(writer.size() < Serdes.STRING.serialize(event.text(names)).length());
+    }
+    assertEquals(new Info("Ada").claimedRoute(route, cards), events.get(6).text(names));
+    assertEquals(Info.draw(List.of("Charles", "Ada"), 77), events.get(13).text(names));
+  }
+}
@@ -0,0 +1,274 @@
+package ch.epfl.tchu.net;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Closeable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.GameEvent;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.tchu.sim.RandomPlayer;
+import ch.epfl.test.TestRandomizer;
+
+class SessionTest {
+    private static final InetAddress LOOPBACK = InetAddress.getLoopbackAddress();
+
+    // Forwards the connections it accepts to the server, until they are cut
+    private static final class Relay implements Closeable {
+        private final ServerSocket serverSocket;
+        private final int serverPort;
+        private final List<Socket> sockets = new ArrayList<>();
+        private final AtomicInteger connectionCount = new AtomicInteger();
+
+        private Relay(int serverPort) throws IOException {
+            this.serverSocket = new ServerSocket(0, 50, LOOPBACK);
+            this.serverPort = serverPort;
+            Thread acceptor = new Thread(this::acceptAll);
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private void acceptAll() {
+            try {
+                while (true) {
+                    Socket client = serverSocket.accept();
+                    Socket server = new Socket(LOOPBACK, serverPort);
+                    synchronized (sockets) {
+                        sockets.add(client);
+                        sockets.add(server);
+                    }
+                    connectionCount.incrementAndGet();
+                    forward(client, server);
+                    forward(server, client);
+                }
+            } catch (IOException exception) {
+                // The relay is closed
+            }
+        }
+
+        private static void forward(Socket from, Socket to) {
+            Thread forwarder = new Thread(() -> {
+                try (from; to) {
+                    from.getInputStream().transferTo(to.getOutputStream());
+                } catch (IOException ignored) {
+                    // The connection was cut
+                }
+            });
+            forwarder.setDaemon(true);
+            forwarder.start();
+        }
+
+        private int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        // Kills both sides of every connection forwarded so far
+        private void cut() {
+            synchronized (sockets) {
+                for (Socket socket : sockets) {
+                    try {
+                        socket.close();
+                    } catch (IOException ignored) {
+                        // Closed anyway
+                    }
+                }
+                sockets.clear();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            cut();
+        }
+    }
+
+    // A random player recording the events it receives, which cuts the connections of the relay on its given turn
+    private static final class CuttingPlayer implements Player {
+        private final Player player;
+        private final Relay relay;
+        private final int cutTurn;
+        private final List<GameEvent> events = new ArrayList<>();
+        private int turnCount;
+        private int stateCount;
+
+        private CuttingPlayer(Player player, Relay relay, int cutTurn) {
+            this.player = player;
+            this.relay = relay;
+            this.cutTurn = cutTurn;
+        }
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            player.initPlayers(ownId, playerNames);
+        }
+
+        @Override
+        public void receiveInfo(String info) {
+            player.receiveInfo(info);
+        }
+
+        @Override
+        public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+            events.add(event);
+            player.receiveEvent(event, playerNames);
+        }
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            stateCount++;
+            player.updateState(newState, ownState);
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            player.setInitialTicketChoice(tickets);
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            return player.chooseInitialTickets();
+        }
+
+        @Override
+        public TurnKind nextTurn() {
+            // Cut before answering, while the server waits for the reply
+            if (++turnCount == cutTurn)
+                relay.cut();
+            return player.nextTurn();
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            return player.chooseTickets(options);
+        }
+
+        @Override
+        public int drawSlot() {
+            return player.drawSlot();
+        }
+
+        @Override
+        public Route claimedRoute() {
+            return player.claimedRoute();
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            return player.initialClaimCards();
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            return player.chooseAdditionalCards(options);
+        }
+    }
+
+    @Test
+    void clientsResumeTheirGameAfterTheirConnectionIsKilled() throws IOException, InterruptedException {
+        Random rng = TestRandomizer.newRandom();
+        try (GameServer server = new GameServer(0, Protocol.SESSIONS); Relay relay = new Relay(server.port())) {
+            server.start();
+            // The client connected through the relay is killed in the middle of its 5th turn, and in the middle of
+            // the 10th turn of the other, missing the events of that turn
+            CuttingPlayer cut = new CuttingPlayer(new RandomPlayer(new Random(rng.nextLong())), relay, 5);
+            CuttingPlayer other = new CuttingPlayer(new RandomPlayer(new Random(rng.nextLong())), relay, 10);
+            MessageStats cutStats = new MessageStats();
+            AtomicReference<Throwable> clientFailure = new AtomicReference<>();
+            List<Thread> clients = new ArrayList<>();
+            for (RemotePlayerClient client : List.of(
+                    new RemotePlayerClient(cut, LOOPBACK.getHostAddress(), relay.port(), Protocol.SESSIONS, cutStats),
+                    new RemotePlayerClient(other, LOOPBACK.getHostAddress(), server.port()))) {
+                Thread thread = new Thread(client::run);
+                thread.setUncaughtExceptionHandler((t, e) -> clientFailure.set(e));
+                thread.start();
+                clients.add(thread);
+            }
+            for (Thread client : clients)
+                client.join();
+
+            assertNull(clientFailure.get());
+            assertEquals(1, server.completedGameCount());
+            assertEquals(0, server.failedGameCount());
+            assertEquals(3, relay.connectionCount.get());
+            assertEquals(2, cutStats.receivedMessages(MessageId.RESUME));
+            // Every event is received once, those sent while the client was away coming with the snapshot
+            assertEquals(other.events, cut.events);
+            assertTrue(cut.stateCount > 2);
+            // A snapshot is the state of the game and the last events, however long the game has lasted
+            assertTrue(cutStats.receivedBytes(MessageId.RESUME) < 2 * 1_024);
+        }
+    }
+
+    // A connection through a new socket, in the given protocol, and the connection of its other end
+    private static Connection[] connectedPair(Protocol protocol) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, LOOPBACK)) {
+            Connection client = new Connection(new Socket(LOOPBACK, serverSocket.getLocalPort()));
+            Connection server = new Connection(serverSocket.accept());
+            client.setProtocol(protocol);
+            server.setProtocol(protocol);
+            return new Connection[]{server, client};
+        }
+    }
+
+    @Test
+    void clientsResumeTheirGameBeforeTheFirstStateUpdate() throws IOException, InterruptedException {
+        Random rng = TestRandomizer.newRandom();
+        GameState gameState = GameState.initial(SortedBag.of(ChMap.tickets()), rng);
+        SortedBag<Ticket> initialTickets = gameState.topTickets(5);
+        Session session = new Session(TimeUnit.SECONDS.toMillis(10), null);
+        // A connection lost at once, every message sent through it being lost
+        Connection lost = new Connection(new ByteArrayInputStream(new byte[0]), OutputStream.nullOutputStream());
+        lost.setProtocol(Protocol.SESSIONS);
+        RemotePlayerProxy proxy = new RemotePlayerProxy(lost, session);
+
+        CuttingPlayer player = new CuttingPlayer(new RandomPlayer(new Random(rng.nextLong())), null, 0);
+        RemotePlayerClient client = new RemotePlayerClient(player, LOOPBACK.getHostAddress(), 0);
+        Connection[] reconnection = connectedPair(Protocol.SESSIONS);
+        AtomicReference<Throwable> clientFailure = new AtomicReference<>();
+        Thread clientThread = new Thread(() -> client.run(reconnection[1]));
+        clientThread.setUncaughtExceptionHandler((t, e) -> clientFailure.set(e));
+        clientThread.start();
+        session.resume(reconnection[0]);
+
+        proxy.initPlayers(PlayerId.PLAYER_1, Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles"));
+        proxy.setInitialTicketChoice(initialTickets);
+        SortedBag<Ticket> chosenTickets = proxy.chooseInitialTickets();
+        assertTrue(initialTickets.contains(chosenTickets));
+        assertEquals(0, player.stateCount);
+
+        // The deltas sent afterwards start from no state
+        proxy.updateState(gameState, gameState.playerState(PlayerId.PLAYER_1));
+        proxy.connection().close();
+        clientThread.join();
+
+        assertNull(clientFailure.get());
+        assertEquals(1, player.stateCount);
+        assertTrue(player.events.isEmpty());
+    }
+}
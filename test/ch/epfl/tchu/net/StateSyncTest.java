@@ -0,0 +1,130 @@
+package ch.epfl.tchu.net;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.sim.RandomPlayer;
+import ch.epfl.test.TestRandomizer;
+
+class StateSyncTest {
+    private static final Map<PlayerId, String> NAMES = Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles");
+
+    // The arguments of the state updates received by the first player during a game between random players
+    private static List<Object[]> statesOfGame(long seed) {
+        List<Object[]> states = new ArrayList<>();
+        Player player = new RandomPlayer(new Random(seed));
+        Player recordingPlayer = (Player) Proxy.newProxyInstance(Player.class.getClassLoader(),
+                new Class<?>[]{Player.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("updateState"))
+                        states.add(args);
+                    return method.invoke(player, args);
+                });
+        Game.play(Map.of(PlayerId.PLAYER_1, recordingPlayer, PlayerId.PLAYER_2, new RandomPlayer(new Random(~seed))),
+                NAMES, SortedBag.of(ChMap.tickets()), new Random(seed));
+        return states;
+    }
+
+    private static byte[] bytesOf(PublicGameState state, PlayerState ownState) {
+        BinaryWriter writer = new BinaryWriter();
+        Serdes.PUBLIC_GAME_STATE.write(state, writer);
+        Serdes.PLAYER_STATE.write(ownState, writer);
+        return writer.toByteArray();
+    }
+
+    @Test
+    void stateSyncRebuildsEveryStateOfAGame() {
+        Random rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 5; i++) {
+            StateSync server = new StateSync();
+            StateSync client = new StateSync();
+            for (Object[] states : statesOfGame(rng.nextLong())) {
+                PublicGameState state = (PublicGameState) states[0];
+                PlayerState ownState = (PlayerState) states[1];
+                StateDelta delta = server.advance(state, ownState);
+                if (delta != null)
+                    client.apply(StateDelta.SERDE.read(new BinaryReader(binaryOf(delta))));
+
+                assertEquals(server.version(), client.version());
+                assertArrayEquals(bytesOf(state, ownState), bytesOf(client.state(), client.ownState()));
+            }
+        }
+    }
+
+    @Test
+    void stateDeltasAreMuchSmallerThanFullStates() {
+        List<Object[]> states = statesOfGame(TestRandomizer.SEED);
+        StateSync server = new StateSync();
+        int fullSize = 0;
+        int deltaSize = 0;
+        for (Object[] s : states) {
+            PublicGameState state = (PublicGameState) s[0];
+            PlayerState ownState = (PlayerState) s[1];
+            StateDelta delta = server.advance(state, ownState);
+            if (delta != null) {
+                fullSize += bytesOf(state, ownState).length;
+                deltaSize += delta.size();
+            }
+        }
+        assertTrue(deltaSize < fullSize / 2);
+    }
+
+    @Test
+    void stateSyncSkipsUnchangedStates() {
+        Object[] states = statesOfGame(TestRandomizer.SEED).get(0);
+        StateSync server = new StateSync();
+
+        assertNotNull(server.advance((PublicGameState) states[0], (PlayerState) states[1]));
+        assertNull(server.advance((PublicGameState) states[0], (PlayerState) states[1]));
+        assertEquals(1, server.version());
+    }
+
+    @Test
+    void stateSyncFailsOnMissingDelta() {
+        List<Object[]> states = statesOfGame(TestRandomizer.SEED);
+        StateSync server = new StateSync();
+        StateSync client = new StateSync();
+        List<StateDelta> deltas = new ArrayList<>();
+        for (Object[] s : states) {
+            StateDelta delta = server.advance((PublicGameState) s[0], (PlayerState) s[1]);
+            if (delta != null)
+                deltas.add(delta);
+        }
+
+        client.apply(deltas.get(0));
+        assertThrows(IllegalArgumentException.class, () -> client.apply(deltas.get(2)));
+        assertThrows(IllegalArgumentException.class, () -> new StateSync().apply(deltas.get(1)));
+    }
+
+    @Test
+    void stateDeltaTextFormIsItsBinaryFormInBase64() {
+        StateDelta delta = new StateDelta(42, new byte[]{1, 2, 3});
+
+        assertEquals(delta, StateDelta.SERDE.deserialize(StateDelta.SERDE.serialize(delta)));
+        assertEquals(delta, StateDelta.SERDE.read(new BinaryReader(binaryOf(delta))));
+    }
+
+    private static byte[] binaryOf(StateDelta delta) {
+        BinaryWriter writer = new BinaryWriter();
+        StateDelta.SERDE.write(delta, writer);
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,224 @@
+package ch.epfl.tchu.sim;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.Game;
+import ch.epfl.tchu.game.GameEvent;
+import ch.epfl.tchu.game.Player;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.tchu.game.PlayerState;
+import ch.epfl.tchu.game.PublicGameState;
+import ch.epfl.tchu.game.Route;
+import ch.epfl.tchu.game.Ticket;
+import ch.epfl.test.TestRandomizer;
+
+class GameReplayTest {
+    private static final Map<PlayerId, String> NAMES = Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles");
+    private static final SortedBag<Ticket> TICKETS = SortedBag.of(ChMap.tickets());
+
+    // A random player whose turns throw an exception from the given one on
+    private static final class FailingPlayer implements Player {
+        private final Player player;
+        private final int failingTurn;
+        private int turnCount;
+
+        private FailingPlayer(Player player, int failingTurn) {
+            this.player = player;
+            this.failingTurn = failingTurn;
+        }
+
+        @Override
+        public void initPlayers(PlayerId ownId, Map<PlayerId, String> playerNames) {
+            player.initPlayers(ownId, playerNames);
+        }
+
+        @Override
+        public void receiveInfo(String info) {
+            player.receiveInfo(info);
+        }
+
+        @Override
+        public void receiveEvent(GameEvent event, Map<PlayerId, String> playerNames) {
+            player.receiveEvent(event, playerNames);
+        }
+
+        @Override
+        public void updateState(PublicGameState newState, PlayerState ownState) {
+            player.updateState(newState, ownState);
+        }
+
+        @Override
+        public void setInitialTicketChoice(SortedBag<Ticket> tickets) {
+            player.setInitialTicketChoice(tickets);
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseInitialTickets() {
+            return player.chooseInitialTickets();
+        }
+
+        @Override
+        public TurnKind nextTurn() {
+            if (++turnCount >= failingTurn)
+                throw new IllegalStateException("client left");
+            return player.nextTurn();
+        }
+
+        @Override
+        public SortedBag<Ticket> chooseTickets(SortedBag<Ticket> options) {
+            return player.chooseTickets(options);
+        }
+
+        @Override
+        public int drawSlot() {
+            return player.drawSlot();
+        }
+
+        @Override
+        public Route claimedRoute() {
+            return player.claimedRoute();
+        }
+
+        @Override
+        public SortedBag<Card> initialClaimCards() {
+            return player.initialClaimCards();
+        }
+
+        @Override
+        public SortedBag<Card> chooseAdditionalCards(List<SortedBag<Card>> options) {
+            return player.chooseAdditionalCards(options);
+        }
+    }
+
+    // Plays and records a game between the given players
+    private static GameRecord recordedGame(Map<PlayerId, Player> players, long seed) {
+        GameRecorder recorder = new GameRecorder(NAMES, seed);
+        Map<PlayerId, Player> recordingPlayers = Map.of(
+                PlayerId.PLAYER_1, recorder.player(PlayerId.PLAYER_1, players.get(PlayerId.PLAYER_1)),
+                PlayerId.PLAYER_2, recorder.player(PlayerId.PLAYER_2, players.get(PlayerId.PLAYER_2)));
+        RuntimeException failure = null;
+        try {
+            Game.play(recordingPlayers, NAMES, TICKETS, recorder.random());
+        } catch (RuntimeException exception) {
+            failure = exception;
+        }
+        recorder.gameEnded(failure);
+
+        return recorder.record();
+    }
+
+    private static Map<PlayerId, Player> randomPlayers(Random rng) {
+        return Map.of(PlayerId.PLAYER_1, new RandomPlayer(new Random(rng.nextLong())),
+                PlayerId.PLAYER_2, new RandomPlayer(new Random(rng.nextLong())));
+    }
+
+    @Test
+    void gameReplayIsExactForRecordedGames() {
+        Random rng = TestRandomizer.newRandom();
+        for (int i = 0; i < 20; i++) {
+            GameRecord record = GameRecord.fromBytes(recordedGame(randomPlayers(rng), rng.nextLong()).toBytes());
+            GameReplay replay = GameReplay.of(record);
+
+            assertEquals("", replay.divergence());
+            assertTrue(replay.isExact());
+            assertNull(replay.failure());
+            assertEquals("", record.failure());
+            assertNull(record.failedPlayer());
+            assertTrue(record.randomDrawCount() > 0);
+            for (PlayerId playerId : PlayerId.ALL)
+                assertTrue(record.infoCount(playerId) > 0);
+        }
+    }
+
+    @Test
+    void gameRecordIsCompact() {
+        Random rng = TestRandomizer.newRandom();
+        GameRecord record = recordedGame(randomPlayers(rng), rng.nextLong());
+        int infoCount = record.infoCount(PlayerId.PLAYER_1) + record.infoCount(PlayerId.PLAYER_2);
+
+        // The checksums of the information, and a few bytes per decision
+        assertTrue(record.toBytes().length < Integer.BYTES * infoCount + 2_000);
+    }
+
+    @Test
+    void gameRecordSurvivesItsBytes() {
+        Random rng = TestRandomizer.newRandom();
+        GameRecord record = recordedGame(randomPlayers(rng), rng.nextLong());
+        GameRecord read = GameRecord.fromBytes(record.toBytes());
+
+        assertEquals(record.seed(), read.seed());
+        assertEquals(record.playerNames(), read.playerNames());
+        assertEquals(record.randomDrawCount(), read.randomDrawCount());
+        assertArrayEquals(record.toBytes(), read.toBytes());
+        assertThrows(IllegalArgumentException.class, () -> GameRecord.fromBytes(new byte[]{2}));
+        assertThrows(IllegalArgumentException.class, () -> GameRecord.fromBytes(new byte[0]));
+    }
+
+    @Test
+    void gameReplayDivergesFromATamperedRecord() {
+        Random rng = TestRandomizer.newRandom();
+        byte[] bytes = recordedGame(randomPlayers(rng), rng.nextLong()).toBytes();
+        // The last byte of the seed, after the version and the length of the seed
+        bytes[9] ^= 1;
+        GameReplay replay = GameReplay.of(GameRecord.fromBytes(bytes));
+
+        assertFalse(replay.isExact());
+        assertFalse(replay.divergence().isEmpty());
+    }
+
+    @Test
+    void gameReplayDivergesWithOtherPlayerNames() {
+        Random rng = TestRandomizer.newRandom();
+        GameRecord record = recordedGame(randomPlayers(rng), rng.nextLong());
+        Map<PlayerId, String> names = Map.of(PlayerId.PLAYER_1, "Grace", PlayerId.PLAYER_2, "Alan");
+        GameRecord otherNames = new GameRecord(record.seed(), names, record.randomDrawCount(),
+                Map.of(PlayerId.PLAYER_1, record.decisionBytes(PlayerId.PLAYER_1),
+                        PlayerId.PLAYER_2, record.decisionBytes(PlayerId.PLAYER_2)),
+                Map.of(PlayerId.PLAYER_1, checksumsOf(record, PlayerId.PLAYER_1),
+                        PlayerId.PLAYER_2, checksumsOf(record, PlayerId.PLAYER_2)),
+                null, 0, "");
+        GameReplay replay = GameReplay.of(otherNames);
+
+        assertFalse(replay.isExact());
+        assertTrue(replay.divergence().contains("Grace") || replay.divergence().contains("Alan"));
+    }
+
+    @Test
+    void gameReplayReproducesFailedPlayers() {
+        Random rng = TestRandomizer.newRandom();
+        for (int failingTurn = 1; failingTurn < 20; failingTurn += 6) {
+            Map<PlayerId, Player> players = Map.of(PlayerId.PLAYER_1, new RandomPlayer(new Random(rng.nextLong())),
+                    PlayerId.PLAYER_2, new FailingPlayer(new RandomPlayer(new Random(rng.nextLong())), failingTurn));
+            GameRecord record = GameRecord.fromBytes(recordedGame(players, rng.nextLong()).toBytes());
+            GameReplay replay = GameReplay.of(record);
+
+            assertEquals(PlayerId.PLAYER_2, record.failedPlayer());
+            assertEquals(new IllegalStateException("client left").toString(), record.failure());
+            assertEquals("", replay.divergence());
+            assertNotNull(replay.failure());
+        }
+    }
+
+    private static int[] checksumsOf(GameRecord record, PlayerId playerId) {
+        int[] checksums = new int[record.infoCount(playerId)];
+        for (int i = 0; i < checksums.length; i++)
+            checksums[i] = record.infoChecksum(playerId, i);
+
+        return checksums;
+    }
+}
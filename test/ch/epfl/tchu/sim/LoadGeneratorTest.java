@@ -0,0 +1,63 @@
+package ch.epfl.tchu.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.net.GameServer;
+import ch.epfl.tchu.net.MessageId;
+import ch.epfl.tchu.net.MessageStats;
+import ch.epfl.tchu.net.Protocol;
+import ch.epfl.test.TestRandomizer;
+
+class LoadGeneratorTest {
+    private static final String HOST = InetAddress.getLoopbackAddress().getHostAddress();
+
+    @Test
+    void loadGeneratorRampsUpClientsPlayingGames() throws InterruptedException {
+        GameServer server = new GameServer(0, Protocol.EVENTS);
+        server.start();
+        try (LoadGenerator generator = new LoadGenerator(HOST, server.port(), Protocol.EVENTS, RandomPlayer::new,
+                TestRandomizer.SEED)) {
+            LoadReport first = generator.rampTo(2, 1_000);
+            LoadReport second = generator.rampTo(6, 1_000);
+            // The clients still waiting for an opponent are let go
+            server.close();
+
+            assertEquals(2, first.clientCount());
+            assertEquals(6, second.clientCount());
+            assertEquals(6, generator.clientCount());
+            for (LoadReport report : new LoadReport[]{first, second}) {
+                assertTrue(report.gameCount() > 0);
+                assertTrue(report.gamesPerMinute() > 0);
+                assertEquals(0, report.errorCount());
+                assertTrue(report.latency().count() > 0);
+                assertTrue(report.latency().valueAtPercentile(50) <= report.latency().valueAtPercentile(99));
+                assertTrue(report.stats().histogram(MessageStats.Timing.THINK, MessageId.NEXT_TURN).count() > 0);
+            }
+            assertThrows(IllegalArgumentException.class, () -> generator.rampTo(4, 0));
+        }
+    }
+
+    @Test
+    void loadGeneratorCountsTheClientsFailingToConnect() throws Exception {
+        int port;
+        try (ServerSocket unused = new ServerSocket(0)) {
+            port = unused.getLocalPort();
+        }
+        try (LoadGenerator generator = new LoadGenerator(HOST, port, Protocol.EVENTS, RandomPlayer::new,
+                TestRandomizer.SEED)) {
+            LoadReport report = generator.rampTo(2, 300);
+
+            assertEquals(0, report.gameCount());
+            assertTrue(report.errorCount() >= 2);
+            assertEquals(report.errorCount(), report.errors().get("ConnectException"));
+            assertTrue(report.toString().contains("ConnectException"));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ch.epfl.tchu.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.Card;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.GameState;
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.test.TestRandomizer;
+
+class MonteCarloPlayerTest {
+    private static final int ITERATIONS = 100;
+    private static final long MILLIS = 60_000;
+
+    // Plays the searching player as PLAYER_1 against a random one, keeping the searching players it creates
+    private static Simulator.PlayerFactory againstRandom(int parallelism, List<MonteCarloPlayer> players) {
+        return (id, rng) -> {
+            if (id != PlayerId.PLAYER_1)
+                return new RandomPlayer(rng);
+
+            MonteCarloPlayer player = new MonteCarloPlayer(ITERATIONS, MILLIS, parallelism, rng);
+            synchronized (players) {
+                players.add(player);
+            }
+            return player;
+        };
+    }
+
+    @Test
+    void monteCarloPlayerConstructorFailsWithInvalidBudgets() {
+        Random rng = TestRandomizer.newRandom();
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloPlayer(0, MILLIS, 1, rng));
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloPlayer(ITERATIONS, 0, 1, rng));
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloPlayer(ITERATIONS, MILLIS, 0, rng));
+    }
+
+    @Test
+    void monteCarloPlayerBeatsRandomPlayer() {
+        List<MonteCarloPlayer> players = new ArrayList<>();
+        SimulationReport report = new Simulator(againstRandom(1, players), 1).run(Simulator.seeds(TestRandomizer.SEED, 6));
+
+        assertEquals(0, report.failureCount());
+        assertTrue(report.winCount(PlayerId.PLAYER_1) > report.winCount(PlayerId.PLAYER_2));
+        assertTrue(report.averageScore(PlayerId.PLAYER_1) > report.averageScore(PlayerId.PLAYER_2));
+        for (MonteCarloPlayer player : players) {
+            assertTrue(player.iterationCount() >= ITERATIONS);
+            assertTrue(player.searchNanos() > 0);
+            assertTrue(player.iterationsPerSecond() > 0);
+        }
+    }
+
+    @Test
+    void monteCarloPlayerIsDeterministicWithAnIterationBudget() {
+        List<Long> seeds = Simulator.seeds(TestRandomizer.SEED + 1, 1);
+        List<MonteCarloPlayer> players = new ArrayList<>();
+        GameResult first = new Simulator(againstRandom(2, players), 1).run(seeds).results().get(0);
+        GameResult second = new Simulator(againstRandom(2, players), 1).run(seeds).results().get(0);
+
+        assertEquals(first.turnCount(), second.turnCount());
+        for (PlayerId playerId : PlayerId.ALL)
+            assertEquals(first.score(playerId), second.score(playerId));
+        assertEquals(players.get(0).iterationCount(), players.get(1).iterationCount());
+    }
+
+    @Test
+    void monteCarloPlayerHasNoSpeedBeforeSearching() {
+        assertEquals(0, new MonteCarloPlayer(TestRandomizer.newRandom()).iterationsPerSecond());
+    }
+
+    @Test
+    void monteCarloPlayerPaysTheFirstOptionWithoutBeingToldTheAdditionalCards() {
+        // As with the clients of the protocols older than events, which never receive DREW_ADDITIONAL_CARDS
+        Random rng = TestRandomizer.newRandom();
+        GameState gameState = GameState.initial(SortedBag.of(ChMap.tickets()), rng);
+        MonteCarloPlayer player = new MonteCarloPlayer(rng);
+        player.initPlayers(gameState.currentPlayerId(), Map.of(PlayerId.PLAYER_1, "Ada", PlayerId.PLAYER_2, "Charles"));
+        player.updateState(gameState, gameState.currentPlayerState());
+        List<SortedBag<Card>> options = List.of(
+                SortedBag.of(2, Card.BLUE), SortedBag.of(1, Card.BLUE, 1, Card.LOCOMOTIVE));
+
+        assertEquals(options.get(0), player.chooseAdditionalCards(options));
+    }
+}
@@ -0,0 +1,68 @@
+package ch.epfl.tchu.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.game.PlayerId;
+import ch.epfl.test.TestRandomizer;
+
+class SimulatorTest {
+    private static final Simulator.PlayerFactory RANDOM_PLAYERS = (id, rng) -> new RandomPlayer(rng);
+
+    @Test
+    void simulatorConstructorFailsWithInvalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new Simulator(RANDOM_PLAYERS, 0));
+    }
+
+    @Test
+    void simulatorPlaysEveryGameUntilItsEnd() {
+        var seeds = Simulator.seeds(TestRandomizer.SEED, 20);
+        var report = new Simulator(RANDOM_PLAYERS, 4).run(seeds);
+
+        assertEquals(20, report.gameCount());
+        assertEquals(0, report.failureCount());
+        for (var result : report.results()) {
+            assertTrue(result.succeeded());
+            assertTrue(result.turnCount() > 0);
+            assertFalse(result.winners().isEmpty());
+            assertFalse(result.longestTrailWinners().isEmpty());
+            for (var playerId : PlayerId.ALL)
+                assertTrue(result.completedTicketCount(playerId) <= result.ticketCount(playerId));
+        }
+        assertTrue(report.gamesPerSecond() > 0);
+    }
+
+    @Test
+    void simulatorResultsDoNotDependOnParallelism() {
+        var seeds = Simulator.seeds(TestRandomizer.SEED, 16);
+        var sequential = new Simulator(RANDOM_PLAYERS, 1).run(seeds).results();
+        var parallel = new Simulator(RANDOM_PLAYERS, 8).run(seeds).results();
+
+        assertEquals(seeds.size(), parallel.size());
+        for (int i = 0; i < seeds.size(); i++) {
+            assertEquals(seeds.get(i), parallel.get(i).seed());
+            assertEquals(sequential.get(i).turnCount(), parallel.get(i).turnCount());
+            assertEquals(sequential.get(i).longestTrailWinners(), parallel.get(i).longestTrailWinners());
+            for (var playerId : PlayerId.ALL)
+                assertEquals(sequential.get(i).score(playerId), parallel.get(i).score(playerId));
+        }
+    }
+
+    @Test
+    void simulationReportAggregatesResults() {
+        var report = new Simulator(RANDOM_PLAYERS, 2).run(List.of(1L, 2L, 3L, 4L));
+
+        var wins = PlayerId.ALL.stream().mapToInt(report::winCount).sum();
+        assertTrue(4 <= wins && wins <= 8);
+        for (var playerId : PlayerId.ALL) {
+            var rate = report.ticketCompletionRate(playerId);
+            assertTrue(0 <= rate && rate <= 1);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ch.epfl.tchu.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.test.TestRandomizer;
+
+class TournamentTest {
+    private static final int SEED_COUNT = 2;
+
+    private static Map<String, Simulator.PlayerFactory> entrants() {
+        Map<String, Simulator.PlayerFactory> entrants = new LinkedHashMap<>();
+        entrants.put("random", (id, rng) -> new RandomPlayer(rng));
+        entrants.put("random, again", (id, rng) -> new RandomPlayer(rng));
+        entrants.put("mcts", (id, rng) -> new MonteCarloPlayer(20, 60_000, 1, rng));
+
+        return entrants;
+    }
+
+    private static PrintStream silent() {
+        return new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void tournamentConstructorFailsWithInvalidArguments() {
+        var entrants = entrants();
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(Map.of("random", entrants.get("random")), 1));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(entrants, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Tournament(entrants, 1).run(TestRandomizer.SEED, 0, new StringWriter(), silent()));
+    }
+
+    @Test
+    void tournamentPlaysEveryPairingFromBothSeats() {
+        var tournament = new Tournament(entrants(), 2);
+        var csv = new StringWriter();
+        var progress = new ByteArrayOutputStream();
+        var report = tournament.run(TestRandomizer.SEED, SEED_COUNT, csv,
+                new PrintStream(progress, true, StandardCharsets.UTF_8));
+
+        assertEquals(12, tournament.gameCount(SEED_COUNT));
+        assertEquals(12, report.gameCount());
+        assertEquals(0, report.failureCount());
+        for (var name : report.names()) {
+            assertEquals(8, report.gameCount(name));
+            assertEquals(8, report.points(name) + report.points("random", name) + report.points("random, again", name)
+                    + report.points("mcts", name));
+            assertTrue(report.ratingMargin(name) > 0);
+        }
+        for (var name : report.names()) {
+            for (var other : report.names())
+                assertEquals(Double.compare(report.points(name), report.points(other)),
+                        Double.compare(Math.round(report.rating(name)), Math.round(report.rating(other))));
+        }
+        assertEquals(3 * TournamentReport.AVERAGE_RATING,
+                report.rating("random") + report.rating("random, again") + report.rating("mcts"), 1e-6);
+
+        var lines = csv.toString().lines().toArray(String[]::new);
+        assertEquals(Tournament.CSV_HEADER, lines[0]);
+        assertEquals(13, lines.length);
+        Set<String> games = new HashSet<>();
+        for (int i = 1; i < lines.length; i++) {
+            games.add(lines[i].substring(0, lines[i].indexOf(',')));
+            assertTrue(lines[i].contains("\"random, again\"") || lines[i].split(",").length == 8);
+        }
+        assertEquals(12, games.size());
+        assertTrue(progress.toString(StandardCharsets.UTF_8).contains("12/12 games"));
+    }
+
+    @Test
+    void tournamentStandingsDoNotDependOnParallelism() {
+        var sequential = new Tournament(entrants(), 1).run(TestRandomizer.SEED, 1, new StringWriter(), silent());
+        var parallel = new Tournament(entrants(), 3).run(TestRandomizer.SEED, 1, new StringWriter(), silent());
+
+        for (var name : sequential.names()) {
+            assertEquals(sequential.points(name), parallel.points(name));
+            assertEquals(sequential.averageScore(name), parallel.averageScore(name));
+            assertEquals(sequential.rating(name), parallel.rating(name));
+            assertEquals(sequential.ratingMargin(name), parallel.ratingMargin(name));
+        }
+    }
+
+    @Test
+    void tournamentFailsWhenTheCsvFileCannotBeWritten() {
+        var failingCsv = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                throw new IOException();
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        assertThrows(UncheckedIOException.class,
+                () -> new Tournament(entrants(), 1).run(TestRandomizer.SEED, 1, failingCsv, silent()));
+    }
+
+    @Test
+    void tournamentReportRatingsFollowTheBradleyTerryModel() {
+        // 30 wins out of 40 games, and the prior drawn game
+        var report = new TournamentReport(List.of("a", "b"), new double[][]{{0, 30}, {10, 0}},
+                new int[][]{{0, 40}, {40, 0}}, new long[]{4_000, 2_000}, 1, 1_000_000_000);
+
+        assertEquals(400 * Math.log10(30.5 / 10.5), report.rating("a") - report.rating("b"), 1e-6);
+        assertEquals(2 * TournamentReport.AVERAGE_RATING, report.rating("a") + report.rating("b"), 1e-6);
+        assertEquals(report.ratingMargin("a"), report.ratingMargin("b"), 1e-9);
+        // The standard error of the difference of the ratings, 1 / sqrt(n p (1 - p)) in natural units
+        double p = 30.5 / 41;
+        double differenceError = 400 / Math.log(10) / Math.sqrt(41 * p * (1 - p));
+        assertEquals(1.96 * differenceError / 2, report.ratingMargin("a"), 1e-6);
+
+        assertEquals(41, report.gameCount());
+        assertEquals(100, report.averageScore("a"));
+        assertEquals(41, report.gamesPerSecond(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> report.rating("c"));
+    }
+
+    @Test
+    void tournamentProgressShowsSpeedAndTimeLeft() {
+        assertEquals("10/100 games, 2.0 games/s, 0:00:45 left", Tournament.progress(10, 100, 5_000_000_000L));
+        assertEquals("0/100 games, 0.0 games/s, ? left", Tournament.progress(0, 100, 0));
+        assertEquals("7200/10000 games, 1.0 games/s, 0:46:40 left", Tournament.progress(7_200, 10_000, 7_200_000_000_000L));
+    }
+}
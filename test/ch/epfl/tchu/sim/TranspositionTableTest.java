@@ -0,0 +1,111 @@
+package ch.epfl.tchu.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import ch.epfl.tchu.SortedBag;
+import ch.epfl.tchu.game.ChMap;
+import ch.epfl.tchu.game.SimulationState;
+import ch.epfl.test.TestRandomizer;
+
+class TranspositionTableTest {
+    private static final long ABSENT = -1;
+
+    @Test
+    void transpositionTableConstructorFailsWithInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable((1 << 29) + 1));
+    }
+
+    @Test
+    void transpositionTableRoundsCapacityUpToPowerOfTwo() {
+        assertEquals(1, new TranspositionTable(1).capacity());
+        assertEquals(1_024, new TranspositionTable(1_000).capacity());
+        assertEquals(1_024, new TranspositionTable(1_024).capacity());
+    }
+
+    @Test
+    void transpositionTableFindsStoredValues() {
+        TranspositionTable table = new TranspositionTable(1 << 10);
+        SimulationState state = SimulationState.initial(SortedBag.of(ChMap.tickets()), TestRandomizer.newRandom());
+
+        assertEquals(ABSENT, table.get(state.zobristKey(), ABSENT));
+        table.put(state.zobristKey(), 42);
+        assertEquals(42, table.get(state.zobristKey(), ABSENT));
+        table.put(state.zobristKey(), 43);
+        assertEquals(43, table.get(state.zobristKey(), ABSENT));
+        assertEquals(ABSENT, table.get(state.zobristKey() + 1, ABSENT));
+
+        assertEquals(4, table.probeCount());
+        assertEquals(2, table.hitCount());
+        assertEquals(2, table.storeCount());
+        assertEquals(0.5, table.hitRate());
+
+        table.clear();
+        assertEquals(ABSENT, table.get(state.zobristKey(), ABSENT));
+        assertEquals(1, table.probeCount());
+        assertEquals(0, table.hitRate());
+    }
+
+    @Test
+    void transpositionTableReplacesValuesOfKeysSharingAnEntry() {
+        TranspositionTable table = new TranspositionTable(2);
+        long key = 0x1234_5678_0000_0001L;
+        long other = key + (2L << 32);
+        table.put(key, 1);
+        table.put(other, 2);
+
+        assertEquals(ABSENT, table.get(key, ABSENT));
+        assertEquals(2, table.get(other, ABSENT));
+    }
+
+    @Test
+    void transpositionTableIgnoresZeroKey() {
+        TranspositionTable table = new TranspositionTable(16);
+        table.put(0, 0);
+
+        assertEquals(ABSENT, table.get(0, ABSENT));
+        assertEquals(0, table.storeCount());
+    }
+
+    @Test
+    void transpositionTableNeverReturnsTheValueOfAnotherKeyWhenShared() throws InterruptedException {
+        // Few entries for many keys, so that threads keep overwriting the entries the others read
+        TranspositionTable table = new TranspositionTable(64);
+        Random rng = TestRandomizer.newRandom();
+        AtomicInteger wrongValues = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = rng.nextLong();
+            Thread thread = new Thread(() -> {
+                Random threadRng = new Random(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long key = threadRng.nextInt(1_000) * 0x9E37_79B9_7F4A_7C15L;
+                    if (threadRng.nextBoolean()) {
+                        table.put(key, ~key);
+                    } else {
+                        long value = table.get(key, ~key);
+                        if (value != ~key)
+                            wrongValues.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, wrongValues.get());
+        assertTrue(table.hitCount() > 0);
+        assertTrue(table.hitRate() < 1);
+    }
+}